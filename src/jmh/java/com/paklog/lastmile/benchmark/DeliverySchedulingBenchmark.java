@@ -0,0 +1,46 @@
+package com.paklog.lastmile.benchmark;
+
+import com.paklog.lastmile.domain.aggregate.DeliveryRoute;
+import com.paklog.lastmile.domain.aggregate.DeliveryStop;
+import com.paklog.lastmile.domain.aggregate.Vehicle;
+import com.paklog.lastmile.domain.service.DeliverySchedulingService;
+import com.paklog.lastmile.domain.service.RouteOptimizationService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Splitting a day's stops across a fleet, including the per-route optimization it triggers
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeliverySchedulingBenchmark {
+
+    @Param({"500", "2000", "5000"})
+    public int stops;
+
+    @Param({"25", "100"})
+    public int vehicles;
+
+    private DeliverySchedulingService schedulingService;
+    private List<DeliveryStop> stopList;
+    private List<Vehicle> fleet;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticData data = new SyntheticData(SyntheticData.DEFAULT_SEED);
+        schedulingService = new DeliverySchedulingService(new RouteOptimizationService());
+        stopList = data.stops(stops, true);
+        fleet = data.fleet(vehicles);
+    }
+
+    @Benchmark
+    public List<DeliveryRoute> scheduleDeliveries() {
+        return schedulingService.scheduleDeliveries(stopList, fleet);
+    }
+}
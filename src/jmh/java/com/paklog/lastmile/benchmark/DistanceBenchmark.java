@@ -0,0 +1,40 @@
+package com.paklog.lastmile.benchmark;
+
+import com.paklog.lastmile.domain.valueobject.GPSCoordinates;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The haversine kernel every optimizer step bottoms out in
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DistanceBenchmark {
+
+    private static final int POINTS = 1024;
+
+    private GPSCoordinates[] points;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticData data = new SyntheticData(SyntheticData.DEFAULT_SEED);
+        points = new GPSCoordinates[POINTS];
+        for (int i = 0; i < POINTS; i++) {
+            points[i] = data.location();
+        }
+    }
+
+    @Benchmark
+    public double distanceTo() {
+        // Walk consecutive pairs so the JIT cannot fold a constant input
+        int i = index;
+        index = (i + 1) & (POINTS - 1);
+        return points[i].distanceTo(points[index]);
+    }
+}
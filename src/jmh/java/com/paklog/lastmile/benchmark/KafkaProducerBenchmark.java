@@ -0,0 +1,113 @@
+package com.paklog.lastmile.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paklog.lastmile.domain.event.DeliveryCompletedEvent;
+import com.paklog.lastmile.domain.event.DomainEvent;
+import com.paklog.lastmile.infrastructure.kafka.CloudEventFactory;
+import com.paklog.lastmile.infrastructure.kafka.serialization.AvroEventPayloadSerializer;
+import com.paklog.lastmile.infrastructure.kafka.serialization.EventPayloadSerializers;
+import com.paklog.lastmile.infrastructure.kafka.serialization.JsonEventPayloadSerializer;
+import com.paklog.lastmile.infrastructure.kafka.serialization.LocalSchemaRegistry;
+import io.cloudevents.CloudEvent;
+import io.cloudevents.kafka.CloudEventSerializer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Event publishing throughput against an embedded single-node broker, comparing the producer
+ * settings from {@code delivery.kafka.producer.*}. Each operation publishes one event keyed by
+ * route; results are per record.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class KafkaProducerBenchmark {
+
+    private static final String TOPIC = "bench.lastmile.events";
+    private static final int PARTITIONS = 6;
+    private static final int BATCH = 1000;
+    private static final int ROUTES = 200;
+
+    @Param({"0", "10"})
+    public int lingerMs;
+
+    @Param({"none", "lz4"})
+    public String compressionType;
+
+    @Param({"application/avro", "application/json"})
+    public String contentType;
+
+    private EmbeddedKafkaKraftBroker broker;
+    private DefaultKafkaProducerFactory<String, CloudEvent> producerFactory;
+    private KafkaTemplate<String, CloudEvent> kafkaTemplate;
+    private CloudEventFactory cloudEventFactory;
+    private DomainEvent[] events;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        broker = new EmbeddedKafkaKraftBroker(1, PARTITIONS, TOPIC);
+        broker.afterPropertiesSet();
+
+        // Mirrors KafkaConfig.producerFactory
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, CloudEventSerializer.class);
+        config.put(ProducerConfig.ACKS_CONFIG, "all");
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        config.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        config.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        config.put(ProducerConfig.BATCH_SIZE_CONFIG, 65536);
+        config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+        producerFactory = new DefaultKafkaProducerFactory<>(config);
+        kafkaTemplate = new KafkaTemplate<>(producerFactory);
+
+        EventPayloadSerializers serializers = new EventPayloadSerializers(List.of(
+            new AvroEventPayloadSerializer(new LocalSchemaRegistry()),
+            new JsonEventPayloadSerializer(new ObjectMapper().findAndRegisterModules())), contentType);
+        cloudEventFactory = new CloudEventFactory(serializers);
+
+        events = new DomainEvent[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            events[i] = DeliveryCompletedEvent.builder()
+                .routeId("ROUTE-" + (i % ROUTES))
+                .stopId("STOP-" + i)
+                .customerId("CUST-" + i)
+                .completedAt(Instant.now())
+                .attemptNumber(1)
+                .build();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        producerFactory.destroy();
+        broker.destroy();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void publish() {
+        CompletableFuture<?>[] sends = new CompletableFuture<?>[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            DomainEvent event = events[i];
+            sends[i] = kafkaTemplate.send(TOPIC, event.getAggregateId(), cloudEventFactory.create(event));
+        }
+        // Wait for every acknowledgement so the number reflects delivered, not just buffered, records
+        CompletableFuture.allOf(sends).join();
+    }
+}
@@ -0,0 +1,109 @@
+package com.paklog.lastmile.benchmark;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-operation latency histograms and error counts for the load and simulation harnesses.
+ * Latencies are recorded in microseconds and reported in milliseconds.
+ */
+public final class LatencyStats<K extends Enum<K>> {
+
+    private final Class<K> operations;
+    private final Map<K, Recorder> latencies;
+    private final Map<K, LongAdder> errors;
+
+    public LatencyStats(Class<K> operations) {
+        this.operations = operations;
+        this.latencies = new EnumMap<>(operations);
+        this.errors = new EnumMap<>(operations);
+        for (K operation : operations.getEnumConstants()) {
+            latencies.put(operation, new Recorder(3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    public void recordNanos(K operation, long nanos) {
+        latencies.get(operation).recordValue(nanos / 1_000);
+    }
+
+    public void error(K operation) {
+        errors.get(operation).increment();
+    }
+
+    public void reset() {
+        latencies.values().forEach(Recorder::reset);
+        errors.values().forEach(LongAdder::reset);
+    }
+
+    /**
+     * Prints a table and writes {@code summary.csv} plus one {@code .hgrm} distribution per
+     * operation into {@code outDir}; throughput is relative to {@code measured}
+     *
+     * @return the reported distribution per operation
+     */
+    public Map<K, Histogram> report(Duration measured, Path outDir) throws IOException {
+        Files.createDirectories(outDir);
+        double seconds = measured.toNanos() / 1e9;
+        Histogram total = new Histogram(3);
+        long totalErrors = 0;
+        Map<K, Histogram> reported = new EnumMap<>(operations);
+
+        StringBuilder summary = new StringBuilder(
+            "operation,count,errors,throughput_per_s,p50_ms,p90_ms,p99_ms,p999_ms,max_ms\n");
+        System.out.printf("%n%-18s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+            "operation", "count", "errors", "ops/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+
+        for (K operation : operations.getEnumConstants()) {
+            String name = operation.name().toLowerCase(Locale.ROOT);
+            Histogram histogram = latencies.get(operation).getIntervalHistogram();
+            reported.put(operation, histogram);
+            long errorCount = errors.get(operation).sum();
+            total.add(histogram);
+            totalErrors += errorCount;
+
+            summary.append(row(name, histogram, errorCount, seconds)).append('\n');
+            System.out.println(row(name, histogram, errorCount, seconds).replace(',', ' '));
+            writeDistribution(outDir.resolve(name + ".hgrm"), histogram);
+        }
+
+        summary.append(row("total", total, totalErrors, seconds)).append('\n');
+        System.out.println(row("total", total, totalErrors, seconds).replace(',', ' '));
+        writeDistribution(outDir.resolve("total.hgrm"), total);
+
+        Files.writeString(outDir.resolve("summary.csv"), summary);
+        System.out.println("Wrote latency distributions to " + outDir.toAbsolutePath());
+        return reported;
+    }
+
+    private static String row(String name, Histogram histogram, long errorCount, double seconds) {
+        return String.format(Locale.ROOT, "%s,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f",
+            name, histogram.getTotalCount(), errorCount, histogram.getTotalCount() / seconds,
+            millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+            millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+            millis(histogram.getMaxValue()));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static void writeDistribution(Path file, Histogram histogram) {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            histogram.outputPercentileDistribution(out, 1000.0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.paklog.lastmile.benchmark;
+
+import com.paklog.lastmile.domain.aggregate.DeliveryRoute;
+import com.paklog.lastmile.domain.aggregate.DeliveryStop;
+import com.paklog.lastmile.domain.aggregate.Vehicle;
+import com.paklog.lastmile.domain.service.RouteOptimizationService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Nearest neighbour plus 2-opt on a single route. The 1000 stop case is slow by design; select
+ * sizes with {@code -p stops=10,50}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RouteOptimizationBenchmark {
+
+    @Param({"10", "50", "200", "1000"})
+    public int stops;
+
+    @Param({"true", "false"})
+    public boolean timeWindows;
+
+    private RouteOptimizationService optimizationService;
+    private List<DeliveryStop> stopList;
+    private Vehicle vehicle;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticData data = new SyntheticData(SyntheticData.DEFAULT_SEED);
+        optimizationService = new RouteOptimizationService();
+        stopList = data.stops(stops, timeWindows);
+        vehicle = data.fleet(1).get(0);
+    }
+
+    @Benchmark
+    public DeliveryRoute optimizeRoute() {
+        // A fresh route per call; optimizing records events on the aggregate
+        return optimizationService.optimizeRoute(SyntheticData.route(stopList), vehicle);
+    }
+}
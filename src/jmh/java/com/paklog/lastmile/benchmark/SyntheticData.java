@@ -0,0 +1,100 @@
+package com.paklog.lastmile.benchmark;
+
+import com.paklog.lastmile.domain.aggregate.DeliveryRoute;
+import com.paklog.lastmile.domain.aggregate.DeliveryStop;
+import com.paklog.lastmile.domain.aggregate.Vehicle;
+import com.paklog.lastmile.domain.valueobject.DeliveryWindow;
+import com.paklog.lastmile.domain.valueobject.GPSCoordinates;
+import com.paklog.lastmile.domain.valueobject.StopType;
+import com.paklog.lastmile.domain.valueobject.VehicleType;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeded generator for a city-sized delivery area, so every run and every fork sees the same instance
+ */
+public final class SyntheticData {
+
+    public static final long DEFAULT_SEED = 42L;
+
+    // Stops are spread over roughly 30 x 30 km around the depot
+    public static final GPSCoordinates DEPOT = new GPSCoordinates(52.5200, 13.4050);
+    private static final double SPREAD_DEGREES = 0.14;
+
+    private final Random random;
+    private final Instant dayStart;
+
+    public SyntheticData(long seed) {
+        this.random = new Random(seed);
+        // Windows are anchored to now because the optimizer checks feasibility against the clock
+        this.dayStart = Instant.now().truncatedTo(ChronoUnit.MINUTES);
+    }
+
+    public List<DeliveryStop> stops(int count, boolean timeWindows) {
+        List<DeliveryStop> stops = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            stops.add(stop("STOP-" + i, timeWindows));
+        }
+        return stops;
+    }
+
+    public DeliveryStop stop(String stopId, boolean timeWindow) {
+        return DeliveryStop.builder()
+            .stopId(stopId)
+            .type(StopType.DELIVERY)
+            .customerId("CUST-" + random.nextInt(100_000))
+            .coordinates(location())
+            .window(timeWindow ? window() : null)
+            .estimatedDurationMinutes(3 + random.nextInt(8))
+            .packageIds(List.of("PKG-" + stopId))
+            .totalWeightKg(1 + random.nextInt(20))
+            .build();
+    }
+
+    public List<Vehicle> fleet(int count) {
+        VehicleType[] types = {VehicleType.VAN, VehicleType.CARGO_VAN, VehicleType.TRUCK};
+        List<Vehicle> vehicles = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            vehicles.add(Vehicle.builder()
+                .id("VEH-" + i)
+                .vehicleNumber("V" + i)
+                .type(types[i % types.length])
+                .driverId("DRV-" + i)
+                .homeBase(DEPOT)
+                .currentLocation(DEPOT)
+                .available(true)
+                .active(true)
+                .build());
+        }
+        return vehicles;
+    }
+
+    public static DeliveryRoute route(List<DeliveryStop> stops) {
+        return DeliveryRoute.builder()
+            .id("ROUTE-BENCH")
+            .routeNumber("ROUTE-BENCH")
+            .vehicleId("VEH-0")
+            .driverId("DRV-0")
+            .stops(new ArrayList<>(stops))
+            .plannedStartTime(Instant.now())
+            .startLocation(DEPOT)
+            .currentLocation(DEPOT)
+            .build();
+    }
+
+    public GPSCoordinates location() {
+        return new GPSCoordinates(
+            DEPOT.getLatitude() + (random.nextDouble() * 2 - 1) * SPREAD_DEGREES,
+            DEPOT.getLongitude() + (random.nextDouble() * 2 - 1) * SPREAD_DEGREES);
+    }
+
+    private DeliveryWindow window() {
+        // Two to four hour windows starting at some point in a ten hour day
+        Instant start = dayStart.plus(random.nextInt(8 * 60), ChronoUnit.MINUTES);
+        return new DeliveryWindow(start, start.plus(120 + random.nextInt(121), ChronoUnit.MINUTES));
+    }
+}
@@ -0,0 +1,41 @@
+package com.paklog.lastmile.benchmark;
+
+import com.paklog.lastmile.domain.aggregate.DeliveryRoute;
+import com.paklog.lastmile.domain.aggregate.DeliveryStop;
+import com.paklog.lastmile.domain.service.RouteOptimizationService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserting an urgent stop into a route that is already under way
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UrgentStopInsertionBenchmark {
+
+    @Param({"10", "50", "200"})
+    public int stops;
+
+    private RouteOptimizationService optimizationService;
+    private List<DeliveryStop> stopList;
+    private DeliveryStop urgentStop;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticData data = new SyntheticData(SyntheticData.DEFAULT_SEED);
+        optimizationService = new RouteOptimizationService();
+        stopList = data.stops(stops, true);
+        urgentStop = data.stop("STOP-URGENT", true);
+    }
+
+    @Benchmark
+    public DeliveryRoute insertUrgentStop() {
+        return optimizationService.insertUrgentStop(SyntheticData.route(stopList), urgentStop);
+    }
+}
@@ -0,0 +1,198 @@
+package com.paklog.lastmile.benchmark.dispatch;
+
+import com.paklog.lastmile.LastMileDeliveryApplication;
+import com.paklog.lastmile.application.command.DispatchUrgentStopCommand;
+import com.paklog.lastmile.application.port.in.UrgentDispatchUseCase;
+import com.paklog.lastmile.application.result.UrgentDispatchResult;
+import com.paklog.lastmile.application.result.UrgentDispatchResult.Outcome;
+import com.paklog.lastmile.benchmark.SyntheticData;
+import com.paklog.lastmile.domain.aggregate.DeliveryRoute;
+import com.paklog.lastmile.domain.aggregate.DeliveryStop;
+import com.paklog.lastmile.domain.repository.DeliveryRouteRepository;
+import com.paklog.lastmile.domain.valueobject.RouteStatus;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Dispatches urgent stops against a fleet of {@code --routes} running routes of {@code --stops}
+ * stops each, in-process on the {@code perf} profile. After {@code --warmup} unmeasured dispatches,
+ * {@code --dispatches} more are issued from {@code --concurrency} threads at once, so some land
+ * on routes another dispatch just changed. Reports dispatch latency percentiles and outcomes, then
+ * checks that every dispatched stop is on the route it was reported on, exactly once. Exits with
+ * status 1 if that check fails or the 99th percentile exceeds {@code --max-p99-ms}.
+ *
+ * <pre>
+ * mvn -Pbenchmarks compile exec:java@dispatch [-Ddispatch.args="--routes 1000 --concurrency 8"]
+ * </pre>
+ *
+ * Options: {@code --routes}, {@code --stops}, {@code --warmup}, {@code --dispatches},
+ * {@code --concurrency} and {@code --max-p99-ms}.
+ */
+public final class UrgentDispatchLoad {
+
+    private UrgentDispatchLoad() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        int routeCount = Integer.parseInt(options.getOrDefault("routes", "1000"));
+        int stopsPerRoute = Integer.parseInt(options.getOrDefault("stops", "30"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "500"));
+        int dispatches = Integer.parseInt(options.getOrDefault("dispatches", "2000"));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "4"));
+        double maxP99Millis = Double.parseDouble(options.getOrDefault("max-p99-ms", "50"));
+
+        boolean passed;
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(LastMileDeliveryApplication.class)
+            .profiles("perf")
+            .web(WebApplicationType.NONE)
+            .run("--delivery.perf.fleet-size=0")) {
+
+            DeliveryRouteRepository routeRepository = context.getBean(DeliveryRouteRepository.class);
+            UrgentDispatchUseCase dispatch = context.getBean(UrgentDispatchUseCase.class);
+            SyntheticData data = new SyntheticData(SyntheticData.DEFAULT_SEED);
+
+            routeRepository.insertAll(routes(data, routeCount, stopsPerRoute));
+            System.out.printf("Seeded %d running routes of %d stops%n", routeCount, stopsPerRoute);
+
+            for (int i = 0; i < warmup; i++) {
+                dispatch.dispatchUrgentStop(command(data.stop("WARMUP-" + i, false)));
+            }
+
+            List<DeliveryStop> urgent = new ArrayList<>(dispatches);
+            for (int i = 0; i < dispatches; i++) {
+                urgent.add(data.stop("URGENT-" + i, false));
+            }
+
+            long[] latencies = new long[dispatches];
+            List<UrgentDispatchResult> results = new ArrayList<>(dispatches);
+            long started = System.nanoTime();
+            try (ExecutorService executor = Executors.newFixedThreadPool(concurrency)) {
+                List<Future<UrgentDispatchResult>> futures = new ArrayList<>(dispatches);
+                for (int i = 0; i < dispatches; i++) {
+                    int index = i;
+                    futures.add(executor.submit(() -> {
+                        long start = System.nanoTime();
+                        UrgentDispatchResult result = dispatch.dispatchUrgentStop(command(urgent.get(index)));
+                        latencies[index] = System.nanoTime() - start;
+                        return result;
+                    }));
+                }
+                for (Future<UrgentDispatchResult> future : futures) {
+                    results.add(future.get());
+                }
+            }
+            double seconds = (System.nanoTime() - started) / 1e9;
+
+            passed = report(results, latencies, seconds, maxP99Millis)
+                & verify(routeRepository, results);
+            System.out.println(passed ? "PASS" : "FAIL");
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    private static List<DeliveryRoute> routes(SyntheticData data, int count, int stopsPerRoute) {
+        List<DeliveryRoute> routes = new ArrayList<>(count);
+        Instant now = Instant.now();
+        for (int r = 0; r < count; r++) {
+            List<DeliveryStop> stops = new ArrayList<>(stopsPerRoute);
+            for (int s = 0; s < stopsPerRoute; s++) {
+                DeliveryStop stop = data.stop("R" + r + "-STOP-" + s, true);
+                stop.setSequence(s + 1);
+                stops.add(stop);
+            }
+            routes.add(DeliveryRoute.builder()
+                .id("ROUTE-" + r)
+                .routeNumber("ROUTE-" + r)
+                .vehicleId("VEH-" + r)
+                .driverId("DRV-" + r)
+                .status(RouteStatus.IN_PROGRESS)
+                .stops(stops)
+                .totalStops(stops.size())
+                .plannedStartTime(now)
+                .actualStartTime(now)
+                .startLocation(SyntheticData.DEPOT)
+                .currentLocation(data.location())
+                .build());
+        }
+        return routes;
+    }
+
+    private static DispatchUrgentStopCommand command(DeliveryStop stop) {
+        return DispatchUrgentStopCommand.builder().stop(stop).build();
+    }
+
+    private static boolean report(List<UrgentDispatchResult> results, long[] latencies, double seconds,
+                                  double maxP99Millis) {
+        Map<Outcome, Integer> byOutcome = new EnumMap<>(Outcome.class);
+        double candidates = 0;
+        for (UrgentDispatchResult result : results) {
+            byOutcome.merge(result.getOutcome(), 1, Integer::sum);
+            candidates += result.getCandidateRoutes();
+        }
+
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        double p50 = percentileMillis(sorted, 0.50);
+        double p99 = percentileMillis(sorted, 0.99);
+        System.out.printf("%d dispatches in %.1fs (%.0f/s): %s, %.1f candidate routes on average%n",
+            results.size(), seconds, results.size() / seconds, byOutcome, candidates / results.size());
+        System.out.printf("Latency p50 %.2fms, p99 %.2fms, max %.2fms%n",
+            p50, p99, sorted[sorted.length - 1] / 1e6);
+
+        if (p99 > maxP99Millis) {
+            System.out.printf("FAIL: p99 of %.2fms exceeds %.0fms%n", p99, maxP99Millis);
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean verify(DeliveryRouteRepository routeRepository, List<UrgentDispatchResult> results) {
+        int misplaced = 0;
+        for (UrgentDispatchResult result : results) {
+            if (result.getOutcome() != Outcome.DISPATCHED) {
+                continue;
+            }
+            DeliveryRoute route = routeRepository.findById(result.getRouteId()).orElseThrow();
+            long copies = route.getStops().stream()
+                .filter(stop -> stop.getStopId().equals(result.getStopId()))
+                .count();
+            if (copies != 1) {
+                misplaced++;
+            }
+        }
+        if (misplaced > 0) {
+            System.out.printf("FAIL: %d dispatched stops are not on their route exactly once%n", misplaced);
+            return false;
+        }
+        return true;
+    }
+
+    private static double percentileMillis(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --name value pairs, got: " + String.join(" ", args));
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+}
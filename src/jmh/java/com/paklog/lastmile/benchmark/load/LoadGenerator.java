@@ -0,0 +1,333 @@
+package com.paklog.lastmile.benchmark.load;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.paklog.lastmile.application.command.CompleteStopCommand;
+import com.paklog.lastmile.application.command.CreateRouteCommand;
+import com.paklog.lastmile.benchmark.LatencyStats;
+import com.paklog.lastmile.benchmark.SyntheticData;
+import com.paklog.lastmile.domain.aggregate.DeliveryAttempt;
+import com.paklog.lastmile.domain.aggregate.DeliveryStop;
+import com.paklog.lastmile.domain.valueobject.AttemptResult;
+import com.paklog.lastmile.infrastructure.perf.PerfConfig;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop HTTP load against a running service, meant for the {@code perf} profile's in-memory
+ * stand-ins. Requests are issued at a fixed rate whatever the response times, and latency is
+ * measured from each request's scheduled start, so a stalled server shows up in the tail
+ * instead of silently lowering the offered load.
+ *
+ * <pre>
+ * SPRING_PROFILES_ACTIVE=perf java -jar target/last-mile-delivery-1.0.0-SNAPSHOT.jar
+ * mvn -Pbenchmarks compile exec:java@load -Dload.args="--rate 500 --duration 60s"
+ * </pre>
+ *
+ * Options: {@code --base-url}, {@code --rate} (requests/s), {@code --duration}, {@code --warmup},
+ * {@code --stops} per created route, {@code --mix} such as {@code create=5,complete_stop=40},
+ * {@code --vehicle-offset} to skip vehicles used by earlier runs, and {@code --out}.
+ */
+public final class LoadGenerator {
+
+    private static final String API = "/api/v1/delivery";
+    private static final double FAILED_ATTEMPT_SHARE = 0.05;
+
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final int stopsPerRoute;
+    private final Operation[] schedule;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .findAndRegisterModules()
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final SyntheticData data = new SyntheticData(SyntheticData.DEFAULT_SEED);
+    private final RouteTracker routes = new RouteTracker();
+    private final AtomicLong nextVehicle;
+
+    private final LatencyStats<Operation> stats = new LatencyStats<>(Operation.class);
+
+    private LoadGenerator(String baseUrl, int stopsPerRoute, Map<Operation, Integer> mix, long vehicleOffset,
+                          ExecutorService executor) {
+        this.baseUrl = baseUrl;
+        this.stopsPerRoute = stopsPerRoute;
+        this.schedule = schedule(mix);
+        this.nextVehicle = new AtomicLong(vehicleOffset);
+        this.httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(executor)
+            .build();
+    }
+
+    public static void main(String[] args) throws IOException {
+        run(parseOptions(args));
+    }
+
+    /**
+     * Runs the load described by {@code options}, as accepted by {@link #main}
+     *
+     * @return the measured latency distribution per operation
+     */
+    static Map<Operation, Histogram> run(Map<String, String> options) throws IOException {
+        String baseUrl = options.getOrDefault("base-url", "http://localhost:8096");
+        int rate = Integer.parseInt(options.getOrDefault("rate", "200"));
+        Duration duration = parseDuration(options.getOrDefault("duration", "60s"));
+        Duration warmup = parseDuration(options.getOrDefault("warmup", "10s"));
+        int stopsPerRoute = Integer.parseInt(options.getOrDefault("stops", "15"));
+        long vehicleOffset = Long.parseLong(options.getOrDefault("vehicle-offset", "0"));
+        Path outDir = Path.of(options.getOrDefault("out", "target/load"));
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            LoadGenerator generator = new LoadGenerator(baseUrl, stopsPerRoute,
+                parseMix(options.get("mix")), vehicleOffset, executor);
+
+            System.out.printf("Warming up for %ss at %d req/s against %s%n", warmup.toSeconds(), rate, baseUrl);
+            generator.drive(executor, rate, warmup);
+            generator.stats.reset();
+
+            System.out.printf("Measuring for %ss at %d req/s%n", duration.toSeconds(), rate);
+            long started = System.nanoTime();
+            generator.drive(executor, rate, duration);
+            Duration measured = Duration.ofNanos(System.nanoTime() - started);
+
+            return generator.stats.report(measured, outDir);
+        }
+    }
+
+    /**
+     * Issues requests at {@code rate} per second for {@code duration}, each on its own virtual thread
+     */
+    private void drive(ExecutorService executor, int rate, Duration duration) {
+        long interval = 1_000_000_000L / rate;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+
+        for (long scheduled = start; scheduled - end < 0; scheduled += interval) {
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            long intendedStart = scheduled;
+            Operation operation = schedule[ThreadLocalRandom.current().nextInt(schedule.length)];
+            executor.execute(() -> execute(operation, intendedStart));
+        }
+    }
+
+    private void execute(Operation operation, long intendedStart) {
+        Operation performed = operation;
+        boolean succeeded;
+        try {
+            Outcome outcome = perform(operation);
+            performed = outcome.operation();
+            succeeded = outcome.succeeded();
+        } catch (IOException | RuntimeException e) {
+            succeeded = false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        if (succeeded) {
+            stats.recordNanos(performed, System.nanoTime() - intendedStart);
+        } else {
+            stats.error(performed);
+        }
+    }
+
+    private record Outcome(Operation operation, boolean succeeded) {
+    }
+
+    /**
+     * Runs the operation, or a create when there is no route in the state it needs yet
+     */
+    private Outcome perform(Operation operation) throws IOException, InterruptedException {
+        return switch (operation) {
+            case CREATE -> create();
+            case START -> {
+                RouteTracker.TrackedRoute route = routes.takePlanned();
+                if (route == null) {
+                    yield create();
+                }
+                boolean ok = post(API + "/routes/" + route.routeId() + "/start", null);
+                if (ok) {
+                    routes.started(route);
+                }
+                yield new Outcome(Operation.START, ok);
+            }
+            case COMPLETE_STOP -> {
+                RouteTracker.TrackedRoute route = routes.takeStarted();
+                if (route == null) {
+                    yield create();
+                }
+                yield new Outcome(Operation.COMPLETE_STOP, completeNextStop(route));
+            }
+            case TRAFFIC -> {
+                RouteTracker.TrackedRoute route = routes.takeStarted();
+                if (route == null) {
+                    yield create();
+                }
+                try {
+                    double delay = ThreadLocalRandom.current().nextInt(30);
+                    yield new Outcome(Operation.TRAFFIC,
+                        post(API + "/routes/" + route.routeId() + "/traffic?delayMinutes=" + delay, null));
+                } finally {
+                    routes.release(route);
+                }
+            }
+            case GET_ROUTE -> {
+                RouteTracker.TrackedRoute route = routes.anyRecent();
+                yield route == null ? create() :
+                    new Outcome(Operation.GET_ROUTE, get(API + "/routes/" + route.routeId()));
+            }
+            case ACTIVE_PAGE -> new Outcome(Operation.ACTIVE_PAGE, get(API + "/routes/active/page?limit=50"));
+            case DRIVER_ROUTES -> {
+                RouteTracker.TrackedRoute route = routes.anyRecent();
+                yield route == null ? create() :
+                    new Outcome(Operation.DRIVER_ROUTES, get(API + "/routes/driver/" + route.driverId()));
+            }
+        };
+    }
+
+    private Outcome create() throws IOException, InterruptedException {
+        long vehicle = nextVehicle.getAndIncrement();
+        List<DeliveryStop> stops;
+        synchronized (data) {
+            stops = data.stops(stopsPerRoute, true);
+        }
+        CreateRouteCommand command = CreateRouteCommand.builder()
+            .vehicleId(PerfConfig.VEHICLE_ID_PREFIX + vehicle)
+            .stops(stops)
+            .plannedStartTime(Instant.now())
+            .build();
+
+        HttpResponse<String> response = send(HttpRequest.newBuilder(URI.create(baseUrl + API + "/routes"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(json(command)))
+            .build());
+        boolean ok = isSuccess(response);
+        if (ok) {
+            routes.created(new RouteTracker.TrackedRoute(response.body(), "PERF-DRV-" + vehicle,
+                stops.stream().map(DeliveryStop::getStopId).toList()));
+        }
+        return new Outcome(Operation.CREATE, ok);
+    }
+
+    private boolean completeNextStop(RouteTracker.TrackedRoute route) throws IOException, InterruptedException {
+        try {
+            int index = route.nextStop().getAndIncrement();
+            String stopId = route.stopIds().get(index);
+            boolean delivered = ThreadLocalRandom.current().nextDouble() >= FAILED_ATTEMPT_SHARE;
+
+            CompleteStopCommand command = CompleteStopCommand.builder()
+                .routeId(route.routeId())
+                .stopId(stopId)
+                .success(delivered)
+                .attempt(DeliveryAttempt.builder()
+                    .attemptNumber(1)
+                    .attemptedAt(Instant.now())
+                    .result(delivered ? AttemptResult.SUCCESSFUL : AttemptResult.CUSTOMER_NOT_HOME)
+                    .driverId(route.driverId())
+                    .build())
+                .build();
+            return post(API + "/routes/" + route.routeId() + "/stops/" + stopId + "/complete", json(command));
+        } finally {
+            routes.release(route);
+        }
+    }
+
+    private boolean get(String path) throws IOException, InterruptedException {
+        return isSuccess(send(HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build()));
+    }
+
+    private boolean post(String path, String body) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path));
+        if (body != null) {
+            request.header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        } else {
+            request.POST(HttpRequest.BodyPublishers.noBody());
+        }
+        return isSuccess(send(request.build()));
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static boolean isSuccess(HttpResponse<?> response) {
+        return response.statusCode() / 100 == 2;
+    }
+
+    private String json(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Operation[] schedule(Map<Operation, Integer> mix) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        if (total <= 0) {
+            throw new IllegalArgumentException("Operation mix must have a positive total weight");
+        }
+        Operation[] schedule = new Operation[total];
+        int index = 0;
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            for (int i = 0; i < entry.getValue(); i++) {
+                schedule[index++] = entry.getKey();
+            }
+        }
+        return schedule;
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        if (mix == null) {
+            for (Operation operation : Operation.values()) {
+                weights.put(operation, operation.defaultWeight);
+            }
+            return weights;
+        }
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split("=");
+            weights.put(Operation.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+
+    private static Duration parseDuration(String value) {
+        return Duration.parse("PT" + value.trim().toUpperCase(Locale.ROOT));
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --name value pairs, got: " + String.join(" ", args));
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+}
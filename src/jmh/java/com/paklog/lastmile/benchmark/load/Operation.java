@@ -0,0 +1,20 @@
+package com.paklog.lastmile.benchmark.load;
+
+/**
+ * Calls the load generator mixes, with their default share of requests
+ */
+enum Operation {
+    CREATE(5),
+    START(5),
+    COMPLETE_STOP(40),
+    TRAFFIC(10),
+    GET_ROUTE(25),
+    ACTIVE_PAGE(10),
+    DRIVER_ROUTES(5);
+
+    final int defaultWeight;
+
+    Operation(int defaultWeight) {
+        this.defaultWeight = defaultWeight;
+    }
+}
@@ -0,0 +1,61 @@
+package com.paklog.lastmile.benchmark.load;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * What the generator knows about the routes it created, so later calls hit real routes and stops
+ * in lifecycle order: planned routes get started, started routes get their stops completed.
+ */
+final class RouteTracker {
+
+    record TrackedRoute(String routeId, String driverId, List<String> stopIds, AtomicInteger nextStop) {
+
+        TrackedRoute(String routeId, String driverId, List<String> stopIds) {
+            this(routeId, driverId, stopIds, new AtomicInteger());
+        }
+    }
+
+    private static final int RECENT = 1024;
+
+    private final Queue<TrackedRoute> planned = new ConcurrentLinkedQueue<>();
+    private final Queue<TrackedRoute> started = new ConcurrentLinkedQueue<>();
+    private final AtomicReferenceArray<TrackedRoute> recent = new AtomicReferenceArray<>(RECENT);
+    private final AtomicLong created = new AtomicLong();
+
+    void created(TrackedRoute route) {
+        recent.set((int) (created.getAndIncrement() % RECENT), route);
+        planned.add(route);
+    }
+
+    TrackedRoute takePlanned() {
+        return planned.poll();
+    }
+
+    void started(TrackedRoute route) {
+        started.add(route);
+    }
+
+    /**
+     * Takes a started route off the queue; hand it back with {@link #release} if it has work left
+     */
+    TrackedRoute takeStarted() {
+        return started.poll();
+    }
+
+    void release(TrackedRoute route) {
+        if (route.nextStop().get() < route.stopIds().size()) {
+            started.add(route);
+        }
+    }
+
+    TrackedRoute anyRecent() {
+        long count = Math.min(created.get(), RECENT);
+        return count == 0 ? null : recent.get(ThreadLocalRandom.current().nextInt((int) count));
+    }
+}
@@ -0,0 +1,89 @@
+package com.paklog.lastmile.benchmark.load;
+
+import com.paklog.lastmile.LastMileDeliveryApplication;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Runs the same open-loop load against the service once with platform request threads and once
+ * with virtual ones, each an in-process {@code perf} instance on a free port, and prints the two
+ * side by side. Every in-memory repository call is held for {@code --store-latency} to stand in for
+ * Mongo; with platform threads the server then serves at most about {@code --tomcat-threads}
+ * divided by the time a request spends in the store, and requests beyond that queue, which shows
+ * in the tail. Each run also writes its own distributions below {@code --out}.
+ *
+ * <pre>
+ * mvn -Pbenchmarks compile exec:java@threads [-Dthreads.args="--rate 2000 --store-latency 20ms"]
+ * </pre>
+ *
+ * Options: {@code --store-latency}, {@code --tomcat-threads}, {@code --out}, and the
+ * {@link LoadGenerator} options {@code --rate}, {@code --duration}, {@code --warmup},
+ * {@code --stops} and {@code --mix}.
+ */
+public final class ThreadModelComparison {
+
+    private static final List<String> LOAD_OPTIONS = List.of("rate", "duration", "warmup", "stops", "mix");
+
+    private ThreadModelComparison() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        String storeLatency = options.getOrDefault("store-latency", "50ms");
+        int tomcatThreads = Integer.parseInt(options.getOrDefault("tomcat-threads", "200"));
+        String out = options.getOrDefault("out", "target/load-threads");
+
+        Map<String, String> load = new HashMap<>(Map.of("rate", "1000", "duration", "60s"));
+        LOAD_OPTIONS.stream()
+            .filter(options::containsKey)
+            .forEach(option -> load.put(option, options.get(option)));
+
+        Map<String, Histogram> totals = new LinkedHashMap<>();
+        for (boolean virtual : new boolean[]{false, true}) {
+            String mode = virtual ? "virtual" : "platform";
+            System.out.printf("%n=== %s request threads, %s per store call ===%n", mode, storeLatency);
+
+            ConfigurableApplicationContext app = new SpringApplicationBuilder(LastMileDeliveryApplication.class)
+                .profiles("perf")
+                .run("--server.port=0",
+                    "--spring.threads.virtual.enabled=" + virtual,
+                    "--server.tomcat.threads.max=" + tomcatThreads,
+                    "--delivery.perf.store-latency=" + storeLatency);
+            try {
+                Map<String, String> run = new HashMap<>(load);
+                run.put("base-url", "http://localhost:" + app.getEnvironment().getProperty("local.server.port"));
+                run.put("out", out + "/" + mode);
+
+                Histogram total = new Histogram(3);
+                LoadGenerator.run(run).values().forEach(total::add);
+                totals.put(mode, total);
+            } finally {
+                app.close();
+            }
+        }
+
+        System.out.printf("%n%-10s %9s %9s %9s %9s %9s%n", "threads", "requests", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        totals.forEach((mode, total) -> System.out.printf(Locale.ROOT, "%-10s %9d %9.3f %9.3f %9.3f %9.3f%n",
+            mode, total.getTotalCount(),
+            total.getValueAtPercentile(50) / 1000.0, total.getValueAtPercentile(99) / 1000.0,
+            total.getValueAtPercentile(99.9) / 1000.0, total.getMaxValue() / 1000.0));
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --name value pairs, got: " + String.join(" ", args));
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+}
@@ -0,0 +1,55 @@
+package com.paklog.lastmile.benchmark.simulation;
+
+import com.paklog.lastmile.domain.valueobject.AttemptResult;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Weighted distribution of delivery attempt results, e.g.
+ * {@code successful=92,customer_not_home=5,access_denied=2,address_incorrect=1}
+ */
+final class AttemptOutcomes {
+
+    static final String DEFAULT =
+        "successful=92,customer_not_home=5,access_denied=1,address_incorrect=1,refused_by_customer=1";
+
+    private final AttemptResult[] results;
+    private final double[] cumulative;
+
+    private AttemptOutcomes(AttemptResult[] results, double[] cumulative) {
+        this.results = results;
+        this.cumulative = cumulative;
+    }
+
+    static AttemptOutcomes parse(String spec) {
+        Map<AttemptResult, Double> weights = new EnumMap<>(AttemptResult.class);
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.split("=");
+            weights.put(AttemptResult.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)),
+                Double.parseDouble(parts[1].trim()));
+        }
+
+        double total = weights.values().stream().mapToDouble(Double::doubleValue).sum();
+        AttemptResult[] results = weights.keySet().toArray(AttemptResult[]::new);
+        double[] cumulative = new double[results.length];
+        double running = 0;
+        for (int i = 0; i < results.length; i++) {
+            running += weights.get(results[i]) / total;
+            cumulative[i] = running;
+        }
+        return new AttemptOutcomes(results, cumulative);
+    }
+
+    AttemptResult sample(Random random) {
+        double draw = random.nextDouble();
+        for (int i = 0; i < cumulative.length; i++) {
+            if (draw < cumulative[i]) {
+                return results[i];
+            }
+        }
+        return results[results.length - 1];
+    }
+}
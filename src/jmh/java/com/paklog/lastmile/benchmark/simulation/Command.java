@@ -0,0 +1,15 @@
+package com.paklog.lastmile.benchmark.simulation;
+
+/**
+ * Use case calls the simulator issues, each timed separately
+ */
+enum Command {
+    PLAN_ROUTES,
+    LOAD_ROUTE,
+    START_ROUTE,
+    LOCATION_PING,
+    COMPLETE_STOP,
+    PROOF_OF_DELIVERY,
+    TRAFFIC_UPDATE,
+    OPTIMIZE_ROUTE
+}
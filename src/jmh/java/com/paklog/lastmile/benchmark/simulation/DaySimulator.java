@@ -0,0 +1,401 @@
+package com.paklog.lastmile.benchmark.simulation;
+
+import com.paklog.lastmile.LastMileDeliveryApplication;
+import com.paklog.lastmile.application.command.CompleteStopCommand;
+import com.paklog.lastmile.application.command.OptimizeRouteCommand;
+import com.paklog.lastmile.application.command.PlanRoutesCommand;
+import com.paklog.lastmile.application.command.RecordProofOfDeliveryCommand;
+import com.paklog.lastmile.application.command.StartRouteCommand;
+import com.paklog.lastmile.application.command.UpdateLocationCommand;
+import com.paklog.lastmile.application.command.UpdateTrafficCommand;
+import com.paklog.lastmile.application.port.in.DeliveryCoordinationUseCase;
+import com.paklog.lastmile.application.result.PlanRoutesResult;
+import com.paklog.lastmile.application.result.PlannedRouteResult;
+import com.paklog.lastmile.benchmark.LatencyStats;
+import com.paklog.lastmile.benchmark.SyntheticData;
+import com.paklog.lastmile.domain.aggregate.DeliveryAttempt;
+import com.paklog.lastmile.domain.aggregate.DeliveryStop;
+import com.paklog.lastmile.domain.valueobject.AttemptResult;
+import com.paklog.lastmile.domain.valueobject.GPSCoordinates;
+import com.paklog.lastmile.domain.valueobject.Signature;
+import com.paklog.lastmile.infrastructure.perf.PerfConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Replays a delivery day against {@link DeliveryCoordinationUseCase} in an in-process
+ * {@code perf} context: orders are generated and planned in waves, then every planned route is
+ * driven minute by minute, with GPS pings, sampled attempt results, retries of failed stops,
+ * traffic updates and occasional re-optimization.
+ * <p>
+ * Time advances in one-minute ticks. The schedule is decided on the simulation thread from a
+ * seeded random source; the use case calls of a tick run concurrently on virtual threads and the
+ * next tick starts when they have all returned. With {@code --speedup 0} ticks run back to back.
+ *
+ * <pre>
+ * mvn -Pbenchmarks compile exec:java@simulation -Dsimulation.args="--fleet 5000 --speedup 0"
+ * </pre>
+ *
+ * Options: {@code --fleet}, {@code --orders} (default fleet x stops-per-route),
+ * {@code --stops-per-route}, {@code --window-share}, {@code --wave-size},
+ * {@code --start-spread-minutes}, {@code --ping-interval-minutes},
+ * {@code --traffic-per-route-hour}, {@code --reoptimize-share}, {@code --outcomes},
+ * {@code --concurrency}, {@code --speedup}, {@code --seed} and {@code --out}.
+ */
+public final class DaySimulator {
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long MAX_DAY_MINUTES = 24 * 60;
+    private static final String EVENTS_METER = "perf.events.published";
+
+    private final DeliveryCoordinationUseCase useCase;
+    private final Map<String, String> options;
+    private final Random random;
+    private final AttemptOutcomes outcomes;
+    private final LatencyStats<Command> stats = new LatencyStats<>(Command.class);
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore inFlight;
+    private final List<CompletableFuture<?>> tickCalls = new ArrayList<>();
+
+    // Simulation-thread state
+    private final TreeMap<Long, List<Runnable>> agenda = new TreeMap<>();
+    private final Set<SimulatedRoute> driving = new LinkedHashSet<>();
+    private final int pingInterval;
+    private final double trafficPerMinute;
+    private final double reoptimizeShare;
+
+    private long deliveries;
+    private long failedAttempts;
+    private long routesFinished;
+
+    private DaySimulator(DeliveryCoordinationUseCase useCase, Map<String, String> options) {
+        this.useCase = useCase;
+        this.options = options;
+        this.random = new Random(Long.parseLong(options.getOrDefault("seed", String.valueOf(SyntheticData.DEFAULT_SEED))));
+        this.outcomes = AttemptOutcomes.parse(options.getOrDefault("outcomes", AttemptOutcomes.DEFAULT));
+        this.inFlight = new Semaphore(Integer.parseInt(options.getOrDefault("concurrency", "256")));
+        this.pingInterval = Integer.parseInt(options.getOrDefault("ping-interval-minutes", "2"));
+        this.trafficPerMinute = Double.parseDouble(options.getOrDefault("traffic-per-route-hour", "0.5")) / 60;
+        this.reoptimizeShare = Double.parseDouble(options.getOrDefault("reoptimize-share", "0.1"));
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = parseOptions(args);
+        int fleet = Integer.parseInt(options.getOrDefault("fleet", "500"));
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(LastMileDeliveryApplication.class)
+            .profiles("perf")
+            .web(WebApplicationType.NONE)
+            .run("--delivery.perf.fleet-size=" + fleet)) {
+
+            DaySimulator simulator = new DaySimulator(context.getBean(DeliveryCoordinationUseCase.class), options);
+            simulator.run(fleet, context.getBean(MeterRegistry.class));
+        }
+    }
+
+    private void run(int fleet, MeterRegistry meterRegistry) throws IOException {
+        Path outDir = Path.of(options.getOrDefault("out", "target/simulation"));
+        long started = System.nanoTime();
+
+        List<SimulatedRoute> routes = plan(fleet);
+        long planned = System.nanoTime();
+
+        int startSpread = Integer.parseInt(options.getOrDefault("start-spread-minutes", "60"));
+        for (SimulatedRoute route : routes) {
+            schedule(random.nextInt(startSpread + 1), minute -> startRoute(route, minute));
+        }
+
+        long minutes = drive(Double.parseDouble(options.getOrDefault("speedup", "0")));
+        long finished = System.nanoTime();
+        executor.close();
+
+        Duration wall = Duration.ofNanos(finished - started);
+        System.out.printf(Locale.ROOT, "%nPlanning took %.1fs; %d routes driven over %d simulated minutes in %.1fs " +
+                "(%.0fx real time)%n", (planned - started) / 1e9, routes.size(), minutes,
+            (finished - planned) / 1e9, minutes * 60 / ((finished - planned) / 1e9));
+        System.out.printf("%d deliveries, %d failed attempts, %d routes finished, %d still active%n",
+            deliveries, failedAttempts, routesFinished, useCase.getActiveRouteSummaries().size());
+
+        stats.report(wall, outDir);
+        reportEvents(meterRegistry, wall, minutes, outDir);
+    }
+
+    /**
+     * Generates the day's orders and plans them in waves, each against its own slice of the fleet
+     */
+    private List<SimulatedRoute> plan(int fleet) {
+        int stopsPerRoute = Integer.parseInt(options.getOrDefault("stops-per-route", "20"));
+        int orders = Integer.parseInt(options.getOrDefault("orders", String.valueOf(fleet * stopsPerRoute)));
+        int waveSize = Integer.parseInt(options.getOrDefault("wave-size", "1000"));
+        double windowShare = Double.parseDouble(options.getOrDefault("window-share", "0.3"));
+
+        SyntheticData data = new SyntheticData(random.nextLong());
+        List<DeliveryStop> pending = new ArrayList<>(orders);
+        for (int i = 0; i < orders; i++) {
+            pending.add(data.stop("ORD-" + i, random.nextDouble() < windowShare));
+        }
+
+        List<String> routeIds = new ArrayList<>();
+        int nextVehicle = 0;
+        int rejected = 0;
+        int unassigned = 0;
+
+        for (int from = 0; from < orders && nextVehicle < fleet; from += waveSize) {
+            List<DeliveryStop> wave = pending.subList(from, Math.min(from + waveSize, orders));
+            int vehicles = Math.min(fleet - nextVehicle, (wave.size() + stopsPerRoute - 1) / stopsPerRoute);
+
+            List<String> vehicleIds = new ArrayList<>(vehicles);
+            for (int i = 0; i < vehicles; i++) {
+                vehicleIds.add(PerfConfig.VEHICLE_ID_PREFIX + nextVehicle++);
+            }
+
+            PlanRoutesCommand command = PlanRoutesCommand.builder()
+                .stops(new ArrayList<>(wave))
+                .vehicleIds(vehicleIds)
+                .build();
+            PlanRoutesResult result = timed(Command.PLAN_ROUTES, () -> useCase.planRoutes(command));
+            if (result == null) {
+                continue;
+            }
+
+            rejected += result.getRejectedRoutes();
+            unassigned += result.getUnassignedStops();
+            result.getRoutes().stream()
+                .filter(route -> route.getOutcome() == PlannedRouteResult.Outcome.PLANNED)
+                .forEach(route -> routeIds.add(route.getRouteId()));
+        }
+
+        System.out.printf("Planned %d routes for %d orders; %d routes rejected, %d stops unassigned%n",
+            routeIds.size(), orders, rejected, unassigned);
+
+        List<SimulatedRoute> routes = new ArrayList<>(routeIds.size());
+        for (String routeId : routeIds) {
+            var route = timed(Command.LOAD_ROUTE, () -> useCase.getRoute(routeId));
+            if (route != null) {
+                routes.add(new SimulatedRoute(route));
+            }
+        }
+        return routes;
+    }
+
+    /**
+     * Runs ticks until nothing is left on the agenda
+     *
+     * @return simulated minutes elapsed
+     */
+    private long drive(double speedup) {
+        long tickNanos = speedup > 0 ? (long) (60_000_000_000L / speedup) : 0;
+        long minute = 0;
+
+        while (!agenda.isEmpty() && minute < MAX_DAY_MINUTES) {
+            long tickStarted = System.nanoTime();
+
+            List<Runnable> due = agenda.remove(minute);
+            if (due != null) {
+                due.forEach(Runnable::run);
+            }
+            injectTraffic();
+
+            CompletableFuture.allOf(tickCalls.toArray(CompletableFuture[]::new)).join();
+            tickCalls.clear();
+
+            long remaining = tickNanos - (System.nanoTime() - tickStarted);
+            if (remaining > 0) {
+                LockSupport.parkNanos(remaining);
+            }
+            minute++;
+        }
+        return minute;
+    }
+
+    private void startRoute(SimulatedRoute route, long minute) {
+        call(Command.START_ROUTE, () -> useCase.startRoute(StartRouteCommand.builder()
+            .routeId(route.routeId)
+            .build()));
+
+        driving.add(route);
+        depart(route, route.positionAt(minute), minute);
+        schedule(minute + pingInterval, next -> ping(route, next));
+    }
+
+    private void depart(SimulatedRoute route, GPSCoordinates position, long minute) {
+        int stopIndex = route.departFrom(position, minute);
+        if (stopIndex < 0) {
+            driving.remove(route);
+            routesFinished++;
+            return;
+        }
+        schedule(route.arrivalMinute(), arrival -> visit(route, stopIndex, arrival));
+    }
+
+    private void visit(SimulatedRoute route, int stopIndex, long minute) {
+        DeliveryStop stop = route.stops.get(stopIndex);
+        AttemptResult result = outcomes.sample(random);
+        boolean delivered = result == AttemptResult.SUCCESSFUL;
+        int attempt = route.attempt(stopIndex, delivered, MAX_ATTEMPTS);
+
+        if (delivered) {
+            deliveries++;
+        } else {
+            failedAttempts++;
+        }
+
+        Instant now = Instant.now();
+        CompleteStopCommand complete = CompleteStopCommand.builder()
+            .routeId(route.routeId)
+            .stopId(stop.getStopId())
+            .success(delivered)
+            .attempt(DeliveryAttempt.builder()
+                .attemptNumber(attempt)
+                .attemptedAt(now)
+                .result(result)
+                .driverId(route.driverId)
+                .location(stop.getCoordinates())
+                .build())
+            .build();
+        call(Command.COMPLETE_STOP, () -> useCase.completeStop(complete));
+
+        if (delivered) {
+            RecordProofOfDeliveryCommand proof = RecordProofOfDeliveryCommand.builder()
+                .routeId(route.routeId)
+                .stopId(stop.getStopId())
+                .packageIds(stop.getPackageIds())
+                .signature(Signature.builder()
+                    .signerName("Recipient " + stop.getCustomerId())
+                    .signedAt(now)
+                    .deviceId(route.driverId)
+                    .location(stop.getCoordinates())
+                    .build())
+                .deliveryLocation(stop.getCoordinates())
+                .recipientName("Recipient " + stop.getCustomerId())
+                .build();
+            call(Command.PROOF_OF_DELIVERY, () -> useCase.recordProofOfDelivery(proof));
+        }
+
+        long departure = minute + Math.max(1, stop.getEstimatedDurationMinutes());
+        schedule(departure, next -> depart(route, stop.getCoordinates(), next));
+    }
+
+    private void ping(SimulatedRoute route, long minute) {
+        if (route.isFinished()) {
+            return;
+        }
+
+        UpdateLocationCommand command = UpdateLocationCommand.builder()
+            .routeId(route.routeId)
+            .location(route.positionAt(minute))
+            .build();
+        call(Command.LOCATION_PING, () -> useCase.updateLocation(command));
+        schedule(minute + pingInterval, next -> ping(route, next));
+    }
+
+    private void injectTraffic() {
+        for (SimulatedRoute route : driving) {
+            if (random.nextDouble() >= trafficPerMinute) {
+                continue;
+            }
+
+            UpdateTrafficCommand traffic = UpdateTrafficCommand.builder()
+                .routeId(route.routeId)
+                .delayMinutes((double) random.nextInt(30))
+                .build();
+            call(Command.TRAFFIC_UPDATE, () -> useCase.updateTrafficConditions(traffic));
+
+            if (random.nextDouble() < reoptimizeShare) {
+                OptimizeRouteCommand optimize = OptimizeRouteCommand.builder()
+                    .routeId(route.routeId)
+                    .build();
+                call(Command.OPTIMIZE_ROUTE, () -> useCase.optimizeRoute(optimize));
+            }
+        }
+    }
+
+    private void schedule(long minute, LongConsumer handler) {
+        agenda.computeIfAbsent(minute, key -> new ArrayList<>()).add(() -> handler.accept(minute));
+    }
+
+    /**
+     * Runs a use case call for the current tick on a virtual thread
+     */
+    private void call(Command command, Runnable call) {
+        inFlight.acquireUninterruptibly();
+        tickCalls.add(CompletableFuture.runAsync(() -> {
+            try {
+                timed(command, () -> {
+                    call.run();
+                    return Boolean.TRUE;
+                });
+            } finally {
+                inFlight.release();
+            }
+        }, executor));
+    }
+
+    private <T> T timed(Command command, Supplier<T> call) {
+        long started = System.nanoTime();
+        try {
+            T result = call.get();
+            stats.recordNanos(command, System.nanoTime() - started);
+            return result;
+        } catch (RuntimeException e) {
+            stats.error(command);
+            return null;
+        }
+    }
+
+    private void reportEvents(MeterRegistry meterRegistry, Duration wall, long minutes, Path outDir) throws IOException {
+        StringBuilder csv = new StringBuilder("event_type,count,per_wall_second,per_simulated_hour\n");
+        System.out.printf("%n%-28s %10s %12s %12s%n", "event type", "count", "per wall s", "per sim hour");
+
+        List<Counter> counters = new ArrayList<>(meterRegistry.find(EVENTS_METER).counters());
+        counters.sort(Comparator.comparing(counter -> counter.getId().getTag("type")));
+        for (Counter counter : counters) {
+            String type = counter.getId().getTag("type");
+            long count = (long) counter.count();
+            double perSecond = count / (wall.toNanos() / 1e9);
+            double perHour = minutes > 0 ? count * 60.0 / minutes : 0;
+            csv.append(String.format(Locale.ROOT, "%s,%d,%.1f,%.1f%n", type, count, perSecond, perHour));
+            System.out.printf(Locale.ROOT, "%-28s %10d %12.1f %12.1f%n", type, count, perSecond, perHour);
+        }
+
+        Files.writeString(outDir.resolve("events.csv"), csv);
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --name value pairs, got: " + String.join(" ", args));
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+}
@@ -0,0 +1,96 @@
+package com.paklog.lastmile.benchmark.simulation;
+
+import com.paklog.lastmile.domain.aggregate.DeliveryRoute;
+import com.paklog.lastmile.domain.aggregate.DeliveryStop;
+import com.paklog.lastmile.domain.valueobject.GPSCoordinates;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * A vehicle driving one planned route through simulated time. Stops are visited in the
+ * planned order; failed attempts are retried after the last stop until attempts run out.
+ */
+final class SimulatedRoute {
+
+    // Urban average including traffic, the same the optimizer assumes
+    private static final double KM_PER_MINUTE = 24.0 / 1.2 / 60.0;
+
+    final String routeId;
+    final String driverId;
+    final List<DeliveryStop> stops;
+    private final int[] attempts;
+    private final Deque<Integer> retries = new ArrayDeque<>();
+    private int nextInSequence;
+
+    // Current leg, for interpolating GPS pings
+    private GPSCoordinates legFrom;
+    private GPSCoordinates legTo;
+    private long legDeparture;
+    private long legArrival;
+    private boolean finished;
+
+    SimulatedRoute(DeliveryRoute route) {
+        this.routeId = route.getId();
+        this.driverId = route.getDriverId();
+        this.stops = route.getStops();
+        this.attempts = new int[stops.size()];
+        this.legFrom = route.getStartLocation();
+        this.legTo = route.getStartLocation();
+    }
+
+    /**
+     * Picks the next stop and sets off towards it
+     *
+     * @return the stop index, or -1 when the route is done
+     */
+    int departFrom(GPSCoordinates position, long minute) {
+        int next;
+        if (nextInSequence < stops.size()) {
+            next = nextInSequence++;
+        } else if (!retries.isEmpty()) {
+            next = retries.poll();
+        } else {
+            finished = true;
+            return -1;
+        }
+
+        legFrom = position;
+        legTo = stops.get(next).getCoordinates();
+        legDeparture = minute;
+        legArrival = minute + Math.max(1, Math.round(legFrom.distanceTo(legTo) / KM_PER_MINUTE));
+        return next;
+    }
+
+    long arrivalMinute() {
+        return legArrival;
+    }
+
+    /**
+     * Records an attempt at the stop
+     *
+     * @return the attempt number
+     */
+    int attempt(int stopIndex, boolean delivered, int maxAttempts) {
+        int attempt = ++attempts[stopIndex];
+        if (!delivered && attempt < maxAttempts) {
+            retries.add(stopIndex);
+        }
+        return attempt;
+    }
+
+    GPSCoordinates positionAt(long minute) {
+        if (minute >= legArrival || legArrival == legDeparture) {
+            return legTo;
+        }
+        double progress = (double) (minute - legDeparture) / (legArrival - legDeparture);
+        return new GPSCoordinates(
+            legFrom.getLatitude() + (legTo.getLatitude() - legFrom.getLatitude()) * progress,
+            legFrom.getLongitude() + (legTo.getLongitude() - legFrom.getLongitude()) * progress);
+    }
+
+    boolean isFinished() {
+        return finished;
+    }
+}
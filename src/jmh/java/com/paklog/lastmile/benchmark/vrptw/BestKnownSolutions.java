@@ -0,0 +1,53 @@
+package com.paklog.lastmile.benchmark.vrptw;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Best-known vehicle counts and distances, keyed by upper-case instance name. The file is
+ * CSV with {@code instance,vehicles,distance} rows; lines starting with # are comments.
+ */
+public final class BestKnownSolutions {
+
+    public record Solution(int vehicles, double distance) {
+    }
+
+    private final Map<String, Solution> solutions;
+
+    private BestKnownSolutions(Map<String, Solution> solutions) {
+        this.solutions = solutions;
+    }
+
+    public static BestKnownSolutions read(Path file) {
+        Map<String, Solution> solutions = new HashMap<>();
+        if (!Files.exists(file)) {
+            return new BestKnownSolutions(solutions);
+        }
+
+        try {
+            for (String line : Files.readAllLines(file)) {
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#") || trimmed.startsWith("instance")) {
+                    continue;
+                }
+                String[] fields = trimmed.split(",");
+                solutions.put(fields[0].trim().toUpperCase(Locale.ROOT), new Solution(
+                    Integer.parseInt(fields[1].trim()), Double.parseDouble(fields[2].trim())));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read best-known solutions " + file, e);
+        }
+
+        return new BestKnownSolutions(solutions);
+    }
+
+    public Optional<Solution> forInstance(String name) {
+        return Optional.ofNullable(solutions.get(name.toUpperCase(Locale.ROOT)));
+    }
+}
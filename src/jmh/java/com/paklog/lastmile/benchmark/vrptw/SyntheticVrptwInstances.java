@@ -0,0 +1,120 @@
+package com.paklog.lastmile.benchmark.vrptw;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Seeded stand-ins for the Solomon 100-customer classes, written in the same text format so the
+ * quality run has instances to plan until the published files are placed beside them. Geography
+ * follows the Solomon classes: clustered (C), uniform (R) and half of each (RC) customers on a
+ * 100 x 100 grid, with the short horizon and small vehicles of series 1 and the long horizon and
+ * large vehicles of series 2. Every window opens late enough and closes early enough that a
+ * vehicle leaving the depot can serve the customer and return before the depot closes. These are
+ * not the Solomon instances and have no best-known results, so they are reported without a gap.
+ *
+ * <pre>
+ * java ... SyntheticVrptwInstances [dir]
+ * </pre>
+ */
+public final class SyntheticVrptwInstances {
+
+    public static final long DEFAULT_SEED = 42L;
+    static final int CUSTOMERS = 100;
+
+    private record Series(String name, boolean clustered, boolean random, int horizon, int capacity,
+                          int serviceTime, int windowWidth) {
+    }
+
+    private static final List<Series> SERIES = List.of(
+        new Series("C1", true, false, 1236, 200, 90, 60),
+        new Series("R1", false, true, 230, 200, 10, 30),
+        new Series("RC1", true, true, 240, 200, 10, 30),
+        new Series("C2", true, false, 3390, 700, 90, 160),
+        new Series("R2", false, true, 1000, 1000, 10, 120),
+        new Series("RC2", true, true, 960, 1000, 10, 120));
+
+    private SyntheticVrptwInstances() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path dir = Path.of(args.length > 0 ? args[0] : "src/jmh/resources/vrptw/instances");
+        Files.createDirectories(dir);
+        for (VrptwInstance instance : generate(DEFAULT_SEED)) {
+            Path file = dir.resolve(instance.name() + ".txt");
+            write(file, instance);
+            System.out.println("Wrote " + file);
+        }
+    }
+
+    public static List<VrptwInstance> generate(long seed) {
+        List<VrptwInstance> instances = new ArrayList<>(SERIES.size());
+        for (Series series : SERIES) {
+            instances.add(generate(series, new Random(seed ^ series.name().hashCode())));
+        }
+        return instances;
+    }
+
+    private static VrptwInstance generate(Series series, Random random) {
+        VrptwInstance.Customer depot = new VrptwInstance.Customer(0, 40, 50, 0, 0, series.horizon(), 0);
+        int clusteredCount = series.clustered() ? (series.random() ? CUSTOMERS / 2 : CUSTOMERS) : 0;
+
+        List<double[]> centres = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            centres.add(new double[]{5 + random.nextInt(90), 5 + random.nextInt(90)});
+        }
+
+        List<VrptwInstance.Customer> customers = new ArrayList<>(CUSTOMERS + 1);
+        customers.add(depot);
+        for (int id = 1; id <= CUSTOMERS; id++) {
+            double x;
+            double y;
+            if (id <= clusteredCount) {
+                double[] centre = centres.get((id - 1) % centres.size());
+                x = clamp(centre[0] + random.nextGaussian() * 4);
+                y = clamp(centre[1] + random.nextGaussian() * 4);
+            } else {
+                x = random.nextInt(101);
+                y = random.nextInt(101);
+            }
+            int demand = series.name().startsWith("C") ? 10 * (1 + random.nextInt(4)) : 1 + random.nextInt(41);
+
+            // The customer must be reachable from the depot at opening and leave time to drive back
+            int reach = (int) Math.ceil(Math.hypot(x - depot.x(), y - depot.y()));
+            int latestStart = series.horizon() - reach - series.serviceTime();
+            int centre = reach + random.nextInt(Math.max(1, latestStart - reach + 1));
+            int ready = Math.max(0, centre - series.windowWidth() / 2);
+            int due = Math.max(reach, Math.min(latestStart, ready + series.windowWidth()));
+
+            customers.add(new VrptwInstance.Customer(id, x, y, demand, ready, due, series.serviceTime()));
+        }
+        return new VrptwInstance("SYN-" + series.name(), 25, series.capacity(), customers);
+    }
+
+    private static double clamp(double coordinate) {
+        return Math.round(Math.max(0, Math.min(100, coordinate)));
+    }
+
+    private static void write(Path file, VrptwInstance instance) throws IOException {
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(file))) {
+            writer.println(instance.name());
+            writer.println();
+            writer.println("VEHICLE");
+            writer.println("NUMBER     CAPACITY");
+            writer.printf(Locale.ROOT, "%5d %12d%n", instance.vehicles(), instance.capacity());
+            writer.println();
+            writer.println("CUSTOMER");
+            writer.println("CUST NO.  XCOORD.   YCOORD.    DEMAND   READY TIME  DUE DATE   SERVICE   TIME");
+            writer.println();
+            for (VrptwInstance.Customer customer : instance.customers()) {
+                writer.printf(Locale.ROOT, "%5d %10.0f %9.0f %10d %12d %10d %10d%n", customer.id(), customer.x(),
+                    customer.y(), customer.demand(), customer.readyTime(), customer.dueDate(), customer.serviceTime());
+            }
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.paklog.lastmile.benchmark.vrptw;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.paklog.lastmile.domain.aggregate.DeliveryRoute;
+import com.paklog.lastmile.domain.service.DeliverySchedulingService;
+import com.paklog.lastmile.domain.service.RouteOptimizationService;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Plans every VRPTW instance in a directory under each time budget and reports solution
+ * quality against best-known results, as CSV and JSON. Runs offline; exits with status 1
+ * when {@code --max-gap} or {@code --max-violations} is exceeded so it can gate a build. The
+ * bundled {@code SYN-*} instances come from {@link SyntheticVrptwInstances} and have no best-known
+ * results; published instances dropped into the same directory are scored against best-known.csv.
+ *
+ * <pre>
+ * mvn -Pbenchmarks compile exec:java@vrptw -Dvrptw.args="--budgets 500ms,10s --max-gap 40"
+ * </pre>
+ */
+public final class VrptwBenchmarkRunner {
+
+    public record Result(String instance, int customers, long budgetMs, long elapsedMs,
+                         int vehiclesUsed, Integer bestKnownVehicles, double distance,
+                         Double bestKnownDistance, Double gapPercent, int timeWindowViolations,
+                         int capacityViolations, int unserved) {
+    }
+
+    private static final String CSV_HEADER = "instance,customers,budget_ms,elapsed_ms,vehicles,bks_vehicles," +
+        "distance,bks_distance,gap_pct,tw_violations,capacity_violations,unserved";
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = parseOptions(args);
+        Path instancesDir = Path.of(options.getOrDefault("instances", "src/jmh/resources/vrptw/instances"));
+        Path bestKnownFile = Path.of(options.getOrDefault("best-known", "src/jmh/resources/vrptw/best-known.csv"));
+        Path outDir = Path.of(options.getOrDefault("out", "target/vrptw"));
+        List<Duration> budgets = Arrays.stream(options.getOrDefault("budgets", "1s,10s").split(","))
+            .map(VrptwBenchmarkRunner::parseBudget)
+            .toList();
+
+        List<Path> instanceFiles = listInstances(instancesDir);
+        if (instanceFiles.isEmpty()) {
+            System.err.println("No instance files (*.txt) found in " + instancesDir.toAbsolutePath()
+                + "; add the Solomon or Homberger files there, or write seeded stand-ins with SyntheticVrptwInstances");
+            System.exit(2);
+        }
+
+        BestKnownSolutions bestKnown = BestKnownSolutions.read(bestKnownFile);
+        DeliverySchedulingService schedulingService = new DeliverySchedulingService(new RouteOptimizationService());
+
+        List<Result> results = new ArrayList<>();
+        for (Path file : instanceFiles) {
+            VrptwInstance instance = VrptwInstanceReader.read(file);
+            for (Duration budget : budgets) {
+                Result result = run(schedulingService, instance, budget, bestKnown);
+                results.add(result);
+                System.out.println(toCsv(result));
+            }
+        }
+
+        Files.createDirectories(outDir);
+        writeCsv(outDir.resolve("vrptw-results.csv"), results);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+            .writeValue(outDir.resolve("vrptw-results.json").toFile(), results);
+        System.out.println("Wrote " + results.size() + " results to " + outDir.toAbsolutePath());
+
+        if (!withinThresholds(results, options)) {
+            System.exit(1);
+        }
+    }
+
+    static Result run(DeliverySchedulingService schedulingService, VrptwInstance instance, Duration budget,
+                      BestKnownSolutions bestKnown) {
+        // The optimizer checks windows against the wall clock, so the instance day starts now
+        Instant dayStart = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+        long started = System.nanoTime();
+        List<DeliveryRoute> routes = schedulingService.scheduleDeliveries(
+            VrptwMapping.stops(instance, dayStart), VrptwMapping.fleet(instance), budget);
+        long elapsedMs = Duration.ofNanos(System.nanoTime() - started).toMillis();
+
+        VrptwEvaluator.Score score = VrptwEvaluator.score(instance, routes);
+        BestKnownSolutions.Solution best = bestKnown.forInstance(instance.name()).orElse(null);
+        Double gap = best != null ? (score.distance() - best.distance()) / best.distance() * 100 : null;
+
+        return new Result(instance.name(), instance.deliveries().size(), budget.toMillis(), elapsedMs,
+            score.vehiclesUsed(), best != null ? best.vehicles() : null, round(score.distance()),
+            best != null ? best.distance() : null, gap != null ? round(gap) : null,
+            score.timeWindowViolations(), score.capacityViolations(), score.unserved());
+    }
+
+    private static boolean withinThresholds(List<Result> results, Map<String, String> options) {
+        boolean passed = true;
+        if (options.containsKey("max-gap")) {
+            double maxGap = Double.parseDouble(options.get("max-gap"));
+            for (Result result : results) {
+                if (result.gapPercent() != null && result.gapPercent() > maxGap) {
+                    System.err.printf("%s @ %dms: gap %.2f%% exceeds %.2f%%%n",
+                        result.instance(), result.budgetMs(), result.gapPercent(), maxGap);
+                    passed = false;
+                }
+            }
+        }
+        if (options.containsKey("max-violations")) {
+            int maxViolations = Integer.parseInt(options.get("max-violations"));
+            for (Result result : results) {
+                int violations = result.timeWindowViolations() + result.capacityViolations() + result.unserved();
+                if (violations > maxViolations) {
+                    System.err.printf("%s @ %dms: %d violations exceed %d%n",
+                        result.instance(), result.budgetMs(), violations, maxViolations);
+                    passed = false;
+                }
+            }
+        }
+        return passed;
+    }
+
+    private static List<Path> listInstances(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files
+                .filter(Files::isRegularFile)
+                .filter(file -> file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".txt"))
+                .sorted()
+                .toList();
+        }
+    }
+
+    private static void writeCsv(Path file, List<Result> results) throws IOException {
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(file))) {
+            writer.println(CSV_HEADER);
+            results.forEach(result -> writer.println(toCsv(result)));
+        }
+    }
+
+    private static String toCsv(Result result) {
+        return String.join(",",
+            result.instance(),
+            String.valueOf(result.customers()),
+            String.valueOf(result.budgetMs()),
+            String.valueOf(result.elapsedMs()),
+            String.valueOf(result.vehiclesUsed()),
+            orEmpty(result.bestKnownVehicles()),
+            String.valueOf(result.distance()),
+            orEmpty(result.bestKnownDistance()),
+            orEmpty(result.gapPercent()),
+            String.valueOf(result.timeWindowViolations()),
+            String.valueOf(result.capacityViolations()),
+            String.valueOf(result.unserved()));
+    }
+
+    private static String orEmpty(Object value) {
+        return value != null ? value.toString() : "";
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private static Duration parseBudget(String budget) {
+        String value = budget.trim().toLowerCase(Locale.ROOT);
+        return value.endsWith("ms")
+            ? Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)))
+            : Duration.parse("PT" + value);
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --name value pairs, got: " + String.join(" ", args));
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+}
@@ -0,0 +1,79 @@
+package com.paklog.lastmile.benchmark.vrptw;
+
+import com.paklog.lastmile.domain.aggregate.DeliveryRoute;
+import com.paklog.lastmile.domain.aggregate.DeliveryStop;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Scores a plan with the benchmark's own rules rather than the optimizer's: Euclidean
+ * distance in instance units, every route leaving the depot at time zero, waiting allowed
+ * before a window opens, and a violation for every late arrival or overloaded vehicle.
+ */
+public final class VrptwEvaluator {
+
+    public record Score(int vehiclesUsed, double distance, int timeWindowViolations,
+                        int capacityViolations, int unserved) {
+    }
+
+    private VrptwEvaluator() {
+    }
+
+    public static Score score(VrptwInstance instance, List<DeliveryRoute> routes) {
+        Map<String, VrptwInstance.Customer> customersByStopId = new HashMap<>();
+        for (VrptwInstance.Customer customer : instance.deliveries()) {
+            customersByStopId.put(VrptwMapping.stopId(customer), customer);
+        }
+
+        VrptwInstance.Customer depot = instance.depot();
+        Set<String> served = new HashSet<>();
+        int vehiclesUsed = 0;
+        double distance = 0;
+        int timeWindowViolations = 0;
+        int capacityViolations = 0;
+
+        for (DeliveryRoute route : routes) {
+            if (route.getStops().isEmpty()) {
+                continue;
+            }
+            vehiclesUsed++;
+
+            VrptwInstance.Customer previous = depot;
+            double time = 0;
+            int load = 0;
+
+            for (DeliveryStop stop : route.getStops()) {
+                VrptwInstance.Customer customer = customersByStopId.get(stop.getStopId());
+                if (customer == null || !served.add(stop.getStopId())) {
+                    throw new IllegalStateException("Plan visits unknown or duplicate stop " + stop.getStopId());
+                }
+
+                double leg = previous.distanceTo(customer);
+                distance += leg;
+                time += leg;
+                if (time > customer.dueDate()) {
+                    timeWindowViolations++;
+                }
+                time = Math.max(time, customer.readyTime()) + customer.serviceTime();
+                load += customer.demand();
+                previous = customer;
+            }
+
+            double back = previous.distanceTo(depot);
+            distance += back;
+            if (time + back > depot.dueDate()) {
+                timeWindowViolations++;
+            }
+            if (load > instance.capacity()) {
+                capacityViolations++;
+            }
+        }
+
+        return new Score(vehiclesUsed, distance, timeWindowViolations, capacityViolations,
+            customersByStopId.size() - served.size());
+    }
+}
@@ -0,0 +1,26 @@
+package com.paklog.lastmile.benchmark.vrptw;
+
+import java.util.List;
+
+/**
+ * A Solomon or Gehring-Homberger VRPTW instance. Customer 0 is the depot; times and
+ * distances share one unit, as in the original files.
+ */
+public record VrptwInstance(String name, int vehicles, int capacity, List<Customer> customers) {
+
+    public Customer depot() {
+        return customers.get(0);
+    }
+
+    public List<Customer> deliveries() {
+        return customers.subList(1, customers.size());
+    }
+
+    public record Customer(int id, double x, double y, int demand, int readyTime, int dueDate,
+                           int serviceTime) {
+
+        public double distanceTo(Customer other) {
+            return Math.hypot(x - other.x, y - other.y);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.paklog.lastmile.benchmark.vrptw;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the plain-text format shared by the Solomon and Gehring-Homberger benchmark sets:
+ * a name line, a VEHICLE section with count and capacity, then one line per customer
+ * with id, x, y, demand, ready time, due date and service time.
+ */
+public final class VrptwInstanceReader {
+
+    private VrptwInstanceReader() {
+    }
+
+    public static VrptwInstance read(Path file) {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read VRPTW instance " + file, e);
+        }
+
+        String name = null;
+        int vehicles = -1;
+        int capacity = -1;
+        boolean vehicleSection = false;
+        List<VrptwInstance.Customer> customers = new ArrayList<>();
+
+        for (String line : lines) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (name == null) {
+                name = trimmed;
+                continue;
+            }
+            if (trimmed.startsWith("VEHICLE")) {
+                vehicleSection = true;
+                continue;
+            }
+
+            String[] fields = trimmed.split("\\s+");
+            if (!isNumeric(fields[0])) {
+                continue;
+            }
+
+            if (vehicleSection) {
+                vehicles = Integer.parseInt(fields[0]);
+                capacity = Integer.parseInt(fields[1]);
+                vehicleSection = false;
+            } else if (fields.length >= 7) {
+                customers.add(new VrptwInstance.Customer(
+                    Integer.parseInt(fields[0]),
+                    Double.parseDouble(fields[1]),
+                    Double.parseDouble(fields[2]),
+                    (int) Double.parseDouble(fields[3]),
+                    (int) Double.parseDouble(fields[4]),
+                    (int) Double.parseDouble(fields[5]),
+                    (int) Double.parseDouble(fields[6])));
+            }
+        }
+
+        if (name == null || vehicles < 0 || customers.size() < 2) {
+            throw new IllegalArgumentException("Not a Solomon/Homberger VRPTW instance: " + file);
+        }
+
+        return new VrptwInstance(name, vehicles, capacity, customers);
+    }
+
+    private static boolean isNumeric(String field) {
+        return !field.isEmpty() && (Character.isDigit(field.charAt(0)) || field.charAt(0) == '-');
+    }
+}
@@ -0,0 +1,79 @@
+package com.paklog.lastmile.benchmark.vrptw;
+
+import com.paklog.lastmile.domain.aggregate.DeliveryStop;
+import com.paklog.lastmile.domain.aggregate.Vehicle;
+import com.paklog.lastmile.domain.valueobject.DeliveryWindow;
+import com.paklog.lastmile.domain.valueobject.GPSCoordinates;
+import com.paklog.lastmile.domain.valueobject.StopType;
+import com.paklog.lastmile.domain.valueobject.VehicleType;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maps an instance onto the domain model. One instance unit becomes one minute and the
+ * distance the optimizer drives in one minute (24 km/h plus 20% traffic), so travel times
+ * the optimizer derives from coordinates match the instance's own. Coordinates are placed
+ * around the equator, where degrees of latitude and longitude are the same length.
+ */
+public final class VrptwMapping {
+
+    static final double KM_PER_UNIT = 24.0 / 1.2 / 60.0;
+    private static final double KM_PER_DEGREE = 6371 * Math.PI / 180;
+
+    private VrptwMapping() {
+    }
+
+    public static String stopId(VrptwInstance.Customer customer) {
+        return "C" + customer.id();
+    }
+
+    /**
+     * Builds fresh stops for every run; the optimizer writes sequences and ETAs into them
+     */
+    public static List<DeliveryStop> stops(VrptwInstance instance, Instant dayStart) {
+        List<DeliveryStop> stops = new ArrayList<>(instance.customers().size() - 1);
+        for (VrptwInstance.Customer customer : instance.deliveries()) {
+            stops.add(DeliveryStop.builder()
+                .stopId(stopId(customer))
+                .type(StopType.DELIVERY)
+                .customerId(String.valueOf(customer.id()))
+                .coordinates(coordinates(instance, customer))
+                .window(new DeliveryWindow(
+                    dayStart.plus(customer.readyTime(), ChronoUnit.MINUTES),
+                    dayStart.plus(customer.dueDate(), ChronoUnit.MINUTES)))
+                .estimatedDurationMinutes(customer.serviceTime())
+                .packageIds(List.of("PKG-" + customer.id()))
+                .totalWeightKg(customer.demand())
+                .build());
+        }
+        return stops;
+    }
+
+    public static List<Vehicle> fleet(VrptwInstance instance) {
+        GPSCoordinates depot = coordinates(instance, instance.depot());
+        List<Vehicle> vehicles = new ArrayList<>(instance.vehicles());
+        for (int i = 0; i < instance.vehicles(); i++) {
+            vehicles.add(Vehicle.builder()
+                .id("VEH-" + i)
+                .vehicleNumber("V" + i)
+                .type(VehicleType.VAN)
+                .driverId("DRV-" + i)
+                .homeBase(depot)
+                .currentLocation(depot)
+                .available(true)
+                .active(true)
+                .build());
+        }
+        return vehicles;
+    }
+
+    private static GPSCoordinates coordinates(VrptwInstance instance, VrptwInstance.Customer customer) {
+        VrptwInstance.Customer depot = instance.depot();
+        return new GPSCoordinates(
+            (customer.y() - depot.y()) * KM_PER_UNIT / KM_PER_DEGREE,
+            (customer.x() - depot.x()) * KM_PER_UNIT / KM_PER_DEGREE);
+    }
+}
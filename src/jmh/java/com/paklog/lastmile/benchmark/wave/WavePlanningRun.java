@@ -0,0 +1,253 @@
+package com.paklog.lastmile.benchmark.wave;
+
+import com.paklog.lastmile.LastMileDeliveryApplication;
+import com.paklog.lastmile.application.command.PlanWaveCommand;
+import com.paklog.lastmile.application.port.in.WavePlanningUseCase;
+import com.paklog.lastmile.application.result.WavePlanningStatus;
+import com.paklog.lastmile.benchmark.SyntheticData;
+import com.paklog.lastmile.domain.aggregate.DeliveryRoute;
+import com.paklog.lastmile.domain.aggregate.DeliveryStop;
+import com.paklog.lastmile.domain.aggregate.PendingStop;
+import com.paklog.lastmile.domain.aggregate.Vehicle;
+import com.paklog.lastmile.domain.repository.DeliveryRouteRepository;
+import com.paklog.lastmile.domain.repository.PendingStopRepository;
+import com.paklog.lastmile.domain.repository.VehicleRepository;
+import com.paklog.lastmile.domain.valueobject.GPSCoordinates;
+import com.paklog.lastmile.domain.valueobject.PlanningRunState;
+import com.paklog.lastmile.domain.valueobject.VehicleType;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Plans a synthetic night in-process on the {@code perf} profile: {@code --stops} pending stops
+ * spread over {@code --depots} depots, each with {@code --vehicles-per-depot} trucks. Starts one
+ * wave run per service day the windows fall on, waits for all of them and reports wall time,
+ * routes, planned and unassigned stops. Exits with status 1 if a run failed, took longer than
+ * {@code --max-minutes}, or gave a vehicle two routes in the same two-hour slot.
+ *
+ * <pre>
+ * mvn -Pbenchmarks compile exec:java@wave [-Dwave.args="--stops 50000 --depots 5"]
+ * </pre>
+ *
+ * Options: {@code --stops}, {@code --depots}, {@code --vehicles-per-depot}, {@code --parallelism},
+ * {@code --route-budget}, {@code --max-partition-stops} and {@code --max-minutes}.
+ */
+public final class WavePlanningRun {
+
+    private static final double DEPOT_RING_DEGREES = 0.07;
+    private static final int SEED_BATCH = 5_000;
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(500);
+
+    private WavePlanningRun() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = parseOptions(args);
+        int stopCount = Integer.parseInt(options.getOrDefault("stops", "50000"));
+        int depots = Integer.parseInt(options.getOrDefault("depots", "5"));
+        int vehiclesPerDepot = Integer.parseInt(options.getOrDefault("vehicles-per-depot", "100"));
+        double maxMinutes = Double.parseDouble(options.getOrDefault("max-minutes", "5"));
+
+        List<String> springArgs = new ArrayList<>(List.of("--delivery.perf.fleet-size=0"));
+        if (options.containsKey("parallelism")) {
+            springArgs.add("--delivery.planning.wave.parallelism=" + options.get("parallelism"));
+        }
+        if (options.containsKey("route-budget")) {
+            springArgs.add("--delivery.planning.wave.route-budget=" + options.get("route-budget"));
+        }
+        if (options.containsKey("max-partition-stops")) {
+            springArgs.add("--delivery.planning.wave.max-partition-stops=" + options.get("max-partition-stops"));
+        }
+
+        boolean passed;
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(LastMileDeliveryApplication.class)
+            .profiles("perf")
+            .web(WebApplicationType.NONE)
+            .run(springArgs.toArray(String[]::new))) {
+
+            List<GPSCoordinates> depotLocations = depotLocations(depots);
+            List<String> vehicleIds = seedFleet(context.getBean(VehicleRepository.class), depotLocations, vehiclesPerDepot);
+            TreeSet<LocalDate> days = seedPendingStops(context.getBean(PendingStopRepository.class),
+                depotLocations, stopCount);
+            System.out.printf("Seeded %d pending stops over %d depots with %d vehicles each, due on %s%n",
+                stopCount, depots, vehiclesPerDepot, days);
+
+            WavePlanningUseCase planner = context.getBean(WavePlanningUseCase.class);
+            long started = System.nanoTime();
+            List<String> runIds = new ArrayList<>();
+            for (LocalDate day : days) {
+                runIds.add(planner.startWavePlanning(PlanWaveCommand.builder()
+                    .serviceDate(day)
+                    .vehicleIds(vehicleIds)
+                    .build()).getRunId());
+            }
+
+            List<WavePlanningStatus> finished = await(planner, runIds);
+            double minutes = (System.nanoTime() - started) / 60e9;
+            passed = verdict(finished, stopCount, minutes, maxMinutes)
+                & noDoubleBooking(context.getBean(DeliveryRouteRepository.class), vehicleIds);
+        }
+        System.out.println(passed ? "PASS" : "FAIL");
+        System.exit(passed ? 0 : 1);
+    }
+
+    private static List<GPSCoordinates> depotLocations(int depots) {
+        List<GPSCoordinates> locations = new ArrayList<>(depots);
+        for (int i = 0; i < depots; i++) {
+            double angle = 2 * Math.PI * i / depots;
+            locations.add(new GPSCoordinates(
+                SyntheticData.DEPOT.getLatitude() + DEPOT_RING_DEGREES * Math.sin(angle),
+                SyntheticData.DEPOT.getLongitude() + DEPOT_RING_DEGREES * Math.cos(angle)));
+        }
+        return locations;
+    }
+
+    private static List<String> seedFleet(VehicleRepository vehicleRepository, List<GPSCoordinates> depotLocations,
+                                          int vehiclesPerDepot) {
+        List<Vehicle> fleet = new ArrayList<>();
+        for (int d = 0; d < depotLocations.size(); d++) {
+            for (int i = 0; i < vehiclesPerDepot; i++) {
+                fleet.add(Vehicle.builder()
+                    .id("WAVE-VEH-" + d + "-" + i)
+                    .vehicleNumber("WAVE-" + d + "-" + i)
+                    .type(VehicleType.TRUCK)
+                    .driverId("WAVE-DRV-" + d + "-" + i)
+                    .homeBase(depotLocations.get(d))
+                    .currentLocation(depotLocations.get(d))
+                    .available(true)
+                    .active(true)
+                    .build());
+            }
+        }
+        // saveAll only replaces vehicles that already exist
+        fleet.forEach(vehicleRepository::save);
+        return fleet.stream().map(Vehicle::getId).toList();
+    }
+
+    /**
+     * Files each stop under its nearest depot, as order intake would
+     */
+    private static TreeSet<LocalDate> seedPendingStops(PendingStopRepository repository,
+                                                       List<GPSCoordinates> depotLocations, int stopCount) {
+        SyntheticData data = new SyntheticData(SyntheticData.DEFAULT_SEED);
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        TreeSet<LocalDate> days = new TreeSet<>();
+        List<PendingStop> batch = new ArrayList<>(SEED_BATCH);
+
+        for (int i = 0; i < stopCount; i++) {
+            DeliveryStop stop = data.stop("WAVE-STOP-" + i, true);
+            GPSCoordinates depot = depotLocations.stream()
+                .min(Comparator.comparingDouble(location -> location.distanceTo(stop.getCoordinates())))
+                .orElseThrow();
+            PendingStop pending = PendingStop.pending(stop, PendingStop.depotOf(depot), today);
+            days.add(LocalDate.ofInstant(pending.getServiceDay(), ZoneOffset.UTC));
+            batch.add(pending);
+
+            if (batch.size() == SEED_BATCH) {
+                repository.saveAll(batch);
+                batch.clear();
+            }
+        }
+        repository.saveAll(batch);
+        return days;
+    }
+
+    private static List<WavePlanningStatus> await(WavePlanningUseCase planner, List<String> runIds)
+            throws InterruptedException {
+        while (true) {
+            List<WavePlanningStatus> statuses = runIds.stream()
+                .map(runId -> planner.getWavePlanning(runId).orElseThrow())
+                .toList();
+            long planned = statuses.stream().mapToLong(WavePlanningStatus::getStopsPlanned).sum();
+            long routes = statuses.stream().mapToLong(WavePlanningStatus::getRoutesCreated).sum();
+            System.out.printf("  %d stops planned onto %d routes%n", planned, routes);
+
+            if (statuses.stream().allMatch(status -> status.getFinishedAt() != null)) {
+                return statuses;
+            }
+            Thread.sleep(POLL_INTERVAL);
+        }
+    }
+
+    private static boolean verdict(List<WavePlanningStatus> finished, int stopCount, double minutes,
+                                   double maxMinutes) {
+        long planned = 0;
+        long unassigned = 0;
+        long routes = 0;
+        long partitions = 0;
+        long failedPartitions = 0;
+        boolean passed = true;
+
+        for (WavePlanningStatus status : finished) {
+            System.out.printf("%s: %s, %d partitions (%d failed), %d routes, %d stops planned, %d left pending%n",
+                status.getRunId(), status.getState(), status.getPartitionsPlanned(), status.getPartitionsFailed(),
+                status.getRoutesCreated(), status.getStopsPlanned(), status.getStopsPending());
+            planned += status.getStopsPlanned();
+            unassigned += status.getStopsUnassigned();
+            routes += status.getRoutesCreated();
+            partitions += status.getPartitionsPlanned();
+            failedPartitions += status.getPartitionsFailed();
+            if (status.getState() != PlanningRunState.COMPLETED) {
+                System.out.printf("FAIL: %s ended %s: %s%n", status.getRunId(), status.getState(), status.getError());
+                passed = false;
+            }
+        }
+
+        Runtime runtime = Runtime.getRuntime();
+        System.out.printf("%d of %d stops planned onto %d routes in %d partitions (%d failed), %d unassigned, "
+                + "in %.2f min (%.0f stops/s); heap in use %d MB%n",
+            planned, stopCount, routes, partitions, failedPartitions, unassigned, minutes,
+            planned / (minutes * 60), (runtime.totalMemory() - runtime.freeMemory()) >> 20);
+
+        if (minutes > maxMinutes) {
+            System.out.printf("FAIL: took %.2f min, more than %.2f%n", minutes, maxMinutes);
+            passed = false;
+        }
+        return passed;
+    }
+
+    /**
+     * Every route's stops share the slot their partition was cut by, so its first stop gives it
+     */
+    private static boolean noDoubleBooking(DeliveryRouteRepository routeRepository, List<String> vehicleIds) {
+        int doubleBooked = 0;
+        for (String vehicleId : vehicleIds) {
+            Set<Long> slots = new HashSet<>();
+            for (DeliveryRoute route : routeRepository.findByVehicleId(vehicleId)) {
+                long slot = route.getStops().get(0).getWindow().getStartTime().getEpochSecond() / 7200;
+                if (!slots.add(slot)) {
+                    doubleBooked++;
+                }
+            }
+        }
+        if (doubleBooked > 0) {
+            System.out.printf("FAIL: %d routes share a vehicle and slot with another route%n", doubleBooked);
+            return false;
+        }
+        return true;
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --name value pairs, got: " + String.join(" ", args));
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+}
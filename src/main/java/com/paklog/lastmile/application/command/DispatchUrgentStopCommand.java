@@ -0,0 +1,22 @@
+package com.paklog.lastmile.application.command;
+
+import com.paklog.lastmile.domain.aggregate.DeliveryStop;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotNull;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DispatchUrgentStopCommand {
+
+    /**
+     * The stop to add to whichever active route can take it most cheaply
+     */
+    @NotNull
+    private DeliveryStop stop;
+}
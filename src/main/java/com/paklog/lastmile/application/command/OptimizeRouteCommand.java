@@ -15,4 +15,9 @@ public class OptimizeRouteCommand {
 
     @NotBlank
     private String routeId;
+
+    /**
+     * Seconds the optimizer may spend on local search; unbounded when null for synchronous runs
+     */
+    private Integer timeBudgetSeconds;
 }
@@ -0,0 +1,27 @@
+package com.paklog.lastmile.application.command;
+
+import com.paklog.lastmile.domain.aggregate.DeliveryStop;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotEmpty;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlanRoutesCommand {
+
+    @NotEmpty
+    private List<DeliveryStop> stops;
+
+    /**
+     * Fleet to plan against; all available vehicles are used when empty
+     */
+    @Builder.Default
+    private List<String> vehicleIds = new ArrayList<>();
+}
@@ -0,0 +1,28 @@
+package com.paklog.lastmile.application.command;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotNull;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlanWaveCommand {
+
+    @NotNull
+    private LocalDate serviceDate;
+
+    /**
+     * Fleet to plan against; all available vehicles are used when empty. Ignored when resuming
+     * a run, which keeps the fleet it started with.
+     */
+    @Builder.Default
+    private List<String> vehicleIds = new ArrayList<>();
+}
@@ -0,0 +1,26 @@
+package com.paklog.lastmile.application.command;
+
+import com.paklog.lastmile.domain.aggregate.DeliveryStop;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubmitOrderCommand {
+
+    /**
+     * The order's stop; its stop id is the order id and identifies redeliveries of the same order
+     */
+    private DeliveryStop stop;
+
+    /**
+     * Day the order is due when the stop has no delivery window
+     */
+    private LocalDate serviceDate;
+}
@@ -0,0 +1,24 @@
+package com.paklog.lastmile.application.command;
+
+import com.paklog.lastmile.domain.valueobject.GPSCoordinates;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotNull;
+
+/**
+ * GPS ping from the vehicle driving a route
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UpdateLocationCommand {
+
+    private String routeId;
+
+    @NotNull
+    private GPSCoordinates location;
+}
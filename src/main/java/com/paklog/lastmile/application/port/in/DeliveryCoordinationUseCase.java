@@ -1,15 +1,22 @@
 package com.paklog.lastmile.application.port.in;
 
 import com.paklog.lastmile.application.command.*;
+import com.paklog.lastmile.application.query.ListRoutesQuery;
+import com.paklog.lastmile.application.query.RoutePage;
+import com.paklog.lastmile.application.query.RouteSummary;
+import com.paklog.lastmile.application.result.PlanRoutesResult;
 import com.paklog.lastmile.domain.aggregate.DeliveryRoute;
 import com.paklog.lastmile.domain.aggregate.ProofOfDelivery;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface DeliveryCoordinationUseCase {
 
     String createRoute(CreateRouteCommand command);
 
+    PlanRoutesResult planRoutes(PlanRoutesCommand command);
+
     void startRoute(StartRouteCommand command);
 
     void completeStop(CompleteStopCommand command);
@@ -20,11 +27,21 @@ public interface DeliveryCoordinationUseCase {
 
     void updateTrafficConditions(UpdateTrafficCommand command);
 
+    void updateLocation(UpdateLocationCommand command);
+
     DeliveryRoute getRoute(String routeId);
 
     List<DeliveryRoute> getActiveRoutes();
 
     List<DeliveryRoute> getRoutesByDriver(String driverId);
 
+    List<RouteSummary> getActiveRouteSummaries();
+
+    List<RouteSummary> getRouteSummariesByDriver(String driverId);
+
+    RoutePage<?> listRoutes(ListRoutesQuery query);
+
+    void streamRoutes(ListRoutesQuery query, Consumer<Object> sink);
+
     ProofOfDelivery getProofOfDelivery(String proofId);
 }
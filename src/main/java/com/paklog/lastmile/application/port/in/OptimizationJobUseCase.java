@@ -0,0 +1,17 @@
+package com.paklog.lastmile.application.port.in;
+
+import com.paklog.lastmile.application.command.OptimizeRouteCommand;
+import com.paklog.lastmile.application.result.OptimizationJobStatus;
+
+import java.util.Optional;
+
+public interface OptimizationJobUseCase {
+
+    /**
+     * Queues an optimization of the route and returns at once; a request identical to one
+     * still queued or running joins that job instead of starting another
+     */
+    OptimizationJobStatus submitOptimization(OptimizeRouteCommand command);
+
+    Optional<OptimizationJobStatus> getOptimizationJob(String jobId);
+}
@@ -0,0 +1,17 @@
+package com.paklog.lastmile.application.port.in;
+
+import com.paklog.lastmile.application.command.SubmitOrderCommand;
+import com.paklog.lastmile.application.result.OrderIntakeResult;
+
+import java.util.List;
+
+public interface OrderIntakeUseCase {
+
+    /**
+     * Validates a batch of orders and adds the new ones to the pending stop pool in one bulk write.
+     * Safe to repeat: orders seen before are counted as duplicates and left as they are.
+     *
+     * @throws IllegalStateException while no depot is known, so the batch is retried rather than rejected
+     */
+    OrderIntakeResult submitOrders(List<SubmitOrderCommand> orders);
+}
@@ -0,0 +1,27 @@
+package com.paklog.lastmile.application.port.in;
+
+import com.paklog.lastmile.domain.aggregate.DeliveryRoute;
+import com.paklog.lastmile.domain.aggregate.ProofOfDelivery;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+public interface ReactiveDeliveryQueryUseCase {
+
+    Mono<DeliveryRoute> getRoute(String routeId);
+
+    /**
+     * Emits the route once its version is above {@code sinceVersion}, immediately if it already is.
+     * Completes empty if no such change happens within {@code timeout}.
+     */
+    Mono<DeliveryRoute> awaitRouteChange(String routeId, long sinceVersion, Duration timeout);
+
+    Flux<DeliveryRoute> getActiveRoutes();
+
+    Flux<DeliveryRoute> getRoutesByDriver(String driverId);
+
+    Mono<ProofOfDelivery> getProofOfDelivery(String proofId);
+
+    Flux<ProofOfDelivery> getProofsOfDeliveryByRoute(String routeId);
+}
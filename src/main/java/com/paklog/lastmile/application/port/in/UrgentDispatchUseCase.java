@@ -0,0 +1,13 @@
+package com.paklog.lastmile.application.port.in;
+
+import com.paklog.lastmile.application.command.DispatchUrgentStopCommand;
+import com.paklog.lastmile.application.result.UrgentDispatchResult;
+
+public interface UrgentDispatchUseCase {
+
+    /**
+     * Adds the stop to the nearby active route where it costs the least extra distance without
+     * making any delivery late, or reports why no route could take it
+     */
+    UrgentDispatchResult dispatchUrgentStop(DispatchUrgentStopCommand command);
+}
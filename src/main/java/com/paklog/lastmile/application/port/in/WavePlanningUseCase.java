@@ -0,0 +1,17 @@
+package com.paklog.lastmile.application.port.in;
+
+import com.paklog.lastmile.application.command.PlanWaveCommand;
+import com.paklog.lastmile.application.result.WavePlanningStatus;
+
+import java.util.Optional;
+
+public interface WavePlanningUseCase {
+
+    /**
+     * Starts planning every pending stop due on the day and returns at once. Starting a day
+     * planned before plans only the stops still pending; a day already being planned is refused.
+     */
+    WavePlanningStatus startWavePlanning(PlanWaveCommand command);
+
+    Optional<WavePlanningStatus> getWavePlanning(String runId);
+}
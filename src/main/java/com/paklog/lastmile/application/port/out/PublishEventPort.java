@@ -2,7 +2,11 @@ package com.paklog.lastmile.application.port.out;
 
 import com.paklog.lastmile.domain.event.DomainEvent;
 
+import java.util.List;
+
 public interface PublishEventPort {
 
     void publish(DomainEvent event);
+
+    void publishAll(List<DomainEvent> events);
 }
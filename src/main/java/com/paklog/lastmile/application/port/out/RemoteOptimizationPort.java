@@ -0,0 +1,32 @@
+package com.paklog.lastmile.application.port.out;
+
+import com.paklog.lastmile.domain.aggregate.DeliveryRoute;
+import com.paklog.lastmile.domain.aggregate.Vehicle;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Hands route optimizations to a pool of workers outside this instance. Only present when
+ * distributed optimization is enabled; otherwise jobs solve locally.
+ */
+public interface RemoteOptimizationPort {
+
+    /**
+     * Sends the route's stops to a worker. Completes with the worker's solution, or exceptionally
+     * when the worker failed or no answer came in time. The route itself is left untouched.
+     */
+    CompletableFuture<Solution> optimize(String jobId, DeliveryRoute route, Vehicle vehicle, Duration timeBudget);
+
+    record Solution(List<String> stopOrder,
+                    List<Instant> etas,
+                    double distanceKm,
+                    int score,
+                    int iterations,
+                    double initialDistanceKm,
+                    int initialScore,
+                    String solvedBy) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.paklog.lastmile.application.port.out;
+
+import com.paklog.lastmile.domain.aggregate.DeliveryRoute;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface RouteChangeFeedPort {
+
+    /**
+     * Hot stream of routes as stored after each insert or update, shared by all subscribers
+     */
+    Flux<DeliveryRoute> routeChanges();
+
+    /**
+     * Completes once a subscription to {@link #routeChanges()} is sure to see every change committed
+     * from then on, which may be before its cursor is open; read the current state only after this
+     */
+    Mono<Void> awaitListening();
+}
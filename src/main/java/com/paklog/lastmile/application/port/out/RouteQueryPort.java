@@ -0,0 +1,22 @@
+package com.paklog.lastmile.application.port.out;
+
+import com.paklog.lastmile.application.query.ListRoutesQuery;
+import com.paklog.lastmile.application.query.RoutePage;
+import com.paklog.lastmile.application.query.RouteSummary;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface RouteQueryPort {
+
+    List<RouteSummary> findActiveRouteSummaries();
+
+    List<RouteSummary> findRouteSummariesByDriver(String driverId);
+
+    RoutePage<?> findRoutes(ListRoutesQuery query);
+
+    /**
+     * Streams matching routes straight off a database cursor. Callers must close the stream.
+     */
+    Stream<?> streamRoutes(ListRoutesQuery query);
+}
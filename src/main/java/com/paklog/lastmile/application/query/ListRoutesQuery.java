@@ -0,0 +1,37 @@
+package com.paklog.lastmile.application.query;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Listing of routes, either all active routes or those of a single driver.
+ * Pages are keyset-ordered by planned start time and route ID.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListRoutesQuery {
+
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 500;
+
+    private String driverId;
+
+    private String cursor;
+
+    @Builder.Default
+    private int limit = DEFAULT_LIMIT;
+
+    private boolean includeStops;
+
+    public boolean isActiveOnly() {
+        return driverId == null;
+    }
+
+    public int effectiveLimit() {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+}
@@ -0,0 +1,35 @@
+package com.paklog.lastmile.application.query;
+
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position: the planned start time and ID of the last route on a page. Routes
+ * without a planned start sort before all others, as Mongo orders null first, and encode it empty.
+ */
+@Data
+public class RouteCursor {
+    private final Instant plannedStartTime;
+    private final String routeId;
+
+    public String encode() {
+        String raw = (plannedStartTime != null ? String.valueOf(plannedStartTime.toEpochMilli()) : "") + ":" + routeId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static RouteCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            String start = raw.substring(0, separator);
+            return new RouteCursor(
+                start.isEmpty() ? null : Instant.ofEpochMilli(Long.parseLong(start)),
+                raw.substring(separator + 1));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid route cursor: " + cursor, e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.paklog.lastmile.application.query;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoutePage<T> {
+
+    private List<T> items;
+
+    /**
+     * Cursor for the next page, or null when this is the last page
+     */
+    private String nextCursor;
+}
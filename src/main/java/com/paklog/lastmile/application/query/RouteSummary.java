@@ -0,0 +1,46 @@
+package com.paklog.lastmile.application.query;
+
+import com.paklog.lastmile.domain.valueobject.GPSCoordinates;
+import com.paklog.lastmile.domain.valueobject.RouteStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Lightweight read model of a delivery route without its stops
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RouteSummary {
+
+    private String id;
+    private String routeNumber;
+    private RouteStatus status;
+
+    private String vehicleId;
+    private String driverId;
+
+    private int totalStops;
+    private int completedStops;
+    private int failedStops;
+
+    private double totalDistanceKm;
+    private int estimatedDurationMinutes;
+
+    private Instant plannedStartTime;
+    private Instant actualStartTime;
+    private Instant estimatedEndTime;
+
+    private GPSCoordinates currentLocation;
+
+    private double trafficDelayMinutes;
+    private int optimizationScore;
+
+    private Long version;
+    private Instant updatedAt;
+}
@@ -0,0 +1,51 @@
+package com.paklog.lastmile.application.result;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OptimizationJobStatus {
+
+    public enum State {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        /**
+         * Stops were completed, added or removed while solving, so the result was not applied
+         */
+        STALE,
+        FAILED
+    }
+
+    private String jobId;
+    private String routeId;
+    private State state;
+    private long timeBudgetMs;
+
+    /**
+     * True when the request joined a job already running for the same route and budget
+     */
+    private boolean deduplicated;
+
+    private int iterations;
+    private Double initialDistanceKm;
+    private Double bestDistanceKm;
+    private Integer bestScore;
+
+    private Instant submittedAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+
+    /**
+     * "local", or the id of the remote worker that produced the applied solution
+     */
+    private String solvedBy;
+    private String error;
+}
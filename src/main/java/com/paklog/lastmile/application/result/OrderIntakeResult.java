@@ -0,0 +1,34 @@
+package com.paklog.lastmile.application.result;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderIntakeResult {
+
+    public enum Rejection {
+        MISSING_ID,
+        INVALID_COORDINATES,
+        INVALID_WINDOW,
+        INVALID_WEIGHT,
+        NO_SERVICE_DATE
+    }
+
+    private int accepted;
+
+    /**
+     * Orders already in the pool, or repeated within the batch
+     */
+    private int duplicates;
+
+    @Builder.Default
+    private Map<Rejection, Integer> rejected = new EnumMap<>(Rejection.class);
+}
@@ -0,0 +1,23 @@
+package com.paklog.lastmile.application.result;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlanRoutesResult {
+
+    @Builder.Default
+    private List<PlannedRouteResult> routes = new ArrayList<>();
+
+    private int plannedRoutes;
+    private int rejectedRoutes;
+    private int unassignedStops;
+}
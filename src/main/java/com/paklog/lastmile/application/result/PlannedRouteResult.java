@@ -0,0 +1,27 @@
+package com.paklog.lastmile.application.result;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlannedRouteResult {
+
+    public enum Outcome {
+        PLANNED,
+        REJECTED
+    }
+
+    private String routeId;
+    private String routeNumber;
+    private String vehicleId;
+    private Outcome outcome;
+    private int stopCount;
+    private double totalDistanceKm;
+    private int optimizationScore;
+    private String reason;
+}
@@ -0,0 +1,35 @@
+package com.paklog.lastmile.application.result;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UrgentDispatchResult {
+
+    public enum Outcome {
+        DISPATCHED,
+        REJECTED
+    }
+
+    private String stopId;
+    private Outcome outcome;
+    private String routeId;
+    private String vehicleId;
+    private int sequence;
+    private double addedDistanceKm;
+    private Instant estimatedArrival;
+
+    /**
+     * Active routes near enough to be considered, and how many of them could take the stop
+     */
+    private int candidateRoutes;
+    private int feasibleRoutes;
+    private String reason;
+}
@@ -0,0 +1,39 @@
+package com.paklog.lastmile.application.result;
+
+import com.paklog.lastmile.domain.valueobject.PlanningRunState;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WavePlanningStatus {
+
+    private String runId;
+    private LocalDate serviceDate;
+    private PlanningRunState state;
+    private int attempts;
+    private int vehicles;
+
+    private long partitionsPlanned;
+    private long partitionsFailed;
+    private long routesCreated;
+    private long stopsPlanned;
+    private long stopsUnassigned;
+
+    /**
+     * Stops due that day and not yet on a route, including any that arrived after the run started
+     */
+    private long stopsPending;
+
+    private Instant startedAt;
+    private Instant heartbeatAt;
+    private Instant finishedAt;
+    private String error;
+}
@@ -3,23 +3,37 @@ package com.paklog.lastmile.application.service;
 import com.paklog.lastmile.application.command.*;
 import com.paklog.lastmile.application.port.in.DeliveryCoordinationUseCase;
 import com.paklog.lastmile.application.port.out.PublishEventPort;
+import com.paklog.lastmile.application.port.out.RouteQueryPort;
+import com.paklog.lastmile.application.query.ListRoutesQuery;
+import com.paklog.lastmile.application.query.RoutePage;
+import com.paklog.lastmile.application.query.RouteSummary;
+import com.paklog.lastmile.application.result.PlanRoutesResult;
+import com.paklog.lastmile.application.result.PlannedRouteResult;
 import com.paklog.lastmile.domain.aggregate.DeliveryRoute;
 import com.paklog.lastmile.domain.aggregate.DeliveryStop;
 import com.paklog.lastmile.domain.aggregate.ProofOfDelivery;
 import com.paklog.lastmile.domain.aggregate.Vehicle;
+import com.paklog.lastmile.domain.event.DomainEvent;
 import com.paklog.lastmile.domain.repository.DeliveryRouteRepository;
 import com.paklog.lastmile.domain.repository.ProofOfDeliveryRepository;
 import com.paklog.lastmile.domain.repository.VehicleRepository;
+import com.paklog.lastmile.domain.service.DeliverySchedulingService;
 import com.paklog.lastmile.domain.service.RouteOptimizationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -30,7 +44,11 @@ public class DeliveryApplicationService implements DeliveryCoordinationUseCase {
     private final VehicleRepository vehicleRepository;
     private final ProofOfDeliveryRepository proofRepository;
     private final RouteOptimizationService optimizationService;
+    private final DeliverySchedulingService schedulingService;
     private final PublishEventPort publishEventPort;
+    private final RouteQueryPort routeQueryPort;
+    private final EtaNotificationCoalescer etaNotificationCoalescer;
+    private final RouteCommandMailbox routeCommandMailbox;
 
     @Override
     @Transactional
@@ -86,46 +104,95 @@ public class DeliveryApplicationService implements DeliveryCoordinationUseCase {
 
     @Override
     @Transactional
-    public void startRoute(StartRouteCommand command) {
-        log.info("Starting route: {}", command.getRouteId());
-
-        DeliveryRoute route = routeRepository.findById(command.getRouteId())
-            .orElseThrow(() -> new IllegalArgumentException("Route not found"));
+    public PlanRoutesResult planRoutes(PlanRoutesCommand command) {
+        log.info("Planning routes for {} stops", command.getStops().size());
 
-        route.start();
+        List<Vehicle> fleet = command.getVehicleIds() == null || command.getVehicleIds().isEmpty() ?
+            vehicleRepository.findAvailableVehicles() :
+            vehicleRepository.findAllById(command.getVehicleIds());
 
-        routeRepository.save(route);
+        if (fleet.isEmpty()) {
+            throw new IllegalStateException("No vehicles available for planning");
+        }
 
-        route.getDomainEvents().forEach(publishEventPort::publish);
-        route.clearDomainEvents();
-    }
+        Map<String, Vehicle> vehiclesById = fleet.stream()
+            .collect(Collectors.toMap(Vehicle::getId, vehicle -> vehicle));
+
+        List<DeliveryRoute> routes = schedulingService.scheduleDeliveries(command.getStops(), fleet);
+
+        List<DeliveryRoute> plannedRoutes = new ArrayList<>();
+        Map<String, Vehicle> assignedVehicles = new LinkedHashMap<>();
+        List<DomainEvent> events = new ArrayList<>();
+        PlanRoutesResult result = new PlanRoutesResult();
+
+        for (DeliveryRoute route : routes) {
+            Vehicle vehicle = vehiclesById.get(route.getVehicleId());
+            int totalWeight = route.getStops().stream()
+                .mapToInt(DeliveryStop::getTotalWeightKg)
+                .sum();
+
+            // The scheduler gives a vehicle at most one route per time slot, so a vehicle taken by an
+            // earlier slot of this plan still drives this one; only a vehicle busy beforehand is not free
+            String rejection = null;
+            if (!vehicle.isAvailable() && !assignedVehicles.containsKey(vehicle.getId())) {
+                rejection = "Vehicle is already assigned to another route";
+            } else if (!vehicle.hasCapacityFor(totalWeight, route.getStops().size())) {
+                rejection = "Route exceeds the vehicle's weight or stop capacity";
+            }
+            if (rejection != null) {
+                result.getRoutes().add(routeResult(route, PlannedRouteResult.Outcome.REJECTED, rejection));
+                result.setRejectedRoutes(result.getRejectedRoutes() + 1);
+                result.setUnassignedStops(result.getUnassignedStops() + route.getStops().size());
+                continue;
+            }
+
+            route.plan();
+            vehicle.assignRoute();
+
+            plannedRoutes.add(route);
+            assignedVehicles.put(vehicle.getId(), vehicle);
+            events.addAll(route.getDomainEvents());
+            route.clearDomainEvents();
+
+            result.getRoutes().add(routeResult(route, PlannedRouteResult.Outcome.PLANNED, null));
+            result.setPlannedRoutes(result.getPlannedRoutes() + 1);
+        }
 
-    @Override
-    @Transactional
-    public void completeStop(CompleteStopCommand command) {
-        log.info("Completing stop {} on route {}", command.getStopId(), command.getRouteId());
+        routeRepository.insertAll(plannedRoutes);
+        vehicleRepository.saveAll(new ArrayList<>(assignedVehicles.values()));
+        publishEventPort.publishAll(events);
 
-        DeliveryRoute route = routeRepository.findById(command.getRouteId())
-            .orElseThrow(() -> new IllegalArgumentException("Route not found"));
+        log.info("Planned {} routes, rejected {}", result.getPlannedRoutes(), result.getRejectedRoutes());
 
-        // Find and update stop
-        DeliveryStop stop = route.getStops().stream()
-            .filter(s -> s.getStopId().equals(command.getStopId()))
-            .findFirst()
-            .orElseThrow(() -> new IllegalArgumentException("Stop not found"));
+        return result;
+    }
 
-        // Record attempt
-        if (command.getAttempt() != null) {
-            stop.recordAttempt(command.getAttempt());
-        }
+    @Override
+    public void startRoute(StartRouteCommand command) {
+        log.info("Starting route: {}", command.getRouteId());
 
-        // Complete stop in route
-        route.completeStop(command.getStopId(), command.getSuccess());
+        routeCommandMailbox.execute(command.getRouteId(), DeliveryRoute::start);
+    }
 
-        routeRepository.save(route);
+    @Override
+    public void completeStop(CompleteStopCommand command) {
+        log.info("Completing stop {} on route {}", command.getStopId(), command.getRouteId());
 
-        route.getDomainEvents().forEach(publishEventPort::publish);
-        route.clearDomainEvents();
+        routeCommandMailbox.execute(command.getRouteId(), route -> {
+            // Find and update stop
+            DeliveryStop stop = route.getStops().stream()
+                .filter(s -> s.getStopId().equals(command.getStopId()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Stop not found"));
+
+            // Record attempt
+            if (command.getAttempt() != null) {
+                stop.recordAttempt(command.getAttempt());
+            }
+
+            // Complete stop in route
+            route.completeStop(command.getStopId(), command.getSuccess());
+        });
     }
 
     @Override
@@ -159,38 +226,47 @@ public class DeliveryApplicationService implements DeliveryCoordinationUseCase {
     }
 
     @Override
-    @Transactional
     public void optimizeRoute(OptimizeRouteCommand command) {
         log.info("Optimizing route: {}", command.getRouteId());
 
-        DeliveryRoute route = routeRepository.findById(command.getRouteId())
-            .orElseThrow(() -> new IllegalArgumentException("Route not found"));
+        Duration timeBudget = command.getTimeBudgetSeconds() != null ?
+            Duration.ofSeconds(command.getTimeBudgetSeconds()) : null;
 
-        Vehicle vehicle = vehicleRepository.findById(route.getVehicleId())
+        // Solved on a copy, so stop updates for the route are not held up behind the solve
+        DeliveryRoute solved = routeRepository.findById(command.getRouteId())
+            .orElseThrow(() -> new IllegalArgumentException("Route not found"));
+        Vehicle vehicle = vehicleRepository.findById(solved.getVehicleId())
             .orElseThrow(() -> new IllegalArgumentException("Vehicle not found"));
-
-        route = optimizationService.optimizeRoute(route, vehicle);
-
-        routeRepository.save(route);
-
-        route.getDomainEvents().forEach(publishEventPort::publish);
-        route.clearDomainEvents();
+        String solvedStops = SolvedStopOrder.fingerprint(solved);
+
+        optimizationService.optimizeRoute(solved, vehicle, timeBudget);
+        List<String> stopOrder = solved.getStops().stream().map(DeliveryStop::getStopId).toList();
+        List<Instant> etas = solved.getStops().stream().map(DeliveryStop::getEstimatedArrival).toList();
+
+        routeCommandMailbox.execute(command.getRouteId(), route -> {
+            if (!solvedStops.equals(SolvedStopOrder.fingerprint(route))) {
+                throw new IllegalStateException("Route stops changed while optimizing; optimize again");
+            }
+            route.optimize(SolvedStopOrder.inSolvedOrder(route, stopOrder, etas),
+                solved.getTotalDistanceKm(), solved.getOptimizationScore());
+        });
     }
 
     @Override
-    @Transactional
     public void updateTrafficConditions(UpdateTrafficCommand command) {
         log.info("Updating traffic for route: {}", command.getRouteId());
 
-        DeliveryRoute route = routeRepository.findById(command.getRouteId())
-            .orElseThrow(() -> new IllegalArgumentException("Route not found"));
+        DeliveryRoute route = routeCommandMailbox.execute(command.getRouteId(),
+            current -> current.updateTrafficDelay(command.getDelayMinutes()));
 
-        route.updateTrafficDelay(command.getDelayMinutes());
+        etaNotificationCoalescer.onEtasRecalculated(route);
+    }
 
-        routeRepository.save(route);
+    @Override
+    public void updateLocation(UpdateLocationCommand command) {
+        log.debug("Updating location of route: {}", command.getRouteId());
 
-        route.getDomainEvents().forEach(publishEventPort::publish);
-        route.clearDomainEvents();
+        routeCommandMailbox.execute(command.getRouteId(), route -> route.updateCurrentLocation(command.getLocation()));
     }
 
     @Override
@@ -209,12 +285,47 @@ public class DeliveryApplicationService implements DeliveryCoordinationUseCase {
         return routeRepository.findByDriverId(driverId);
     }
 
+    @Override
+    public List<RouteSummary> getActiveRouteSummaries() {
+        return routeQueryPort.findActiveRouteSummaries();
+    }
+
+    @Override
+    public List<RouteSummary> getRouteSummariesByDriver(String driverId) {
+        return routeQueryPort.findRouteSummariesByDriver(driverId);
+    }
+
+    @Override
+    public RoutePage<?> listRoutes(ListRoutesQuery query) {
+        return routeQueryPort.findRoutes(query);
+    }
+
+    @Override
+    public void streamRoutes(ListRoutesQuery query, Consumer<Object> sink) {
+        try (Stream<?> routes = routeQueryPort.streamRoutes(query)) {
+            routes.forEach(sink);
+        }
+    }
+
     @Override
     public ProofOfDelivery getProofOfDelivery(String proofId) {
         return proofRepository.findById(proofId)
             .orElseThrow(() -> new IllegalArgumentException("Proof of delivery not found"));
     }
 
+    private PlannedRouteResult routeResult(DeliveryRoute route, PlannedRouteResult.Outcome outcome, String reason) {
+        return PlannedRouteResult.builder()
+            .routeId(route.getId())
+            .routeNumber(route.getRouteNumber())
+            .vehicleId(route.getVehicleId())
+            .outcome(outcome)
+            .stopCount(route.getStops().size())
+            .totalDistanceKm(route.getTotalDistanceKm())
+            .optimizationScore(route.getOptimizationScore())
+            .reason(reason)
+            .build();
+    }
+
     private String generateRouteNumber() {
         return "ROUTE-" + Instant.now().getEpochSecond();
     }
@@ -0,0 +1,168 @@
+package com.paklog.lastmile.application.service;
+
+import com.paklog.lastmile.application.port.out.PublishEventPort;
+import com.paklog.lastmile.domain.aggregate.DeliveryRoute;
+import com.paklog.lastmile.domain.aggregate.DeliveryStop;
+import com.paklog.lastmile.domain.event.CustomerNotifiedEvent;
+import com.paklog.lastmile.domain.event.DomainEvent;
+import com.paklog.lastmile.domain.event.StopEtaUpdate;
+import com.paklog.lastmile.domain.valueobject.RouteStatus;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Turns ETA recalculations into customer notifications without flooding the topic.
+ * Per stop it remembers the ETA the customer was last told and ignores shifts below
+ * the threshold; significant shifts are merged per route over a debounce window and
+ * leave as one CustomerNotifiedEvent carrying every changed stop.
+ */
+@Slf4j
+@Component
+public class EtaNotificationCoalescer {
+
+    static final String NOTIFICATION_TYPE = "ETA_UPDATE";
+
+    private final PublishEventPort publishEventPort;
+    private final Duration threshold;
+    private final Duration debounceWindow;
+    private final Duration idleRetention;
+    private final DistributionSummary flushSize;
+
+    private final Map<String, RouteEtaState> routes = new ConcurrentHashMap<>();
+
+    public EtaNotificationCoalescer(PublishEventPort publishEventPort,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${delivery.notifications.eta.threshold:5m}") Duration threshold,
+                                    @Value("${delivery.notifications.eta.debounce-window:2m}") Duration debounceWindow,
+                                    @Value("${delivery.notifications.eta.idle-retention:12h}") Duration idleRetention) {
+        this.publishEventPort = publishEventPort;
+        this.threshold = threshold;
+        this.debounceWindow = debounceWindow;
+        this.idleRetention = idleRetention;
+
+        this.flushSize = DistributionSummary.builder("delivery.eta.flush.size")
+            .description("Coalesced ETA notifications published per flush")
+            .register(meterRegistry);
+        Gauge.builder("delivery.eta.tracked.routes", routes, Map::size)
+            .description("Routes whose notified ETAs are being tracked")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Records the route's current stop ETAs; call after every recalculation
+     */
+    public void onEtasRecalculated(DeliveryRoute route) {
+        if (route.getStatus() == RouteStatus.COMPLETED || route.getStatus() == RouteStatus.CANCELLED) {
+            routes.remove(route.getId());
+            return;
+        }
+
+        Instant now = Instant.now();
+        routes.compute(route.getId(), (routeId, state) -> {
+            RouteEtaState current = state != null ? state : new RouteEtaState();
+            current.lastTouched = now;
+
+            for (DeliveryStop stop : route.getStops()) {
+                if (stop.isCompleted()) {
+                    current.forget(stop.getStopId());
+                } else if (stop.getEstimatedArrival() != null) {
+                    current.record(stop, now);
+                }
+            }
+            return current;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${delivery.notifications.eta.flush-interval-ms:1000}")
+    public void flush() {
+        Instant now = Instant.now();
+        List<DomainEvent> notifications = new ArrayList<>();
+
+        for (String routeId : routes.keySet()) {
+            routes.computeIfPresent(routeId, (id, state) -> {
+                if (state.isDue(now)) {
+                    notifications.add(state.drain(id));
+                }
+                return state.lastTouched.plus(idleRetention).isBefore(now) ? null : state;
+            });
+        }
+
+        if (!notifications.isEmpty()) {
+            flushSize.record(notifications.size());
+            publishEventPort.publishAll(notifications);
+            log.debug("Flushed {} coalesced ETA notifications", notifications.size());
+        }
+    }
+
+    private final class RouteEtaState {
+
+        // Only touched inside ConcurrentHashMap.compute for the route, so plain maps suffice
+        private final Map<String, Instant> lastNotified = new HashMap<>();
+        private final Map<String, StopEtaUpdate> pending = new LinkedHashMap<>();
+        private Instant windowStart;
+        private Instant lastTouched;
+
+        void record(DeliveryStop stop, Instant now) {
+            Instant eta = stop.getEstimatedArrival();
+            Instant notified = lastNotified.get(stop.getStopId());
+
+            if (notified != null && Duration.between(notified, eta).abs().compareTo(threshold) < 0) {
+                // Back within the threshold of what the customer already knows
+                pending.remove(stop.getStopId());
+                return;
+            }
+
+            pending.put(stop.getStopId(), StopEtaUpdate.builder()
+                .stopId(stop.getStopId())
+                .customerId(stop.getCustomerId())
+                .estimatedArrival(eta)
+                .deltaMinutes(notified != null ? Duration.between(notified, eta).toMinutes() : 0)
+                .build());
+
+            if (windowStart == null) {
+                windowStart = now;
+            }
+        }
+
+        void forget(String stopId) {
+            lastNotified.remove(stopId);
+            pending.remove(stopId);
+        }
+
+        boolean isDue(Instant now) {
+            if (pending.isEmpty()) {
+                windowStart = null;
+                return false;
+            }
+            return !windowStart.plus(debounceWindow).isAfter(now);
+        }
+
+        CustomerNotifiedEvent drain(String routeId) {
+            List<StopEtaUpdate> updates = new ArrayList<>(pending.values());
+            updates.forEach(update -> lastNotified.put(update.getStopId(), update.getEstimatedArrival()));
+            pending.clear();
+            windowStart = null;
+
+            return CustomerNotifiedEvent.builder()
+                .routeId(routeId)
+                .notificationType(NOTIFICATION_TYPE)
+                .message("Your delivery ETA has been updated")
+                .etaUpdates(updates)
+                .build();
+        }
+    }
+}
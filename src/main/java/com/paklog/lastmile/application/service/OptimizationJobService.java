@@ -0,0 +1,307 @@
+package com.paklog.lastmile.application.service;
+
+import com.paklog.lastmile.application.command.OptimizeRouteCommand;
+import com.paklog.lastmile.application.port.in.OptimizationJobUseCase;
+import com.paklog.lastmile.application.port.out.RemoteOptimizationPort;
+import com.paklog.lastmile.application.port.out.RemoteOptimizationPort.Solution;
+import com.paklog.lastmile.application.result.OptimizationJobStatus;
+import com.paklog.lastmile.application.result.OptimizationJobStatus.State;
+import com.paklog.lastmile.domain.aggregate.DeliveryRoute;
+import com.paklog.lastmile.domain.aggregate.DeliveryStop;
+import com.paklog.lastmile.domain.aggregate.Vehicle;
+import com.paklog.lastmile.domain.repository.DeliveryRouteRepository;
+import com.paklog.lastmile.domain.repository.VehicleRepository;
+import com.paklog.lastmile.domain.service.RouteOptimizationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs route optimizations as background jobs so heavy solves do not hold a request open.
+ * A job solves a copy of the route within its time budget, publishing its best score as it goes,
+ * then applies the result through the route's mailbox, but only if no stop was completed, added
+ * or removed meanwhile. Applying publishes the usual RouteOptimizedEvent. Jobs live in memory on
+ * the instance that accepted them and are forgotten some time after finishing.
+ * <p>
+ * With distributed optimization enabled the solve happens on a remote worker instead. This
+ * instance only waits for the answer, so many more jobs may be in flight at once, and it still
+ * owns the apply step and its staleness check.
+ */
+@Slf4j
+@Service
+public class OptimizationJobService implements OptimizationJobUseCase {
+
+    private static final String LOCAL = "local";
+
+    private final DeliveryRouteRepository routeRepository;
+    private final VehicleRepository vehicleRepository;
+    private final RouteOptimizationService optimizationService;
+    private final RouteCommandMailbox routeCommandMailbox;
+    private final RemoteOptimizationPort remoteOptimization;
+    private final Duration defaultBudget;
+    private final Duration maxBudget;
+    private final int maxPending;
+    private final Duration retention;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final Map<String, Job> activeByRequest = new ConcurrentHashMap<>();
+    private final AtomicInteger unfinished = new AtomicInteger();
+    private final Semaphore running;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public OptimizationJobService(DeliveryRouteRepository routeRepository,
+                                  VehicleRepository vehicleRepository,
+                                  RouteOptimizationService optimizationService,
+                                  RouteCommandMailbox routeCommandMailbox,
+                                  ObjectProvider<RemoteOptimizationPort> remoteOptimization,
+                                  @Value("${delivery.optimization.jobs.default-budget:10s}") Duration defaultBudget,
+                                  @Value("${delivery.optimization.jobs.max-budget:60s}") Duration maxBudget,
+                                  @Value("${delivery.optimization.jobs.max-concurrent:2}") int maxConcurrent,
+                                  @Value("${delivery.optimization.distributed.max-in-flight:64}") int maxInFlight,
+                                  @Value("${delivery.optimization.jobs.max-pending:500}") int maxPending,
+                                  @Value("${delivery.optimization.jobs.retention:1h}") Duration retention) {
+        this.routeRepository = routeRepository;
+        this.vehicleRepository = vehicleRepository;
+        this.optimizationService = optimizationService;
+        this.routeCommandMailbox = routeCommandMailbox;
+        this.remoteOptimization = remoteOptimization.getIfAvailable();
+        this.defaultBudget = defaultBudget;
+        this.maxBudget = maxBudget;
+        this.maxPending = maxPending;
+        this.retention = retention;
+        this.running = new Semaphore(this.remoteOptimization != null ? maxInFlight : maxConcurrent);
+    }
+
+    @Override
+    public OptimizationJobStatus submitOptimization(OptimizeRouteCommand command) {
+        routeRepository.findById(command.getRouteId())
+            .orElseThrow(() -> new IllegalArgumentException("Route not found"));
+
+        Duration budget = budgetOf(command);
+        String request = command.getRouteId() + "@" + budget.toMillis();
+
+        Job[] created = new Job[1];
+        Job job = activeByRequest.computeIfAbsent(request, key -> {
+            if (unfinished.get() >= maxPending) {
+                throw new IllegalStateException("Too many optimization jobs pending");
+            }
+            unfinished.incrementAndGet();
+            created[0] = new Job(UUID.randomUUID().toString(), key, command.getRouteId(), budget);
+            jobs.put(created[0].jobId, created[0]);
+            return created[0];
+        });
+
+        if (created[0] == null) {
+            log.debug("Optimization of route {} joined job {}", command.getRouteId(), job.jobId);
+            return job.status(true);
+        }
+
+        log.info("Queued optimization job {} for route {} with a {} budget", job.jobId, job.routeId, budget);
+        executor.execute(() -> run(job));
+        return job.status(false);
+    }
+
+    @Override
+    public Optional<OptimizationJobStatus> getOptimizationJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(job -> job.status(false));
+    }
+
+    @Scheduled(fixedDelayString = "${delivery.optimization.jobs.purge-interval-ms:60000}")
+    public void purgeFinished() {
+        Instant cutoff = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(Job job) {
+        try {
+            running.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            finish(job, State.FAILED, "Interrupted while queued");
+            return;
+        }
+
+        try {
+            job.startedAt = Instant.now();
+            job.state = State.RUNNING;
+
+            DeliveryRoute route = routeRepository.findById(job.routeId)
+                .orElseThrow(() -> new IllegalArgumentException("Route not found"));
+            Vehicle vehicle = vehicleRepository.findById(route.getVehicleId())
+                .orElseThrow(() -> new IllegalArgumentException("Vehicle not found"));
+            String solvedStops = SolvedStopOrder.fingerprint(route);
+
+            Solution solution = remoteOptimization != null
+                ? solveRemotely(job, route, vehicle)
+                : solveLocally(job, route, vehicle);
+            job.solvedBy = solution.solvedBy();
+
+            routeCommandMailbox.execute(job.routeId, current -> {
+                if (!solvedStops.equals(SolvedStopOrder.fingerprint(current))) {
+                    throw new StaleRouteException();
+                }
+                current.optimize(SolvedStopOrder.inSolvedOrder(current, solution.stopOrder(), solution.etas()),
+                    solution.distanceKm(), solution.score());
+            });
+
+            finish(job, State.COMPLETED, null);
+            log.info("Optimization job {} applied to route {}: distance={}km, score={}, solved by {}",
+                job.jobId, job.routeId, solution.distanceKm(), solution.score(), solution.solvedBy());
+
+        } catch (StaleRouteException e) {
+            finish(job, State.STALE, "Route stops changed while optimizing");
+            log.info("Optimization job {} discarded, route {} changed meanwhile", job.jobId, job.routeId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            finish(job, State.FAILED, "Interrupted while solving");
+        } catch (ExecutionException e) {
+            finish(job, State.FAILED, e.getCause().getMessage());
+            log.warn("Optimization job {} for route {} failed remotely: {}", job.jobId, job.routeId,
+                e.getCause().getMessage());
+        } catch (RuntimeException e) {
+            finish(job, State.FAILED, e.getMessage());
+            log.warn("Optimization job {} for route {} failed: {}", job.jobId, job.routeId, e.getMessage());
+        } finally {
+            // An Error skips the handlers above; the job must still finish or its request stays taken
+            if (job.finishedAt == null) {
+                finish(job, State.FAILED, "Optimization aborted");
+                log.error("Optimization job {} for route {} aborted", job.jobId, job.routeId);
+            }
+            running.release();
+        }
+    }
+
+    private Solution solveLocally(Job job, DeliveryRoute route, Vehicle vehicle) {
+        DeliveryRoute solved = optimizationService.optimizeRoute(route, vehicle, job.timeBudget, job::progress);
+        Progress initial = job.initial;
+        return new Solution(
+            solved.getStops().stream().map(DeliveryStop::getStopId).toList(),
+            solved.getStops().stream().map(DeliveryStop::getEstimatedArrival).toList(),
+            solved.getTotalDistanceKm(),
+            solved.getOptimizationScore(),
+            job.best != null ? job.best.iteration() : 0,
+            initial != null ? initial.distanceKm() : solved.getTotalDistanceKm(),
+            initial != null ? initial.score() : solved.getOptimizationScore(),
+            LOCAL);
+    }
+
+    /**
+     * Remote workers report no intermediate progress; the job shows the start and end points
+     */
+    private Solution solveRemotely(Job job, DeliveryRoute route, Vehicle vehicle)
+            throws InterruptedException, ExecutionException {
+        Solution solution = remoteOptimization.optimize(job.jobId, route, vehicle, job.timeBudget).get();
+        job.progress(0, solution.initialDistanceKm(), solution.initialScore());
+        job.progress(solution.iterations(), solution.distanceKm(), solution.score());
+        return solution;
+    }
+
+    /**
+     * Records the outcome and frees the request, so the same optimization can be submitted again
+     */
+    private void finish(Job job, State state, String error) {
+        job.error = error;
+        job.finishedAt = Instant.now();
+        job.state = state;
+        activeByRequest.remove(job.request, job);
+        unfinished.decrementAndGet();
+    }
+
+    private Duration budgetOf(OptimizeRouteCommand command) {
+        if (command.getTimeBudgetSeconds() == null) {
+            return defaultBudget;
+        }
+        if (command.getTimeBudgetSeconds() <= 0) {
+            throw new IllegalArgumentException("Time budget must be positive");
+        }
+        Duration requested = Duration.ofSeconds(command.getTimeBudgetSeconds());
+        return requested.compareTo(maxBudget) > 0 ? maxBudget : requested;
+    }
+
+    /**
+     * What the solution depends on: which stops there are and how far each has got
+     */
+    private static final class Job {
+
+        private final String jobId;
+        private final String request;
+        private final String routeId;
+        private final Duration timeBudget;
+        private final Instant submittedAt = Instant.now();
+
+        private volatile State state = State.QUEUED;
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+        private volatile String error;
+        private volatile String solvedBy;
+        private volatile Progress initial;
+        private volatile Progress best;
+
+        Job(String jobId, String request, String routeId, Duration timeBudget) {
+            this.jobId = jobId;
+            this.request = request;
+            this.routeId = routeId;
+            this.timeBudget = timeBudget;
+        }
+
+        void progress(int iteration, double distanceKm, int score) {
+            Progress current = new Progress(iteration, distanceKm, score);
+            if (iteration == 0) {
+                initial = current;
+            }
+            best = current;
+        }
+
+        OptimizationJobStatus status(boolean deduplicated) {
+            Progress initialProgress = initial;
+            Progress bestProgress = best;
+            return OptimizationJobStatus.builder()
+                .jobId(jobId)
+                .routeId(routeId)
+                .state(state)
+                .timeBudgetMs(timeBudget.toMillis())
+                .deduplicated(deduplicated)
+                .iterations(bestProgress != null ? bestProgress.iteration() : 0)
+                .initialDistanceKm(initialProgress != null ? initialProgress.distanceKm() : null)
+                .bestDistanceKm(bestProgress != null ? bestProgress.distanceKm() : null)
+                .bestScore(bestProgress != null ? bestProgress.score() : null)
+                .submittedAt(submittedAt)
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .solvedBy(solvedBy)
+                .error(error)
+                .build();
+        }
+    }
+
+    private record Progress(int iteration, double distanceKm, int score) {
+    }
+
+    private static class StaleRouteException extends RuntimeException {
+
+        StaleRouteException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.paklog.lastmile.application.service;
+
+import com.paklog.lastmile.application.command.PlanWaveCommand;
+import com.paklog.lastmile.application.command.SubmitOrderCommand;
+import com.paklog.lastmile.application.port.in.OrderIntakeUseCase;
+import com.paklog.lastmile.application.port.in.WavePlanningUseCase;
+import com.paklog.lastmile.application.result.OrderIntakeResult;
+import com.paklog.lastmile.application.result.OrderIntakeResult.Rejection;
+import com.paklog.lastmile.domain.aggregate.DeliveryStop;
+import com.paklog.lastmile.domain.aggregate.PendingStop;
+import com.paklog.lastmile.domain.aggregate.Vehicle;
+import com.paklog.lastmile.domain.repository.PendingStopRepository;
+import com.paklog.lastmile.domain.repository.VehicleRepository;
+import com.paklog.lastmile.domain.valueobject.GPSCoordinates;
+import com.paklog.lastmile.domain.valueobject.StopType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Admits orders into the pending stop pool. Each order is filed under the depot nearest to it,
+ * then the batch goes to the pool in one bulk write that only inserts orders not seen before.
+ * <p>
+ * Orders due soon also count towards a per-day backlog. Once a day's backlog reaches the planning
+ * threshold, or its oldest order has waited the maximum time, a wave planning run for that day is
+ * started; it plans whatever is still pending. Days further out wait for the nightly run.
+ * Backlogs live in memory, so each day entering the horizon is seeded once from the orders the
+ * pool already holds for it; orders taken in before a restart still get their run.
+ */
+@Slf4j
+@Service
+public class OrderIntakeService implements OrderIntakeUseCase {
+
+    private final PendingStopRepository pendingStopRepository;
+    private final VehicleRepository vehicleRepository;
+    private final WavePlanningUseCase wavePlanningUseCase;
+    private final int planningThreshold;
+    private final Duration maxWait;
+    private final int planningHorizonDays;
+    private final int defaultStopMinutes;
+
+    private final Map<LocalDate, Backlog> backlogs = new ConcurrentHashMap<>();
+    private final Set<LocalDate> seededDays = ConcurrentHashMap.newKeySet();
+    private volatile List<GPSCoordinates> depots = List.of();
+
+    public OrderIntakeService(PendingStopRepository pendingStopRepository,
+                              VehicleRepository vehicleRepository,
+                              WavePlanningUseCase wavePlanningUseCase,
+                              @Value("${delivery.intake.planning-threshold:2000}") int planningThreshold,
+                              @Value("${delivery.intake.max-wait:15m}") Duration maxWait,
+                              @Value("${delivery.intake.planning-horizon-days:1}") int planningHorizonDays,
+                              @Value("${delivery.optimization.stop-duration-minutes:15}") int defaultStopMinutes) {
+        this.pendingStopRepository = pendingStopRepository;
+        this.vehicleRepository = vehicleRepository;
+        this.wavePlanningUseCase = wavePlanningUseCase;
+        this.planningThreshold = planningThreshold;
+        this.maxWait = maxWait;
+        this.planningHorizonDays = planningHorizonDays;
+        this.defaultStopMinutes = defaultStopMinutes;
+    }
+
+    @Override
+    public OrderIntakeResult submitOrders(List<SubmitOrderCommand> orders) {
+        OrderIntakeResult result = OrderIntakeResult.builder().build();
+        List<GPSCoordinates> depotLocations = depots();
+        Map<String, PendingStop> unique = new LinkedHashMap<>();
+
+        for (SubmitOrderCommand order : orders) {
+            Rejection rejection = validate(order);
+            if (rejection == null && depotLocations.isEmpty()) {
+                // No fleet loaded yet, as on a cold start; leave the batch to be redelivered
+                throw new IllegalStateException("No depots known yet to file orders under");
+            }
+            if (rejection != null) {
+                result.getRejected().merge(rejection, 1, Integer::sum);
+                continue;
+            }
+
+            DeliveryStop stop = withDefaults(order.getStop());
+            GPSCoordinates depot = nearest(depotLocations, stop.getCoordinates());
+            PendingStop pending = PendingStop.pending(stop, PendingStop.depotOf(depot), order.getServiceDate());
+            if (unique.putIfAbsent(pending.getId(), pending) != null) {
+                result.setDuplicates(result.getDuplicates() + 1);
+            }
+        }
+
+        int inserted = pendingStopRepository.insertNew(new ArrayList<>(unique.values()));
+        result.setAccepted(inserted);
+        result.setDuplicates(result.getDuplicates() + unique.size() - inserted);
+
+        if (inserted > 0) {
+            // Counts orders received, including any redelivered ones; the threshold is a trigger, not a tally
+            Instant now = Instant.now();
+            unique.values().stream()
+                .collect(Collectors.groupingBy(stop -> LocalDate.ofInstant(stop.getServiceDay(), ZoneOffset.UTC),
+                    Collectors.counting()))
+                .forEach((day, count) -> backlogs.merge(day, new Backlog(now, count), Backlog::plus));
+            planDueBacklogs();
+        }
+        return result;
+    }
+
+    /**
+     * Catches days whose oldest order has waited long enough while no new orders arrive
+     */
+    @Scheduled(fixedDelayString = "${delivery.intake.threshold-check-ms:10000}")
+    public void planDueBacklogs() {
+        Instant now = Instant.now();
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        LocalDate horizon = today.plusDays(planningHorizonDays);
+        seedBacklogs(today, horizon, now);
+
+        for (Map.Entry<LocalDate, Backlog> entry : backlogs.entrySet()) {
+            LocalDate day = entry.getKey();
+            Backlog backlog = entry.getValue();
+            if (day.isBefore(today)) {
+                backlogs.remove(day, backlog);
+                continue;
+            }
+            boolean due = backlog.count() >= planningThreshold || !backlog.since().plus(maxWait).isAfter(now);
+            if (day.isAfter(horizon) || !due || !backlogs.remove(day, backlog)) {
+                continue;
+            }
+
+            try {
+                wavePlanningUseCase.startWavePlanning(PlanWaveCommand.builder().serviceDate(day).build());
+                log.info("Started wave planning for {} after {} orders", day, backlog.count());
+            } catch (IllegalStateException e) {
+                // Typically a run for the day is still going; try again on a later check
+                backlogs.merge(day, backlog, Backlog::plus);
+                log.debug("Wave planning for {} not started: {}", day, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Counts what the pool already holds for days not seen since startup. Their oldest order may
+     * have waited a while already, but it is counted as waiting from now.
+     */
+    private void seedBacklogs(LocalDate today, LocalDate horizon, Instant now) {
+        seededDays.removeIf(day -> day.isBefore(today));
+        for (LocalDate day = today; !day.isAfter(horizon); day = day.plusDays(1)) {
+            if (seededDays.contains(day)) {
+                continue;
+            }
+            long pending = pendingStopRepository.countPending(PendingStop.serviceDay(day));
+            if (seededDays.add(day) && pending > 0) {
+                backlogs.merge(day, new Backlog(now, pending), Backlog::plus);
+            }
+        }
+    }
+
+    /**
+     * Depots are where the fleet is based; reloaded now and then as vehicles come and go
+     */
+    @Scheduled(fixedDelayString = "${delivery.intake.depot-refresh-ms:300000}")
+    public void refreshDepots() {
+        Map<String, GPSCoordinates> byKey = new LinkedHashMap<>();
+        for (Vehicle vehicle : vehicleRepository.findAll()) {
+            if (vehicle.getHomeBase() != null && vehicle.isActive()) {
+                byKey.putIfAbsent(PendingStop.depotOf(vehicle.getHomeBase()), vehicle.getHomeBase());
+            }
+        }
+        depots = List.copyOf(byKey.values());
+        log.debug("Order intake knows {} depots", depots.size());
+    }
+
+    private List<GPSCoordinates> depots() {
+        if (depots.isEmpty()) {
+            refreshDepots();
+        }
+        return depots;
+    }
+
+    private static Rejection validate(SubmitOrderCommand order) {
+        DeliveryStop stop = order.getStop();
+        if (stop == null || stop.getStopId() == null || stop.getStopId().isBlank()) {
+            return Rejection.MISSING_ID;
+        }
+        if (stop.getCoordinates() == null || !stop.getCoordinates().isValid()) {
+            return Rejection.INVALID_COORDINATES;
+        }
+        if (stop.getWindow() != null && !stop.getWindow().isValid()) {
+            return Rejection.INVALID_WINDOW;
+        }
+        if (stop.getTotalWeightKg() < 0) {
+            return Rejection.INVALID_WEIGHT;
+        }
+        if (stop.getWindow() == null && order.getServiceDate() == null) {
+            return Rejection.NO_SERVICE_DATE;
+        }
+        return null;
+    }
+
+    private DeliveryStop withDefaults(DeliveryStop stop) {
+        if (stop.getType() == null) {
+            stop.setType(StopType.DELIVERY);
+        }
+        if (stop.getEstimatedDurationMinutes() <= 0) {
+            stop.setEstimatedDurationMinutes(defaultStopMinutes);
+        }
+        return stop;
+    }
+
+    private static GPSCoordinates nearest(List<GPSCoordinates> depots, GPSCoordinates location) {
+        return depots.stream()
+            .min(Comparator.comparingDouble(depot -> depot.distanceTo(location)))
+            .orElseThrow();
+    }
+
+    private record Backlog(Instant since, long count) {
+
+        Backlog plus(Backlog other) {
+            Instant earliest = since.isBefore(other.since) ? since : other.since;
+            return new Backlog(earliest, count + other.count);
+        }
+    }
+}
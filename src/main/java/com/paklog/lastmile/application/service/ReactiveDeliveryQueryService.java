@@ -0,0 +1,66 @@
+package com.paklog.lastmile.application.service;
+
+import com.paklog.lastmile.application.port.in.ReactiveDeliveryQueryUseCase;
+import com.paklog.lastmile.application.port.out.RouteChangeFeedPort;
+import com.paklog.lastmile.domain.aggregate.DeliveryRoute;
+import com.paklog.lastmile.domain.aggregate.ProofOfDelivery;
+import com.paklog.lastmile.domain.repository.ReactiveDeliveryRouteRepository;
+import com.paklog.lastmile.domain.repository.ReactiveProofOfDeliveryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "delivery.reactive.enabled", havingValue = "true", matchIfMissing = true)
+public class ReactiveDeliveryQueryService implements ReactiveDeliveryQueryUseCase {
+
+    private final ReactiveDeliveryRouteRepository routeRepository;
+    private final ReactiveProofOfDeliveryRepository proofRepository;
+    private final RouteChangeFeedPort routeChangeFeed;
+
+    @Override
+    public Mono<DeliveryRoute> getRoute(String routeId) {
+        return routeRepository.findById(routeId);
+    }
+
+    @Override
+    public Mono<DeliveryRoute> awaitRouteChange(String routeId, long sinceVersion, Duration timeout) {
+        // Listen before reading so a change landing between the two is not missed; the feed
+        // subscribes asynchronously, so the read also waits until it is actually listening
+        Flux<DeliveryRoute> changes = routeChangeFeed.routeChanges()
+            .filter(route -> routeId.equals(route.getId()));
+        Flux<DeliveryRoute> current = routeChangeFeed.awaitListening()
+            .then(routeRepository.findById(routeId))
+            .flux();
+
+        return Flux.merge(changes, current)
+            .filter(route -> route.getVersion() != null && route.getVersion() > sinceVersion)
+            .next()
+            .timeout(timeout, Mono.empty());
+    }
+
+    @Override
+    public Flux<DeliveryRoute> getActiveRoutes() {
+        return routeRepository.findActiveRoutes();
+    }
+
+    @Override
+    public Flux<DeliveryRoute> getRoutesByDriver(String driverId) {
+        return routeRepository.findByDriverId(driverId);
+    }
+
+    @Override
+    public Mono<ProofOfDelivery> getProofOfDelivery(String proofId) {
+        return proofRepository.findById(proofId);
+    }
+
+    @Override
+    public Flux<ProofOfDelivery> getProofsOfDeliveryByRoute(String routeId) {
+        return proofRepository.findByRouteId(routeId);
+    }
+}
@@ -0,0 +1,309 @@
+package com.paklog.lastmile.application.service;
+
+import com.paklog.lastmile.application.port.out.PublishEventPort;
+import com.paklog.lastmile.domain.aggregate.DeliveryRoute;
+import com.paklog.lastmile.domain.event.DomainEvent;
+import com.paklog.lastmile.domain.repository.DeliveryRouteRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Serializes commands per route. Each route gets a mailbox drained by at most one virtual thread,
+ * so commands for the same route never race on its {@code @Version} while different routes run in
+ * parallel. Commands that queue up while a save is in flight are applied together to the route
+ * (read through the near cache) and written with a single save; a conflict with a write from
+ * another node reloads the route and replays the batch.
+ * <p>
+ * A {@link TaskDecorator} bean, when there is one, captures each caller's thread context at submit
+ * time; a command is applied in its caller's context, and a batch is loaded and saved in the context
+ * of its first command.
+ */
+@Slf4j
+@Component
+public class RouteCommandMailbox {
+
+    private final DeliveryRouteRepository routeRepository;
+    private final PublishEventPort publishEventPort;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskDecorator taskDecorator;
+    private final int maxBatchSize;
+    private final int maxAttempts;
+    private final Timer queueWait;
+    private final DistributionSummary batchSize;
+    private final Counter conflicts;
+
+    private final Map<String, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public RouteCommandMailbox(DeliveryRouteRepository routeRepository,
+                               PublishEventPort publishEventPort,
+                               ObjectProvider<PlatformTransactionManager> transactionManager,
+                               ObjectProvider<TaskDecorator> taskDecorator,
+                               MeterRegistry meterRegistry,
+                               @Value("${delivery.routes.mailbox.max-batch-size:64}") int maxBatchSize,
+                               @Value("${delivery.routes.mailbox.max-attempts:5}") int maxAttempts) {
+        this.routeRepository = routeRepository;
+        this.publishEventPort = publishEventPort;
+        PlatformTransactionManager manager = transactionManager.getIfAvailable();
+        this.transactionTemplate = manager != null ? new TransactionTemplate(manager) : null;
+        this.taskDecorator = taskDecorator.getIfUnique();
+        this.maxBatchSize = maxBatchSize;
+        this.maxAttempts = maxAttempts;
+
+        this.queueWait = Timer.builder("delivery.mailbox.queue.wait")
+            .description("Time a command waits in its route's mailbox before being applied")
+            .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("delivery.mailbox.batch.size")
+            .description("Commands applied to a route with one save")
+            .register(meterRegistry);
+        this.conflicts = Counter.builder("delivery.mailbox.conflicts")
+            .description("Batches replayed after a version conflict")
+            .register(meterRegistry);
+        Gauge.builder("delivery.mailbox.active", mailboxes, Map::size)
+            .description("Routes with commands queued or in flight")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Applies {@code command} to the route, saves it and publishes its events, blocking until done
+     *
+     * @return the route as saved
+     */
+    public DeliveryRoute execute(String routeId, Consumer<DeliveryRoute> command) {
+        try {
+            return submit(routeId, command).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    public CompletableFuture<DeliveryRoute> submit(String routeId, Consumer<DeliveryRoute> command) {
+        PendingCommand pending = new PendingCommand(command, new CompletableFuture<>(), System.nanoTime(),
+            callerContext());
+
+        // Enqueue under the map lock so an idle mailbox cannot be removed in between
+        Mailbox mailbox = mailboxes.compute(routeId, (id, current) -> {
+            Mailbox target = current != null ? current : new Mailbox(id);
+            target.queue.add(pending);
+            return target;
+        });
+
+        schedule(mailbox);
+        return pending.result();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.close();
+    }
+
+    private void schedule(Mailbox mailbox) {
+        if (mailbox.scheduled.compareAndSet(false, true)) {
+            executor.execute(() -> drain(mailbox));
+        }
+    }
+
+    private void drain(Mailbox mailbox) {
+        boolean drained = false;
+        try {
+            while (true) {
+                List<PendingCommand> batch = new ArrayList<>();
+                PendingCommand next;
+                while (batch.size() < maxBatchSize && (next = mailbox.queue.poll()) != null) {
+                    batch.add(next);
+                }
+
+                if (!batch.isEmpty()) {
+                    long now = System.nanoTime();
+                    batch.forEach(command -> queueWait.record(now - command.enqueuedAt(), TimeUnit.NANOSECONDS));
+                    batchSize.record(batch.size());
+                    batch.get(0).context().execute(() -> process(mailbox, batch));
+                    continue;
+                }
+
+                mailbox.scheduled.set(false);
+                if (mailbox.queue.isEmpty() || !mailbox.scheduled.compareAndSet(false, true)) {
+                    break;
+                }
+            }
+            drained = true;
+        } finally {
+            if (!drained) {
+                // An Error escaped a batch; hand the commands queued behind it to a fresh drain
+                mailbox.scheduled.set(false);
+                if (!mailbox.queue.isEmpty()) {
+                    schedule(mailbox);
+                }
+            }
+            mailboxes.computeIfPresent(mailbox.routeId, (id, current) ->
+                current == mailbox && current.queue.isEmpty() && !current.scheduled.get() ? null : current);
+        }
+    }
+
+    private void process(Mailbox mailbox, List<PendingCommand> batch) {
+        List<PendingCommand> applied = List.of();
+
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            try {
+                Working working = new Working(load(mailbox.routeId));
+
+                applied = apply(mailbox.routeId, working, batch);
+                if (applied.isEmpty()) {
+                    return;
+                }
+
+                DeliveryRoute saved = saveAndPublish(working.route);
+                applied.forEach(command -> command.result().complete(saved));
+                return;
+
+            } catch (OptimisticLockingFailureException e) {
+                // Written elsewhere since we loaded it; start over from the current version
+                conflicts.increment();
+                log.debug("Version conflict on route {}, attempt {} of {}", mailbox.routeId, attempt, maxAttempts);
+                if (attempt == maxAttempts) {
+                    applied.forEach(command -> command.result().completeExceptionally(e));
+                }
+            } catch (RuntimeException e) {
+                batch.forEach(command -> command.result().completeExceptionally(e));
+                return;
+            } catch (Error e) {
+                // Nothing is saved; fail every caller rather than leave one waiting, then let it propagate
+                batch.forEach(command -> command.result().completeExceptionally(e));
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Applies the batch in order and returns the commands that succeeded. A failing command is
+     * completed with its error, and since it may have left the aggregate half-changed, the route is
+     * reloaded and the commands that succeeded so far are replayed.
+     */
+    private List<PendingCommand> apply(String routeId, Working working, List<PendingCommand> batch) {
+        List<PendingCommand> applied = new ArrayList<>(batch.size());
+
+        for (PendingCommand command : batch) {
+            if (command.result().isDone()) {
+                continue;
+            }
+            try {
+                command.context().execute(() -> command.action().accept(working.route));
+                applied.add(command);
+            } catch (RuntimeException e) {
+                command.result().completeExceptionally(e);
+                working.route = load(routeId);
+                applied.forEach(succeeded ->
+                    succeeded.context().execute(() -> succeeded.action().accept(working.route)));
+            }
+        }
+        return applied;
+    }
+
+    private DeliveryRoute saveAndPublish(DeliveryRoute route) {
+        List<DomainEvent> events = new ArrayList<>(route.getDomainEvents());
+        route.clearDomainEvents();
+
+        if (transactionTemplate == null) {
+            return saveAndPublish(route, events);
+        }
+        return transactionTemplate.execute(status -> saveAndPublish(route, events));
+    }
+
+    private DeliveryRoute saveAndPublish(DeliveryRoute route, List<DomainEvent> events) {
+        DeliveryRoute saved = routeRepository.save(route);
+        if (!events.isEmpty()) {
+            publishEventPort.publishAll(events);
+        }
+        return saved;
+    }
+
+    private Executor callerContext() {
+        if (taskDecorator == null) {
+            return Runnable::run;
+        }
+        CallerContext context = new CallerContext();
+        context.decorated = taskDecorator.decorate(() -> context.work.run());
+        return context;
+    }
+
+    private DeliveryRoute load(String routeId) {
+        return routeRepository.findById(routeId)
+            .orElseThrow(() -> new IllegalArgumentException("Route not found"));
+    }
+
+    private record PendingCommand(Consumer<DeliveryRoute> action, CompletableFuture<DeliveryRoute> result,
+                                  long enqueuedAt, Executor context) {
+    }
+
+    // Decorated once on the submitting thread, then runs each piece of work for that caller in its context
+    private static class CallerContext implements Executor {
+
+        private Runnable decorated;
+        private Runnable work;
+
+        @Override
+        public void execute(Runnable work) {
+            Runnable enclosing = this.work;
+            this.work = work;
+            try {
+                decorated.run();
+            } finally {
+                this.work = enclosing;
+            }
+        }
+    }
+
+    // The aggregate a batch is applied to; replaced when a failed command forces a reload
+    private static class Working {
+
+        private DeliveryRoute route;
+
+        Working(DeliveryRoute route) {
+            this.route = route;
+        }
+    }
+
+    private static class Mailbox {
+
+        private final String routeId;
+        private final Queue<PendingCommand> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        Mailbox(String routeId) {
+            this.routeId = routeId;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.paklog.lastmile.application.service;
+
+import com.paklog.lastmile.domain.aggregate.DeliveryRoute;
+import com.paklog.lastmile.domain.aggregate.DeliveryStop;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Carries a stop order solved on a copy of a route over to the route as it stands. Solving happens
+ * outside the route's mailbox so other commands for the route are not held up by it; the order is
+ * only applied while the route still has the stops it was solved for.
+ */
+final class SolvedStopOrder {
+
+    private SolvedStopOrder() {
+    }
+
+    /**
+     * The route's stops and how far each has got, in no particular order
+     */
+    static String fingerprint(DeliveryRoute route) {
+        return route.getStops().stream()
+            .sorted(Comparator.comparing(DeliveryStop::getStopId))
+            .map(stop -> stop.getStopId() + ":" + stop.isCompleted() + ":" + stop.getAttemptCount())
+            .collect(Collectors.joining(","));
+    }
+
+    /**
+     * The route's own stops in the solved order, with the solved sequence numbers and ETAs
+     */
+    static List<DeliveryStop> inSolvedOrder(DeliveryRoute current, List<String> stopOrder, List<Instant> etas) {
+        Map<String, DeliveryStop> byId = current.getStops().stream()
+            .collect(Collectors.toMap(DeliveryStop::getStopId, stop -> stop));
+        List<DeliveryStop> ordered = new ArrayList<>(stopOrder.size());
+        for (int i = 0; i < stopOrder.size(); i++) {
+            DeliveryStop stop = byId.get(stopOrder.get(i));
+            stop.setSequence(i + 1);
+            stop.updateETA(etas.get(i));
+            ordered.add(stop);
+        }
+        return ordered;
+    }
+}
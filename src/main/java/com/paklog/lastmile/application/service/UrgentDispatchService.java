@@ -0,0 +1,234 @@
+package com.paklog.lastmile.application.service;
+
+import com.paklog.lastmile.application.command.DispatchUrgentStopCommand;
+import com.paklog.lastmile.application.port.in.UrgentDispatchUseCase;
+import com.paklog.lastmile.application.result.UrgentDispatchResult;
+import com.paklog.lastmile.application.result.UrgentDispatchResult.Outcome;
+import com.paklog.lastmile.domain.aggregate.DeliveryRoute;
+import com.paklog.lastmile.domain.aggregate.DeliveryStop;
+import com.paklog.lastmile.domain.repository.DeliveryRouteRepository;
+import com.paklog.lastmile.domain.service.StopInsertion;
+import com.paklog.lastmile.domain.service.StopInsertionService;
+import com.paklog.lastmile.domain.valueobject.StopType;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chooses the route for an urgent stop. The geo index narrows the active fleet to the routes
+ * passing near the stop, those are ranked by the distance the stop would add, evaluated in
+ * parallel slices, and the stop goes to the cheapest route that keeps its deliveries on time.
+ * <p>
+ * The insertion is worked out again inside the route's mailbox against the version being saved,
+ * so a route that changed after ranking is never given a stale position; if it can no longer
+ * take the stop, the next route in the ranking is tried. A stop already on the route is left where
+ * it is and its placement returned, so dispatching the same stop again is harmless.
+ */
+@Slf4j
+@Service
+public class UrgentDispatchService implements UrgentDispatchUseCase {
+
+    private final DeliveryRouteRepository routeRepository;
+    private final StopInsertionService stopInsertionService;
+    private final RouteCommandMailbox routeCommandMailbox;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary candidateCount;
+    private final double searchRadiusKm;
+    private final int maxCandidates;
+    private final int commitAttempts;
+    private final int parallelism;
+    private final int defaultStopMinutes;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public UrgentDispatchService(DeliveryRouteRepository routeRepository,
+                                 StopInsertionService stopInsertionService,
+                                 RouteCommandMailbox routeCommandMailbox,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${delivery.dispatch.search-radius-km:15}") double searchRadiusKm,
+                                 @Value("${delivery.dispatch.max-candidates:64}") int maxCandidates,
+                                 @Value("${delivery.dispatch.commit-attempts:3}") int commitAttempts,
+                                 @Value("${delivery.dispatch.parallelism:0}") int parallelism,
+                                 @Value("${delivery.optimization.stop-duration-minutes:15}") int defaultStopMinutes) {
+        this.routeRepository = routeRepository;
+        this.stopInsertionService = stopInsertionService;
+        this.routeCommandMailbox = routeCommandMailbox;
+        this.meterRegistry = meterRegistry;
+        this.searchRadiusKm = searchRadiusKm;
+        this.maxCandidates = maxCandidates;
+        this.commitAttempts = commitAttempts;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.defaultStopMinutes = defaultStopMinutes;
+        this.candidateCount = DistributionSummary.builder("delivery.dispatch.candidates")
+            .description("Active routes near an urgent stop that were evaluated for it")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public UrgentDispatchResult dispatchUrgentStop(DispatchUrgentStopCommand command) {
+        long started = System.nanoTime();
+        DeliveryStop stop = withDefaults(command.getStop());
+        if (stop.getStopId() == null || stop.getStopId().isBlank()) {
+            throw new IllegalArgumentException("Stop ID is required");
+        }
+        if (stop.getCoordinates() == null || !stop.getCoordinates().isValid()) {
+            throw new IllegalArgumentException("Invalid coordinates: " + stop.getCoordinates());
+        }
+        if (stop.getWindow() != null && !stop.getWindow().isValid()) {
+            throw new IllegalArgumentException("Invalid delivery window: " + stop.getWindow());
+        }
+
+        List<DeliveryRoute> candidates = routeRepository.findActiveRoutesNear(
+            stop.getCoordinates(), searchRadiusKm, maxCandidates);
+        candidateCount.record(candidates.size());
+
+        // A retried dispatch finds its stop on a nearby route and gets the same placement back
+        List<DeliveryRoute> holding = candidates.stream()
+            .filter(route -> indexOf(route, stop.getStopId()) >= 0)
+            .limit(1)
+            .toList();
+        List<Ranked> ranked = holding.isEmpty() ? rank(candidates, stop, Instant.now()) : List.of();
+        List<DeliveryRoute> attempts = !holding.isEmpty() ? holding : ranked.stream()
+            .limit(commitAttempts)
+            .map(Ranked::route)
+            .toList();
+
+        UrgentDispatchResult result = null;
+        for (DeliveryRoute candidate : attempts) {
+            try {
+                result = commit(candidate, stop);
+                break;
+            } catch (StaleRouteException e) {
+                log.debug("Route {} can no longer take urgent stop {}, trying the next", candidate.getId(),
+                    stop.getStopId());
+            }
+        }
+
+        if (result == null) {
+            result = UrgentDispatchResult.builder()
+                .stopId(stop.getStopId())
+                .outcome(Outcome.REJECTED)
+                .reason(candidates.isEmpty()
+                    ? "No active route within " + searchRadiusKm + "km"
+                    : "No nearby route can take the stop without missing a delivery window")
+                .build();
+        }
+        result.setCandidateRoutes(candidates.size());
+        result.setFeasibleRoutes(Math.max(ranked.size(), holding.size()));
+
+        timer(result.getOutcome()).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        log.info("Urgent stop {} {}: route={}, +{}km, {} of {} nearby routes feasible", stop.getStopId(),
+            result.getOutcome(), result.getRouteId(), String.format("%.2f", result.getAddedDistanceKm()),
+            result.getFeasibleRoutes(), candidates.size());
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.close();
+    }
+
+    /**
+     * Feasible candidates, cheapest first. The candidates are split into one slice per core so
+     * the ranking costs about one slice's worth of evaluation.
+     */
+    private List<Ranked> rank(List<DeliveryRoute> candidates, DeliveryStop stop, Instant now) {
+        int sliceSize = Math.max(1, (candidates.size() + parallelism - 1) / parallelism);
+        List<CompletableFuture<List<Ranked>>> slices = new ArrayList<>();
+        for (int from = 0; from < candidates.size(); from += sliceSize) {
+            List<DeliveryRoute> slice = candidates.subList(from, Math.min(from + sliceSize, candidates.size()));
+            slices.add(CompletableFuture.supplyAsync(() -> evaluate(slice, stop, now), executor));
+        }
+
+        return slices.stream()
+            .flatMap(slice -> slice.join().stream())
+            .sorted(Comparator.comparingDouble(ranked -> ranked.insertion().addedDistanceKm()))
+            .toList();
+    }
+
+    private List<Ranked> evaluate(List<DeliveryRoute> routes, DeliveryStop stop, Instant now) {
+        List<Ranked> feasible = new ArrayList<>(routes.size());
+        for (DeliveryRoute route : routes) {
+            stopInsertionService.cheapestFeasibleInsertion(route, stop, now)
+                .ifPresent(insertion -> feasible.add(new Ranked(route, insertion)));
+        }
+        return feasible;
+    }
+
+    private UrgentDispatchResult commit(DeliveryRoute candidate, DeliveryStop stop) {
+        StopInsertion[] applied = new StopInsertion[1];
+        DeliveryRoute saved = routeCommandMailbox.execute(candidate.getId(), current -> {
+            // Replayed against a fresh copy after a version conflict, so always decide on the route in hand
+            int existing = indexOf(current, stop.getStopId());
+            if (existing >= 0) {
+                applied[0] = new StopInsertion(existing, 0, current.getStops().get(existing).getEstimatedArrival());
+                return;
+            }
+            StopInsertion insertion = stopInsertionService.cheapestFeasibleInsertion(current, stop, Instant.now())
+                .orElseThrow(StaleRouteException::new);
+            stop.updateETA(insertion.estimatedArrival());
+            current.insertStop(stop, insertion.position(), insertion.addedDistanceKm());
+            applied[0] = insertion;
+        });
+
+        return UrgentDispatchResult.builder()
+            .stopId(stop.getStopId())
+            .outcome(Outcome.DISPATCHED)
+            .routeId(saved.getId())
+            .vehicleId(saved.getVehicleId())
+            .sequence(applied[0].position() + 1)
+            .addedDistanceKm(applied[0].addedDistanceKm())
+            .estimatedArrival(applied[0].estimatedArrival())
+            .build();
+    }
+
+    private static int indexOf(DeliveryRoute route, String stopId) {
+        List<DeliveryStop> stops = route.getStops();
+        for (int i = 0; i < stops.size(); i++) {
+            if (stopId.equals(stops.get(i).getStopId())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private DeliveryStop withDefaults(DeliveryStop stop) {
+        if (stop.getType() == null) {
+            stop.setType(StopType.DELIVERY);
+        }
+        if (stop.getEstimatedDurationMinutes() <= 0) {
+            stop.setEstimatedDurationMinutes(defaultStopMinutes);
+        }
+        return stop;
+    }
+
+    private Timer timer(Outcome outcome) {
+        return Timer.builder("delivery.dispatch.urgent")
+            .description("Time to choose a route for an urgent stop and add it")
+            .tag("outcome", outcome.name())
+            .register(meterRegistry);
+    }
+
+    private record Ranked(DeliveryRoute route, StopInsertion insertion) {
+    }
+
+    private static class StaleRouteException extends RuntimeException {
+
+        StaleRouteException() {
+            super(null, null, false, false);
+        }
+    }
+}
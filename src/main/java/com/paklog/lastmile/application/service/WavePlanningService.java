@@ -0,0 +1,502 @@
+package com.paklog.lastmile.application.service;
+
+import com.paklog.lastmile.application.command.PlanWaveCommand;
+import com.paklog.lastmile.application.port.in.WavePlanningUseCase;
+import com.paklog.lastmile.application.port.out.PublishEventPort;
+import com.paklog.lastmile.application.result.WavePlanningStatus;
+import com.paklog.lastmile.domain.aggregate.DeliveryRoute;
+import com.paklog.lastmile.domain.aggregate.DeliveryStop;
+import com.paklog.lastmile.domain.aggregate.PendingStop;
+import com.paklog.lastmile.domain.aggregate.PlanningRun;
+import com.paklog.lastmile.domain.aggregate.Vehicle;
+import com.paklog.lastmile.domain.event.DomainEvent;
+import com.paklog.lastmile.domain.event.RouteCreatedEvent;
+import com.paklog.lastmile.domain.repository.DeliveryRouteRepository;
+import com.paklog.lastmile.domain.repository.PendingStopRepository;
+import com.paklog.lastmile.domain.repository.PlanningRunRepository;
+import com.paklog.lastmile.domain.repository.VehicleRepository;
+import com.paklog.lastmile.domain.service.DeliverySchedulingService;
+import com.paklog.lastmile.domain.valueobject.PlanningRunState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Plans a whole service day from the pending stop pool. Pending stops are read through one
+ * cursor in depot and slot order and cut into partitions, each at most a bounded number of
+ * stops; partitions are planned in parallel while the cursor waits for a free slot, so memory
+ * stays flat however many stops the day holds. Each partition is committed on its own, in one
+ * transaction when Mongo transactions are enabled: routes are bulk inserted, their stops marked
+ * planned and the run's counters advanced together. A crashed run therefore resumes from the
+ * stops still pending, on this or another instance once its heartbeat goes stale. Route ids are
+ * derived from the run, depot, slot and vehicle, so without transactions a resumed run finds the
+ * routes of a partition that was inserted but never recorded and completes that commit instead
+ * of planning its stops a second time.
+ * <p>
+ * Vehicles are not marked assigned: the wave is for a later day, and availability describes now.
+ * Instead a vehicle takes at most one route per slot of the day, and a route for stops without a
+ * window takes it for the whole day. Partitions reserve their vehicles before planning, so
+ * partitions of one depot and slot planned side by side never share a vehicle, and each
+ * partition's bookings are committed with its routes, so a resumed or repeated run for the same
+ * day plans around them.
+ */
+@Slf4j
+@Service
+public class WavePlanningService implements WavePlanningUseCase {
+
+    private final PendingStopRepository pendingStopRepository;
+    private final PlanningRunRepository planningRunRepository;
+    private final DeliveryRouteRepository routeRepository;
+    private final VehicleRepository vehicleRepository;
+    private final DeliverySchedulingService schedulingService;
+    private final PublishEventPort publishEventPort;
+    private final TransactionTemplate transactionTemplate;
+    private final int parallelism;
+    private final int maxPartitionStops;
+    private final int stopsPerRoute;
+    private final Duration routeBudget;
+    private final Duration lease;
+
+    private final String owner;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public WavePlanningService(PendingStopRepository pendingStopRepository,
+                               PlanningRunRepository planningRunRepository,
+                               DeliveryRouteRepository routeRepository,
+                               VehicleRepository vehicleRepository,
+                               DeliverySchedulingService schedulingService,
+                               PublishEventPort publishEventPort,
+                               ObjectProvider<PlatformTransactionManager> transactionManager,
+                               @Value("${delivery.planning.wave.parallelism:0}") int parallelism,
+                               @Value("${delivery.planning.wave.max-partition-stops:2000}") int maxPartitionStops,
+                               @Value("${delivery.planning.wave.stops-per-route:30}") int stopsPerRoute,
+                               @Value("${delivery.planning.wave.route-budget:200ms}") Duration routeBudget,
+                               @Value("${delivery.planning.wave.lease:2m}") Duration lease) {
+        this.pendingStopRepository = pendingStopRepository;
+        this.planningRunRepository = planningRunRepository;
+        this.routeRepository = routeRepository;
+        this.vehicleRepository = vehicleRepository;
+        this.schedulingService = schedulingService;
+        this.publishEventPort = publishEventPort;
+        PlatformTransactionManager manager = transactionManager.getIfAvailable();
+        this.transactionTemplate = manager != null ? new TransactionTemplate(manager) : null;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.maxPartitionStops = maxPartitionStops;
+        this.stopsPerRoute = stopsPerRoute;
+        this.routeBudget = routeBudget;
+        this.lease = lease;
+        String hostname = System.getenv("HOSTNAME");
+        this.owner = (hostname != null ? hostname : "local") + "-" + UUID.randomUUID();
+    }
+
+    @Override
+    public WavePlanningStatus startWavePlanning(PlanWaveCommand command) {
+        String runId = runIdOf(command.getServiceDate());
+
+        List<String> vehicleIds = command.getVehicleIds() == null || command.getVehicleIds().isEmpty()
+            ? vehicleRepository.findAvailableVehicles().stream().map(Vehicle::getId).toList()
+            : command.getVehicleIds();
+        if (vehicleIds.isEmpty()) {
+            throw new IllegalStateException("No vehicles available for planning");
+        }
+
+        Instant now = Instant.now();
+        PlanningRun run = PlanningRun.builder()
+            .id(runId)
+            .serviceDay(PendingStop.serviceDay(command.getServiceDate()))
+            .state(PlanningRunState.RUNNING)
+            .owner(owner)
+            .heartbeatAt(now)
+            .attempts(1)
+            .vehicleIds(new ArrayList<>(vehicleIds))
+            .startedAt(now)
+            .build();
+
+        if (!planningRunRepository.claim(run, now.minus(lease))) {
+            throw new IllegalStateException("Planning for " + command.getServiceDate() + " is already running");
+        }
+
+        log.info("Wave planning {} started", runId);
+        executor.execute(() -> plan(runId));
+        return getWavePlanning(runId).orElseThrow();
+    }
+
+    @Override
+    public Optional<WavePlanningStatus> getWavePlanning(String runId) {
+        return planningRunRepository.findById(runId).map(this::status);
+    }
+
+    /**
+     * Nightly run for the next day; disabled unless a cron expression is configured
+     */
+    @Scheduled(cron = "${delivery.planning.wave.cron:-}", zone = "UTC")
+    public void planTomorrow() {
+        LocalDate tomorrow = LocalDate.now(ZoneOffset.UTC).plusDays(1);
+        try {
+            startWavePlanning(PlanWaveCommand.builder().serviceDate(tomorrow).build());
+        } catch (IllegalStateException e) {
+            log.warn("Nightly wave planning for {} not started: {}", tomorrow, e.getMessage());
+        }
+    }
+
+    /**
+     * Takes over runs whose owner stopped sending heartbeats, most likely because it crashed
+     */
+    @Scheduled(fixedDelayString = "${delivery.planning.wave.resume-check-ms:60000}")
+    public void resumeAbandoned() {
+        Instant now = Instant.now();
+        for (PlanningRun run : planningRunRepository.findAbandoned(now.minus(lease))) {
+            run.setOwner(owner);
+            run.setHeartbeatAt(now);
+            if (planningRunRepository.claim(run, now.minus(lease))) {
+                log.info("Resuming abandoned wave planning {}", run.getId());
+                executor.execute(() -> plan(run.getId()));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void plan(String runId) {
+        Instant started = Instant.now();
+        Semaphore slots = new Semaphore(parallelism);
+        Heartbeat heartbeat = new Heartbeat(runId);
+
+        try {
+            PlanningRun run = planningRunRepository.findById(runId).orElseThrow();
+            Map<String, List<Vehicle>> fleetByDepot = fleetByDepot(run.getVehicleIds());
+            List<String> bookedSlots = new ArrayList<>(run.getBookedSlots());
+            bookedSlots.addAll(recoverUncommitted(run));
+            SlotBookings bookings = new SlotBookings(bookedSlots);
+
+            try (Stream<PendingStop> pending = pendingStopRepository.streamPending(run.getServiceDay())) {
+                List<PendingStop> partition = new ArrayList<>();
+                Iterator<PendingStop> stops = pending.iterator();
+
+                while (stops.hasNext() && heartbeat.owned()) {
+                    PendingStop stop = stops.next();
+                    if (!partition.isEmpty() && (!samePartition(partition.get(0), stop)
+                        || partition.size() >= maxPartitionStops)) {
+                        dispatch(runId, partition, fleetByDepot, bookings, slots, heartbeat);
+                        partition = new ArrayList<>();
+                    }
+                    partition.add(stop);
+                }
+                if (!partition.isEmpty() && heartbeat.owned()) {
+                    dispatch(runId, partition, fleetByDepot, bookings, slots, heartbeat);
+                }
+            }
+
+            // Every permit back means every dispatched partition has been committed
+            slots.acquireUninterruptibly(parallelism);
+
+            if (!heartbeat.owned()) {
+                log.warn("Wave planning {} was taken over by another instance; stopped", runId);
+                return;
+            }
+            planningRunRepository.finish(runId, owner, PlanningRunState.COMPLETED, null);
+            log.info("Wave planning {} completed in {}s", runId, Duration.between(started, Instant.now()).toSeconds());
+
+        } catch (RuntimeException e) {
+            planningRunRepository.finish(runId, owner, PlanningRunState.FAILED, e.getMessage());
+            log.error("Wave planning {} failed", runId, e);
+        }
+    }
+
+    /**
+     * Completes the commits of partitions whose routes an earlier attempt inserted but whose
+     * bookings it never recorded, which only happens without transactions: their stops are marked
+     * planned, their events published and the partition recorded. Returns the recovered bookings.
+     */
+    private List<String> recoverUncommitted(PlanningRun run) {
+        Set<String> committed = new HashSet<>(run.getBookedSlots());
+        Map<String, List<DeliveryRoute>> uncommitted = new HashMap<>();
+        for (DeliveryRoute route : routeRepository.findByIdStartingWith(run.getId() + "/")) {
+            if (!committed.contains(PlanningRun.slotBooking(route.getVehicleId(), slotOf(route.getId())))) {
+                String[] parts = route.getId().split("/", 4);
+                uncommitted.computeIfAbsent(parts[1] + "/" + parts[2], partition -> new ArrayList<>()).add(route);
+            }
+        }
+
+        List<String> recovered = new ArrayList<>();
+        uncommitted.forEach((partition, routes) -> {
+            Map<String, String> routeIdByStopId = new HashMap<>();
+            List<DomainEvent> events = new ArrayList<>(routes.size());
+            for (DeliveryRoute route : routes) {
+                route.getStops().forEach(stop -> routeIdByStopId.put(stop.getStopId(), route.getId()));
+                events.add(RouteCreatedEvent.builder()
+                    .routeId(route.getId())
+                    .routeNumber(route.getRouteNumber())
+                    .vehicleId(route.getVehicleId())
+                    .driverId(route.getDriverId())
+                    .totalStops(route.getTotalStops())
+                    .build());
+            }
+            int slot = slotOf(routes.get(0).getId());
+            List<String> slotBookings = routes.stream()
+                .map(route -> PlanningRun.slotBooking(route.getVehicleId(), slot))
+                .distinct()
+                .toList();
+
+            pendingStopRepository.markPlanned(routeIdByStopId);
+            publishEventPort.publishAll(events);
+            planningRunRepository.recordPartition(run.getId(), routes.size(), routeIdByStopId.size(), 0, 0,
+                slotBookings);
+            recovered.addAll(slotBookings);
+            log.warn("Wave planning {}: completed the commit of {} routes in partition {} left by an earlier attempt",
+                run.getId(), routes.size(), partition);
+        });
+        return recovered;
+    }
+
+    /**
+     * Waits for a free slot, so the cursor never runs ahead of planning by more than the
+     * partitions in flight
+     */
+    private void dispatch(String runId, List<PendingStop> partition, Map<String, List<Vehicle>> fleetByDepot,
+                          SlotBookings bookings, Semaphore slots, Heartbeat heartbeat) {
+        slots.acquireUninterruptibly();
+        executor.execute(() -> {
+            try {
+                planPartition(runId, partition,
+                    fleetByDepot.getOrDefault(partition.get(0).getDepotId(), List.of()), bookings);
+            } catch (RuntimeException e) {
+                planningRunRepository.recordPartition(runId, 0, 0, partition.size(), 1, List.of());
+                log.warn("Wave planning {}: partition {}/{} of {} stops failed: {}", runId,
+                    partition.get(0).getDepotId(), partition.get(0).getSlot(), partition.size(), e.getMessage());
+            } finally {
+                slots.release();
+                heartbeat.beat();
+            }
+        });
+    }
+
+    private void planPartition(String runId, List<PendingStop> partition, List<Vehicle> depotFleet,
+                               SlotBookings bookings) {
+        int slot = partition.get(0).getSlot();
+        List<Vehicle> fleet = depotFleet.isEmpty() ? List.of() : bookings.reserve(depotFleet, slot,
+            Math.ceilDiv(partition.size(), Math.min(stopsPerRoute, depotFleet.get(0).getType().getMaxStops())));
+        if (fleet.isEmpty()) {
+            planningRunRepository.recordPartition(runId, 0, 0, partition.size(), 0, List.of());
+            return;
+        }
+
+        // Reserved vehicles no route ends up on are handed back for later partitions of the slot
+        Set<String> booked = new HashSet<>();
+        try {
+            planPartition(runId, partition, fleet, slot, booked);
+        } finally {
+            bookings.release(fleet.stream().map(Vehicle::getId).filter(id -> !booked.contains(id)).toList(), slot);
+        }
+    }
+
+    /**
+     * Plans the partition onto its reserved vehicles and commits it, adding the vehicles that took
+     * a route to {@code booked} once committed
+     */
+    private void planPartition(String runId, List<PendingStop> partition, List<Vehicle> fleet, int slot,
+                               Set<String> booked) {
+        List<DeliveryStop> stops = partition.stream().map(PendingStop::getStop).toList();
+
+        List<DeliveryRoute> routes = schedulingService.scheduleDeliveries(
+            stops, fleet, routeBudget.multipliedBy(fleet.size()));
+
+        Map<String, Vehicle> vehiclesById = fleet.stream()
+            .collect(Collectors.toMap(Vehicle::getId, vehicle -> vehicle));
+        List<DeliveryRoute> planned = new ArrayList<>(routes.size());
+        List<DomainEvent> events = new ArrayList<>();
+        Map<String, String> routeIdByStopId = new HashMap<>();
+        Map<String, Integer> routesByVehicle = new HashMap<>();
+
+        for (DeliveryRoute route : routes) {
+            if (!fits(route, vehiclesById.get(route.getVehicleId()))) {
+                continue;
+            }
+            int sequence = routesByVehicle.merge(route.getVehicleId(), 1, Integer::sum);
+            route.setId(routeIdOf(runId, partition.get(0).getDepotId(), slot, route.getVehicleId(), sequence));
+            route.plan();
+            planned.add(route);
+            events.addAll(route.getDomainEvents());
+            route.clearDomainEvents();
+            route.getStops().forEach(stop -> routeIdByStopId.put(stop.getStopId(), route.getId()));
+        }
+
+        int unassigned = partition.size() - routeIdByStopId.size();
+        List<String> vehicleIds = planned.stream().map(DeliveryRoute::getVehicleId).distinct().toList();
+        Runnable commit = () -> {
+            routeRepository.insertAll(planned);
+            pendingStopRepository.markPlanned(routeIdByStopId);
+            publishEventPort.publishAll(events);
+            planningRunRepository.recordPartition(runId, planned.size(), routeIdByStopId.size(), unassigned, 0,
+                vehicleIds.stream().map(id -> PlanningRun.slotBooking(id, slot)).toList());
+        };
+        if (transactionTemplate != null) {
+            transactionTemplate.executeWithoutResult(status -> commit.run());
+        } else {
+            commit.run();
+        }
+        booked.addAll(vehicleIds);
+
+        log.debug("Wave planning {}: depot {} slot {} planned {} routes, {} of {} stops left pending", runId,
+            partition.get(0).getDepotId(), partition.get(0).getSlot(), planned.size(), unassigned, partition.size());
+    }
+
+    /**
+     * The vehicle's own limits only; it may already hold routes for other slots of the day
+     */
+    private static boolean fits(DeliveryRoute route, Vehicle vehicle) {
+        int totalWeight = route.getStops().stream().mapToInt(DeliveryStop::getTotalWeightKg).sum();
+        return totalWeight <= vehicle.getType().getMaxWeightKg()
+            && route.getStops().size() <= vehicle.getType().getMaxStops();
+    }
+
+    /**
+     * Largest vehicles first, so a partition needing few routes gets the roomiest ones
+     */
+    private Map<String, List<Vehicle>> fleetByDepot(List<String> vehicleIds) {
+        return vehicleRepository.findAllById(vehicleIds).stream()
+            .filter(vehicle -> vehicle.getHomeBase() != null && vehicle.getType() != null)
+            .sorted(Comparator.comparingInt((Vehicle vehicle) -> vehicle.getType().getMaxStops()).reversed()
+                .thenComparing(Vehicle::getId))
+            .collect(Collectors.groupingBy(vehicle -> PendingStop.depotOf(vehicle.getHomeBase())));
+    }
+
+    private static boolean samePartition(PendingStop first, PendingStop stop) {
+        return Objects.equals(first.getDepotId(), stop.getDepotId()) && first.getSlot() == stop.getSlot();
+    }
+
+    private WavePlanningStatus status(PlanningRun run) {
+        return WavePlanningStatus.builder()
+            .runId(run.getId())
+            .serviceDate(LocalDate.ofInstant(run.getServiceDay(), ZoneOffset.UTC))
+            .state(run.getState())
+            .attempts(run.getAttempts())
+            .vehicles(run.getVehicleIds().size())
+            .partitionsPlanned(run.getPartitionsPlanned())
+            .partitionsFailed(run.getPartitionsFailed())
+            .routesCreated(run.getRoutesCreated())
+            .stopsPlanned(run.getStopsPlanned())
+            .stopsUnassigned(run.getStopsUnassigned())
+            .stopsPending(pendingStopRepository.countPending(run.getServiceDay()))
+            .startedAt(run.getStartedAt())
+            .heartbeatAt(run.getHeartbeatAt())
+            .finishedAt(run.getFinishedAt())
+            .error(run.getError())
+            .build();
+    }
+
+    private static String runIdOf(LocalDate serviceDate) {
+        return "wave-" + serviceDate;
+    }
+
+    /**
+     * {@code run/depot/slot/vehicle}, with a sequence number after the vehicle when the scheduler
+     * gave it more than one route in the partition. Depot ids never contain a slash.
+     */
+    private static String routeIdOf(String runId, String depotId, int slot, String vehicleId, int sequence) {
+        String routeId = runId + "/" + depotId + "/" + slot + "/" + vehicleId;
+        return sequence == 1 ? routeId : routeId + "/" + sequence;
+    }
+
+    private static int slotOf(String routeId) {
+        return Integer.parseInt(routeId.split("/", 4)[2]);
+    }
+
+    /**
+     * Slots of the day each vehicle of the run is booked for, seeded from the bookings earlier
+     * attempts committed and shared by the partitions planned side by side
+     */
+    private static final class SlotBookings {
+
+        private final Map<String, Set<Integer>> slotsByVehicle = new HashMap<>();
+
+        SlotBookings(List<String> committed) {
+            for (String booking : committed) {
+                int separator = booking.lastIndexOf('/');
+                slotsByVehicle.computeIfAbsent(booking.substring(0, separator), id -> new HashSet<>())
+                    .add(Integer.parseInt(booking.substring(separator + 1)));
+            }
+        }
+
+        /**
+         * Books up to {@code count} vehicles that are free in the slot, in fleet order
+         */
+        synchronized List<Vehicle> reserve(List<Vehicle> fleet, int slot, int count) {
+            List<Vehicle> reserved = new ArrayList<>(count);
+            for (Iterator<Vehicle> vehicles = fleet.iterator(); vehicles.hasNext() && reserved.size() < count; ) {
+                Vehicle vehicle = vehicles.next();
+                Set<Integer> slots = slotsByVehicle.computeIfAbsent(vehicle.getId(), id -> new HashSet<>());
+                boolean free = slot == PendingStop.ANYTIME
+                    ? slots.isEmpty()
+                    : !slots.contains(slot) && !slots.contains(PendingStop.ANYTIME);
+                if (free) {
+                    slots.add(slot);
+                    reserved.add(vehicle);
+                }
+            }
+            return reserved;
+        }
+
+        synchronized void release(List<String> vehicleIds, int slot) {
+            vehicleIds.forEach(id -> slotsByVehicle.get(id).remove(slot));
+        }
+    }
+
+    /**
+     * Refreshes the run's heartbeat at most a few times per lease, from whichever thread gets
+     * there first, and remembers when the run was lost to another owner
+     */
+    private final class Heartbeat {
+
+        private final String runId;
+        private final AtomicLong lastBeat = new AtomicLong(System.nanoTime());
+        private volatile boolean owned = true;
+
+        Heartbeat(String runId) {
+            this.runId = runId;
+        }
+
+        void beat() {
+            long last = lastBeat.get();
+            long now = System.nanoTime();
+            if (now - last >= lease.toNanos() / 4 && lastBeat.compareAndSet(last, now)) {
+                owned = planningRunRepository.heartbeat(runId, owner);
+            }
+        }
+
+        boolean owned() {
+            beat();
+            return owned;
+        }
+    }
+}
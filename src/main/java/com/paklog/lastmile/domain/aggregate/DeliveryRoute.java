@@ -8,6 +8,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.*;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
@@ -20,8 +22,18 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "delivery_routes")
+@CompoundIndexes({
+    @CompoundIndex(name = "status_plannedStart_id", def = "{'status': 1, 'plannedStartTime': 1, '_id': 1}"),
+    @CompoundIndex(name = "driver_status", def = "{'driverId': 1, 'status': 1}"),
+    @CompoundIndex(name = "driver_plannedStart", def = "{'driverId': 1, 'plannedStartTime': 1, '_id': 1}"),
+    @CompoundIndex(name = "vehicle_status", def = "{'vehicleId': 1, 'status': 1}"),
+    // 'coverage' is derived from the stops when the route is saved; see RouteCoverageWriter
+    @CompoundIndex(name = "status_coverage", def = "{'status': 1, 'coverage': '2dsphere'}")
+})
 public class DeliveryRoute {
 
+    public static final int MAX_STOPS = 50;
+
     @Id
     private String id;
 
@@ -174,9 +186,17 @@ public class DeliveryRoute {
         recalculateETAs();
     }
 
+    public void updateCurrentLocation(GPSCoordinates location) {
+        if (!location.isValid()) {
+            throw new IllegalArgumentException("Invalid coordinates: " + location);
+        }
+
+        this.currentLocation = location;
+    }
+
     public void addStop(DeliveryStop stop) {
-        if (stops.size() >= 50) {
-            throw new IllegalStateException("Maximum 50 stops per route");
+        if (stops.size() >= MAX_STOPS) {
+            throw new IllegalStateException("Maximum " + MAX_STOPS + " stops per route");
         }
 
         stop.setSequence(stops.size() + 1);
@@ -184,6 +204,34 @@ public class DeliveryRoute {
         this.totalStops = stops.size();
     }
 
+    /**
+     * Slots a stop in among the remaining ones without reordering the rest, as an urgent dispatch does
+     */
+    public void insertStop(DeliveryStop stop, int position, double addedDistanceKm) {
+        if (status != RouteStatus.PLANNED && status != RouteStatus.IN_PROGRESS) {
+            throw new IllegalStateException("Stops can only be added to a planned or running route");
+        }
+        if (stops.size() >= MAX_STOPS) {
+            throw new IllegalStateException("Maximum " + MAX_STOPS + " stops per route");
+        }
+        DeliveryStop next = getNextStop();
+        int firstRemaining = next != null ? stops.indexOf(next) : stops.size();
+        if (position < firstRemaining || position > stops.size()) {
+            throw new IllegalArgumentException("Cannot insert a stop at position " + position);
+        }
+
+        stops.add(position, stop);
+        for (int i = 0; i < stops.size(); i++) {
+            stops.get(i).setSequence(i + 1);
+        }
+        this.totalStops = stops.size();
+        this.totalDistanceKm += addedDistanceKm;
+        this.estimatedDurationMinutes = calculateEstimatedDuration();
+        if (plannedStartTime != null) {
+            this.estimatedEndTime = plannedStartTime.plus(estimatedDurationMinutes, ChronoUnit.MINUTES);
+        }
+    }
+
     private DeliveryStop findStop(String stopId) {
         return stops.stream()
             .filter(s -> s.getStopId().equals(stopId))
@@ -214,13 +262,6 @@ public class DeliveryRoute {
                 }
             }
         }
-
-        // Send customer notifications for updated ETAs
-        addDomainEvent(CustomerNotifiedEvent.builder()
-            .routeId(this.id)
-            .notificationType("ETA_UPDATE")
-            .message("Your delivery ETA has been updated")
-            .build());
     }
 
     private void addDomainEvent(DomainEvent event) {
@@ -0,0 +1,88 @@
+package com.paklog.lastmile.domain.aggregate;
+
+import com.paklog.lastmile.domain.valueobject.GPSCoordinates;
+import com.paklog.lastmile.domain.valueobject.PendingStopStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+
+/**
+ * A stop waiting to be planned onto a route, filed under the depot that will serve it and the
+ * two-hour slot its window starts in
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "pending_stops")
+@CompoundIndexes({
+    @CompoundIndex(name = "status_day_depot_slot", def = "{'status': 1, 'serviceDay': 1, 'depotId': 1, 'slot': 1, '_id': 1}"),
+    @CompoundIndex(name = "depot_window", def = "{'depotId': 1, 'stop.window.startTime': 1, 'stop.window.endTime': 1}")
+})
+public class PendingStop {
+
+    /**
+     * Slot of stops without a delivery window
+     */
+    public static final int ANYTIME = -1;
+
+    /**
+     * The stop id
+     */
+    @Id
+    private String id;
+    private DeliveryStop stop;
+
+    private String depotId;
+
+    /**
+     * Midnight UTC of the day the stop is due
+     */
+    private Instant serviceDay;
+    private int slot;
+
+    private PendingStopStatus status;
+    private String routeId;
+
+    private Instant receivedAt;
+    private Instant plannedAt;
+
+    /**
+     * Files the stop by its window; stops without one are due on the given day, any time
+     */
+    public static PendingStop pending(DeliveryStop stop, String depotId, LocalDate dayWithoutWindow) {
+        Instant windowStart = stop.getWindow() != null ? stop.getWindow().getStartTime() : null;
+
+        return PendingStop.builder()
+            .id(stop.getStopId())
+            .stop(stop)
+            .depotId(depotId)
+            .serviceDay(windowStart != null ? windowStart.truncatedTo(ChronoUnit.DAYS) : serviceDay(dayWithoutWindow))
+            .slot(windowStart != null ? (int) (windowStart.getEpochSecond() / 3600 % 24 / 2) : ANYTIME)
+            .status(PendingStopStatus.PENDING)
+            .receivedAt(Instant.now())
+            .build();
+    }
+
+    public static Instant serviceDay(LocalDate date) {
+        return date.atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    /**
+     * Depots have no identity of their own; vehicles sharing a home base share a depot
+     */
+    public static String depotOf(GPSCoordinates homeBase) {
+        return String.format(Locale.ROOT, "%.4f,%.4f", homeBase.getLatitude(), homeBase.getLongitude());
+    }
+}
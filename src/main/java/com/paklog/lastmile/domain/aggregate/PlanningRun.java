@@ -0,0 +1,72 @@
+package com.paklog.lastmile.domain.aggregate;
+
+import com.paklog.lastmile.domain.valueobject.PlanningRunState;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checkpoint of a wave planning run for one service day. The counters are advanced together
+ * with each planned partition, so they always match the stops already marked planned. The
+ * owner keeps the heartbeat fresh; a run whose heartbeat went stale is taken over and resumed.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "planning_runs")
+@CompoundIndex(name = "state_heartbeat", def = "{'state': 1, 'heartbeatAt': 1}")
+public class PlanningRun {
+
+    @Id
+    private String id;
+    private Instant serviceDay;
+
+    private PlanningRunState state;
+    private String owner;
+    private Instant heartbeatAt;
+    private int attempts;
+
+    /**
+     * Fleet given when the run was last started; a resumed run plans against the same vehicles
+     */
+    @Builder.Default
+    private List<String> vehicleIds = new ArrayList<>();
+
+    /**
+     * Vehicles holding a committed route, one {@link #slotBooking(String, int)} entry per vehicle and
+     * slot. Kept across attempts, so a resumed or repeated run for the day plans around them.
+     */
+    @Builder.Default
+    private List<String> bookedSlots = new ArrayList<>();
+
+    private long partitionsPlanned;
+    private long routesCreated;
+    private long stopsPlanned;
+
+    /**
+     * Stops left pending and partitions that failed in the latest attempt; a later attempt retries them
+     */
+    private long stopsUnassigned;
+    private long partitionsFailed;
+
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String error;
+
+    public static String slotBooking(String vehicleId, int slot) {
+        return vehicleId + "/" + slot;
+    }
+
+    public boolean isAbandoned(Instant staleBefore) {
+        return state == PlanningRunState.RUNNING && heartbeatAt.isBefore(staleBefore);
+    }
+}
@@ -7,6 +7,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.*;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
@@ -23,8 +24,12 @@ public class ProofOfDelivery {
     @Id
     private String id;
 
+    @Indexed
     private String deliveryRouteId;
+
+    @Indexed
     private String stopId;
+
     private List<String> packageIds;
 
     private Signature signature;
@@ -35,6 +40,7 @@ public class ProofOfDelivery {
     private GPSCoordinates deliveryLocation;
     private Instant deliveredAt;
 
+    @Indexed
     private String driverId;
     private String driverName;
 
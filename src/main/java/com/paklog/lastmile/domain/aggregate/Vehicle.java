@@ -7,6 +7,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.*;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
@@ -16,15 +18,18 @@ import java.time.Instant;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "vehicles")
+@CompoundIndex(name = "available_active", def = "{'available': 1, 'active': 1}")
 public class Vehicle {
 
     @Id
     private String id;
 
+    @Indexed
     private String vehicleNumber;
     private String licensePlate;
     private VehicleType type;
 
+    @Indexed
     private String driverId;
     private String driverName;
     private String driverPhone;
@@ -43,8 +48,11 @@ public class Vehicle {
     private Instant updatedAt;
 
     public boolean canAccommodate(int weightKg, int stops) {
-        return available &&
-               currentWeightKg + weightKg <= type.getMaxWeightKg() &&
+        return available && hasCapacityFor(weightKg, stops);
+    }
+
+    public boolean hasCapacityFor(int weightKg, int stops) {
+        return currentWeightKg + weightKg <= type.getMaxWeightKg() &&
                stops <= type.getMaxStops();
     }
 
@@ -4,23 +4,33 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 
+import java.util.List;
+
 @Data
 @EqualsAndHashCode(callSuper = true)
 public class CustomerNotifiedEvent extends DomainEvent {
     private final String routeId;
     private final String notificationType;
     private final String message;
+    private final List<StopEtaUpdate> etaUpdates;
 
     @Builder
-    public CustomerNotifiedEvent(String routeId, String notificationType, String message) {
+    public CustomerNotifiedEvent(String routeId, String notificationType, String message,
+                                 List<StopEtaUpdate> etaUpdates) {
         super();
         this.routeId = routeId;
         this.notificationType = notificationType;
         this.message = message;
+        this.etaUpdates = etaUpdates != null ? List.copyOf(etaUpdates) : List.of();
     }
 
     @Override
     public String getEventType() {
         return "CustomerNotified";
     }
+
+    @Override
+    public String getAggregateId() {
+        return routeId;
+    }
 }
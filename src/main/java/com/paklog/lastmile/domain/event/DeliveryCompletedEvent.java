@@ -30,4 +30,9 @@ public class DeliveryCompletedEvent extends DomainEvent {
     public String getEventType() {
         return "DeliveryCompleted";
     }
+
+    @Override
+    public String getAggregateId() {
+        return routeId;
+    }
 }
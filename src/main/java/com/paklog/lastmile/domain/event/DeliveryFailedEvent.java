@@ -28,4 +28,9 @@ public class DeliveryFailedEvent extends DomainEvent {
     public String getEventType() {
         return "DeliveryFailed";
     }
+
+    @Override
+    public String getAggregateId() {
+        return routeId;
+    }
 }
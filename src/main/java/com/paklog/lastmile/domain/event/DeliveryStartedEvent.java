@@ -27,4 +27,9 @@ public class DeliveryStartedEvent extends DomainEvent {
     public String getEventType() {
         return "DeliveryStarted";
     }
+
+    @Override
+    public String getAggregateId() {
+        return routeId;
+    }
 }
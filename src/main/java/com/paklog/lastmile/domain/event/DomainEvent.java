@@ -15,4 +15,9 @@ public abstract class DomainEvent {
     }
 
     public abstract String getEventType();
+
+    /**
+     * ID of the aggregate the event belongs to; events of one aggregate share a partition
+     */
+    public abstract String getAggregateId();
 }
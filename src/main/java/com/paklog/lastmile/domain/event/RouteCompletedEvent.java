@@ -32,4 +32,9 @@ public class RouteCompletedEvent extends DomainEvent {
     public String getEventType() {
         return "RouteCompleted";
     }
+
+    @Override
+    public String getAggregateId() {
+        return routeId;
+    }
 }
@@ -28,4 +28,9 @@ public class RouteCreatedEvent extends DomainEvent {
     public String getEventType() {
         return "RouteCreated";
     }
+
+    @Override
+    public String getAggregateId() {
+        return routeId;
+    }
 }
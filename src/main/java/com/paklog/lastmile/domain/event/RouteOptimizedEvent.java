@@ -26,4 +26,9 @@ public class RouteOptimizedEvent extends DomainEvent {
     public String getEventType() {
         return "RouteOptimized";
     }
+
+    @Override
+    public String getAggregateId() {
+        return routeId;
+    }
 }
@@ -0,0 +1,23 @@
+package com.paklog.lastmile.domain.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StopEtaUpdate {
+    private String stopId;
+    private String customerId;
+    private Instant estimatedArrival;
+
+    /**
+     * Shift against the ETA the customer was last told, 0 for a first notification
+     */
+    private long deltaMinutes;
+}
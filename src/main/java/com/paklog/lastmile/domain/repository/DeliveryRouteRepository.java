@@ -1,6 +1,7 @@
 package com.paklog.lastmile.domain.repository;
 
 import com.paklog.lastmile.domain.aggregate.DeliveryRoute;
+import com.paklog.lastmile.domain.valueobject.GPSCoordinates;
 import com.paklog.lastmile.domain.valueobject.RouteStatus;
 
 import java.util.List;
@@ -10,6 +11,8 @@ public interface DeliveryRouteRepository {
 
     DeliveryRoute save(DeliveryRoute route);
 
+    void insertAll(List<DeliveryRoute> routes);
+
     Optional<DeliveryRoute> findById(String id);
 
     List<DeliveryRoute> findByStatus(RouteStatus status);
@@ -18,7 +21,18 @@ public interface DeliveryRouteRepository {
 
     List<DeliveryRoute> findByVehicleId(String vehicleId);
 
+    /**
+     * Routes whose id begins with {@code prefix}, such as the routes of one wave planning run
+     */
+    List<DeliveryRoute> findByIdStartingWith(String prefix);
+
     List<DeliveryRoute> findActiveRoutes();
 
+    /**
+     * Planned or running routes whose vehicle or some remaining stop lies within {@code radiusKm}
+     * of {@code location}, nearest first
+     */
+    List<DeliveryRoute> findActiveRoutesNear(GPSCoordinates location, double radiusKm, int limit);
+
     void deleteById(String id);
 }
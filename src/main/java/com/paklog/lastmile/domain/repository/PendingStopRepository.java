@@ -0,0 +1,32 @@
+package com.paklog.lastmile.domain.repository;
+
+import com.paklog.lastmile.domain.aggregate.PendingStop;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public interface PendingStopRepository {
+
+    void saveAll(List<PendingStop> stops);
+
+    /**
+     * Inserts the stops whose id is not stored yet and leaves the others untouched, so redelivered
+     * orders never reset a stop already planned. Returns how many were inserted.
+     */
+    int insertNew(List<PendingStop> stops);
+
+    /**
+     * Stops still pending for the day, ordered by depot, slot and id, read lazily through a
+     * cursor. The caller must close the stream.
+     */
+    Stream<PendingStop> streamPending(Instant serviceDay);
+
+    long countPending(Instant serviceDay);
+
+    /**
+     * Marks stops planned onto routes, given the route id per stop id
+     */
+    void markPlanned(Map<String, String> routeIdByStopId);
+}
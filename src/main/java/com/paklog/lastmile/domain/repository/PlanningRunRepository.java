@@ -0,0 +1,36 @@
+package com.paklog.lastmile.domain.repository;
+
+import com.paklog.lastmile.domain.aggregate.PlanningRun;
+import com.paklog.lastmile.domain.valueobject.PlanningRunState;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface PlanningRunRepository {
+
+    Optional<PlanningRun> findById(String id);
+
+    /**
+     * Stores a new run as running, or takes over an existing one unless it is running with a
+     * heartbeat newer than the cutoff. Taking over counts an attempt, takes the given run's fleet
+     * and clears the failure counters; the booked slots are kept. Returns false when another owner
+     * holds the run.
+     */
+    boolean claim(PlanningRun run, Instant staleBefore);
+
+    /**
+     * Refreshes the heartbeat; false when the run has been taken over by another owner
+     */
+    boolean heartbeat(String id, String owner);
+
+    /**
+     * Advances the counters and adds the vehicle slots the partition's routes booked
+     */
+    void recordPartition(String id, int routes, int stopsPlanned, int stopsUnassigned, int partitionsFailed,
+                         List<String> bookedSlots);
+
+    void finish(String id, String owner, PlanningRunState state, String error);
+
+    List<PlanningRun> findAbandoned(Instant staleBefore);
+}
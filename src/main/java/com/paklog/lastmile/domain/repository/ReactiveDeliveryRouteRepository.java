@@ -0,0 +1,17 @@
+package com.paklog.lastmile.domain.repository;
+
+import com.paklog.lastmile.domain.aggregate.DeliveryRoute;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking read access to delivery routes
+ */
+public interface ReactiveDeliveryRouteRepository {
+
+    Mono<DeliveryRoute> findById(String id);
+
+    Flux<DeliveryRoute> findByDriverId(String driverId);
+
+    Flux<DeliveryRoute> findActiveRoutes();
+}
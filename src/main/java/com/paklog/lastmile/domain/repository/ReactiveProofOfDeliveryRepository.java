@@ -0,0 +1,19 @@
+package com.paklog.lastmile.domain.repository;
+
+import com.paklog.lastmile.domain.aggregate.ProofOfDelivery;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking read access to proofs of delivery
+ */
+public interface ReactiveProofOfDeliveryRepository {
+
+    Mono<ProofOfDelivery> findById(String id);
+
+    Flux<ProofOfDelivery> findByRouteId(String routeId);
+
+    Flux<ProofOfDelivery> findByStopId(String stopId);
+
+    Flux<ProofOfDelivery> findByDriverId(String driverId);
+}
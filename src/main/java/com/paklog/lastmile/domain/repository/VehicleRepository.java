@@ -2,6 +2,7 @@ package com.paklog.lastmile.domain.repository;
 
 import com.paklog.lastmile.domain.aggregate.Vehicle;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -9,8 +10,15 @@ public interface VehicleRepository {
 
     Vehicle save(Vehicle vehicle);
 
+    /**
+     * Replaces the given vehicles in one round trip; a vehicle deleted in the meantime stays deleted
+     */
+    void saveAll(List<Vehicle> vehicles);
+
     Optional<Vehicle> findById(String id);
 
+    List<Vehicle> findAllById(Collection<String> ids);
+
     Optional<Vehicle> findByVehicleNumber(String vehicleNumber);
 
     List<Vehicle> findAvailableVehicles();
@@ -0,0 +1,47 @@
+package com.paklog.lastmile.domain.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event spanning the planning of one cluster into a route by
+ * {@link DeliverySchedulingService}, including its optimization
+ */
+@Name("com.paklog.lastmile.ClusterPlanning")
+@Label("Cluster Planning")
+@Category({"Last Mile", "Scheduling"})
+@Description("Turning one geographic cluster of a time slot into an optimized route")
+@StackTrace(false)
+class ClusterPlanningJfrEvent extends Event {
+
+    @Label("Time Slot")
+    String timeSlot;
+
+    @Label("Cluster Index")
+    int clusterIndex;
+
+    @Label("Clusters In Slot")
+    int clusterCount;
+
+    @Label("Stop Count")
+    int stopCount;
+
+    @Label("Vehicle Id")
+    String vehicleId;
+
+    @Label("Time Budget")
+    @Description("Optimization budget for the route, 0 when unbounded")
+    @Timespan(Timespan.NANOSECONDS)
+    long timeBudget;
+
+    @Label("Distance (km)")
+    double distanceKm;
+
+    @Label("Optimization Score")
+    int optimizationScore;
+}
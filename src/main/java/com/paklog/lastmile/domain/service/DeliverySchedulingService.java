@@ -8,6 +8,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
@@ -27,12 +28,23 @@ public class DeliverySchedulingService {
      * Schedule deliveries across available vehicles
      */
     public List<DeliveryRoute> scheduleDeliveries(List<DeliveryStop> stops, List<Vehicle> vehicles) {
+        return scheduleDeliveries(stops, vehicles, null);
+    }
+
+    /**
+     * Schedule deliveries across available vehicles, sharing the optimization time budget
+     * evenly between the routes created. A null budget optimizes each route to convergence.
+     */
+    public List<DeliveryRoute> scheduleDeliveries(List<DeliveryStop> stops, List<Vehicle> vehicles,
+                                                  Duration timeBudget) {
         log.info("Scheduling {} stops across {} vehicles", stops.size(), vehicles.size());
 
         // Group stops by time windows and priority
         Map<String, List<DeliveryStop>> timeSlots = groupByTimeSlots(stops);
 
-        List<DeliveryRoute> routes = new ArrayList<>();
+        List<List<DeliveryStop>> routeStops = new ArrayList<>();
+        List<Vehicle> routeVehicles = new ArrayList<>();
+        List<ClusterPlanningJfrEvent> routeEvents = new ArrayList<>();
 
         // Create routes for each time slot
         for (Map.Entry<String, List<DeliveryStop>> slot : timeSlots.entrySet()) {
@@ -43,16 +55,44 @@ public class DeliverySchedulingService {
 
             // Assign clusters to vehicles
             for (int i = 0; i < clusters.size() && i < vehicles.size(); i++) {
-                Vehicle vehicle = vehicles.get(i);
                 List<DeliveryStop> clusterStops = clusters.get(i);
 
                 if (!clusterStops.isEmpty()) {
-                    DeliveryRoute route = createRoute(clusterStops, vehicle);
-                    routes.add(route);
+                    routeStops.add(clusterStops);
+                    routeVehicles.add(vehicles.get(i));
+
+                    ClusterPlanningJfrEvent event = new ClusterPlanningJfrEvent();
+                    event.timeSlot = slot.getKey();
+                    event.clusterIndex = i;
+                    event.clusterCount = clusters.size();
+                    routeEvents.add(event);
                 }
             }
         }
 
+        Duration routeBudget = timeBudget != null && !routeStops.isEmpty()
+            ? timeBudget.dividedBy(routeStops.size())
+            : null;
+
+        List<DeliveryRoute> routes = new ArrayList<>(routeStops.size());
+        for (int i = 0; i < routeStops.size(); i++) {
+            ClusterPlanningJfrEvent event = routeEvents.get(i);
+            event.begin();
+
+            DeliveryRoute route = createRoute(routeStops.get(i), routeVehicles.get(i), routeBudget);
+            routes.add(route);
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.stopCount = route.getStops().size();
+                event.vehicleId = route.getVehicleId();
+                event.timeBudget = routeBudget != null ? routeBudget.toNanos() : 0;
+                event.distanceKm = route.getTotalDistanceKm();
+                event.optimizationScore = route.getOptimizationScore();
+                event.commit();
+            }
+        }
+
         log.info("Created {} routes from {} stops", routes.size(), stops.size());
 
         return routes;
@@ -143,7 +183,7 @@ public class DeliverySchedulingService {
     /**
      * Create a delivery route from stops
      */
-    private DeliveryRoute createRoute(List<DeliveryStop> stops, Vehicle vehicle) {
+    private DeliveryRoute createRoute(List<DeliveryStop> stops, Vehicle vehicle, Duration timeBudget) {
         DeliveryRoute route = DeliveryRoute.builder()
             .id(UUID.randomUUID().toString())
             .routeNumber(generateRouteNumber())
@@ -156,7 +196,7 @@ public class DeliverySchedulingService {
             .build();
 
         // Optimize the route
-        return optimizationService.optimizeRoute(route, vehicle);
+        return optimizationService.optimizeRoute(route, vehicle, timeBudget);
     }
 
     /**
@@ -196,6 +236,6 @@ public class DeliverySchedulingService {
             }
         });
 
-        return createRoute(failedStops, vehicle);
+        return createRoute(failedStops, vehicle, null);
     }
 }
@@ -0,0 +1,12 @@
+package com.paklog.lastmile.domain.service;
+
+/**
+ * Receives the statistics of every optimizer run, e.g. to export them as metrics
+ */
+@FunctionalInterface
+public interface OptimizationListener {
+
+    OptimizationListener NONE = run -> { };
+
+    void optimized(OptimizationRun run);
+}
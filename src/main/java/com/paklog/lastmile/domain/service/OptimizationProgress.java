@@ -0,0 +1,13 @@
+package com.paklog.lastmile.domain.service;
+
+/**
+ * Observes a running optimization: called once the initial route is constructed (iteration 0)
+ * and after every 2-opt pass, with the best route found so far
+ */
+@FunctionalInterface
+public interface OptimizationProgress {
+
+    OptimizationProgress NONE = (iteration, bestDistanceKm, bestScore) -> { };
+
+    void improved(int iteration, double bestDistanceKm, int bestScore);
+}
@@ -0,0 +1,48 @@
+package com.paklog.lastmile.domain.service;
+
+import com.paklog.lastmile.domain.valueobject.VehicleType;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * What one optimizer run did and how long each phase took. Distances are of the open path
+ * through the stops, without the return to base, so construction and improvement compare.
+ */
+@Value
+@Builder
+public class OptimizationRun {
+
+    String routeId;
+
+    /**
+     * Null when the route was optimized from a position rather than a fleet vehicle
+     */
+    VehicleType vehicleType;
+
+    int stopCount;
+
+    long constructionNanos;
+    long improvementNanos;
+
+    /**
+     * Nearest-neighbor steps that found no stop reachable within its window
+     */
+    int windowFallbacks;
+
+    int iterations;
+
+    /**
+     * 2-opt moves that shortened the route and were checked against the time windows
+     */
+    long feasibilityChecks;
+    long feasibilityRejections;
+
+    boolean budgetExhausted;
+
+    double constructedDistanceKm;
+    double improvedDistanceKm;
+
+    public double improvementRatio() {
+        return constructedDistanceKm > 0 ? (constructedDistanceKm - improvedDistanceKm) / constructedDistanceKm : 0;
+    }
+}
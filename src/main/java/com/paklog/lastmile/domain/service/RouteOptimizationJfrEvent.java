@@ -0,0 +1,51 @@
+package com.paklog.lastmile.domain.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event spanning one {@link RouteOptimizationService#optimizeRoute} run
+ */
+@Name("com.paklog.lastmile.RouteOptimization")
+@Label("Route Optimization")
+@Category({"Last Mile", "Optimizer"})
+@Description("One nearest-neighbor construction and 2-opt improvement run")
+@StackTrace(false)
+class RouteOptimizationJfrEvent extends Event {
+
+    @Label("Route Id")
+    String routeId;
+
+    @Label("Vehicle Type")
+    String vehicleType;
+
+    @Label("Stop Count")
+    int stopCount;
+
+    @Label("Construction Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long constructionTime;
+
+    @Label("2-opt Iterations")
+    int iterations;
+
+    @Label("Feasibility Rejections")
+    @Description("Shorter 2-opt moves turned down by a time window")
+    long feasibilityRejections;
+
+    @Label("Budget Exhausted")
+    boolean budgetExhausted;
+
+    @Label("Distance Before (km)")
+    @Description("Open path distance after construction")
+    double distanceBeforeKm;
+
+    @Label("Distance After (km)")
+    @Description("Open path distance after 2-opt")
+    double distanceAfterKm;
+}
@@ -5,11 +5,14 @@ import com.paklog.lastmile.domain.aggregate.DeliveryStop;
 import com.paklog.lastmile.domain.aggregate.Vehicle;
 import com.paklog.lastmile.domain.valueobject.GPSCoordinates;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.function.ObjIntConsumer;
 import java.util.stream.Collectors;
 
 /**
@@ -23,10 +26,39 @@ public class RouteOptimizationService {
     private static final double TRAFFIC_FACTOR = 1.2; // 20% traffic overhead
     private static final int MAX_OPTIMIZATION_ITERATIONS = 100;
 
+    private final OptimizationListener listener;
+
+    public RouteOptimizationService() {
+        this(OptimizationListener.NONE);
+    }
+
+    @Autowired
+    public RouteOptimizationService(OptimizationListener listener) {
+        this.listener = listener;
+    }
+
     /**
      * Optimizes route using VRP with time windows
      */
     public DeliveryRoute optimizeRoute(DeliveryRoute route, Vehicle vehicle) {
+        return optimizeRoute(route, vehicle, null);
+    }
+
+    /**
+     * Optimizes route, cutting local search short once the time budget is spent.
+     * A null budget runs 2-opt until it converges or hits the iteration cap.
+     */
+    public DeliveryRoute optimizeRoute(DeliveryRoute route, Vehicle vehicle, Duration timeBudget) {
+        return optimizeRoute(route, vehicle, timeBudget, OptimizationProgress.NONE);
+    }
+
+    /**
+     * Optimizes route within the time budget, reporting the best route found after each phase
+     */
+    public DeliveryRoute optimizeRoute(DeliveryRoute route, Vehicle vehicle, Duration timeBudget,
+                                       OptimizationProgress progress) {
+        Instant deadline = timeBudget != null ? Instant.now().plus(timeBudget) : null;
+
         log.info("Optimizing route {} with {} stops", route.getId(), route.getStops().size());
 
         List<DeliveryStop> stops = new ArrayList<>(route.getStops());
@@ -35,14 +67,33 @@ public class RouteOptimizationService {
             return route;
         }
 
+        RouteOptimizationJfrEvent event = new RouteOptimizationJfrEvent();
+        event.begin();
+        SearchStats searchStats = new SearchStats();
+
         // Phase 1: Initial solution using nearest neighbor heuristic
+        long constructionStart = System.nanoTime();
         List<DeliveryStop> optimizedStops = nearestNeighborWithTimeWindows(
             stops,
-            vehicle.getCurrentLocation() != null ? vehicle.getCurrentLocation() : vehicle.getHomeBase()
+            vehicle.getCurrentLocation() != null ? vehicle.getCurrentLocation() : vehicle.getHomeBase(),
+            searchStats
         );
+        long constructionNanos = System.nanoTime() - constructionStart;
+        double constructedDistance = calculateTotalDistance(optimizedStops, null);
+
+        ObjIntConsumer<List<DeliveryStop>> onImproved = progress == OptimizationProgress.NONE ? null :
+            (best, iteration) -> {
+                double distance = calculateTotalDistance(best, vehicle.getHomeBase());
+                progress.improved(iteration, distance, calculateOptimizationScore(best, distance));
+            };
+        if (onImproved != null) {
+            onImproved.accept(optimizedStops, 0);
+        }
 
         // Phase 2: Improve solution using 2-opt local search
-        optimizedStops = twoOptImprovement(optimizedStops);
+        long improvementStart = System.nanoTime();
+        optimizedStops = twoOptImprovement(optimizedStops, deadline, searchStats, onImproved);
+        long improvementNanos = System.nanoTime() - improvementStart;
 
         // Calculate total distance and score
         double totalDistance = calculateTotalDistance(optimizedStops, vehicle.getHomeBase());
@@ -53,13 +104,45 @@ public class RouteOptimizationService {
 
         log.info("Route optimized: distance={}km, score={}", totalDistance, score);
 
+        OptimizationRun run = OptimizationRun.builder()
+            .routeId(route.getId())
+            .vehicleType(vehicle.getType())
+            .stopCount(optimizedStops.size())
+            .constructionNanos(constructionNanos)
+            .improvementNanos(improvementNanos)
+            .windowFallbacks(searchStats.windowFallbacks)
+            .iterations(searchStats.iterations)
+            .feasibilityChecks(searchStats.feasibilityChecks)
+            .feasibilityRejections(searchStats.feasibilityRejections)
+            .budgetExhausted(searchStats.budgetExhausted)
+            .constructedDistanceKm(constructedDistance)
+            .improvedDistanceKm(calculateTotalDistance(optimizedStops, null))
+            .build();
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.routeId = run.getRouteId();
+            event.vehicleType = run.getVehicleType() != null ? run.getVehicleType().name() : null;
+            event.stopCount = run.getStopCount();
+            event.constructionTime = run.getConstructionNanos();
+            event.iterations = run.getIterations();
+            event.feasibilityRejections = run.getFeasibilityRejections();
+            event.budgetExhausted = run.isBudgetExhausted();
+            event.distanceBeforeKm = run.getConstructedDistanceKm();
+            event.distanceAfterKm = run.getImprovedDistanceKm();
+            event.commit();
+        }
+
+        listener.optimized(run);
+
         return route;
     }
 
     /**
      * Nearest Neighbor heuristic respecting time windows
      */
-    private List<DeliveryStop> nearestNeighborWithTimeWindows(List<DeliveryStop> stops, GPSCoordinates startLocation) {
+    private List<DeliveryStop> nearestNeighborWithTimeWindows(List<DeliveryStop> stops, GPSCoordinates startLocation,
+                                                              SearchStats searchStats) {
         List<DeliveryStop> unvisited = new ArrayList<>(stops);
         List<DeliveryStop> route = new ArrayList<>();
 
@@ -72,6 +155,7 @@ public class RouteOptimizationService {
             if (nearest == null) {
                 // No feasible stop found - take the nearest one anyway
                 nearest = findNearestStop(currentLocation, unvisited);
+                searchStats.windowFallbacks++;
             }
 
             route.add(nearest);
@@ -96,9 +180,10 @@ public class RouteOptimizationService {
     }
 
     /**
-     * 2-opt local search for route improvement
+     * 2-opt local search for route improvement, keeping the best route found before the deadline
      */
-    private List<DeliveryStop> twoOptImprovement(List<DeliveryStop> route) {
+    private List<DeliveryStop> twoOptImprovement(List<DeliveryStop> route, Instant deadline, SearchStats searchStats,
+                                                 ObjIntConsumer<List<DeliveryStop>> onImproved) {
         List<DeliveryStop> best = new ArrayList<>(route);
         double bestDistance = calculateTotalDistance(best, null);
 
@@ -110,20 +195,38 @@ public class RouteOptimizationService {
             iteration++;
 
             for (int i = 1; i < route.size() - 1; i++) {
+                if (deadline != null && Instant.now().isAfter(deadline)) {
+                    searchStats.budgetExhausted = true;
+                    improved = false;
+                    break;
+                }
+
                 for (int j = i + 1; j < route.size(); j++) {
                     // Try reversing the segment between i and j
                     List<DeliveryStop> newRoute = twoOptSwap(best, i, j);
                     double newDistance = calculateTotalDistance(newRoute, null);
 
-                    if (newDistance < bestDistance && isTimeWindowFeasible(newRoute)) {
+                    if (newDistance >= bestDistance) {
+                        continue;
+                    }
+
+                    searchStats.feasibilityChecks++;
+                    if (isTimeWindowFeasible(newRoute)) {
                         best = newRoute;
                         bestDistance = newDistance;
                         improved = true;
+                    } else {
+                        searchStats.feasibilityRejections++;
                     }
                 }
             }
+
+            if (improved && onImproved != null) {
+                onImproved.accept(best, iteration);
+            }
         }
 
+        searchStats.iterations = iteration;
         log.debug("2-opt completed in {} iterations, distance improved to {}km", iteration, bestDistance);
 
         return best;
@@ -276,8 +379,14 @@ public class RouteOptimizationService {
             stops.add(bestPosition, urgentStop);
         }
 
-        // Re-optimize with new stop
-        return optimizeRoute(route, null);
+        route.setStops(stops);
+
+        // Re-optimize with new stop, starting from where the route currently is
+        Vehicle position = Vehicle.builder()
+            .currentLocation(route.getCurrentLocation())
+            .homeBase(route.getStartLocation())
+            .build();
+        return optimizeRoute(route, position);
     }
 
     /**
@@ -324,4 +433,14 @@ public class RouteOptimizationService {
 
         return cost;
     }
+
+    // Counters gathered across the phases of one run
+    private static class SearchStats {
+
+        private int windowFallbacks;
+        private int iterations;
+        private long feasibilityChecks;
+        private long feasibilityRejections;
+        private boolean budgetExhausted;
+    }
 }
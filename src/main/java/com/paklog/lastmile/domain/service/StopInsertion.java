@@ -0,0 +1,10 @@
+package com.paklog.lastmile.domain.service;
+
+import java.time.Instant;
+
+/**
+ * Where a new stop would go on a route: its index among the route's stops, the distance it adds
+ * and when the vehicle would get there
+ */
+public record StopInsertion(int position, double addedDistanceKm, Instant estimatedArrival) {
+}
@@ -0,0 +1,132 @@
+package com.paklog.lastmile.domain.service;
+
+import com.paklog.lastmile.domain.aggregate.DeliveryRoute;
+import com.paklog.lastmile.domain.aggregate.DeliveryStop;
+import com.paklog.lastmile.domain.valueobject.GPSCoordinates;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Cheapest insertion of one stop into a route as it stands. Unlike a full re-optimization this
+ * leaves the remaining stops in their order, so it costs microseconds per route and is cheap
+ * enough to run against every candidate route for an urgent order. Kept out of the optimizer so
+ * it does not queue behind full optimization runs.
+ */
+@Service
+public class StopInsertionService {
+
+    private static final double TRAFFIC_FACTOR = 1.2; // 20% traffic overhead, as the optimizer assumes
+    private static final double URBAN_SPEED_KMH = 24.0;
+
+    /**
+     * Finds the position among the remaining stops that adds the least distance while the new stop
+     * is reached within its window and no stop that is on time now ends up late
+     *
+     * @return empty when the route is full, has no known position, or every position misses a window
+     */
+    public Optional<StopInsertion> cheapestFeasibleInsertion(DeliveryRoute route, DeliveryStop stop, Instant now) {
+        List<DeliveryStop> stops = route.getStops();
+        if (stops.size() >= DeliveryRoute.MAX_STOPS) {
+            return Optional.empty();
+        }
+
+        DeliveryStop next = route.getNextStop();
+        int firstRemaining = next != null ? stops.indexOf(next) : stops.size();
+        GPSCoordinates origin = route.getCurrentLocation() != null ? route.getCurrentLocation() : route.getStartLocation();
+        if (origin == null) {
+            return Optional.empty();
+        }
+        Instant departure = route.getPlannedStartTime() != null && route.getPlannedStartTime().isAfter(now)
+            ? route.getPlannedStartTime()
+            : now;
+
+        // Stops already running late stay late whatever we do; only stops on time now must stay so
+        boolean[] lateAlready = new boolean[stops.size()];
+        drive(stops, firstRemaining, -1, stop, origin, departure, lateAlready, null);
+
+        // Try positions cheapest first; the first that breaks no window is the answer
+        List<double[]> positions = new ArrayList<>(stops.size() - firstRemaining + 1);
+        for (int position = firstRemaining; position <= stops.size(); position++) {
+            GPSCoordinates previous = position == firstRemaining ? origin : stops.get(position - 1).getCoordinates();
+            double added = previous.distanceTo(stop.getCoordinates());
+            if (position < stops.size()) {
+                GPSCoordinates following = stops.get(position).getCoordinates();
+                added += stop.getCoordinates().distanceTo(following) - previous.distanceTo(following);
+            }
+            positions.add(new double[]{position, added});
+        }
+        positions.sort(Comparator.comparingDouble(candidate -> candidate[1]));
+
+        for (double[] candidate : positions) {
+            int position = (int) candidate[0];
+            Instant arrival = drive(stops, firstRemaining, position, stop, origin, departure, null, lateAlready);
+            if (arrival != null) {
+                return Optional.of(new StopInsertion(position, candidate[1], arrival));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Drives the remaining stops from {@code origin}, with {@code inserted} visited before the stop
+     * at {@code position} (or not at all for -1), waiting wherever a window has not opened yet.
+     * Records which stops arrive after their window into {@code late} when given; when
+     * {@code allowedLate} is given, gives up at the first late stop it does not allow.
+     *
+     * @return arrival at the inserted stop, or null if it was not visited or a window was missed
+     */
+    private static Instant drive(List<DeliveryStop> stops, int firstRemaining, int position, DeliveryStop inserted,
+                                 GPSCoordinates origin, Instant departure, boolean[] late, boolean[] allowedLate) {
+        GPSCoordinates location = origin;
+        Instant time = departure;
+        Instant insertedArrival = null;
+
+        for (int i = firstRemaining; i <= stops.size(); i++) {
+            if (i == position) {
+                insertedArrival = arrival(time, location, inserted);
+                if (allowedLate != null && isLate(insertedArrival, inserted)) {
+                    return null;
+                }
+                time = departure(insertedArrival, inserted);
+                location = inserted.getCoordinates();
+            }
+            if (i < stops.size()) {
+                DeliveryStop stop = stops.get(i);
+                Instant arrival = arrival(time, location, stop);
+                if (isLate(arrival, stop)) {
+                    if (late != null) {
+                        late[i] = true;
+                    }
+                    if (allowedLate != null && !allowedLate[i]) {
+                        return null;
+                    }
+                }
+                time = departure(arrival, stop);
+                location = stop.getCoordinates();
+            }
+        }
+        return insertedArrival;
+    }
+
+    private static Instant arrival(Instant time, GPSCoordinates from, DeliveryStop stop) {
+        double minutes = from.distanceTo(stop.getCoordinates()) / URBAN_SPEED_KMH * 60.0 * TRAFFIC_FACTOR;
+        return time.plusSeconds((long) (minutes * 60));
+    }
+
+    private static boolean isLate(Instant arrival, DeliveryStop stop) {
+        return stop.getWindow() != null && arrival.isAfter(stop.getWindow().getEndTime());
+    }
+
+    private static Instant departure(Instant arrival, DeliveryStop stop) {
+        Instant start = stop.getWindow() != null && arrival.isBefore(stop.getWindow().getStartTime())
+            ? stop.getWindow().getStartTime()
+            : arrival;
+        return start.plus(stop.getEstimatedDurationMinutes(), ChronoUnit.MINUTES);
+    }
+}
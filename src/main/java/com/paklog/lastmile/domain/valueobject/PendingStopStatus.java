@@ -0,0 +1,6 @@
+package com.paklog.lastmile.domain.valueobject;
+
+public enum PendingStopStatus {
+    PENDING,
+    PLANNED
+}
@@ -0,0 +1,7 @@
+package com.paklog.lastmile.domain.valueobject;
+
+public enum PlanningRunState {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,11 @@
+package com.paklog.lastmile.infrastructure.concurrency;
+
+/**
+ * Shared resources whose concurrent use is bounded independently of the number of request threads
+ */
+public enum Downstream {
+    MONGO,
+    // Cursor streams, which hold their permit for as long as the caller takes to read them
+    MONGO_STREAM,
+    KAFKA
+}
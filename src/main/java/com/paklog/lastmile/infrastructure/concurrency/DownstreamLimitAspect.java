@@ -0,0 +1,75 @@
+package com.paklog.lastmile.infrastructure.concurrency;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.stream.Stream;
+
+/**
+ * Applies the downstream limits at the adapters that talk to each resource, so cache hits and
+ * in-memory work never wait for a permit, and hands optimizer runs to the optimizer queue. Mongo
+ * cursor streams draw from their own, smaller pool of permits.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "delivery.limits.enabled", havingValue = "true", matchIfMissing = true)
+public class DownstreamLimitAspect {
+
+    private final DownstreamLimiter limiter;
+    private final OptimizerWorkQueue optimizerQueue;
+
+    @Around("within(com.paklog.lastmile.infrastructure.persistence.repository.Mongo*) "
+        + "|| within(com.paklog.lastmile.infrastructure.outbox.OutboxEventPublisher)")
+    public Object limitMongo(ProceedingJoinPoint joinPoint) throws Throwable {
+        // A slow reader of a stream would otherwise hold a permit the short queries need
+        Class<?> returnType = ((MethodSignature) joinPoint.getSignature()).getReturnType();
+        return proceed(Stream.class.isAssignableFrom(returnType) ? Downstream.MONGO_STREAM : Downstream.MONGO,
+            joinPoint);
+    }
+
+    @Around("within(com.paklog.lastmile.infrastructure.kafka.EventPublisher)")
+    public Object limitKafka(ProceedingJoinPoint joinPoint) throws Throwable {
+        return proceed(Downstream.KAFKA, joinPoint);
+    }
+
+    @Around("execution(public * com.paklog.lastmile.domain.service.RouteOptimizationService.*(..))")
+    public Object limitOptimizer(ProceedingJoinPoint joinPoint) {
+        return optimizerQueue.execute(() -> {
+            try {
+                return joinPoint.proceed();
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new UndeclaredThrowableException(t);
+            }
+        });
+    }
+
+    /**
+     * A returned stream still reads from the downstream as it is consumed, so its permit is only
+     * released when the caller closes it
+     */
+    private Object proceed(Downstream downstream, ProceedingJoinPoint joinPoint) throws Throwable {
+        DownstreamLimiter.Permit permit = limiter.acquire(downstream);
+        boolean streaming = false;
+        try {
+            Object result = joinPoint.proceed();
+            if (result instanceof Stream<?> stream) {
+                streaming = true;
+                return stream.onClose(permit::close);
+            }
+            return result;
+        } finally {
+            if (!streaming) {
+                permit.close();
+            }
+        }
+    }
+}
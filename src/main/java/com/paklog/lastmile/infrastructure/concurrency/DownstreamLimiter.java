@@ -0,0 +1,89 @@
+package com.paklog.lastmile.infrastructure.concurrency;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps concurrent calls per downstream. With virtual threads the number of in-flight requests is
+ * no longer bounded by a thread pool, so these permits are what keeps Mongo and Kafka from being
+ * overwhelmed; callers beyond the cap wait, parked, for a permit. The CPU bound optimizer has its
+ * own {@link OptimizerWorkQueue}.
+ */
+@Component
+public class DownstreamLimiter {
+
+    private final Map<Downstream, Semaphore> permits = new EnumMap<>(Downstream.class);
+    private final Map<Downstream, Timer> waits = new EnumMap<>(Downstream.class);
+    private final Duration acquireTimeout;
+
+    public DownstreamLimiter(MeterRegistry meterRegistry,
+                             @Value("${delivery.limits.mongo.max-concurrent:64}") int mongoLimit,
+                             @Value("${delivery.limits.mongo.max-concurrent-streams:8}") int mongoStreamLimit,
+                             @Value("${delivery.limits.kafka.max-concurrent:32}") int kafkaLimit,
+                             @Value("${delivery.limits.acquire-timeout:5s}") Duration acquireTimeout) {
+        this.acquireTimeout = acquireTimeout;
+
+        register(meterRegistry, Downstream.MONGO, mongoLimit);
+        register(meterRegistry, Downstream.MONGO_STREAM, mongoStreamLimit);
+        register(meterRegistry, Downstream.KAFKA, kafkaLimit);
+    }
+
+    /**
+     * Waits up to the acquire timeout for a permit; close the returned permit to release it
+     *
+     * @throws DownstreamSaturatedException when no permit came free in time
+     */
+    public Permit acquire(Downstream downstream) {
+        Semaphore semaphore = permits.get(downstream);
+        long start = System.nanoTime();
+        try {
+            if (!semaphore.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new DownstreamSaturatedException(downstream, retryAfter());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for " + downstream + " capacity", e);
+        } finally {
+            waits.get(downstream).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        return semaphore::release;
+    }
+
+    /**
+     * Callers that gave up waited the whole timeout, so that is about as long as a slot takes to free up
+     */
+    private Duration retryAfter() {
+        return acquireTimeout.toSeconds() > 0 ? Duration.ofSeconds(acquireTimeout.toSeconds()) : Duration.ofSeconds(1);
+    }
+
+    private void register(MeterRegistry meterRegistry, Downstream downstream, int limit) {
+        Semaphore semaphore = new Semaphore(limit, true);
+        permits.put(downstream, semaphore);
+
+        String tag = downstream.name().toLowerCase();
+        waits.put(downstream, Timer.builder("downstream.limit.wait")
+            .tag("downstream", tag)
+            .register(meterRegistry));
+        Gauge.builder("downstream.limit.in-use", semaphore, s -> limit - s.availablePermits())
+            .tag("downstream", tag)
+            .register(meterRegistry);
+        Gauge.builder("downstream.limit.queued", semaphore, Semaphore::getQueueLength)
+            .tag("downstream", tag)
+            .register(meterRegistry);
+    }
+
+    public interface Permit extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
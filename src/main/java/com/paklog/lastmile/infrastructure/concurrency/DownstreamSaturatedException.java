@@ -0,0 +1,22 @@
+package com.paklog.lastmile.infrastructure.concurrency;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * No permit for a downstream came free within the acquire timeout; the request should be retried
+ * after {@link #getRetryAfter()}
+ */
+@Getter
+public class DownstreamSaturatedException extends RuntimeException {
+
+    private final Downstream downstream;
+    private final Duration retryAfter;
+
+    public DownstreamSaturatedException(Downstream downstream, Duration retryAfter) {
+        super("Too many concurrent " + downstream + " calls, retry after " + retryAfter.toSeconds() + "s");
+        this.downstream = downstream;
+        this.retryAfter = retryAfter;
+    }
+}
@@ -0,0 +1,19 @@
+package com.paklog.lastmile.infrastructure.concurrency;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * The optimizer queue is full; the request should be retried after {@link #getRetryAfter()}
+ */
+@Getter
+public class OptimizerSaturatedException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public OptimizerSaturatedException(int queued, Duration retryAfter) {
+        super("Optimizer is saturated with " + queued + " queued runs, retry after " + retryAfter.toSeconds() + "s");
+        this.retryAfter = retryAfter;
+    }
+}
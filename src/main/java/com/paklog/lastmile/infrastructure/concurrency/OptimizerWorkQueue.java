@@ -0,0 +1,160 @@
+package com.paklog.lastmile.infrastructure.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * Runs optimizer work on a small pool of platform threads behind a bounded queue. Optimization is
+ * pure CPU; run inline on virtual threads it would occupy the carrier threads every other request
+ * needs. Here it competes for cores as a handful of ordinary threads, sized to leave one core
+ * free by default, and once the queue is full new runs fail fast with a retry hint instead of
+ * piling up. Depth, wait time and utilization are exported for the horizontal pod autoscaler.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "delivery.limits.enabled", havingValue = "true", matchIfMissing = true)
+public class OptimizerWorkQueue {
+
+    private static final Duration MIN_RETRY_AFTER = Duration.ofSeconds(1);
+    private static final double RUN_TIME_SMOOTHING = 0.2;
+
+    @Getter
+    private final int workers;
+    @Getter
+    private final int capacity;
+    private final ThreadPoolExecutor executor;
+
+    private final Timer waitTimer;
+    private final Timer runTimer;
+    private final Counter rejected;
+    private final DoubleAdder busySeconds = new DoubleAdder();
+    private final AtomicLong meanRunNanos = new AtomicLong();
+
+    public OptimizerWorkQueue(MeterRegistry meterRegistry,
+                              @Value("${delivery.limits.optimizer.workers:0}") int workers,
+                              @Value("${delivery.limits.optimizer.queue-capacity:32}") int capacity) {
+        this.workers = workers > 0 ? workers : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        this.capacity = capacity;
+
+        AtomicLong threadIds = new AtomicLong();
+        this.executor = new ThreadPoolExecutor(this.workers, this.workers, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(capacity),
+            runnable -> Thread.ofPlatform()
+                .name("optimizer-" + threadIds.incrementAndGet())
+                .daemon(true)
+                .unstarted(runnable),
+            new ThreadPoolExecutor.AbortPolicy());
+
+        this.waitTimer = Timer.builder("delivery.optimizer.queue.wait")
+            .description("Time an optimizer run waited for a worker")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.runTimer = Timer.builder("delivery.optimizer.run")
+            .description("Time an optimizer run held a worker")
+            .register(meterRegistry);
+        this.rejected = Counter.builder("delivery.optimizer.rejected")
+            .description("Optimizer runs turned away because the queue was full")
+            .register(meterRegistry);
+        Gauge.builder("delivery.optimizer.queue.depth", executor, pool -> pool.getQueue().size())
+            .description("Optimizer runs waiting for a worker")
+            .register(meterRegistry);
+        Gauge.builder("delivery.optimizer.queue.capacity", () -> capacity)
+            .register(meterRegistry);
+        Gauge.builder("delivery.optimizer.workers.active", executor, ThreadPoolExecutor::getActiveCount)
+            .register(meterRegistry);
+        Gauge.builder("delivery.optimizer.utilization", executor, pool -> (double) pool.getActiveCount() / this.workers)
+            .description("Share of optimizer workers busy right now")
+            .register(meterRegistry);
+        FunctionCounter.builder("delivery.optimizer.busy", busySeconds, DoubleAdder::sum)
+            .description("Worker seconds spent optimizing; its rate over workers is the average utilization")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+
+        log.info("Optimizer queue with {} workers and capacity {}", this.workers, capacity);
+    }
+
+    /**
+     * Runs {@code work} on an optimizer worker and waits for its result
+     *
+     * @throws OptimizerSaturatedException when the queue is full
+     */
+    public <T> T execute(Callable<T> work) {
+        long enqueued = System.nanoTime();
+        FutureTask<T> task = new FutureTask<>(() -> {
+            long started = System.nanoTime();
+            waitTimer.record(started - enqueued, TimeUnit.NANOSECONDS);
+            try {
+                return work.call();
+            } finally {
+                recordRun(System.nanoTime() - started);
+            }
+        });
+
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new OptimizerSaturatedException(executor.getQueue().size(), retryAfter());
+        }
+
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            task.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for the optimizer", e);
+        } catch (CancellationException e) {
+            throw new IllegalStateException("Optimizer run was cancelled", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Optimizer run failed", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void recordRun(long nanos) {
+        runTimer.record(nanos, TimeUnit.NANOSECONDS);
+        busySeconds.add(nanos / 1e9);
+        meanRunNanos.updateAndGet(mean -> mean == 0 ? nanos : (long) (mean + RUN_TIME_SMOOTHING * (nanos - mean)));
+    }
+
+    /**
+     * Roughly when the backlog ahead of a new run will have drained
+     */
+    private Duration retryAfter() {
+        long backlog = executor.getQueue().size() + executor.getActiveCount();
+        Duration drain = Duration.ofNanos(backlog * meanRunNanos.get() / workers);
+        Duration rounded = Duration.ofSeconds((drain.toMillis() + 999) / 1000);
+        return rounded.compareTo(MIN_RETRY_AFTER) < 0 ? MIN_RETRY_AFTER : rounded;
+    }
+}
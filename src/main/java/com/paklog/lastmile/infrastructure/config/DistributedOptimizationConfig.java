@@ -0,0 +1,187 @@
+package com.paklog.lastmile.infrastructure.config;
+
+import com.paklog.lastmile.infrastructure.concurrency.OptimizerWorkQueue;
+import com.paklog.lastmile.infrastructure.kafka.optimization.OptimizationProblem;
+import com.paklog.lastmile.infrastructure.kafka.optimization.OptimizationSolution;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerConsumerListener;
+import org.springframework.kafka.core.MicrometerProducerListener;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.requestreply.ReplyingKafkaTemplate;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.util.backoff.ExponentialBackOff;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Kafka plumbing for distributed optimization. Owners send problems on the work topic and read
+ * replies in a consumer group of their own, so every owner sees every reply and keeps its own.
+ * Workers share one group on the work topic and take one problem per poll, since a single solve
+ * can run for the whole budget. Payloads are plain JSON rather than CloudEvents; they are
+ * requests between instances, not domain events.
+ * <p>
+ * Not tied to a profile: the perf profile can run owners and workers against a test broker.
+ */
+@EnableKafka
+@Configuration
+@ConditionalOnProperty(name = "delivery.optimization.distributed.enabled", havingValue = "true")
+public class DistributedOptimizationConfig {
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Value("${delivery.optimization.distributed.instance-id}")
+    private String instanceId;
+
+    @Value("${delivery.optimization.distributed.work-topic:lastmile.optimization.work}")
+    private String workTopic;
+
+    @Value("${delivery.optimization.distributed.reply-topic:lastmile.optimization.replies}")
+    private String replyTopic;
+
+    @Value("${delivery.optimization.distributed.partitions:24}")
+    private int partitions;
+
+    @Value("${delivery.optimization.distributed.worker.concurrency:0}")
+    private int workerConcurrency;
+
+    @Value("${delivery.optimization.distributed.worker.max-poll-interval:5m}")
+    private Duration workerMaxPollInterval;
+
+    @Bean
+    public NewTopic optimizationWorkTopic() {
+        return TopicBuilder.name(workTopic)
+            .partitions(partitions)
+            .build();
+    }
+
+    @Bean
+    public NewTopic optimizationReplyTopic() {
+        return TopicBuilder.name(replyTopic)
+            .partitions(partitions)
+            .build();
+    }
+
+    @Bean
+    public ProducerFactory<String, OptimizationProblem> optimizationProblemProducerFactory(MeterRegistry meterRegistry) {
+        return producerFactory(meterRegistry);
+    }
+
+    /**
+     * Sends problems and matches replies to them by correlation id. Replies meant for other owners
+     * share the topic and are dropped quietly.
+     */
+    @Bean
+    public ReplyingKafkaTemplate<String, OptimizationProblem, OptimizationSolution> optimizationReplyingTemplate(
+            ProducerFactory<String, OptimizationProblem> optimizationProblemProducerFactory,
+            MeterRegistry meterRegistry) {
+        Map<String, Object> config = consumerConfig("lastmile-optimizer-replies-" + instanceId, OptimizationSolution.class);
+        // Replies sent before this owner existed cannot be for it
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+
+        DefaultKafkaConsumerFactory<String, OptimizationSolution> consumerFactory = new DefaultKafkaConsumerFactory<>(config);
+        consumerFactory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+
+        ConcurrentMessageListenerContainer<String, OptimizationSolution> replyContainer =
+            new ConcurrentMessageListenerContainer<>(consumerFactory, new ContainerProperties(replyTopic));
+
+        ReplyingKafkaTemplate<String, OptimizationProblem, OptimizationSolution> template =
+            new ReplyingKafkaTemplate<>(optimizationProblemProducerFactory, replyContainer);
+        template.setSharedReplyTopic(true);
+        return template;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "delivery.optimization.distributed.worker.enabled", havingValue = "true")
+    public ProducerFactory<String, OptimizationSolution> optimizationSolutionProducerFactory(MeterRegistry meterRegistry) {
+        return producerFactory(meterRegistry);
+    }
+
+    /**
+     * One listener thread per optimizer worker by default, so a worker instance pulls no more
+     * problems than it can solve at once and the rest stay on the topic for other instances
+     */
+    @Bean
+    @ConditionalOnProperty(name = "delivery.optimization.distributed.worker.enabled", havingValue = "true")
+    public ConcurrentKafkaListenerContainerFactory<String, OptimizationProblem> optimizationWorkerContainerFactory(
+            ProducerFactory<String, OptimizationSolution> optimizationSolutionProducerFactory,
+            ObjectProvider<OptimizerWorkQueue> optimizerWorkQueue,
+            MeterRegistry meterRegistry) {
+        Map<String, Object> config = consumerConfig(null, OptimizationProblem.class);
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 1);
+        config.put(ConsumerConfig.MAX_POLL_INTERVAL_MS_CONFIG, (int) workerMaxPollInterval.toMillis());
+
+        DefaultKafkaConsumerFactory<String, OptimizationProblem> consumerFactory = new DefaultKafkaConsumerFactory<>(config);
+        consumerFactory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+
+        ConcurrentKafkaListenerContainerFactory<String, OptimizationProblem> factory =
+            new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setReplyTemplate(new KafkaTemplate<>(optimizationSolutionProducerFactory));
+        OptimizerWorkQueue queue = optimizerWorkQueue.getIfAvailable();
+        factory.setConcurrency(workerConcurrency > 0 ? workerConcurrency
+            : queue != null ? queue.getWorkers()
+            : Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+
+        // Redelivery only happens when the local optimizer queue is full; back off and try again
+        ExponentialBackOff backOff = new ExponentialBackOff(500, 2.0);
+        backOff.setMaxInterval(10_000);
+        backOff.setMaxElapsedTime(60_000);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(backOff));
+        return factory;
+    }
+
+    private <V> ProducerFactory<String, V> producerFactory(MeterRegistry meterRegistry) {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        config.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
+        config.put(ProducerConfig.ACKS_CONFIG, "all");
+        config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+
+        DefaultKafkaProducerFactory<String, V> factory = new DefaultKafkaProducerFactory<>(config);
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        return factory;
+    }
+
+    private Map<String, Object> consumerConfig(String groupId, Class<?> valueType) {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        if (groupId != null) {
+            config.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        }
+        config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        // A payload that does not parse is logged and skipped instead of failing every poll
+        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
+        config.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, JsonDeserializer.class);
+        config.put(JsonDeserializer.VALUE_DEFAULT_TYPE, valueType.getName());
+        config.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
+        config.put(JsonDeserializer.TRUSTED_PACKAGES, valueType.getPackageName());
+        return config;
+    }
+}
@@ -1,36 +1,100 @@
 package com.paklog.lastmile.infrastructure.config;
 
+import com.paklog.lastmile.infrastructure.kafka.KafkaSendMetrics;
 import io.cloudevents.CloudEvent;
 import io.cloudevents.kafka.CloudEventSerializer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.config.TopicConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerProducerListener;
 import org.springframework.kafka.core.ProducerFactory;
 
 import java.util.HashMap;
 import java.util.Map;
 
 @Configuration
+@Profile("!perf")
 public class KafkaConfig {
 
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    @Value("${delivery.kafka.producer.acks:all}")
+    private String acks;
+
+    @Value("${delivery.kafka.producer.idempotence:true}")
+    private boolean idempotence;
+
+    @Value("${delivery.kafka.producer.linger-ms:10}")
+    private int lingerMs;
+
+    @Value("${delivery.kafka.producer.batch-size:65536}")
+    private int batchSize;
+
+    @Value("${delivery.kafka.producer.compression-type:lz4}")
+    private String compressionType;
+
+    @Value("${delivery.kafka.producer.max-in-flight:5}")
+    private int maxInFlight;
+
+    @Value("${delivery.snapshots.topic:lastmile.route-snapshots}")
+    private String snapshotTopic;
+
+    @Value("${delivery.snapshots.partitions:6}")
+    private int snapshotPartitions;
+
     @Bean
-    public ProducerFactory<String, CloudEvent> producerFactory() {
+    public ProducerFactory<String, CloudEvent> producerFactory(MeterRegistry meterRegistry) {
         Map<String, Object> config = new HashMap<>();
         config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
         config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, CloudEventSerializer.class);
-        return new DefaultKafkaProducerFactory<>(config);
+
+        // Idempotence keeps per-partition order across retries with up to 5 requests in flight
+        config.put(ProducerConfig.ACKS_CONFIG, acks);
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, idempotence);
+        config.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, maxInFlight);
+
+        // Let records for the same partition accumulate into larger compressed batches
+        config.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        config.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+
+        DefaultKafkaProducerFactory<String, CloudEvent> factory = new DefaultKafkaProducerFactory<>(config);
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        return factory;
+    }
+
+    @Bean
+    public KafkaTemplate<String, CloudEvent> kafkaTemplate(ProducerFactory<String, CloudEvent> producerFactory,
+                                                           KafkaSendMetrics sendMetrics) {
+        KafkaTemplate<String, CloudEvent> template = new KafkaTemplate<>(producerFactory);
+        template.setProducerInterceptor(sendMetrics);
+        template.setProducerListener(sendMetrics);
+        return template;
     }
 
+    /**
+     * Compacted topic holding the latest snapshot per route; consumers rebuild state from it on startup
+     */
     @Bean
-    public KafkaTemplate<String, CloudEvent> kafkaTemplate() {
-        return new KafkaTemplate<>(producerFactory());
+    @ConditionalOnProperty(name = "delivery.snapshots.enabled", havingValue = "true", matchIfMissing = true)
+    public NewTopic routeSnapshotTopic() {
+        return TopicBuilder.name(snapshotTopic)
+            .partitions(snapshotPartitions)
+            .compact()
+            .config(TopicConfig.MIN_COMPACTION_LAG_MS_CONFIG, "60000")
+            .config(TopicConfig.DELETE_RETENTION_MS_CONFIG, "86400000")
+            .build();
     }
 }
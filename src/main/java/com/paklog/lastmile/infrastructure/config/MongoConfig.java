@@ -1,11 +1,27 @@
 package com.paklog.lastmile.infrastructure.config;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
 import org.springframework.data.mongodb.config.EnableMongoAuditing;
 import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
 
 @Configuration
+@Profile("!perf")
 @EnableMongoAuditing
 @EnableMongoRepositories(basePackages = "com.paklog.lastmile.infrastructure.persistence.repository")
 public class MongoConfig {
+
+    /**
+     * Makes @Transactional commands span the aggregate write and its outbox events.
+     * Requires MongoDB running as a replica set, so it is only created when enabled.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "delivery.mongo.transactions-enabled", havingValue = "true")
+    public MongoTransactionManager transactionManager(MongoDatabaseFactory databaseFactory) {
+        return new MongoTransactionManager(databaseFactory);
+    }
 }
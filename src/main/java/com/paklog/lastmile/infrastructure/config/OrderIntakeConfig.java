@@ -0,0 +1,99 @@
+package com.paklog.lastmile.infrastructure.config;
+
+import com.paklog.lastmile.infrastructure.kafka.intake.OrderMessage;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.MicrometerConsumerListener;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.util.backoff.ExponentialBackOff;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Kafka plumbing for order intake. The listener receives whole polls so each poll becomes one bulk
+ * write to the pool; the fetch settings let the broker hold a fetch briefly until a worthwhile batch
+ * has built up, trading a few hundred milliseconds of latency for far fewer round trips to Mongo.
+ * Consumer lag is published through the Micrometer consumer metrics.
+ * <p>
+ * Not tied to a profile: the perf profile can take orders from a test broker.
+ */
+@EnableKafka
+@Configuration
+@ConditionalOnProperty(name = "delivery.intake.enabled", havingValue = "true")
+public class OrderIntakeConfig {
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Value("${delivery.intake.topic:lastmile.orders}")
+    private String topic;
+
+    @Value("${delivery.intake.partitions:12}")
+    private int partitions;
+
+    @Value("${delivery.intake.concurrency:3}")
+    private int concurrency;
+
+    @Value("${delivery.intake.max-poll-records:2000}")
+    private int maxPollRecords;
+
+    @Value("${delivery.intake.fetch-min-bytes:65536}")
+    private int fetchMinBytes;
+
+    @Value("${delivery.intake.fetch-max-wait:250ms}")
+    private Duration fetchMaxWait;
+
+    @Bean
+    public NewTopic orderIntakeTopic() {
+        return TopicBuilder.name(topic)
+            .partitions(partitions)
+            .build();
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, OrderMessage> orderIntakeContainerFactory(
+            MeterRegistry meterRegistry) {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        config.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, fetchMinBytes);
+        config.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, (int) fetchMaxWait.toMillis());
+        config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        // An order that does not parse reaches the listener as a null value and is counted as rejected
+        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
+        config.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, JsonDeserializer.class);
+        config.put(JsonDeserializer.VALUE_DEFAULT_TYPE, OrderMessage.class.getName());
+        config.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
+        config.put(JsonDeserializer.TRUSTED_PACKAGES, OrderMessage.class.getPackageName());
+
+        DefaultKafkaConsumerFactory<String, OrderMessage> consumerFactory = new DefaultKafkaConsumerFactory<>(config);
+        consumerFactory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+
+        ConcurrentKafkaListenerContainerFactory<String, OrderMessage> factory =
+            new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+
+        // A failed batch means the pool could not be written; keep retrying rather than drop orders
+        ExponentialBackOff backOff = new ExponentialBackOff(500, 2.0);
+        backOff.setMaxInterval(30_000);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(backOff));
+        return factory;
+    }
+}
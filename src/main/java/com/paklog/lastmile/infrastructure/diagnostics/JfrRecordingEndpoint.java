@@ -0,0 +1,188 @@
+package com.paklog.lastmile.infrastructure.diagnostics;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * On-demand flight recording at {@code /actuator/jfr}. {@code POST} starts a recording bounded by
+ * the configured maximum duration and size, {@code DELETE} stops it and {@code GET /actuator/jfr/{id}}
+ * streams the finished file. One recording is kept at a time; starting another discards the last.
+ * The optimizer's own events are enabled by default, so they land in every recording.
+ * <p>
+ * The endpoint has no authentication of its own, so it exists only when
+ * {@code delivery.diagnostics.jfr.enabled} is set, and it refuses to start unless actuator is served
+ * on its own {@code management.server.port}. It must still be added to the exposed endpoints.
+ * Recordings never carry the environment, system properties or command line, since those hold
+ * connection strings and credentials.
+ */
+@Slf4j
+@Component
+@WebEndpoint(id = "jfr")
+@ConditionalOnProperty(name = "delivery.diagnostics.jfr.enabled", havingValue = "true")
+public class JfrRecordingEndpoint {
+
+    private static final String RECORDING_NAME = "lastmile-on-demand";
+    private static final int STATUS_CONFLICT = 409;
+    private static final List<String> REDACTED_EVENTS = List.of(
+        "jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty", "jdk.JVMInformation");
+
+    private final Duration maxDuration;
+    private final DataSize maxSize;
+    private final String defaultSettings;
+
+    // Guarded by this
+    private Recording recording;
+    private Path file;
+
+    public JfrRecordingEndpoint(@Value("${delivery.diagnostics.jfr.max-duration:5m}") Duration maxDuration,
+                                @Value("${delivery.diagnostics.jfr.max-size:100MB}") DataSize maxSize,
+                                @Value("${delivery.diagnostics.jfr.settings:profile}") String defaultSettings,
+                                @Value("${management.server.port:}") String managementPort,
+                                @Value("${server.port:8080}") String serverPort) {
+        if (managementPort.isEmpty() || Objects.equals(managementPort, serverPort)) {
+            throw new IllegalStateException("The jfr endpoint needs actuator on its own management.server.port, "
+                + "one not reachable from outside");
+        }
+        this.maxDuration = maxDuration;
+        this.maxSize = maxSize;
+        this.defaultSettings = defaultSettings;
+    }
+
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        return describe();
+    }
+
+    /**
+     * Starts a recording; duration and size are capped at the configured maximums
+     *
+     * @param settings a JFR configuration name such as {@code default} or {@code profile}
+     */
+    @WriteOperation
+    public synchronized WebEndpointResponse<Map<String, Object>> start(@Nullable Duration duration,
+                                                                       @Nullable DataSize size,
+                                                                       @Nullable String settings) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return new WebEndpointResponse<>(describe(), STATUS_CONFLICT);
+        }
+
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settings != null ? settings : defaultSettings);
+        } catch (IOException | ParseException e) {
+            return new WebEndpointResponse<>(Map.of("error", "Unknown JFR settings: " + settings),
+                WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+
+        discard();
+        try {
+            file = Files.createTempFile(RECORDING_NAME + "-", ".jfr");
+            recording = new Recording(redacted(configuration));
+            recording.setName(RECORDING_NAME);
+            recording.setToDisk(true);
+            recording.setDuration(duration != null && duration.compareTo(maxDuration) < 0 ? duration : maxDuration);
+            recording.setMaxSize(size != null && size.compareTo(maxSize) < 0 ? size.toBytes() : maxSize.toBytes());
+            recording.setDestination(file);
+            recording.start();
+        } catch (IOException e) {
+            discard();
+            throw new UncheckedIOException("Could not start flight recording", e);
+        }
+
+        log.info("Started flight recording {} for {} with {} settings",
+            recording.getId(), recording.getDuration(), configuration.getName());
+        return new WebEndpointResponse<>(describe(), WebEndpointResponse.STATUS_OK);
+    }
+
+    @DeleteOperation
+    public synchronized WebEndpointResponse<Map<String, Object>> stop() {
+        if (recording == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        if (recording.getState() == RecordingState.RUNNING) {
+            // Writes the destination file
+            recording.stop();
+            log.info("Stopped flight recording {}", recording.getId());
+        }
+        return new WebEndpointResponse<>(describe(), WebEndpointResponse.STATUS_OK);
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public synchronized WebEndpointResponse<Resource> download(@Selector long id) {
+        if (recording == null || recording.getId() != id || !Files.exists(file)) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        if (recording.getState() != RecordingState.STOPPED) {
+            // Still running; stop it first, or wait for its duration to pass
+            return new WebEndpointResponse<>(STATUS_CONFLICT);
+        }
+        return new WebEndpointResponse<>(new FileSystemResource(file), WebEndpointResponse.STATUS_OK);
+    }
+
+    @PreDestroy
+    public synchronized void discard() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Could not delete flight recording {}: {}", file, e.getMessage());
+            }
+            file = null;
+        }
+    }
+
+    private static Map<String, String> redacted(Configuration configuration) {
+        Map<String, String> settings = new HashMap<>(configuration.getSettings());
+        REDACTED_EVENTS.forEach(event -> settings.put(event + "#enabled", "false"));
+        return settings;
+    }
+
+    private Map<String, Object> describe() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        if (recording == null) {
+            status.put("state", "NONE");
+            return status;
+        }
+        status.put("id", recording.getId());
+        status.put("state", recording.getState().name());
+        status.put("startTime", recording.getStartTime());
+        status.put("duration", recording.getDuration());
+        status.put("maxSize", DataSize.ofBytes(recording.getMaxSize()).toString());
+        if (recording.getState() == RecordingState.STOPPED && Files.exists(file)) {
+            status.put("size", DataSize.ofBytes(file.toFile().length()).toString());
+        }
+        return status;
+    }
+}
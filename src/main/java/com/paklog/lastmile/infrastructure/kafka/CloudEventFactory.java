@@ -0,0 +1,44 @@
+package com.paklog.lastmile.infrastructure.kafka;
+
+import com.paklog.lastmile.domain.event.DomainEvent;
+import com.paklog.lastmile.infrastructure.kafka.serialization.EncodedPayload;
+import com.paklog.lastmile.infrastructure.kafka.serialization.EventPayloadSerializers;
+import io.cloudevents.CloudEvent;
+import io.cloudevents.core.builder.CloudEventBuilder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+/**
+ * Builds the CloudEvent envelope shared by direct publishing and the outbox relay
+ */
+@Component
+@RequiredArgsConstructor
+public class CloudEventFactory {
+
+    public static final URI SOURCE = URI.create("https://paklog.com/lastmile");
+    public static final String TYPE_PREFIX = "com.paklog.lastmile.";
+
+    private final EventPayloadSerializers payloadSerializers;
+
+    public EncodedPayload encode(DomainEvent event) {
+        return payloadSerializers.defaultSerializer().serialize(event);
+    }
+
+    public CloudEvent create(DomainEvent event) {
+        return create(event.getEventId(), event.getEventType(), event.getOccurredAt(), encode(event));
+    }
+
+    public CloudEvent create(String id, String eventType, Instant occurredAt, EncodedPayload payload) {
+        return CloudEventBuilder.v1()
+            .withId(id)
+            .withType(TYPE_PREFIX + eventType)
+            .withSource(SOURCE)
+            .withTime(occurredAt.atOffset(ZoneOffset.UTC))
+            .withData(payload.getContentType(), payload.getDataSchema(), payload.getData())
+            .build();
+    }
+}
@@ -3,21 +3,28 @@ package com.paklog.lastmile.infrastructure.kafka;
 import com.paklog.lastmile.application.port.out.PublishEventPort;
 import com.paklog.lastmile.domain.event.DomainEvent;
 import io.cloudevents.CloudEvent;
-import io.cloudevents.core.builder.CloudEventBuilder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
-import java.net.URI;
+import java.util.List;
 
+/**
+ * Publishes straight to Kafka; only used when the transactional outbox is disabled
+ */
 @Slf4j
 @Component
+@Profile("!perf")
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "delivery.outbox.enabled", havingValue = "false")
 public class EventPublisher implements PublishEventPort {
 
     private final KafkaTemplate<String, CloudEvent> kafkaTemplate;
+    private final CloudEventFactory cloudEventFactory;
 
     @Value("${delivery.events.topic}")
     private String topic;
@@ -25,15 +32,7 @@ public class EventPublisher implements PublishEventPort {
     @Override
     public void publish(DomainEvent event) {
         try {
-            CloudEvent cloudEvent = CloudEventBuilder.v1()
-                .withId(event.getEventId())
-                .withType("com.paklog.lastmile." + event.getEventType())
-                .withSource(URI.create("https://paklog.com/lastmile"))
-                .withTime(event.getOccurredAt().atOffset(java.time.ZoneOffset.UTC))
-                .withData("application/json", event.toString().getBytes())
-                .build();
-
-            kafkaTemplate.send(topic, event.getEventId(), cloudEvent);
+            send(event);
 
             log.info("Published event: {} to topic: {}", event.getEventType(), topic);
 
@@ -41,4 +40,25 @@ public class EventPublisher implements PublishEventPort {
             log.error("Failed to publish event: {}", event.getEventType(), e);
         }
     }
+
+    @Override
+    public void publishAll(List<DomainEvent> events) {
+        int published = 0;
+
+        // Sends are not awaited individually; the producer batches them on the wire
+        for (DomainEvent event : events) {
+            try {
+                send(event);
+                published++;
+            } catch (Exception e) {
+                log.error("Failed to publish event: {}", event.getEventType(), e);
+            }
+        }
+
+        log.info("Published {} of {} events to topic: {}", published, events.size(), topic);
+    }
+
+    private void send(DomainEvent event) {
+        kafkaTemplate.send(topic, event.getAggregateId(), cloudEventFactory.create(event));
+    }
 }
@@ -0,0 +1,79 @@
+package com.paklog.lastmile.infrastructure.kafka;
+
+import io.cloudevents.CloudEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerInterceptor;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.springframework.kafka.support.ProducerListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Completion callback for every async send: records acknowledgement latency and outcome per topic.
+ * Registered on the template as its interceptor too, so each record carries the time it was sent;
+ * the broker's metadata has no timestamp when a send fails.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class KafkaSendMetrics implements ProducerListener<String, CloudEvent>,
+    ProducerInterceptor<String, CloudEvent> {
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Stamps the send time as the record's CreateTime, which the producer would otherwise set itself
+     */
+    @Override
+    public ProducerRecord<String, CloudEvent> onSend(ProducerRecord<String, CloudEvent> record) {
+        if (record.timestamp() != null) {
+            return record;
+        }
+        return new ProducerRecord<>(record.topic(), record.partition(), System.currentTimeMillis(),
+            record.key(), record.value(), record.headers());
+    }
+
+    @Override
+    public void onSuccess(ProducerRecord<String, CloudEvent> record, RecordMetadata metadata) {
+        timer(record.topic(), "success").record(sinceSent(record));
+    }
+
+    @Override
+    public void onError(ProducerRecord<String, CloudEvent> record, RecordMetadata metadata, Exception exception) {
+        timer(record.topic(), "error").record(sinceSent(record));
+        log.warn("Kafka send to {} failed for key {}: {}", record.topic(), record.key(), exception.getMessage());
+    }
+
+    @Override
+    public void onAcknowledgement(RecordMetadata metadata, Exception exception) {
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs) {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private Duration sinceSent(ProducerRecord<String, CloudEvent> record) {
+        if (record.timestamp() == null) {
+            return Duration.ZERO;
+        }
+        return Duration.ofMillis(Math.max(0, System.currentTimeMillis() - record.timestamp()));
+    }
+
+    private Timer timer(String topic, String outcome) {
+        return Timer.builder("kafka.producer.send")
+            .description("Time from send() to broker acknowledgement")
+            .tag("topic", topic)
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+}
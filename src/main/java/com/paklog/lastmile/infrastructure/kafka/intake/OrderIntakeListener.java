@@ -0,0 +1,105 @@
+package com.paklog.lastmile.infrastructure.kafka.intake;
+
+import com.paklog.lastmile.application.command.SubmitOrderCommand;
+import com.paklog.lastmile.application.port.in.OrderIntakeUseCase;
+import com.paklog.lastmile.application.result.OrderIntakeResult;
+import com.paklog.lastmile.domain.aggregate.DeliveryStop;
+import com.paklog.lastmile.domain.valueobject.DeliveryWindow;
+import com.paklog.lastmile.domain.valueobject.GPSCoordinates;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hands each poll of the order topic to the intake as one batch. Offsets are committed only after
+ * the batch is in the pool; if the write fails, or no depot is known yet to file the orders under,
+ * the whole batch is redelivered, and the orders that did make it are recognised as duplicates the
+ * second time round.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "delivery.intake.enabled", havingValue = "true")
+public class OrderIntakeListener {
+
+    private final OrderIntakeUseCase orderIntakeUseCase;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary batchSize;
+
+    public OrderIntakeListener(OrderIntakeUseCase orderIntakeUseCase, MeterRegistry meterRegistry) {
+        this.orderIntakeUseCase = orderIntakeUseCase;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = DistributionSummary.builder("delivery.intake.batch.size")
+            .description("Orders per poll handed to the intake")
+            .register(meterRegistry);
+    }
+
+    @KafkaListener(
+        id = "orderIntake",
+        topics = "${delivery.intake.topic:lastmile.orders}",
+        groupId = "${delivery.intake.group:lastmile-order-intake}",
+        containerFactory = "orderIntakeContainerFactory")
+    public void onOrders(List<ConsumerRecord<String, OrderMessage>> records) {
+        List<SubmitOrderCommand> orders = new ArrayList<>(records.size());
+        int unreadable = 0;
+        for (ConsumerRecord<String, OrderMessage> record : records) {
+            // The error handling deserializer leaves a null value for payloads it could not parse
+            if (record.value() == null) {
+                unreadable++;
+            } else {
+                orders.add(toCommand(record.value()));
+            }
+        }
+        batchSize.record(records.size());
+
+        OrderIntakeResult result = orderIntakeUseCase.submitOrders(orders);
+        counter("accepted", "none").increment(result.getAccepted());
+        counter("duplicate", "none").increment(result.getDuplicates());
+        counter("rejected", "UNREADABLE").increment(unreadable);
+        result.getRejected().forEach((reason, count) -> counter("rejected", reason.name()).increment(count));
+
+        if (unreadable > 0 || !result.getRejected().isEmpty()) {
+            log.warn("Order intake rejected {} of {} orders: {} unreadable, {}", unreadable
+                + result.getRejected().values().stream().mapToInt(Integer::intValue).sum(),
+                records.size(), unreadable, result.getRejected());
+        }
+    }
+
+    private Counter counter(String outcome, String reason) {
+        return Counter.builder("delivery.intake.orders")
+            .description("Orders received from the order topic, by outcome")
+            .tag("outcome", outcome)
+            .tag("reason", reason)
+            .register(meterRegistry);
+    }
+
+    private static SubmitOrderCommand toCommand(OrderMessage message) {
+        DeliveryWindow window = message.getWindowStart() != null || message.getWindowEnd() != null
+            ? new DeliveryWindow(message.getWindowStart(), message.getWindowEnd())
+            : null;
+        DeliveryStop stop = DeliveryStop.builder()
+            .stopId(message.getOrderId())
+            .customerId(message.getCustomerId())
+            .customerName(message.getCustomerName())
+            .customerPhone(message.getCustomerPhone())
+            .address(message.getAddress())
+            .coordinates(new GPSCoordinates(message.getLatitude(), message.getLongitude()))
+            .window(window)
+            .estimatedDurationMinutes(message.getServiceMinutes())
+            .packageIds(message.getPackageIds() != null ? message.getPackageIds() : new ArrayList<>())
+            .totalWeightKg(message.getWeightKg())
+            .specialInstructions(message.getSpecialInstructions())
+            .build();
+        return SubmitOrderCommand.builder()
+            .stop(stop)
+            .serviceDate(message.getServiceDate())
+            .build();
+    }
+}
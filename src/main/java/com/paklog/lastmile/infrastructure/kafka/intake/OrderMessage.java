@@ -0,0 +1,38 @@
+package com.paklog.lastmile.infrastructure.kafka.intake;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * An order as the order management system publishes it, keyed by order id. Orders without a
+ * delivery window carry the day they are due instead.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderMessage {
+
+    private String orderId;
+    private String customerId;
+    private String customerName;
+    private String customerPhone;
+    private String address;
+    private double latitude;
+    private double longitude;
+
+    private Instant windowStart;
+    private Instant windowEnd;
+    private LocalDate serviceDate;
+
+    private List<String> packageIds;
+    private int weightKg;
+    private int serviceMinutes;
+    private String specialInstructions;
+}
@@ -0,0 +1,103 @@
+package com.paklog.lastmile.infrastructure.kafka.optimization;
+
+import com.paklog.lastmile.application.port.out.RemoteOptimizationPort;
+import com.paklog.lastmile.domain.aggregate.DeliveryRoute;
+import com.paklog.lastmile.domain.aggregate.DeliveryStop;
+import com.paklog.lastmile.domain.aggregate.Vehicle;
+import com.paklog.lastmile.domain.valueobject.GPSCoordinates;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.requestreply.ReplyingKafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Puts optimization problems on the work topic, keyed by route, and completes with the matching
+ * reply. Replies reach every owner instance; the template keeps only those it is waiting for.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "delivery.optimization.distributed.enabled", havingValue = "true")
+public class KafkaRemoteOptimizationAdapter implements RemoteOptimizationPort {
+
+    private final ReplyingKafkaTemplate<String, OptimizationProblem, OptimizationSolution> replyingTemplate;
+    private final String workTopic;
+    private final Duration replyTimeout;
+
+    public KafkaRemoteOptimizationAdapter(
+            ReplyingKafkaTemplate<String, OptimizationProblem, OptimizationSolution> replyingTemplate,
+            @Value("${delivery.optimization.distributed.work-topic:lastmile.optimization.work}") String workTopic,
+            @Value("${delivery.optimization.distributed.reply-timeout:30s}") Duration replyTimeout) {
+        this.replyingTemplate = replyingTemplate;
+        this.workTopic = workTopic;
+        this.replyTimeout = replyTimeout;
+    }
+
+    @Override
+    public CompletableFuture<Solution> optimize(String jobId, DeliveryRoute route, Vehicle vehicle,
+                                                Duration timeBudget) {
+        // The reply timeout covers queueing on the work topic; the budget only the solve itself
+        Duration timeout = timeBudget.plus(replyTimeout);
+        OptimizationProblem problem = toProblem(jobId, route, vehicle, timeBudget, Instant.now().plus(timeout));
+
+        log.debug("Dispatching optimization job {} for route {} with {} stops",
+            jobId, route.getId(), problem.getStops().size());
+
+        return replyingTemplate.sendAndReceive(new ProducerRecord<>(workTopic, route.getId(), problem), timeout)
+            .thenApply(ConsumerRecord::value)
+            .thenApply(KafkaRemoteOptimizationAdapter::toSolution);
+    }
+
+    private static OptimizationProblem toProblem(String jobId, DeliveryRoute route, Vehicle vehicle,
+                                                 Duration timeBudget, Instant deadline) {
+        GPSCoordinates home = vehicle.getHomeBase();
+        GPSCoordinates start = vehicle.getCurrentLocation() != null ? vehicle.getCurrentLocation() : home;
+
+        return OptimizationProblem.builder()
+            .jobId(jobId)
+            .routeId(route.getId())
+            .deadlineMs(deadline.toEpochMilli())
+            .timeBudgetMs(timeBudget.toMillis())
+            .plannedStartMs(route.getPlannedStartTime() != null ? route.getPlannedStartTime().toEpochMilli() : null)
+            .vehicleType(vehicle.getType().name())
+            .capacityKg(vehicle.getType().getMaxWeightKg())
+            .startLat(start.getLatitude())
+            .startLon(start.getLongitude())
+            .homeLat(home.getLatitude())
+            .homeLon(home.getLongitude())
+            .stops(route.getStops().stream().map(KafkaRemoteOptimizationAdapter::toProblemStop).toList())
+            .build();
+    }
+
+    private static OptimizationProblem.Stop toProblemStop(DeliveryStop stop) {
+        return new OptimizationProblem.Stop(
+            stop.getStopId(),
+            stop.getCoordinates().getLatitude(),
+            stop.getCoordinates().getLongitude(),
+            stop.getWindow() != null ? stop.getWindow().getStartTime().toEpochMilli() : null,
+            stop.getWindow() != null ? stop.getWindow().getEndTime().toEpochMilli() : null,
+            stop.getEstimatedDurationMinutes(),
+            stop.getTotalWeightKg());
+    }
+
+    private static Solution toSolution(OptimizationSolution solution) {
+        if (solution.getError() != null) {
+            throw new IllegalStateException("Worker " + solution.getWorkerId() + " failed: " + solution.getError());
+        }
+        return new Solution(
+            solution.getStopIds(),
+            solution.getEtaMs().stream().map(eta -> eta != null ? Instant.ofEpochMilli(eta) : null).toList(),
+            solution.getDistanceKm(),
+            solution.getScore(),
+            solution.getIterations(),
+            solution.getInitialDistanceKm(),
+            solution.getInitialScore(),
+            solution.getWorkerId());
+    }
+}
@@ -0,0 +1,53 @@
+package com.paklog.lastmile.infrastructure.kafka.optimization;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * What a worker needs to solve one route, and nothing else: coordinates, windows, service times
+ * and load. Times are epoch milliseconds to keep the record small.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OptimizationProblem {
+
+    private String jobId;
+    private String routeId;
+
+    /**
+     * Workers drop problems still queued past this instant; the owner has given up on them
+     */
+    private long deadlineMs;
+    private long timeBudgetMs;
+
+    // Null for routes without a planned start
+    private Long plannedStartMs;
+
+    private String vehicleType;
+    private int capacityKg;
+    private double startLat;
+    private double startLon;
+    private double homeLat;
+    private double homeLon;
+
+    private List<Stop> stops;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Stop {
+        private String id;
+        private double lat;
+        private double lon;
+        private Long windowStartMs;
+        private Long windowEndMs;
+        private int durationMinutes;
+        private int weightKg;
+    }
+}
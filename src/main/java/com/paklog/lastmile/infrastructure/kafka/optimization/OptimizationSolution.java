@@ -0,0 +1,34 @@
+package com.paklog.lastmile.infrastructure.kafka.optimization;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A worker's answer to an {@link OptimizationProblem}: the stop order with an ETA per stop,
+ * or an error when the problem could not be solved
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OptimizationSolution {
+
+    private String jobId;
+    private String routeId;
+    private String workerId;
+
+    private List<String> stopIds;
+    private List<Long> etaMs;
+    private double distanceKm;
+    private int score;
+
+    private int iterations;
+    private double initialDistanceKm;
+    private int initialScore;
+
+    private String error;
+}
@@ -0,0 +1,139 @@
+package com.paklog.lastmile.infrastructure.kafka.optimization;
+
+import com.paklog.lastmile.domain.aggregate.DeliveryRoute;
+import com.paklog.lastmile.domain.aggregate.DeliveryStop;
+import com.paklog.lastmile.domain.aggregate.Vehicle;
+import com.paklog.lastmile.domain.service.RouteOptimizationService;
+import com.paklog.lastmile.domain.valueobject.DeliveryWindow;
+import com.paklog.lastmile.domain.valueobject.GPSCoordinates;
+import com.paklog.lastmile.domain.valueobject.VehicleType;
+import com.paklog.lastmile.infrastructure.concurrency.OptimizerSaturatedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.messaging.handler.annotation.SendTo;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Solves problems from the work topic and answers on the reply topic the owner named. Workers
+ * share one consumer group, so capacity grows with the number of worker instances up to the
+ * work topic's partition count. A worker keeps no state; it never reads or writes routes.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = {"delivery.optimization.distributed.enabled",
+    "delivery.optimization.distributed.worker.enabled"}, havingValue = "true")
+public class OptimizationWorker {
+
+    private final RouteOptimizationService optimizationService;
+    private final String workerId;
+
+    public OptimizationWorker(RouteOptimizationService optimizationService,
+                              @Value("${delivery.optimization.distributed.instance-id}") String workerId) {
+        this.optimizationService = optimizationService;
+        this.workerId = workerId;
+    }
+
+    /**
+     * Returns null, sending no reply, for problems whose owner has already timed out. A saturated
+     * optimizer is rethrown so the container backs off and redelivers; any other failure is
+     * answered, so the owner fails the job now instead of waiting out its timeout.
+     */
+    @KafkaListener(
+        id = "optimizationWorker",
+        topics = "${delivery.optimization.distributed.work-topic:lastmile.optimization.work}",
+        groupId = "${delivery.optimization.distributed.worker.group:lastmile-optimizer-workers}",
+        containerFactory = "optimizationWorkerContainerFactory")
+    @SendTo
+    public OptimizationSolution solve(OptimizationProblem problem) {
+        if (System.currentTimeMillis() > problem.getDeadlineMs()) {
+            log.debug("Skipping expired optimization job {} for route {}", problem.getJobId(), problem.getRouteId());
+            return null;
+        }
+
+        try {
+            return solved(problem);
+        } catch (OptimizerSaturatedException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            log.warn("Optimization job {} for route {} failed: {}", problem.getJobId(), problem.getRouteId(),
+                e.getMessage());
+            return OptimizationSolution.builder()
+                .jobId(problem.getJobId())
+                .routeId(problem.getRouteId())
+                .workerId(workerId)
+                .error(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName())
+                .build();
+        }
+    }
+
+    private OptimizationSolution solved(OptimizationProblem problem) {
+        int loadKg = problem.getStops().stream().mapToInt(OptimizationProblem.Stop::getWeightKg).sum();
+        if (loadKg > problem.getCapacityKg()) {
+            throw new IllegalArgumentException(
+                "Load of " + loadKg + "kg exceeds vehicle capacity of " + problem.getCapacityKg() + "kg");
+        }
+
+        DeliveryRoute route = DeliveryRoute.builder()
+            .id(problem.getRouteId())
+            .plannedStartTime(problem.getPlannedStartMs() != null ? Instant.ofEpochMilli(problem.getPlannedStartMs()) : null)
+            .stops(problem.getStops().stream().map(OptimizationWorker::toStop).toList())
+            .build();
+        Vehicle vehicle = Vehicle.builder()
+            .type(VehicleType.valueOf(problem.getVehicleType()))
+            .currentLocation(new GPSCoordinates(problem.getStartLat(), problem.getStartLon()))
+            .homeBase(new GPSCoordinates(problem.getHomeLat(), problem.getHomeLon()))
+            .build();
+
+        double[] initial = new double[2];
+        int[] iterations = new int[1];
+        DeliveryRoute solved = optimizationService.optimizeRoute(route, vehicle,
+            Duration.ofMillis(problem.getTimeBudgetMs()),
+            (iteration, distanceKm, score) -> {
+                if (iteration == 0) {
+                    initial[0] = distanceKm;
+                    initial[1] = score;
+                }
+                iterations[0] = iteration;
+            });
+
+        List<String> stopIds = new ArrayList<>(solved.getStops().size());
+        List<Long> etas = new ArrayList<>(solved.getStops().size());
+        for (DeliveryStop stop : solved.getStops()) {
+            stopIds.add(stop.getStopId());
+            etas.add(stop.getEstimatedArrival() != null ? stop.getEstimatedArrival().toEpochMilli() : null);
+        }
+
+        return OptimizationSolution.builder()
+            .jobId(problem.getJobId())
+            .routeId(problem.getRouteId())
+            .workerId(workerId)
+            .stopIds(stopIds)
+            .etaMs(etas)
+            .distanceKm(solved.getTotalDistanceKm())
+            .score(solved.getOptimizationScore())
+            .iterations(iterations[0])
+            .initialDistanceKm(initial[0])
+            .initialScore((int) initial[1])
+            .build();
+    }
+
+    private static DeliveryStop toStop(OptimizationProblem.Stop stop) {
+        DeliveryWindow window = stop.getWindowStartMs() != null && stop.getWindowEndMs() != null
+            ? new DeliveryWindow(Instant.ofEpochMilli(stop.getWindowStartMs()), Instant.ofEpochMilli(stop.getWindowEndMs()))
+            : null;
+        return DeliveryStop.builder()
+            .stopId(stop.getId())
+            .coordinates(new GPSCoordinates(stop.getLat(), stop.getLon()))
+            .window(window)
+            .estimatedDurationMinutes(stop.getDurationMinutes())
+            .totalWeightKg(stop.getWeightKg())
+            .build();
+    }
+}
@@ -0,0 +1,47 @@
+package com.paklog.lastmile.infrastructure.kafka.serialization;
+
+import lombok.RequiredArgsConstructor;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Avro binary encoding against schemas from the {@link LocalSchemaRegistry}.
+ * The data section carries the bare record; the schema is referenced via dataschema.
+ */
+@Component
+@RequiredArgsConstructor
+public class AvroEventPayloadSerializer implements EventPayloadSerializer {
+
+    public static final String CONTENT_TYPE = "application/avro";
+
+    private final LocalSchemaRegistry schemaRegistry;
+    private final BufferPool bufferPool = new BufferPool();
+
+    @Override
+    public String contentType() {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    public EncodedPayload serialize(Object payload) {
+        RegisteredSchema registered = schemaRegistry.register(payload.getClass());
+        BufferPool.PooledBuffer buffer = bufferPool.acquire();
+
+        try {
+            BinaryEncoder encoder = EncoderFactory.get().directBinaryEncoder(buffer, buffer.getEncoder());
+            buffer.setEncoder(encoder);
+
+            registered.getWriter().write(payload, encoder);
+            encoder.flush();
+
+            return new EncodedPayload(buffer.toByteArray(), CONTENT_TYPE, registered.getUri());
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to serialize " + payload.getClass().getSimpleName() + " as Avro", e);
+        } finally {
+            bufferPool.release(buffer);
+        }
+    }
+}
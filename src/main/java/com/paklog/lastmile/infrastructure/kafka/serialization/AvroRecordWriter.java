@@ -0,0 +1,202 @@
+package com.paklog.lastmile.infrastructure.kafka.serialization;
+
+import org.apache.avro.JsonProperties;
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema;
+import org.apache.avro.io.Encoder;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Derives an Avro record schema from a payload class's fields and writes instances
+ * in Avro binary encoding straight from the fields, without building GenericRecords.
+ * Reference types are written as nullable unions.
+ */
+final class AvroRecordWriter {
+
+    @FunctionalInterface
+    private interface ValueWriter {
+        void write(Object value, Encoder encoder) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface FieldWriter {
+        void write(Object owner, Encoder encoder) throws IOException, IllegalAccessException;
+    }
+
+    private final Schema schema;
+    private final List<FieldWriter> fieldWriters;
+
+    private AvroRecordWriter(Schema schema, List<FieldWriter> fieldWriters) {
+        this.schema = schema;
+        this.fieldWriters = fieldWriters;
+    }
+
+    static AvroRecordWriter forType(Class<?> type) {
+        List<Schema.Field> schemaFields = new ArrayList<>();
+        List<FieldWriter> fieldWriters = new ArrayList<>();
+
+        for (Field field : recordFields(type)) {
+            field.setAccessible(true);
+            Class<?> fieldType = field.getType();
+
+            if (fieldType.isPrimitive()) {
+                schemaFields.add(new Schema.Field(field.getName(), primitiveSchema(fieldType)));
+                fieldWriters.add(primitiveFieldWriter(field));
+            } else {
+                Mapping mapping = nullable(referenceMapping(fieldType, field.getGenericType()));
+                schemaFields.add(new Schema.Field(field.getName(), mapping.schema, null, JsonProperties.NULL_VALUE));
+                fieldWriters.add((owner, encoder) -> mapping.writer.write(field.get(owner), encoder));
+            }
+        }
+
+        Schema schema = Schema.createRecord(type.getSimpleName(), null, type.getPackageName(), false, schemaFields);
+        return new AvroRecordWriter(schema, fieldWriters);
+    }
+
+    Schema getSchema() {
+        return schema;
+    }
+
+    void write(Object record, Encoder encoder) throws IOException {
+        try {
+            for (FieldWriter fieldWriter : fieldWriters) {
+                fieldWriter.write(record, encoder);
+            }
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot read fields of " + record.getClass().getName(), e);
+        }
+    }
+
+    /**
+     * Instance fields from the top of the hierarchy down, so base event fields come first
+     */
+    private static List<Field> recordFields(Class<?> type) {
+        Deque<Class<?>> hierarchy = new ArrayDeque<>();
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            hierarchy.push(c);
+        }
+
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> c : hierarchy) {
+            for (Field field : c.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers) && !field.isSynthetic()) {
+                    fields.add(field);
+                }
+            }
+        }
+        return fields;
+    }
+
+    private static Schema primitiveSchema(Class<?> type) {
+        if (type == int.class || type == short.class || type == byte.class) {
+            return Schema.create(Schema.Type.INT);
+        } else if (type == long.class) {
+            return Schema.create(Schema.Type.LONG);
+        } else if (type == double.class) {
+            return Schema.create(Schema.Type.DOUBLE);
+        } else if (type == float.class) {
+            return Schema.create(Schema.Type.FLOAT);
+        } else if (type == boolean.class) {
+            return Schema.create(Schema.Type.BOOLEAN);
+        }
+        throw new IllegalArgumentException("Unsupported primitive type: " + type);
+    }
+
+    private static FieldWriter primitiveFieldWriter(Field field) {
+        Class<?> type = field.getType();
+        if (type == int.class || type == short.class || type == byte.class) {
+            return (owner, encoder) -> encoder.writeInt(field.getInt(owner));
+        } else if (type == long.class) {
+            return (owner, encoder) -> encoder.writeLong(field.getLong(owner));
+        } else if (type == double.class) {
+            return (owner, encoder) -> encoder.writeDouble(field.getDouble(owner));
+        } else if (type == float.class) {
+            return (owner, encoder) -> encoder.writeFloat(field.getFloat(owner));
+        } else if (type == boolean.class) {
+            return (owner, encoder) -> encoder.writeBoolean(field.getBoolean(owner));
+        }
+        throw new IllegalArgumentException("Unsupported primitive type: " + type);
+    }
+
+    private static Mapping referenceMapping(Class<?> type, Type genericType) {
+        if (type == String.class) {
+            return new Mapping(Schema.create(Schema.Type.STRING), (v, e) -> e.writeString((String) v));
+        } else if (type == Integer.class || type == Short.class || type == Byte.class) {
+            return new Mapping(Schema.create(Schema.Type.INT), (v, e) -> e.writeInt(((Number) v).intValue()));
+        } else if (type == Long.class) {
+            return new Mapping(Schema.create(Schema.Type.LONG), (v, e) -> e.writeLong((Long) v));
+        } else if (type == Double.class) {
+            return new Mapping(Schema.create(Schema.Type.DOUBLE), (v, e) -> e.writeDouble((Double) v));
+        } else if (type == Float.class) {
+            return new Mapping(Schema.create(Schema.Type.FLOAT), (v, e) -> e.writeFloat((Float) v));
+        } else if (type == Boolean.class) {
+            return new Mapping(Schema.create(Schema.Type.BOOLEAN), (v, e) -> e.writeBoolean((Boolean) v));
+        } else if (type == Instant.class) {
+            Schema millis = LogicalTypes.timestampMillis().addToSchema(Schema.create(Schema.Type.LONG));
+            return new Mapping(millis, (v, e) -> e.writeLong(((Instant) v).toEpochMilli()));
+        } else if (type.isEnum()) {
+            // Enums travel as strings so adding a constant never breaks older readers
+            return new Mapping(Schema.create(Schema.Type.STRING), (v, e) -> e.writeString(((Enum<?>) v).name()));
+        } else if (Collection.class.isAssignableFrom(type)) {
+            return arrayMapping(genericType);
+        } else if (type.isArray() || type.isInterface() || type.getName().startsWith("java.")) {
+            throw new IllegalArgumentException("Unsupported payload field type: " + type.getName());
+        }
+
+        AvroRecordWriter nested = forType(type);
+        return new Mapping(nested.schema, nested::write);
+    }
+
+    private static Mapping arrayMapping(Type genericType) {
+        if (!(genericType instanceof ParameterizedType parameterized) ||
+            !(parameterized.getActualTypeArguments()[0] instanceof Class<?> elementType)) {
+            throw new IllegalArgumentException("Collections in payloads need a concrete element type: " + genericType);
+        }
+
+        Mapping element = nullable(referenceMapping(elementType, elementType));
+        return new Mapping(Schema.createArray(element.schema), (v, e) -> {
+            Collection<?> items = (Collection<?>) v;
+            e.writeArrayStart();
+            e.setItemCount(items.size());
+            for (Object item : items) {
+                e.startItem();
+                element.writer.write(item, e);
+            }
+            e.writeArrayEnd();
+        });
+    }
+
+    private static Mapping nullable(Mapping mapping) {
+        Schema union = Schema.createUnion(Schema.create(Schema.Type.NULL), mapping.schema);
+        return new Mapping(union, (v, e) -> {
+            if (v == null) {
+                e.writeIndex(0);
+            } else {
+                e.writeIndex(1);
+                mapping.writer.write(v, e);
+            }
+        });
+    }
+
+    private static final class Mapping {
+        private final Schema schema;
+        private final ValueWriter writer;
+
+        private Mapping(Schema schema, ValueWriter writer) {
+            this.schema = schema;
+            this.writer = writer;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.paklog.lastmile.infrastructure.kafka.serialization;
+
+import org.apache.avro.io.BinaryEncoder;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Bounded pool of growable output buffers with their attached encoders.
+ * Pooled rather than thread-local so it stays effective on virtual threads.
+ */
+class BufferPool {
+
+    private static final int POOL_SIZE = 64;
+    private static final int INITIAL_CAPACITY = 512;
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    private final BlockingQueue<PooledBuffer> buffers = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    PooledBuffer acquire() {
+        PooledBuffer buffer = buffers.poll();
+        return buffer != null ? buffer : new PooledBuffer();
+    }
+
+    void release(PooledBuffer buffer) {
+        // Drop buffers grown by an outlier payload instead of pinning that memory
+        if (buffer.capacity() > MAX_RETAINED_CAPACITY) {
+            return;
+        }
+        buffer.reset();
+        buffers.offer(buffer);
+    }
+
+    static class PooledBuffer extends ByteArrayOutputStream {
+
+        private BinaryEncoder encoder;
+
+        PooledBuffer() {
+            super(INITIAL_CAPACITY);
+        }
+
+        int capacity() {
+            return buf.length;
+        }
+
+        BinaryEncoder getEncoder() {
+            return encoder;
+        }
+
+        void setEncoder(BinaryEncoder encoder) {
+            this.encoder = encoder;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.paklog.lastmile.infrastructure.kafka.serialization;
+
+import lombok.Data;
+
+import java.net.URI;
+
+@Data
+public class EncodedPayload {
+    private final byte[] data;
+    private final String contentType;
+
+    /**
+     * Schema the data was written with, or null for self-describing formats
+     */
+    private final URI dataSchema;
+}
@@ -0,0 +1,11 @@
+package com.paklog.lastmile.infrastructure.kafka.serialization;
+
+/**
+ * Encodes event payloads for the CloudEvent data section in one content type
+ */
+public interface EventPayloadSerializer {
+
+    String contentType();
+
+    EncodedPayload serialize(Object payload);
+}
@@ -0,0 +1,44 @@
+package com.paklog.lastmile.infrastructure.kafka.serialization;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Selects the payload serializer for a datacontenttype; the configured one is the default
+ */
+@Component
+public class EventPayloadSerializers {
+
+    private final Map<String, EventPayloadSerializer> serializersByContentType;
+    private final EventPayloadSerializer defaultSerializer;
+
+    public EventPayloadSerializers(List<EventPayloadSerializer> serializers,
+                                   @Value("${delivery.events.content-type:application/avro}") String defaultContentType) {
+        this.serializersByContentType = serializers.stream()
+            .collect(Collectors.toMap(EventPayloadSerializer::contentType, Function.identity()));
+        this.defaultSerializer = lookup(serializersByContentType, defaultContentType);
+    }
+
+    public EventPayloadSerializer forContentType(String contentType) {
+        return lookup(serializersByContentType, contentType);
+    }
+
+    public EventPayloadSerializer defaultSerializer() {
+        return defaultSerializer;
+    }
+
+    private static EventPayloadSerializer lookup(Map<String, EventPayloadSerializer> serializersByContentType,
+                                                 String contentType) {
+        EventPayloadSerializer serializer = serializersByContentType.get(contentType);
+        if (serializer == null) {
+            throw new IllegalArgumentException("Unsupported event content type: " + contentType +
+                ", supported: " + serializersByContentType.keySet());
+        }
+        return serializer;
+    }
+}
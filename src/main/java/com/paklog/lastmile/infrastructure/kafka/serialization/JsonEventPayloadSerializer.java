@@ -0,0 +1,29 @@
+package com.paklog.lastmile.infrastructure.kafka.serialization;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class JsonEventPayloadSerializer implements EventPayloadSerializer {
+
+    public static final String CONTENT_TYPE = "application/json";
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public String contentType() {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    public EncodedPayload serialize(Object payload) {
+        try {
+            return new EncodedPayload(objectMapper.writeValueAsBytes(payload), CONTENT_TYPE, null);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize " + payload.getClass().getSimpleName() + " as JSON", e);
+        }
+    }
+}
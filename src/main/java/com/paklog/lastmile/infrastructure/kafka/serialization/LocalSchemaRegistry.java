@@ -0,0 +1,75 @@
+package com.paklog.lastmile.infrastructure.kafka.serialization;
+
+import com.paklog.lastmile.domain.event.DomainEvent;
+import com.paklog.lastmile.infrastructure.kafka.snapshot.RouteSnapshot;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process stand-in for a schema registry. Schemas are derived from payload classes
+ * and identified by their 64-bit parsing fingerprint, which is stable across instances
+ * as long as the class shape is unchanged.
+ * <p>
+ * Every payload type is registered at startup, so any instance can serve a schema that
+ * another one has written with; types met later are registered on first use.
+ */
+@Component
+public class LocalSchemaRegistry {
+
+    private static final String SCHEMA_URI_PREFIX = "urn:paklog:lastmile:schema:";
+
+    private final Map<Class<?>, RegisteredSchema> schemasByType = new ConcurrentHashMap<>();
+    private final Map<Long, Schema> schemasById = new ConcurrentHashMap<>();
+
+    public LocalSchemaRegistry() {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AssignableTypeFilter(DomainEvent.class));
+        for (BeanDefinition event : scanner.findCandidateComponents(DomainEvent.class.getPackageName())) {
+            add(ClassUtils.resolveClassName(event.getBeanClassName(), getClass().getClassLoader()));
+        }
+        add(RouteSnapshot.class);
+    }
+
+    public RegisteredSchema register(Class<?> payloadType) {
+        return add(payloadType);
+    }
+
+    private RegisteredSchema add(Class<?> payloadType) {
+        return schemasByType.computeIfAbsent(payloadType, type -> {
+            AvroRecordWriter writer = AvroRecordWriter.forType(type);
+            long id = SchemaNormalization.parsingFingerprint64(writer.getSchema());
+            schemasById.putIfAbsent(id, writer.getSchema());
+            return new RegisteredSchema(id, writer);
+        });
+    }
+
+    public Optional<Schema> findById(long id) {
+        return Optional.ofNullable(schemasById.get(id));
+    }
+
+    public Map<Long, Schema> getSchemas() {
+        return Map.copyOf(schemasById);
+    }
+
+    public static URI schemaUri(long id) {
+        return URI.create(SCHEMA_URI_PREFIX + Long.toHexString(id));
+    }
+
+    public static long parseSchemaId(String id) {
+        try {
+            return Long.parseUnsignedLong(id, 16);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid schema ID: " + id, e);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.paklog.lastmile.infrastructure.kafka.serialization;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.apache.avro.Schema;
+
+import java.net.URI;
+
+@Getter
+public class RegisteredSchema {
+
+    private final long id;
+    private final Schema schema;
+    private final URI uri;
+
+    @Getter(AccessLevel.PACKAGE)
+    private final AvroRecordWriter writer;
+
+    RegisteredSchema(long id, AvroRecordWriter writer) {
+        this.id = id;
+        this.schema = writer.getSchema();
+        this.uri = LocalSchemaRegistry.schemaUri(id);
+        this.writer = writer;
+    }
+}
@@ -0,0 +1,74 @@
+package com.paklog.lastmile.infrastructure.kafka.snapshot;
+
+import com.paklog.lastmile.domain.aggregate.DeliveryRoute;
+import com.paklog.lastmile.domain.valueobject.GPSCoordinates;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Latest compact state of a route, published keyed by route ID to the compacted snapshot topic
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RouteSnapshot {
+
+    private String routeId;
+    private String routeNumber;
+    private String status;
+
+    private String vehicleId;
+    private String driverId;
+
+    private int totalStops;
+    private int completedStops;
+    private int failedStops;
+
+    private double totalDistanceKm;
+    private double trafficDelayMinutes;
+
+    private Instant plannedStartTime;
+    private Instant actualStartTime;
+    private Instant estimatedEndTime;
+    private Instant actualEndTime;
+
+    private GPSCoordinates currentLocation;
+
+    private List<StopSnapshot> stops;
+
+    private Long version;
+    private Instant updatedAt;
+
+    public static RouteSnapshot of(DeliveryRoute route) {
+        return RouteSnapshot.builder()
+            .routeId(route.getId())
+            .routeNumber(route.getRouteNumber())
+            .status(route.getStatus() != null ? route.getStatus().name() : null)
+            .vehicleId(route.getVehicleId())
+            .driverId(route.getDriverId())
+            .totalStops(route.getTotalStops())
+            .completedStops(route.getCompletedStops())
+            .failedStops(route.getFailedStops())
+            .totalDistanceKm(route.getTotalDistanceKm())
+            .trafficDelayMinutes(route.getTrafficDelayMinutes())
+            .plannedStartTime(route.getPlannedStartTime())
+            .actualStartTime(route.getActualStartTime())
+            .estimatedEndTime(route.getEstimatedEndTime())
+            .actualEndTime(route.getActualEndTime())
+            .currentLocation(route.getCurrentLocation())
+            .stops(route.getStops().stream().map(StopSnapshot::of).toList())
+            .version(route.getVersion())
+            .updatedAt(route.getUpdatedAt())
+            .build();
+    }
+
+    boolean isNewerThan(RouteSnapshot other) {
+        return version == null || other.version == null || version >= other.version;
+    }
+}
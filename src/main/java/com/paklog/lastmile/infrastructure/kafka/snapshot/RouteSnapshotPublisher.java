@@ -0,0 +1,142 @@
+package com.paklog.lastmile.infrastructure.kafka.snapshot;
+
+import com.paklog.lastmile.domain.aggregate.DeliveryRoute;
+import com.paklog.lastmile.infrastructure.kafka.CloudEventFactory;
+import com.paklog.lastmile.infrastructure.kafka.serialization.EventPayloadSerializers;
+import io.cloudevents.CloudEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Publishes the latest state of each changed route to a log-compacted topic keyed by route ID.
+ * Saves only mark a route dirty; a scheduled flush sends one snapshot per route, so a burst of
+ * changes to the same route collapses into a single record.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "delivery.snapshots.enabled", havingValue = "true", matchIfMissing = true)
+public class RouteSnapshotPublisher extends AbstractMongoEventListener<DeliveryRoute> {
+
+    static final String EVENT_TYPE = "RouteSnapshot";
+
+    // Marks a deleted route; flushed as a tombstone so compaction drops the key
+    private static final RouteSnapshot TOMBSTONE = new RouteSnapshot();
+
+    private final KafkaTemplate<String, CloudEvent> kafkaTemplate;
+    private final CloudEventFactory cloudEventFactory;
+    private final EventPayloadSerializers payloadSerializers;
+
+    private final Map<String, RouteSnapshot> dirty = new ConcurrentHashMap<>();
+
+    private final Counter published;
+    private final Counter coalesced;
+
+    @Value("${delivery.snapshots.topic:lastmile.route-snapshots}")
+    private String topic;
+
+    public RouteSnapshotPublisher(KafkaTemplate<String, CloudEvent> kafkaTemplate,
+                                  CloudEventFactory cloudEventFactory,
+                                  EventPayloadSerializers payloadSerializers,
+                                  MeterRegistry meterRegistry) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.cloudEventFactory = cloudEventFactory;
+        this.payloadSerializers = payloadSerializers;
+        this.published = meterRegistry.counter("route.snapshot.published");
+        this.coalesced = meterRegistry.counter("route.snapshot.coalesced");
+        Gauge.builder("route.snapshot.pending", dirty, Map::size).register(meterRegistry);
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<DeliveryRoute> event) {
+        // Capture now: the aggregate may keep mutating after the save returns
+        RouteSnapshot snapshot = RouteSnapshot.of(event.getSource());
+        afterCommit(() -> markDirty(snapshot.getRouteId(), snapshot));
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<DeliveryRoute> event) {
+        Object id = event.getSource().get("_id");
+        if (id != null) {
+            afterCommit(() -> markDirty(id.toString(), TOMBSTONE));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${delivery.snapshots.flush-interval-ms:500}")
+    public void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+
+        List<String> routeIds = new ArrayList<>(dirty.keySet());
+        for (String routeId : routeIds) {
+            RouteSnapshot snapshot = dirty.remove(routeId);
+            if (snapshot != null) {
+                send(routeId, snapshot);
+            }
+        }
+    }
+
+    private void send(String routeId, RouteSnapshot snapshot) {
+        CloudEvent value = snapshot == TOMBSTONE ? null : toCloudEvent(snapshot);
+
+        kafkaTemplate.send(topic, routeId, value).whenComplete((result, ex) -> {
+            if (ex == null) {
+                published.increment();
+                return;
+            }
+            log.warn("Failed to publish snapshot for route: {}, will retry", routeId, ex);
+            // Retry on the next flush unless a newer change has already been marked
+            dirty.putIfAbsent(routeId, snapshot);
+        });
+    }
+
+    private CloudEvent toCloudEvent(RouteSnapshot snapshot) {
+        Instant time = snapshot.getUpdatedAt() != null ? snapshot.getUpdatedAt() : Instant.now();
+        return cloudEventFactory.create(UUID.randomUUID().toString(), EVENT_TYPE, time,
+            payloadSerializers.defaultSerializer().serialize(snapshot));
+    }
+
+    private void markDirty(String routeId, RouteSnapshot snapshot) {
+        dirty.compute(routeId, (id, current) -> {
+            if (current == null) {
+                return snapshot;
+            }
+            coalesced.increment();
+            boolean replace = snapshot == TOMBSTONE || current == TOMBSTONE || snapshot.isNewerThan(current);
+            return replace ? snapshot : current;
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        // Inside a transaction the save may still roll back, so wait for the commit
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
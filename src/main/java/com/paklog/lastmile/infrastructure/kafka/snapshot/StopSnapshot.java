@@ -0,0 +1,40 @@
+package com.paklog.lastmile.infrastructure.kafka.snapshot;
+
+import com.paklog.lastmile.domain.aggregate.DeliveryStop;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StopSnapshot {
+
+    private String stopId;
+    private int sequence;
+    private String customerId;
+
+    private Instant estimatedArrival;
+    private Instant actualArrival;
+
+    private boolean completed;
+    private String attemptResult;
+    private int attemptCount;
+
+    public static StopSnapshot of(DeliveryStop stop) {
+        return StopSnapshot.builder()
+            .stopId(stop.getStopId())
+            .sequence(stop.getSequence())
+            .customerId(stop.getCustomerId())
+            .estimatedArrival(stop.getEstimatedArrival())
+            .actualArrival(stop.getActualArrival())
+            .completed(stop.isCompleted())
+            .attemptResult(stop.getAttemptResult() != null ? stop.getAttemptResult().name() : null)
+            .attemptCount(stop.getAttempts() != null ? stop.getAttempts().size() : 0)
+            .build();
+    }
+}
@@ -0,0 +1,38 @@
+package com.paklog.lastmile.infrastructure.metrics;
+
+/**
+ * The use case command running on the current thread, so store and publish timings can be
+ * attributed to it. Work handed to another thread is attributed only when it is submitted through
+ * {@link CommandScopeTaskDecorator}, as the route mailbox does.
+ */
+final class CommandScope {
+
+    static final String NONE = "none";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private CommandScope() {
+    }
+
+    static String current() {
+        String command = CURRENT.get();
+        return command != null ? command : NONE;
+    }
+
+    /**
+     * @return the enclosing command, to pass back to {@link #restore(String)}
+     */
+    static String enter(String command) {
+        String enclosing = CURRENT.get();
+        CURRENT.set(command);
+        return enclosing;
+    }
+
+    static void restore(String enclosing) {
+        if (enclosing == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(enclosing);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.paklog.lastmile.infrastructure.metrics;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Carries the submitting thread's command into work run on its behalf elsewhere, such as the route
+ * mailbox, so the store and publish calls made there are attributed to the command that caused them
+ */
+@Component
+@ConditionalOnProperty(name = "delivery.metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class CommandScopeTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        String command = CommandScope.current();
+        if (CommandScope.NONE.equals(command)) {
+            return runnable;
+        }
+        return () -> {
+            String enclosing = CommandScope.enter(command);
+            try {
+                runnable.run();
+            } finally {
+                CommandScope.restore(enclosing);
+            }
+        };
+    }
+}
@@ -0,0 +1,110 @@
+package com.paklog.lastmile.infrastructure.metrics;
+
+import com.paklog.lastmile.application.command.CreateRouteCommand;
+import com.paklog.lastmile.application.command.PlanRoutesCommand;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times each use case command and, beneath it, every repository call and event publish it makes,
+ * so a slow command can be split into optimizer CPU, store I/O and publishing. Repository timings
+ * are tagged with the layer that served them: the near cache, Mongo or the in-memory perf stores.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "delivery.metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class DeliveryMetricsAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(public * com.paklog.lastmile.application.service.DeliveryApplicationService.*(..))")
+    public Object timeCommand(ProceedingJoinPoint joinPoint) throws Throwable {
+        String command = joinPoint.getSignature().getName();
+        String enclosing = CommandScope.enter(command);
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            Object result = joinPoint.proceed();
+            outcome = "success";
+            return result;
+        } finally {
+            Timer.builder("delivery.command")
+                .description("Use case command latency, including optimizer, store and publish time")
+                .tag("command", command)
+                .tag("stops", stopsOf(joinPoint.getArgs()))
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            CommandScope.restore(enclosing);
+        }
+    }
+
+    @Around("execution(* com.paklog.lastmile.domain.repository.DeliveryRouteRepository.*(..)) "
+        + "|| execution(* com.paklog.lastmile.domain.repository.VehicleRepository.*(..)) "
+        + "|| execution(* com.paklog.lastmile.domain.repository.ProofOfDeliveryRepository.*(..)) "
+        + "|| execution(* com.paklog.lastmile.application.port.out.RouteQueryPort.*(..))")
+    public Object timeStore(ProceedingJoinPoint joinPoint) throws Throwable {
+        String repository = AopUtils.getTargetClass(joinPoint.getTarget()).getSimpleName();
+        return time(joinPoint, Timer.builder("delivery.store")
+            .description("Repository call latency by serving layer")
+            .tag("layer", layerOf(repository))
+            .tag("repository", repository)
+            .tag("operation", joinPoint.getSignature().getName()));
+    }
+
+    @Around("execution(* com.paklog.lastmile.application.port.out.PublishEventPort.*(..))")
+    public Object timePublish(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, Timer.builder("delivery.events.publish")
+            .description("Time to hand events to the outbox or the producer")
+            .tag("publisher", AopUtils.getTargetClass(joinPoint.getTarget()).getSimpleName())
+            .tag("operation", joinPoint.getSignature().getName()));
+    }
+
+    private Object time(ProceedingJoinPoint joinPoint, Timer.Builder timer) throws Throwable {
+        timer.tag("command", CommandScope.current());
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            timer.register(meterRegistry).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static String layerOf(String repository) {
+        if (repository.startsWith("Caching")) {
+            return "cache";
+        }
+        if (repository.startsWith("InMemory")) {
+            return "memory";
+        }
+        return "mongo";
+    }
+
+    /**
+     * Stop-count bucket of commands that carry stops, such as createRoute and planRoutes
+     */
+    private static String stopsOf(Object[] args) {
+        for (Object arg : args) {
+            if (arg instanceof CreateRouteCommand command
+                && command.getStops() != null) {
+                return StopCountBucket.of(command.getStops().size());
+            }
+            if (arg instanceof PlanRoutesCommand command
+                && command.getStops() != null) {
+                return StopCountBucket.of(command.getStops().size());
+            }
+        }
+        return StopCountBucket.NONE;
+    }
+}
@@ -0,0 +1,79 @@
+package com.paklog.lastmile.infrastructure.metrics;
+
+import com.paklog.lastmile.domain.service.OptimizationListener;
+import com.paklog.lastmile.domain.service.OptimizationRun;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exports every optimizer run: time per phase, 2-opt iterations, the distance the improvement
+ * phase saved and how often time windows turned moves down, tagged by vehicle type and stop count
+ */
+@Component
+@RequiredArgsConstructor
+public class OptimizerMetrics implements OptimizationListener {
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public void optimized(OptimizationRun run) {
+        Tags tags = Tags.of(
+            "vehicle.type", run.getVehicleType() != null ? run.getVehicleType().name().toLowerCase() : "unknown",
+            "stops", StopCountBucket.of(run.getStopCount()));
+
+        phase("construction", tags).record(run.getConstructionNanos(), TimeUnit.NANOSECONDS);
+        phase("improvement", tags).record(run.getImprovementNanos(), TimeUnit.NANOSECONDS);
+
+        DistributionSummary.builder("delivery.optimizer.two-opt.iterations")
+            .description("2-opt passes until convergence, the iteration cap or the time budget")
+            .tags(tags)
+            .register(meterRegistry)
+            .record(run.getIterations());
+        DistributionSummary.builder("delivery.optimizer.improvement")
+            .description("Share of the constructed route's distance removed by 2-opt")
+            .baseUnit("percent")
+            .tags(tags)
+            .register(meterRegistry)
+            .record(run.improvementRatio() * 100);
+
+        windowChecks("feasible", tags).increment(run.getFeasibilityChecks() - run.getFeasibilityRejections());
+        windowChecks("rejected", tags).increment(run.getFeasibilityRejections());
+        Counter.builder("delivery.optimizer.window.fallbacks")
+            .description("Construction steps that found no stop reachable within its window")
+            .tags(tags)
+            .register(meterRegistry)
+            .increment(run.getWindowFallbacks());
+
+        if (run.isBudgetExhausted()) {
+            Counter.builder("delivery.optimizer.budget.exhausted")
+                .description("Runs whose local search was cut short by the time budget")
+                .tags(tags)
+                .register(meterRegistry)
+                .increment();
+        }
+    }
+
+    private Timer phase(String phase, Tags tags) {
+        return Timer.builder("delivery.optimizer.phase")
+            .description("Wall time of one optimizer phase")
+            .tags(tags)
+            .tag("phase", phase)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    private Counter windowChecks(String outcome, Tags tags) {
+        return Counter.builder("delivery.optimizer.window.checks")
+            .description("Improving 2-opt moves checked against the time windows")
+            .tags(tags)
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,29 @@
+package com.paklog.lastmile.infrastructure.metrics;
+
+/**
+ * Coarse stop-count ranges for metric tags, cut at the vehicle capacities so a bucket roughly
+ * matches the routes one vehicle type can carry
+ */
+final class StopCountBucket {
+
+    static final String NONE = "none";
+
+    private StopCountBucket() {
+    }
+
+    static String of(int stops) {
+        if (stops <= 5) {
+            return "1-5";
+        }
+        if (stops <= 20) {
+            return "6-20";
+        }
+        if (stops <= 40) {
+            return "21-40";
+        }
+        if (stops <= 100) {
+            return "41-100";
+        }
+        return "100+";
+    }
+}
@@ -0,0 +1,45 @@
+package com.paklog.lastmile.infrastructure.outbox;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * A domain event already encoded for Kafka, waiting to be relayed.
+ * Written in the same transaction as the aggregate change that raised it.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "event_outbox")
+@CompoundIndex(name = "pending_created", def = "{'publishedAt': 1, 'createdAt': 1, '_id': 1}")
+public class OutboxEvent {
+
+    @Id
+    private String id;
+
+    private String topic;
+    private String messageKey;
+
+    private String eventType;
+    private Instant occurredAt;
+
+    private String contentType;
+    private String dataSchema;
+    private byte[] payload;
+
+    private Instant createdAt;
+
+    @Indexed(name = "published_ttl", expireAfter = "7d")
+    private Instant publishedAt;
+
+    private int attempts;
+}
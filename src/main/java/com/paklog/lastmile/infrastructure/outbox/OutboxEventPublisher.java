@@ -0,0 +1,82 @@
+package com.paklog.lastmile.infrastructure.outbox;
+
+import com.paklog.lastmile.application.port.out.PublishEventPort;
+import com.paklog.lastmile.domain.event.DomainEvent;
+import com.paklog.lastmile.infrastructure.kafka.CloudEventFactory;
+import com.paklog.lastmile.infrastructure.kafka.serialization.EncodedPayload;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Records events in the outbox collection. Inside a @Transactional command the insert
+ * commits or rolls back together with the aggregate; {@link OutboxRelay} ships them to Kafka.
+ * Refuses to start without a transaction manager, since an aggregate saved without its events
+ * (or events for an aggregate that was never saved) would go unnoticed.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "delivery.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxEventPublisher implements PublishEventPort {
+
+    private final MongoTemplate mongoTemplate;
+    private final CloudEventFactory cloudEventFactory;
+
+    @Value("${delivery.events.topic}")
+    private String topic;
+
+    public OutboxEventPublisher(MongoTemplate mongoTemplate,
+                                CloudEventFactory cloudEventFactory,
+                                ObjectProvider<MongoTransactionManager> transactionManager) {
+        if (transactionManager.getIfAvailable() == null) {
+            throw new IllegalStateException("delivery.outbox.enabled requires delivery.mongo.transactions-enabled "
+                + "and MongoDB running as a replica set");
+        }
+        this.mongoTemplate = mongoTemplate;
+        this.cloudEventFactory = cloudEventFactory;
+    }
+
+    @Override
+    public void publish(DomainEvent event) {
+        mongoTemplate.insert(toOutboxEvent(event, Instant.now()));
+
+        log.debug("Queued event: {} in outbox", event.getEventType());
+    }
+
+    @Override
+    public void publishAll(List<DomainEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        Instant now = Instant.now();
+        mongoTemplate.insertAll(events.stream()
+            .map(event -> toOutboxEvent(event, now))
+            .toList());
+
+        log.debug("Queued {} events in outbox", events.size());
+    }
+
+    private OutboxEvent toOutboxEvent(DomainEvent event, Instant now) {
+        EncodedPayload payload = cloudEventFactory.encode(event);
+
+        return OutboxEvent.builder()
+            .id(event.getEventId())
+            .topic(topic)
+            .messageKey(event.getAggregateId())
+            .eventType(event.getEventType())
+            .occurredAt(event.getOccurredAt())
+            .contentType(payload.getContentType())
+            .dataSchema(payload.getDataSchema() != null ? payload.getDataSchema().toString() : null)
+            .payload(payload.getData())
+            .createdAt(now)
+            .build();
+    }
+}
@@ -0,0 +1,214 @@
+package com.paklog.lastmile.infrastructure.outbox;
+
+import com.paklog.lastmile.infrastructure.kafka.CloudEventFactory;
+import com.paklog.lastmile.infrastructure.kafka.serialization.EncodedPayload;
+import io.cloudevents.CloudEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the outbox to Kafka in batches. All sends of a batch are issued asynchronously,
+ * awaited together and acknowledged with one bulk update. Delivery is at-least-once and
+ * possibly reordered: after a failed send only the events before it are acknowledged, but
+ * later events of the batch may already have reached Kafka, so the retry can land behind
+ * them and they are sent a second time. Consumers have to deduplicate by event id and must not
+ * rely on the order of events for one aggregate.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "delivery.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private final MongoTemplate mongoTemplate;
+    private final KafkaTemplate<String, CloudEvent> kafkaTemplate;
+    private final CloudEventFactory cloudEventFactory;
+    private final OutboxRelayLease lease;
+
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration sendTimeout;
+
+    private final Timer batchTimer;
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final AtomicLong pendingEvents = new AtomicLong();
+    private final AtomicLong oldestPendingAgeMillis = new AtomicLong();
+
+    public OutboxRelay(MongoTemplate mongoTemplate,
+                       KafkaTemplate<String, CloudEvent> kafkaTemplate,
+                       CloudEventFactory cloudEventFactory,
+                       OutboxRelayLease lease,
+                       MeterRegistry meterRegistry,
+                       @Value("${delivery.outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${delivery.outbox.relay.max-batches-per-run:20}") int maxBatchesPerRun,
+                       @Value("${delivery.outbox.relay.send-timeout:10s}") Duration sendTimeout) {
+        // A batch that outlives the lease could be sent a second time by the next leader
+        if (lease.getLeaseDuration().compareTo(sendTimeout.multipliedBy(2)) < 0) {
+            throw new IllegalStateException("delivery.outbox.relay.lease-duration (" + lease.getLeaseDuration()
+                + ") must be at least twice delivery.outbox.relay.send-timeout (" + sendTimeout + ")");
+        }
+        this.mongoTemplate = mongoTemplate;
+        this.kafkaTemplate = kafkaTemplate;
+        this.cloudEventFactory = cloudEventFactory;
+        this.lease = lease;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.sendTimeout = sendTimeout;
+
+        this.batchTimer = Timer.builder("outbox.relay.batch")
+            .description("Time to send and acknowledge one outbox batch")
+            .register(meterRegistry);
+        this.publishedCounter = Counter.builder("outbox.relay.published")
+            .description("Outbox events acknowledged by Kafka")
+            .register(meterRegistry);
+        this.failedCounter = Counter.builder("outbox.relay.failed")
+            .description("Outbox event sends that failed and will be retried")
+            .register(meterRegistry);
+        Gauge.builder("outbox.pending", pendingEvents, AtomicLong::get)
+            .description("Outbox events not yet relayed, as seen by the relay leader")
+            .register(meterRegistry);
+        Gauge.builder("outbox.lag", oldestPendingAgeMillis, age -> age.get() / 1000.0)
+            .description("Age of the oldest unrelayed outbox event")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        Gauge.builder("outbox.relay.leader", lease, l -> l.isHeld() ? 1 : 0)
+            .description("Whether this instance currently drains the outbox")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${delivery.outbox.relay.interval-ms:200}")
+    public void relay() {
+        if (!lease.tryAcquire()) {
+            pendingEvents.set(0);
+            oldestPendingAgeMillis.set(0);
+            return;
+        }
+
+        int batches = 0;
+        boolean fullBatch;
+        do {
+            fullBatch = relayBatch() == batchSize;
+        } while (fullBatch && ++batches < maxBatchesPerRun && lease.tryAcquire());
+
+        updateLag();
+    }
+
+    /**
+     * @return the number of events acknowledged
+     */
+    private int relayBatch() {
+        Query query = pendingQuery().limit(batchSize);
+        List<OutboxEvent> batch = mongoTemplate.find(query, OutboxEvent.class);
+
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        Timer.Sample sample = Timer.start();
+
+        List<CompletableFuture<?>> sends = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            sends.add(send(event));
+        }
+        awaitAll(sends);
+
+        int acknowledged = 0;
+        while (acknowledged < sends.size() && succeeded(sends.get(acknowledged))) {
+            acknowledged++;
+        }
+
+        Instant now = Instant.now();
+        if (acknowledged > 0) {
+            mongoTemplate.updateMulti(
+                new Query(Criteria.where("_id").in(ids(batch.subList(0, acknowledged)))),
+                Update.update("publishedAt", now),
+                OutboxEvent.class);
+        }
+        if (acknowledged < batch.size()) {
+            OutboxEvent failed = batch.get(acknowledged);
+            log.warn("Outbox relay stopped at event {} ({}); {} events will be retried",
+                failed.getId(), failed.getEventType(), batch.size() - acknowledged);
+            mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(failed.getId())),
+                new Update().inc("attempts", 1),
+                OutboxEvent.class);
+            failedCounter.increment();
+        }
+
+        sample.stop(batchTimer);
+        publishedCounter.increment(acknowledged);
+
+        return acknowledged;
+    }
+
+    private CompletableFuture<?> send(OutboxEvent event) {
+        try {
+            EncodedPayload payload = new EncodedPayload(
+                event.getPayload(),
+                event.getContentType(),
+                event.getDataSchema() != null ? URI.create(event.getDataSchema()) : null);
+            CloudEvent cloudEvent = cloudEventFactory.create(
+                event.getId(), event.getEventType(), event.getOccurredAt(), payload);
+
+            return kafkaTemplate.send(event.getTopic(), event.getMessageKey(), cloudEvent);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void awaitAll(List<CompletableFuture<?>> sends) {
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                .get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // Individual outcomes are inspected by the caller
+        }
+    }
+
+    private boolean succeeded(CompletableFuture<?> send) {
+        return send.isDone() && !send.isCompletedExceptionally();
+    }
+
+    private void updateLag() {
+        pendingEvents.set(mongoTemplate.count(new Query(Criteria.where("publishedAt").is(null)), OutboxEvent.class));
+
+        OutboxEvent oldest = mongoTemplate.findOne(pendingQuery().limit(1), OutboxEvent.class);
+        oldestPendingAgeMillis.set(oldest != null ?
+            Duration.between(oldest.getCreatedAt(), Instant.now()).toMillis() : 0);
+    }
+
+    private Query pendingQuery() {
+        return new Query(Criteria.where("publishedAt").is(null))
+            .with(Sort.by(Sort.Direction.ASC, "createdAt", "_id"));
+    }
+
+    private List<String> ids(List<OutboxEvent> events) {
+        return events.stream().map(OutboxEvent::getId).toList();
+    }
+}
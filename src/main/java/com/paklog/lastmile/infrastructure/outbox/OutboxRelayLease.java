@@ -0,0 +1,80 @@
+package com.paklog.lastmile.infrastructure.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Time-bounded lease so only one replica drains the outbox at a time. The relay renews it
+ * before every batch, so it has to outlast one batch including its send timeout.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "delivery.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelayLease {
+
+    private static final String COLLECTION = "outbox_relay_lease";
+    private static final String LEASE_ID = "outbox-relay";
+
+    private final MongoTemplate mongoTemplate;
+    private final Duration leaseDuration;
+    private final String owner;
+
+    private volatile boolean held;
+
+    public OutboxRelayLease(MongoTemplate mongoTemplate,
+                            @Value("${delivery.outbox.relay.lease-duration:30s}") Duration leaseDuration) {
+        this.mongoTemplate = mongoTemplate;
+        this.leaseDuration = leaseDuration;
+        String hostname = System.getenv("HOSTNAME");
+        this.owner = (hostname != null ? hostname : "local") + "-" + UUID.randomUUID();
+    }
+
+    /**
+     * Acquires the lease or extends it when already held by this instance
+     */
+    public boolean tryAcquire() {
+        Instant now = Instant.now();
+
+        Query query = new Query(Criteria.where("_id").is(LEASE_ID).orOperator(
+            Criteria.where("owner").is(owner),
+            Criteria.where("expiresAt").lt(now)
+        ));
+        Update update = new Update()
+            .set("owner", owner)
+            .set("expiresAt", now.plus(leaseDuration));
+
+        boolean acquired;
+        try {
+            mongoTemplate.upsert(query, update, COLLECTION);
+            acquired = true;
+        } catch (DuplicateKeyException e) {
+            // Another instance holds an unexpired lease
+            acquired = false;
+        }
+
+        if (acquired != held) {
+            log.info("Outbox relay lease {} by {}", acquired ? "acquired" : "lost", owner);
+            held = acquired;
+        }
+        return acquired;
+    }
+
+    public boolean isHeld() {
+        return held;
+    }
+
+    public Duration getLeaseDuration() {
+        return leaseDuration;
+    }
+}
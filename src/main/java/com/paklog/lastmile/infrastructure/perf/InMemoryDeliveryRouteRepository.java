@@ -0,0 +1,109 @@
+package com.paklog.lastmile.infrastructure.perf;
+
+import com.paklog.lastmile.domain.aggregate.DeliveryRoute;
+import com.paklog.lastmile.domain.repository.DeliveryRouteRepository;
+import com.paklog.lastmile.domain.valueobject.GPSCoordinates;
+import com.paklog.lastmile.domain.valueobject.RouteStatus;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+@Profile("perf")
+@RequiredArgsConstructor
+public class InMemoryDeliveryRouteRepository implements DeliveryRouteRepository {
+
+    private static final List<String> ACTIVE_STATUSES =
+        List.of(RouteStatus.PLANNED.name(), RouteStatus.IN_PROGRESS.name());
+
+    private final InMemoryDocumentStore<DeliveryRoute> routeStore;
+
+    @Override
+    public DeliveryRoute save(DeliveryRoute route) {
+        return routeStore.save(route);
+    }
+
+    @Override
+    public void insertAll(List<DeliveryRoute> routes) {
+        routes.forEach(routeStore::save);
+    }
+
+    @Override
+    public Optional<DeliveryRoute> findById(String id) {
+        return routeStore.findById(id);
+    }
+
+    @Override
+    public List<DeliveryRoute> findByStatus(RouteStatus status) {
+        return routeStore.find(document -> status.name().equals(document.get("status")));
+    }
+
+    @Override
+    public List<DeliveryRoute> findByDriverId(String driverId) {
+        return routeStore.find(document -> driverId.equals(document.get("driverId")));
+    }
+
+    @Override
+    public List<DeliveryRoute> findByVehicleId(String vehicleId) {
+        return routeStore.find(document -> vehicleId.equals(document.get("vehicleId")));
+    }
+
+    @Override
+    public List<DeliveryRoute> findByIdStartingWith(String prefix) {
+        return routeStore.find(document -> document.getString(InMemoryDocumentStore.ID_FIELD).startsWith(prefix));
+    }
+
+    @Override
+    public List<DeliveryRoute> findActiveRoutes() {
+        return routeStore.find(document -> ACTIVE_STATUSES.contains(document.get("status")));
+    }
+
+    /**
+     * Scans every active route, as there is no geo index here; distances are worked out from the
+     * stored documents so only the routes returned are mapped
+     */
+    @Override
+    public List<DeliveryRoute> findActiveRoutesNear(GPSCoordinates location, double radiusKm, int limit) {
+        return routeStore.documents(document -> ACTIVE_STATUSES.contains(document.get("status")), null)
+            .map(document -> new Near(document, distanceKm(document, location)))
+            .filter(near -> near.distanceKm() <= radiusKm)
+            .sorted(Comparator.comparingDouble(Near::distanceKm))
+            .limit(limit)
+            .map(near -> routeStore.read(DeliveryRoute.class, near.document()))
+            .toList();
+    }
+
+    @Override
+    public void deleteById(String id) {
+        routeStore.deleteById(id);
+    }
+
+    // Same points the Mongo coverage field holds: the vehicle and the stops not yet completed
+    private static double distanceKm(Document route, GPSCoordinates location) {
+        Document vehicle = route.get("currentLocation", Document.class);
+        double nearest = pointDistanceKm(vehicle != null ? vehicle : route.get("startLocation", Document.class), location);
+        List<Document> stops = route.getList("stops", Document.class, List.of());
+        for (Document stop : stops) {
+            if (!Boolean.TRUE.equals(stop.getBoolean("completed"))) {
+                nearest = Math.min(nearest, pointDistanceKm(stop.get("coordinates", Document.class), location));
+            }
+        }
+        return nearest;
+    }
+
+    private static double pointDistanceKm(Document coordinates, GPSCoordinates location) {
+        if (coordinates == null) {
+            return Double.MAX_VALUE;
+        }
+        return location.distanceTo(
+            new GPSCoordinates(coordinates.getDouble("latitude"), coordinates.getDouble("longitude")));
+    }
+
+    private record Near(Document document, double distanceKm) {
+    }
+}
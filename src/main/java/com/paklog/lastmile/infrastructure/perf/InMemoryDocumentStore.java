@@ -0,0 +1,131 @@
+package com.paklog.lastmile.infrastructure.perf;
+
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Collection stand-in that keeps entities as the documents Mongo would store. Every write and
+ * read goes through the Mongo converter, so callers get fresh instances and mapping cost stays
+ * in the measurement. Versioned entities get the same optimistic locking as {@code @Version}.
+ */
+class InMemoryDocumentStore<T> {
+
+    static final String ID_FIELD = "_id";
+
+    private final Class<T> type;
+    private final Function<T, String> idOf;
+    private final Function<T, Long> versionOf;
+    private final BiConsumer<T, Long> versionSetter;
+    private final String versionField;
+    private final MongoConverter mongoConverter;
+
+    private final Map<String, Document> documents = new ConcurrentHashMap<>();
+
+    InMemoryDocumentStore(Class<T> type, Function<T, String> idOf, MongoConverter mongoConverter) {
+        this(type, idOf, null, null, null, mongoConverter);
+    }
+
+    InMemoryDocumentStore(Class<T> type, Function<T, String> idOf, Function<T, Long> versionOf,
+                          BiConsumer<T, Long> versionSetter, String versionField, MongoConverter mongoConverter) {
+        this.type = type;
+        this.idOf = idOf;
+        this.versionOf = versionOf;
+        this.versionSetter = versionSetter;
+        this.versionField = versionField;
+        this.mongoConverter = mongoConverter;
+    }
+
+    /**
+     * Inserts when the entity has no version yet, otherwise replaces it if the stored version still
+     * matches, bumping the version on the entity like {@code MongoTemplate.save} does
+     */
+    T save(T entity) {
+        String id = idOf.apply(entity);
+        if (versionOf == null) {
+            documents.put(id, document(entity));
+            return entity;
+        }
+
+        Long expected = versionOf.apply(entity);
+        versionSetter.accept(entity, expected == null ? 0L : expected + 1);
+        Document document = document(entity);
+
+        try {
+            if (expected == null) {
+                if (documents.putIfAbsent(id, document) != null) {
+                    throw new DuplicateKeyException("Duplicate " + type.getSimpleName() + " id: " + id);
+                }
+            } else {
+                documents.compute(id, (key, current) -> {
+                    if (current == null || !Objects.equals(current.get(versionField), expected)) {
+                        throw new OptimisticLockingFailureException("Cannot save " + type.getSimpleName() +
+                            " " + id + " with version " + expected + "; it was updated or deleted");
+                    }
+                    return document;
+                });
+            }
+        } catch (RuntimeException e) {
+            versionSetter.accept(entity, expected);
+            throw e;
+        }
+        return entity;
+    }
+
+    /**
+     * Stores the entity unless a document with its id exists, like an upsert that only sets on insert
+     */
+    boolean insertIfAbsent(T entity) {
+        return documents.putIfAbsent(idOf.apply(entity), document(entity)) == null;
+    }
+
+    /**
+     * Replaces the stored document if one exists, like a replace without upsert
+     */
+    boolean replaceIfPresent(T entity) {
+        return documents.computeIfPresent(idOf.apply(entity), (id, current) -> document(entity)) != null;
+    }
+
+    Optional<T> findById(String id) {
+        Document document = documents.get(id);
+        return document != null ? Optional.of(read(type, document)) : Optional.empty();
+    }
+
+    List<T> find(Predicate<Document> filter) {
+        return documents(filter, null).map(document -> read(type, document)).toList();
+    }
+
+    /**
+     * Matching documents in the given order, or in no particular order without one
+     */
+    Stream<Document> documents(Predicate<Document> filter, Comparator<Document> order) {
+        Stream<Document> matching = documents.values().stream().filter(filter);
+        return order != null ? matching.sorted(order) : matching;
+    }
+
+    <V> V read(Class<V> view, Document document) {
+        return mongoConverter.read(view, document);
+    }
+
+    void deleteById(String id) {
+        documents.remove(id);
+    }
+
+    private Document document(T entity) {
+        Document document = new Document();
+        mongoConverter.write(entity, document);
+        return document;
+    }
+}
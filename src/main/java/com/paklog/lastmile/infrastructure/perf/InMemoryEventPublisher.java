@@ -0,0 +1,53 @@
+package com.paklog.lastmile.infrastructure.perf;
+
+import com.paklog.lastmile.application.port.out.PublishEventPort;
+import com.paklog.lastmile.domain.event.DomainEvent;
+import com.paklog.lastmile.infrastructure.kafka.CloudEventFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Drops events instead of sending them, counting them per type. By default each event is still
+ * encoded into its CloudEvent so payload serialization stays part of the measured path.
+ */
+@Component
+@Profile("perf")
+public class InMemoryEventPublisher implements PublishEventPort {
+
+    private final CloudEventFactory cloudEventFactory;
+    private final MeterRegistry meterRegistry;
+    private final boolean encodeEvents;
+
+    private final Map<String, Counter> countersByType = new ConcurrentHashMap<>();
+
+    public InMemoryEventPublisher(CloudEventFactory cloudEventFactory,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${delivery.perf.encode-events:true}") boolean encodeEvents) {
+        this.cloudEventFactory = cloudEventFactory;
+        this.meterRegistry = meterRegistry;
+        this.encodeEvents = encodeEvents;
+    }
+
+    @Override
+    public void publish(DomainEvent event) {
+        if (encodeEvents) {
+            cloudEventFactory.create(event);
+        }
+        countersByType.computeIfAbsent(event.getEventType(), type -> Counter.builder("perf.events.published")
+                .tag("type", type)
+                .register(meterRegistry))
+            .increment();
+    }
+
+    @Override
+    public void publishAll(List<DomainEvent> events) {
+        events.forEach(this::publish);
+    }
+}
@@ -0,0 +1,68 @@
+package com.paklog.lastmile.infrastructure.perf;
+
+import com.paklog.lastmile.domain.aggregate.PendingStop;
+import com.paklog.lastmile.domain.repository.PendingStopRepository;
+import com.paklog.lastmile.domain.valueobject.PendingStopStatus;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+@Repository
+@Profile("perf")
+@RequiredArgsConstructor
+public class InMemoryPendingStopRepository implements PendingStopRepository {
+
+    private static final Comparator<Document> DEPOT_SLOT_ID = Comparator
+        .comparing((Document document) -> document.getString("depotId"))
+        .thenComparing(document -> document.getInteger("slot"))
+        .thenComparing(document -> document.getString(InMemoryDocumentStore.ID_FIELD));
+
+    private final InMemoryDocumentStore<PendingStop> pendingStopStore;
+
+    @Override
+    public void saveAll(List<PendingStop> stops) {
+        stops.forEach(pendingStopStore::save);
+    }
+
+    @Override
+    public int insertNew(List<PendingStop> stops) {
+        return (int) stops.stream().filter(pendingStopStore::insertIfAbsent).count();
+    }
+
+    @Override
+    public Stream<PendingStop> streamPending(Instant serviceDay) {
+        return pendingStopStore.documents(pendingOn(serviceDay), DEPOT_SLOT_ID)
+            .map(document -> pendingStopStore.read(PendingStop.class, document));
+    }
+
+    @Override
+    public long countPending(Instant serviceDay) {
+        return pendingStopStore.documents(pendingOn(serviceDay), null).count();
+    }
+
+    @Override
+    public void markPlanned(Map<String, String> routeIdByStopId) {
+        Instant now = Instant.now();
+        routeIdByStopId.forEach((stopId, routeId) -> pendingStopStore.findById(stopId).ifPresent(stop -> {
+            stop.setStatus(PendingStopStatus.PLANNED);
+            stop.setRouteId(routeId);
+            stop.setPlannedAt(now);
+            pendingStopStore.save(stop);
+        }));
+    }
+
+    private static Predicate<Document> pendingOn(Instant serviceDay) {
+        Date day = Date.from(serviceDay);
+        return document -> PendingStopStatus.PENDING.name().equals(document.get("status"))
+            && day.equals(document.get("serviceDay"));
+    }
+}
@@ -0,0 +1,97 @@
+package com.paklog.lastmile.infrastructure.perf;
+
+import com.paklog.lastmile.domain.aggregate.PlanningRun;
+import com.paklog.lastmile.domain.repository.PlanningRunRepository;
+import com.paklog.lastmile.domain.valueobject.PlanningRunState;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Serializes changes instead of issuing targeted updates; runs are few and change rarely
+ */
+@Repository
+@Profile("perf")
+@RequiredArgsConstructor
+public class InMemoryPlanningRunRepository implements PlanningRunRepository {
+
+    private final InMemoryDocumentStore<PlanningRun> planningRunStore;
+
+    @Override
+    public Optional<PlanningRun> findById(String id) {
+        return planningRunStore.findById(id);
+    }
+
+    @Override
+    public synchronized boolean claim(PlanningRun run, Instant staleBefore) {
+        Optional<PlanningRun> existing = planningRunStore.findById(run.getId());
+        if (existing.isEmpty()) {
+            planningRunStore.save(run);
+            return true;
+        }
+
+        PlanningRun current = existing.get();
+        if (current.getState() == PlanningRunState.RUNNING && !current.isAbandoned(staleBefore)) {
+            return false;
+        }
+        current.setState(PlanningRunState.RUNNING);
+        current.setOwner(run.getOwner());
+        current.setHeartbeatAt(run.getHeartbeatAt());
+        current.setVehicleIds(new ArrayList<>(run.getVehicleIds()));
+        current.setStopsUnassigned(0);
+        current.setPartitionsFailed(0);
+        current.setFinishedAt(null);
+        current.setError(null);
+        current.setAttempts(current.getAttempts() + 1);
+        planningRunStore.save(current);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean heartbeat(String id, String owner) {
+        Optional<PlanningRun> run = planningRunStore.findById(id).filter(current -> owner.equals(current.getOwner()));
+        run.ifPresent(current -> {
+            current.setHeartbeatAt(Instant.now());
+            planningRunStore.save(current);
+        });
+        return run.isPresent();
+    }
+
+    @Override
+    public synchronized void recordPartition(String id, int routes, int stopsPlanned, int stopsUnassigned,
+                                             int partitionsFailed, List<String> bookedSlots) {
+        planningRunStore.findById(id).ifPresent(run -> {
+            run.setPartitionsPlanned(run.getPartitionsPlanned() + (partitionsFailed == 0 ? 1 : 0));
+            run.setRoutesCreated(run.getRoutesCreated() + routes);
+            run.setStopsPlanned(run.getStopsPlanned() + stopsPlanned);
+            run.setStopsUnassigned(run.getStopsUnassigned() + stopsUnassigned);
+            run.setPartitionsFailed(run.getPartitionsFailed() + partitionsFailed);
+            bookedSlots.stream()
+                .filter(booking -> !run.getBookedSlots().contains(booking))
+                .forEach(run.getBookedSlots()::add);
+            planningRunStore.save(run);
+        });
+    }
+
+    @Override
+    public synchronized void finish(String id, String owner, PlanningRunState state, String error) {
+        planningRunStore.findById(id).filter(run -> owner.equals(run.getOwner())).ifPresent(run -> {
+            run.setState(state);
+            run.setFinishedAt(Instant.now());
+            run.setError(error);
+            planningRunStore.save(run);
+        });
+    }
+
+    @Override
+    public List<PlanningRun> findAbandoned(Instant staleBefore) {
+        return planningRunStore.find(document -> true).stream()
+            .filter(run -> run.isAbandoned(staleBefore))
+            .toList();
+    }
+}
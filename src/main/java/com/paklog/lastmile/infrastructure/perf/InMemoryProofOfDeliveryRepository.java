@@ -0,0 +1,48 @@
+package com.paklog.lastmile.infrastructure.perf;
+
+import com.paklog.lastmile.domain.aggregate.ProofOfDelivery;
+import com.paklog.lastmile.domain.repository.ProofOfDeliveryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+@Profile("perf")
+@RequiredArgsConstructor
+public class InMemoryProofOfDeliveryRepository implements ProofOfDeliveryRepository {
+
+    private final InMemoryDocumentStore<ProofOfDelivery> proofStore;
+
+    @Override
+    public ProofOfDelivery save(ProofOfDelivery proof) {
+        return proofStore.save(proof);
+    }
+
+    @Override
+    public Optional<ProofOfDelivery> findById(String id) {
+        return proofStore.findById(id);
+    }
+
+    @Override
+    public List<ProofOfDelivery> findByRouteId(String routeId) {
+        return proofStore.find(document -> routeId.equals(document.get("deliveryRouteId")));
+    }
+
+    @Override
+    public List<ProofOfDelivery> findByStopId(String stopId) {
+        return proofStore.find(document -> stopId.equals(document.get("stopId")));
+    }
+
+    @Override
+    public List<ProofOfDelivery> findByDriverId(String driverId) {
+        return proofStore.find(document -> driverId.equals(document.get("driverId")));
+    }
+
+    @Override
+    public void deleteById(String id) {
+        proofStore.deleteById(id);
+    }
+}
@@ -0,0 +1,113 @@
+package com.paklog.lastmile.infrastructure.perf;
+
+import com.paklog.lastmile.application.port.out.RouteQueryPort;
+import com.paklog.lastmile.application.query.ListRoutesQuery;
+import com.paklog.lastmile.application.query.RouteCursor;
+import com.paklog.lastmile.application.query.RoutePage;
+import com.paklog.lastmile.application.query.RouteSummary;
+import com.paklog.lastmile.domain.aggregate.DeliveryRoute;
+import com.paklog.lastmile.domain.valueobject.RouteStatus;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Same summary projection and keyset ordering as the Mongo read side, evaluated over the store
+ */
+@Repository
+@Profile("perf")
+@RequiredArgsConstructor
+public class InMemoryRouteQueryRepository implements RouteQueryPort {
+
+    private static final List<String> ACTIVE_STATUSES =
+        List.of(RouteStatus.PLANNED.name(), RouteStatus.IN_PROGRESS.name());
+
+    private static final Comparator<Date> START_ORDER = Comparator.nullsFirst(Comparator.naturalOrder());
+
+    private static final Comparator<Document> KEYSET_ORDER = Comparator
+        .comparing((Document document) -> document.getDate("plannedStartTime"), START_ORDER)
+        .thenComparing(document -> document.getString(InMemoryDocumentStore.ID_FIELD));
+
+    private final InMemoryDocumentStore<DeliveryRoute> routeStore;
+
+    @Override
+    public List<RouteSummary> findActiveRouteSummaries() {
+        return routeStore.documents(active(), KEYSET_ORDER)
+            .map(this::summary)
+            .toList();
+    }
+
+    @Override
+    public List<RouteSummary> findRouteSummariesByDriver(String driverId) {
+        return routeStore.documents(byDriver(driverId), null)
+            .map(this::summary)
+            .toList();
+    }
+
+    @Override
+    public RoutePage<?> findRoutes(ListRoutesQuery listQuery) {
+        int limit = listQuery.effectiveLimit();
+        RouteCursor after = listQuery.getCursor() != null ? RouteCursor.decode(listQuery.getCursor()) : null;
+
+        List<Document> documents = routeStore.documents(filter(listQuery, after), KEYSET_ORDER)
+            .limit(limit + 1)
+            .toList();
+
+        String nextCursor = null;
+        if (documents.size() > limit) {
+            documents = documents.subList(0, limit);
+            Document last = documents.get(limit - 1);
+            Date lastStart = last.getDate("plannedStartTime");
+            nextCursor = new RouteCursor(lastStart != null ? lastStart.toInstant() : null,
+                last.getString(InMemoryDocumentStore.ID_FIELD)).encode();
+        }
+
+        List<?> items = documents.stream().map(document -> view(listQuery, document)).toList();
+        return new RoutePage<>(items, nextCursor);
+    }
+
+    @Override
+    public Stream<?> streamRoutes(ListRoutesQuery listQuery) {
+        return routeStore.documents(filter(listQuery, null), KEYSET_ORDER)
+            .map(document -> view(listQuery, document));
+    }
+
+    private Object view(ListRoutesQuery listQuery, Document document) {
+        return listQuery.isIncludeStops() ? routeStore.read(DeliveryRoute.class, document) : summary(document);
+    }
+
+    private RouteSummary summary(Document document) {
+        Document projected = new Document(document);
+        projected.remove("stops");
+        return routeStore.read(RouteSummary.class, projected);
+    }
+
+    private Predicate<Document> filter(ListRoutesQuery listQuery, RouteCursor after) {
+        Predicate<Document> filter = listQuery.isActiveOnly() ? active() : byDriver(listQuery.getDriverId());
+        if (after == null) {
+            return filter;
+        }
+
+        Date afterStart = after.getPlannedStartTime() != null ? Date.from(after.getPlannedStartTime()) : null;
+        return filter.and(document -> {
+            int byStart = START_ORDER.compare(document.getDate("plannedStartTime"), afterStart);
+            return byStart > 0 ||
+                (byStart == 0 && document.getString(InMemoryDocumentStore.ID_FIELD).compareTo(after.getRouteId()) > 0);
+        });
+    }
+
+    private Predicate<Document> active() {
+        return document -> ACTIVE_STATUSES.contains(document.get("status"));
+    }
+
+    private Predicate<Document> byDriver(String driverId) {
+        return document -> driverId.equals(document.get("driverId"));
+    }
+}
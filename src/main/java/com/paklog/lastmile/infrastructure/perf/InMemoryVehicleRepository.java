@@ -0,0 +1,69 @@
+package com.paklog.lastmile.infrastructure.perf;
+
+import com.paklog.lastmile.domain.aggregate.Vehicle;
+import com.paklog.lastmile.domain.repository.VehicleRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+@Profile("perf")
+@RequiredArgsConstructor
+public class InMemoryVehicleRepository implements VehicleRepository {
+
+    private final InMemoryDocumentStore<Vehicle> vehicleStore;
+
+    @Override
+    public Vehicle save(Vehicle vehicle) {
+        return vehicleStore.save(vehicle);
+    }
+
+    @Override
+    public void saveAll(List<Vehicle> vehicles) {
+        vehicles.forEach(vehicleStore::replaceIfPresent);
+    }
+
+    @Override
+    public Optional<Vehicle> findById(String id) {
+        return vehicleStore.findById(id);
+    }
+
+    @Override
+    public List<Vehicle> findAllById(Collection<String> ids) {
+        return ids.stream()
+            .map(vehicleStore::findById)
+            .flatMap(Optional::stream)
+            .toList();
+    }
+
+    @Override
+    public Optional<Vehicle> findByVehicleNumber(String vehicleNumber) {
+        return vehicleStore.find(document -> vehicleNumber.equals(document.get("vehicleNumber"))).stream()
+            .findFirst();
+    }
+
+    @Override
+    public List<Vehicle> findAvailableVehicles() {
+        return vehicleStore.find(document ->
+            Boolean.TRUE.equals(document.get("available")) && Boolean.TRUE.equals(document.get("active")));
+    }
+
+    @Override
+    public List<Vehicle> findByDriverId(String driverId) {
+        return vehicleStore.find(document -> driverId.equals(document.get("driverId")));
+    }
+
+    @Override
+    public List<Vehicle> findAll() {
+        return vehicleStore.find(document -> true);
+    }
+
+    @Override
+    public void deleteById(String id) {
+        vehicleStore.deleteById(id);
+    }
+}
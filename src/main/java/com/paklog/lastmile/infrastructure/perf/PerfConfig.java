@@ -0,0 +1,106 @@
+package com.paklog.lastmile.infrastructure.perf;
+
+import com.paklog.lastmile.domain.aggregate.DeliveryRoute;
+import com.paklog.lastmile.domain.aggregate.PendingStop;
+import com.paklog.lastmile.domain.aggregate.PlanningRun;
+import com.paklog.lastmile.domain.aggregate.ProofOfDelivery;
+import com.paklog.lastmile.domain.aggregate.Vehicle;
+import com.paklog.lastmile.domain.valueobject.GPSCoordinates;
+import com.paklog.lastmile.domain.valueobject.VehicleType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wires the in-memory stand-ins used for load testing without Mongo or Kafka. The Mongo and
+ * Kafka auto-configuration is excluded by the {@code perf} profile in application.yml.
+ */
+@Slf4j
+@Configuration
+@Profile("perf")
+public class PerfConfig {
+
+    /**
+     * Seeded vehicles are numbered from 0 behind this prefix; the load generator relies on it
+     */
+    public static final String VEHICLE_ID_PREFIX = "PERF-VEH-";
+
+    @Bean
+    public MappingMongoConverter perfMongoConverter() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+
+    @Bean
+    InMemoryDocumentStore<DeliveryRoute> routeStore(MappingMongoConverter perfMongoConverter) {
+        return new InMemoryDocumentStore<>(DeliveryRoute.class, DeliveryRoute::getId,
+            DeliveryRoute::getVersion, DeliveryRoute::setVersion, "version", perfMongoConverter);
+    }
+
+    @Bean
+    InMemoryDocumentStore<Vehicle> vehicleStore(MappingMongoConverter perfMongoConverter) {
+        return new InMemoryDocumentStore<>(Vehicle.class, Vehicle::getId, perfMongoConverter);
+    }
+
+    @Bean
+    InMemoryDocumentStore<ProofOfDelivery> proofStore(MappingMongoConverter perfMongoConverter) {
+        return new InMemoryDocumentStore<>(ProofOfDelivery.class, ProofOfDelivery::getId, perfMongoConverter);
+    }
+
+    @Bean
+    InMemoryDocumentStore<PendingStop> pendingStopStore(MappingMongoConverter perfMongoConverter) {
+        return new InMemoryDocumentStore<>(PendingStop.class, PendingStop::getId, perfMongoConverter);
+    }
+
+    @Bean
+    InMemoryDocumentStore<PlanningRun> planningRunStore(MappingMongoConverter perfMongoConverter) {
+        return new InMemoryDocumentStore<>(PlanningRun.class, PlanningRun::getId, perfMongoConverter);
+    }
+
+    /**
+     * Seeds the fleet. A vehicle takes one route and is never released, so size the fleet above
+     * the number of routes a run creates. Written to the store directly, so no simulated store
+     * latency applies.
+     */
+    @Bean
+    public ApplicationRunner perfFleetSeeder(InMemoryDocumentStore<Vehicle> vehicleStore,
+                                             @Value("${delivery.perf.fleet-size:20000}") int fleetSize,
+                                             @Value("${delivery.perf.depot.latitude:52.52}") double depotLatitude,
+                                             @Value("${delivery.perf.depot.longitude:13.405}") double depotLongitude) {
+        return args -> {
+            GPSCoordinates depot = new GPSCoordinates(depotLatitude, depotLongitude);
+            List<Vehicle> fleet = new ArrayList<>(fleetSize);
+            for (int i = 0; i < fleetSize; i++) {
+                fleet.add(Vehicle.builder()
+                    .id(VEHICLE_ID_PREFIX + i)
+                    .vehicleNumber("PERF-" + i)
+                    .type(VehicleType.TRUCK)
+                    .driverId("PERF-DRV-" + i)
+                    .homeBase(depot)
+                    .currentLocation(depot)
+                    .available(true)
+                    .active(true)
+                    .build());
+            }
+            fleet.forEach(vehicleStore::save);
+            log.info("Seeded {} vehicles for load testing", fleetSize);
+        };
+    }
+}
@@ -0,0 +1,36 @@
+package com.paklog.lastmile.infrastructure.perf;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Holds each in-memory repository call for a fixed time, standing in for the Mongo round trip the
+ * {@code perf} profile otherwise skips. Without it requests never block, and thread-per-request
+ * servers with platform and with virtual threads look alike under load.
+ */
+@Aspect
+@Component
+@Profile("perf")
+public class SimulatedStoreLatency {
+
+    private final long latencyNanos;
+
+    public SimulatedStoreLatency(@Value("${delivery.perf.store-latency:0ms}") Duration latency) {
+        this.latencyNanos = latency.toNanos();
+    }
+
+    @Around("within(com.paklog.lastmile.infrastructure.perf.InMemory*Repository)")
+    public Object delay(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (latencyNanos > 0) {
+            LockSupport.parkNanos(latencyNanos);
+        }
+        return joinPoint.proceed();
+    }
+}
@@ -0,0 +1,24 @@
+package com.paklog.lastmile.infrastructure.persistence.changestream;
+
+import org.bson.Document;
+
+/**
+ * A node-local cache over a Mongo collection that is kept coherent with writes from other nodes
+ */
+public interface CachedCollection {
+
+    String collectionName();
+
+    /**
+     * @param version      the document's new version, or null when the collection is not versioned
+     * @param fullDocument the document as stored after the change, when the change stream carried it
+     */
+    void onRemoteChange(String id, Long version, Document fullDocument);
+
+    void onRemoteDelete(String id);
+
+    /**
+     * Drops every entry, e.g. when changes may have been missed
+     */
+    void invalidateAll();
+}
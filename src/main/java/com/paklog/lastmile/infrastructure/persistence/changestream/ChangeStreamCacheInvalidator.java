@@ -0,0 +1,213 @@
+package com.paklog.lastmile.infrastructure.persistence.changestream;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.messaging.ChangeStreamRequest;
+import org.springframework.data.mongodb.core.messaging.DefaultMessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.Message;
+import org.springframework.data.mongodb.core.messaging.MessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.Subscription;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps node-local caches coherent across replicas by tailing a Mongo change stream per cached
+ * collection. Each stream resumes from the last token stored for its collection, and whenever a gap
+ * in the stream is possible the affected cache is cleared instead.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "delivery.cache.invalidation.enabled", havingValue = "true")
+public class ChangeStreamCacheInvalidator {
+
+    private static final String VERSION_FIELD = "version";
+
+    // ChangeStreamHistoryLost, InvalidResumeToken and ChangeStreamFatalError
+    private static final Set<Integer> UNRESUMABLE_ERRORS = Set.of(286, 260, 280);
+
+    private final MongoTemplate mongoTemplate;
+    private final List<CachedCollection> caches;
+    private final MessageListenerContainer container;
+
+    private final Map<String, Subscription> subscriptions = new ConcurrentHashMap<>();
+    private final Map<String, String> lastTokens = new ConcurrentHashMap<>();
+    private final Map<String, String> unsavedTokens = new ConcurrentHashMap<>();
+    private final Set<String> failed = ConcurrentHashMap.newKeySet();
+
+    public ChangeStreamCacheInvalidator(MongoTemplate mongoTemplate, List<CachedCollection> caches) {
+        this.mongoTemplate = mongoTemplate;
+        this.caches = caches;
+        this.container = new DefaultMessageListenerContainer(mongoTemplate);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        container.start();
+        caches.forEach(cache -> lastTokens.putAll(loadToken(cache.collectionName())));
+        caches.forEach(this::subscribe);
+    }
+
+    /**
+     * Re-subscribes streams that stopped on an error, resuming where they left off when possible
+     */
+    @Scheduled(fixedDelayString = "${delivery.cache.invalidation.watchdog-interval-ms:5000}")
+    public void ensureSubscribed() {
+        if (!container.isRunning()) {
+            return;
+        }
+        for (CachedCollection cache : caches) {
+            // A stream that hit an error is cancelled by the container and has to be registered again
+            if (failed.remove(cache.collectionName()) || !subscriptions.containsKey(cache.collectionName())) {
+                log.warn("Change stream on {} stopped, re-subscribing", cache.collectionName());
+                subscribe(cache);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${delivery.cache.invalidation.token-flush-interval-ms:1000}")
+    public void saveTokens() {
+        for (String collection : List.copyOf(unsavedTokens.keySet())) {
+            String token = unsavedTokens.remove(collection);
+            if (token == null) {
+                continue;
+            }
+            try {
+                mongoTemplate.upsert(
+                    new Query(Criteria.where("_id").is(tokenId(collection))),
+                    new Update()
+                        .set("collection", collection)
+                        .set("token", token)
+                        .set("updatedAt", Instant.now()),
+                    ChangeStreamResumeToken.class);
+            } catch (Exception e) {
+                log.warn("Failed to store resume token for {}", collection, e);
+                unsavedTokens.putIfAbsent(collection, token);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        container.stop();
+        saveTokens();
+    }
+
+    private void subscribe(CachedCollection cache) {
+        String collection = cache.collectionName();
+        Subscription previous = subscriptions.remove(collection);
+        if (previous != null) {
+            container.remove(previous);
+        }
+
+        String token = lastTokens.get(collection);
+        if (token == null) {
+            // Nothing to resume from, so changes made before the stream opens may have been missed
+            cache.invalidateAll();
+        }
+
+        ChangeStreamRequest.ChangeStreamRequestBuilder<Document> request = ChangeStreamRequest
+            .builder((Message<ChangeStreamDocument<Document>, Document> message) -> onChange(cache, message.getRaw()))
+            .collection(collection)
+            .filter(Aggregation.newAggregation(Aggregation.match(Criteria.where("operationType")
+                .in("insert", "update", "replace", "delete", "invalidate"))))
+            .fullDocumentLookup(FullDocument.DEFAULT);
+        if (token != null) {
+            request.resumeToken(new BsonDocument("_data", new BsonString(token)));
+        }
+
+        subscriptions.put(collection, container.register(request.build(), Document.class,
+            error -> onError(cache, error)));
+        log.info("Watching {} for cache invalidation{}", collection, token != null ? " (resumed)" : "");
+    }
+
+    private void onChange(CachedCollection cache, ChangeStreamDocument<Document> change) {
+        if (change == null) {
+            return;
+        }
+
+        OperationType operation = change.getOperationType();
+        String id = change.getDocumentKey() != null ? idOf(change.getDocumentKey().get("_id")) : null;
+
+        if (operation == OperationType.DELETE && id != null) {
+            cache.onRemoteDelete(id);
+        } else if (operation == OperationType.INVALIDATE || id == null) {
+            cache.invalidateAll();
+        } else {
+            cache.onRemoteChange(id, versionOf(change), change.getFullDocument());
+        }
+
+        BsonDocument resumeToken = change.getResumeToken();
+        if (resumeToken != null && resumeToken.isString("_data")) {
+            String token = resumeToken.getString("_data").getValue();
+            lastTokens.put(cache.collectionName(), token);
+            unsavedTokens.put(cache.collectionName(), token);
+        }
+    }
+
+    private void onError(CachedCollection cache, Throwable error) {
+        failed.add(cache.collectionName());
+        if (error instanceof MongoException mongoError && UNRESUMABLE_ERRORS.contains(mongoError.getCode())) {
+            // The stored position is gone; the next subscription starts fresh and clears the cache
+            log.warn("Cannot resume change stream on {}, starting from now", cache.collectionName());
+            lastTokens.remove(cache.collectionName());
+            unsavedTokens.remove(cache.collectionName());
+            mongoTemplate.remove(new Query(Criteria.where("_id").is(tokenId(cache.collectionName()))),
+                ChangeStreamResumeToken.class);
+        } else {
+            log.error("Change stream on {} failed", cache.collectionName(), error);
+        }
+    }
+
+    private Map<String, String> loadToken(String collection) {
+        ChangeStreamResumeToken stored = mongoTemplate.findById(tokenId(collection), ChangeStreamResumeToken.class);
+        return stored != null && stored.getToken() != null ? Map.of(collection, stored.getToken()) : Map.of();
+    }
+
+    private static String tokenId(String collection) {
+        return collection;
+    }
+
+    private static Long versionOf(ChangeStreamDocument<Document> change) {
+        if (change.getFullDocument() != null) {
+            Object version = change.getFullDocument().get(VERSION_FIELD);
+            return version instanceof Number number ? number.longValue() : null;
+        }
+        if (change.getUpdateDescription() != null && change.getUpdateDescription().getUpdatedFields() != null) {
+            BsonValue version = change.getUpdateDescription().getUpdatedFields().get(VERSION_FIELD);
+            return version != null && version.isNumber() ? version.asNumber().longValue() : null;
+        }
+        return null;
+    }
+
+    private static String idOf(BsonValue id) {
+        if (id == null) {
+            return null;
+        }
+        if (id.isObjectId()) {
+            return id.asObjectId().getValue().toHexString();
+        }
+        return id.isString() ? id.asString().getValue() : id.toString();
+    }
+}
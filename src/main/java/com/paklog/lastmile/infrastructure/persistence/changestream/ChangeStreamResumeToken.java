@@ -0,0 +1,35 @@
+package com.paklog.lastmile.infrastructure.persistence.changestream;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Last processed change stream position per watched collection, shared by every replica. A node
+ * that starts from it only replays changes into a cache that is still empty, so whichever replica
+ * wrote it last is good enough. Tokens of collections nobody watches any more expire.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "change_stream_tokens")
+public class ChangeStreamResumeToken {
+
+    @Id
+    private String id;
+
+    private String collection;
+
+    // The opaque _data value of the server's resume token
+    private String token;
+
+    @Indexed(name = "updated_ttl", expireAfter = "7d")
+    private Instant updatedAt;
+}
@@ -0,0 +1,106 @@
+package com.paklog.lastmile.infrastructure.persistence.changestream;
+
+import com.mongodb.client.model.changestream.FullDocument;
+import com.paklog.lastmile.application.port.out.RouteChangeFeedPort;
+import com.paklog.lastmile.domain.aggregate.DeliveryRoute;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonTimestamp;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ChangeStreamOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * One change stream cursor on delivery_routes fanned out to every long-poll client. The cursor is
+ * opened on the first subscriber, closed when the last one leaves, and reopened after errors.
+ * <p>
+ * Opening a cursor takes a round trip, so each one is pinned to the cluster time taken when the
+ * first subscriber arrived and starts from there however late it opens; after an error it resumes
+ * after the last change it delivered. A read made once {@link #awaitListening()} completes can
+ * therefore never fall into a gap before the cursor.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "delivery.reactive.enabled", havingValue = "true", matchIfMissing = true)
+public class ReactiveRouteChangeFeed implements RouteChangeFeedPort {
+
+    private static final Retry REOPEN = Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+        .maxBackoff(Duration.ofSeconds(30));
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final String collection;
+    private final Flux<DeliveryRoute> changes;
+
+    private volatile Sinks.One<Void> listening = Sinks.one();
+
+    public ReactiveRouteChangeFeed(ReactiveMongoTemplate reactiveMongoTemplate) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.collection = reactiveMongoTemplate.getCollectionName(DeliveryRoute.class);
+        this.changes = Flux.defer(this::open)
+            .mapNotNull(ChangeStreamEvent::getBody)
+            .share();
+    }
+
+    @Override
+    public Flux<DeliveryRoute> routeChanges() {
+        return changes;
+    }
+
+    @Override
+    public Mono<Void> awaitListening() {
+        return Mono.defer(() -> listening.asMono());
+    }
+
+    /**
+     * Runs on the subscription that opens the shared cursor, before any later subscriber joins
+     */
+    private Flux<ChangeStreamEvent<DeliveryRoute>> open() {
+        Sinks.One<Void> started = Sinks.one();
+        listening = started;
+        AtomicReference<BsonValue> lastToken = new AtomicReference<>();
+
+        return clusterTime()
+            .doOnError(e -> log.warn("Cannot read the cluster time for the route change stream, retrying", e))
+            .retryWhen(REOPEN)
+            .doOnNext(time -> started.tryEmitEmpty())
+            .flatMapMany(startAt -> Flux.defer(() -> reactiveMongoTemplate.changeStream(collection,
+                    options(startAt.orElse(null), lastToken.get()), DeliveryRoute.class))
+                .doOnNext(event -> lastToken.set(event.getResumeToken()))
+                .doOnError(e -> log.warn("Route change stream failed, reopening", e))
+                .retryWhen(REOPEN));
+    }
+
+    /**
+     * The server's operation time; a standalone server has none, but then has no change streams either
+     */
+    private Mono<Optional<BsonTimestamp>> clusterTime() {
+        return reactiveMongoTemplate.executeCommand(new Document("ping", 1))
+            .map(reply -> Optional.ofNullable(reply.get("operationTime", BsonTimestamp.class)));
+    }
+
+    private static ChangeStreamOptions options(BsonTimestamp startAt, BsonValue resumeAfter) {
+        ChangeStreamOptions.ChangeStreamOptionsBuilder options = ChangeStreamOptions.builder()
+            .filter(Aggregation.newAggregation(Aggregation.match(
+                Criteria.where("operationType").in("insert", "update", "replace"))))
+            .fullDocumentLookup(FullDocument.UPDATE_LOOKUP);
+        if (resumeAfter != null) {
+            options.resumeAfter(resumeAfter);
+        } else if (startAt != null) {
+            options.resumeAt(startAt);
+        }
+        return options.build();
+    }
+}
@@ -0,0 +1,154 @@
+package com.paklog.lastmile.infrastructure.persistence.repository;
+
+import com.paklog.lastmile.domain.aggregate.DeliveryRoute;
+import com.paklog.lastmile.domain.repository.DeliveryRouteRepository;
+import com.paklog.lastmile.domain.valueobject.GPSCoordinates;
+import com.paklog.lastmile.domain.valueobject.RouteStatus;
+import com.paklog.lastmile.infrastructure.persistence.changestream.CachedCollection;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Near cache in front of the Mongo route repository. Entries are keyed by route ID and only
+ * ever replaced by a copy with an equal or higher {@code @Version}. Routes are cached in their
+ * mapped document form so every read hands out a fresh aggregate that callers may mutate.
+ */
+@Slf4j
+@Primary
+@Repository
+@ConditionalOnProperty(name = "delivery.cache.routes.enabled", havingValue = "true")
+public class CachingDeliveryRouteRepository implements DeliveryRouteRepository, CachedCollection {
+
+    private final MongoDeliveryRouteRepository delegate;
+    private final String collectionName;
+    private final DocumentCache<DeliveryRoute> cache;
+
+    public CachingDeliveryRouteRepository(MongoDeliveryRouteRepository delegate,
+                                          MongoTemplate mongoTemplate,
+                                          MeterRegistry meterRegistry,
+                                          @Value("${delivery.cache.routes.maximum-size:10000}") long maximumSize,
+                                          @Value("${delivery.cache.routes.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.delegate = delegate;
+        this.collectionName = mongoTemplate.getCollectionName(DeliveryRoute.class);
+        this.cache = new DocumentCache<>("deliveryRoutes", DeliveryRoute.class,
+            DeliveryRoute::getId, DeliveryRoute::getVersion,
+            mongoTemplate.getConverter(), meterRegistry, maximumSize, expireAfterWrite);
+    }
+
+    @Override
+    public DeliveryRoute save(DeliveryRoute route) {
+        try {
+            DeliveryRoute saved = delegate.save(route);
+            cache.putAfterCommit(saved);
+            return saved;
+        } catch (OptimisticLockingFailureException e) {
+            // Our copy is stale; drop it so the retry reads the current version
+            cache.invalidate(route.getId());
+            throw e;
+        }
+    }
+
+    @Override
+    public void insertAll(List<DeliveryRoute> routes) {
+        delegate.insertAll(routes);
+        routes.forEach(cache::putAfterCommit);
+    }
+
+    @Override
+    public Optional<DeliveryRoute> findById(String id) {
+        Optional<DeliveryRoute> cached = cache.get(id);
+        if (cached.isPresent()) {
+            return cached;
+        }
+
+        long stamp = cache.loadStamp();
+        Optional<DeliveryRoute> route = delegate.findById(id);
+        route.ifPresent(loaded -> cache.putLoaded(loaded, stamp));
+        return route;
+    }
+
+    @Override
+    public List<DeliveryRoute> findByStatus(RouteStatus status) {
+        return delegate.findByStatus(status);
+    }
+
+    @Override
+    public List<DeliveryRoute> findByDriverId(String driverId) {
+        return delegate.findByDriverId(driverId);
+    }
+
+    @Override
+    public List<DeliveryRoute> findByVehicleId(String vehicleId) {
+        return delegate.findByVehicleId(vehicleId);
+    }
+
+    @Override
+    public List<DeliveryRoute> findByIdStartingWith(String prefix) {
+        return delegate.findByIdStartingWith(prefix);
+    }
+
+    @Override
+    public List<DeliveryRoute> findActiveRoutes() {
+        long stamp = cache.loadStamp();
+        List<DeliveryRoute> routes = delegate.findActiveRoutes();
+        routes.forEach(route -> cache.putLoaded(route, stamp));
+        return routes;
+    }
+
+    @Override
+    public List<DeliveryRoute> findActiveRoutesNear(GPSCoordinates location, double radiusKm, int limit) {
+        long stamp = cache.loadStamp();
+        List<DeliveryRoute> routes = delegate.findActiveRoutesNear(location, radiusKm, limit);
+        routes.forEach(route -> cache.putLoaded(route, stamp));
+        return routes;
+    }
+
+    @Override
+    public void deleteById(String id) {
+        delegate.deleteById(id);
+        cache.invalidate(id);
+    }
+
+    @Override
+    public String collectionName() {
+        return collectionName;
+    }
+
+    @Override
+    public void onRemoteChange(String id, Long version, Document fullDocument) {
+        cache.onRemoteChange(id, version, fullDocument);
+    }
+
+    @Override
+    public void onRemoteDelete(String id) {
+        cache.invalidate(id);
+    }
+
+    @Override
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void prewarm() {
+        try {
+            List<DeliveryRoute> routes = findActiveRoutes();
+            log.info("Pre-warmed route cache with {} active routes", routes.size());
+        } catch (Exception e) {
+            log.warn("Failed to pre-warm route cache", e);
+        }
+    }
+}
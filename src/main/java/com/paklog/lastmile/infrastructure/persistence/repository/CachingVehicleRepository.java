@@ -0,0 +1,132 @@
+package com.paklog.lastmile.infrastructure.persistence.repository;
+
+import com.paklog.lastmile.domain.aggregate.Vehicle;
+import com.paklog.lastmile.domain.repository.VehicleRepository;
+import com.paklog.lastmile.infrastructure.persistence.changestream.CachedCollection;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Near cache for vehicle lookups by ID. Vehicles are not versioned, so any change made on
+ * another node simply evicts the entry.
+ */
+@Primary
+@Repository
+@ConditionalOnProperty(name = "delivery.cache.vehicles.enabled", havingValue = "true")
+public class CachingVehicleRepository implements VehicleRepository, CachedCollection {
+
+    private final MongoVehicleRepository delegate;
+    private final String collectionName;
+    private final DocumentCache<Vehicle> cache;
+
+    public CachingVehicleRepository(MongoVehicleRepository delegate,
+                                    MongoTemplate mongoTemplate,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${delivery.cache.vehicles.maximum-size:5000}") long maximumSize,
+                                    @Value("${delivery.cache.vehicles.expire-after-write:5m}") Duration expireAfterWrite) {
+        this.delegate = delegate;
+        this.collectionName = mongoTemplate.getCollectionName(Vehicle.class);
+        this.cache = new DocumentCache<>("vehicles", Vehicle.class, Vehicle::getId, vehicle -> null,
+            mongoTemplate.getConverter(), meterRegistry, maximumSize, expireAfterWrite);
+    }
+
+    @Override
+    public Vehicle save(Vehicle vehicle) {
+        Vehicle saved = delegate.save(vehicle);
+        cache.putAfterCommit(saved);
+        return saved;
+    }
+
+    @Override
+    public void saveAll(List<Vehicle> vehicles) {
+        delegate.saveAll(vehicles);
+        vehicles.forEach(cache::putAfterCommit);
+    }
+
+    @Override
+    public Optional<Vehicle> findById(String id) {
+        Optional<Vehicle> cached = cache.get(id);
+        if (cached.isPresent()) {
+            return cached;
+        }
+
+        long stamp = cache.loadStamp();
+        Optional<Vehicle> vehicle = delegate.findById(id);
+        vehicle.ifPresent(loaded -> cache.putLoaded(loaded, stamp));
+        return vehicle;
+    }
+
+    @Override
+    public List<Vehicle> findAllById(Collection<String> ids) {
+        List<Vehicle> vehicles = new ArrayList<>(ids.size());
+        List<String> missing = new ArrayList<>();
+        for (String id : ids) {
+            cache.get(id).ifPresentOrElse(vehicles::add, () -> missing.add(id));
+        }
+
+        if (!missing.isEmpty()) {
+            long stamp = cache.loadStamp();
+            List<Vehicle> loaded = delegate.findAllById(missing);
+            loaded.forEach(vehicle -> cache.putLoaded(vehicle, stamp));
+            vehicles.addAll(loaded);
+        }
+        return vehicles;
+    }
+
+    @Override
+    public Optional<Vehicle> findByVehicleNumber(String vehicleNumber) {
+        return delegate.findByVehicleNumber(vehicleNumber);
+    }
+
+    @Override
+    public List<Vehicle> findAvailableVehicles() {
+        return delegate.findAvailableVehicles();
+    }
+
+    @Override
+    public List<Vehicle> findByDriverId(String driverId) {
+        return delegate.findByDriverId(driverId);
+    }
+
+    @Override
+    public List<Vehicle> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public void deleteById(String id) {
+        delegate.deleteById(id);
+        cache.invalidate(id);
+    }
+
+    @Override
+    public String collectionName() {
+        return collectionName;
+    }
+
+    @Override
+    public void onRemoteChange(String id, Long version, Document fullDocument) {
+        cache.onRemoteChange(id, null, null);
+    }
+
+    @Override
+    public void onRemoteDelete(String id) {
+        cache.invalidate(id);
+    }
+
+    @Override
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,205 @@
+package com.paklog.lastmile.infrastructure.persistence.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
+import com.github.benmanes.caffeine.cache.stats.StatsCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded in-process cache of mapped documents. Entities are held in their stored BSON form so
+ * every read materializes a fresh instance, and a versioned entry is only ever replaced by one
+ * with an equal or higher version.
+ * <p>
+ * A document read from Mongo may be outdated by the time it is cached, if a write lands while the
+ * read is in flight. Loads therefore take a {@link #loadStamp()} before reading, and every write
+ * or invalidation is numbered and leaves an entry behind, a tombstone if there is no document to
+ * keep. A loaded copy is only cached when nothing newer has been recorded for its ID since its
+ * stamp; for versioned entities the versions decide instead.
+ */
+class DocumentCache<T> {
+
+    private final Class<T> type;
+    private final Function<T, String> idOf;
+    private final Function<T, Long> versionOf;
+    private final MongoConverter mongoConverter;
+    private final Cache<String, Entry> cache;
+    private final LookupStats stats = new LookupStats();
+
+    private final AtomicLong writes = new AtomicLong();
+    private volatile long clearedAt;
+
+    DocumentCache(String name, Class<T> type, Function<T, String> idOf, Function<T, Long> versionOf,
+                  MongoConverter mongoConverter, MeterRegistry meterRegistry,
+                  long maximumSize, Duration expireAfterWrite) {
+        this.type = type;
+        this.idOf = idOf;
+        this.versionOf = versionOf;
+        this.mongoConverter = mongoConverter;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(expireAfterWrite)
+            .recordStats(() -> stats)
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+    }
+
+    Optional<T> get(String id) {
+        Entry entry = cache.getIfPresent(id);
+        if (entry == null || entry.document() == null) {
+            stats.miss();
+            return Optional.empty();
+        }
+        stats.hit();
+        return Optional.of(mongoConverter.read(type, entry.document()));
+    }
+
+    /**
+     * Taken before reading from the store; pass it to {@link #putLoaded} with what was read
+     */
+    long loadStamp() {
+        return writes.get();
+    }
+
+    /**
+     * Caches an entity read from the store, unless it was written or invalidated since {@code stamp}
+     */
+    void putLoaded(T entity, long stamp) {
+        if (stamp < clearedAt) {
+            return;
+        }
+        put(idOf.apply(entity), entry(entity, stamp));
+    }
+
+    void putAfterCommit(T entity) {
+        String id = idOf.apply(entity);
+        // Inside a transaction the write may still roll back, so only cache it once committed
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            Entry entry = entry(entity, 0);
+            invalidate(id);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put(id, entry.at(writes.incrementAndGet()));
+                }
+            });
+        } else {
+            put(id, entry(entity, writes.incrementAndGet()));
+        }
+    }
+
+    void invalidate(String id) {
+        cache.put(id, new Entry(null, null, writes.incrementAndGet()));
+    }
+
+    void invalidateAll() {
+        clearedAt = writes.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    /**
+     * Applies a write made elsewhere. Entries already at or past {@code version} are kept, older ones
+     * are refreshed from {@code fullDocument} when given and replaced by a tombstone otherwise.
+     * Without a version the entry always becomes a tombstone.
+     */
+    void onRemoteChange(String id, Long version, Document fullDocument) {
+        long sequence = writes.incrementAndGet();
+        if (version == null) {
+            cache.put(id, new Entry(null, null, sequence));
+            return;
+        }
+        cache.asMap().merge(id, new Entry(version, null, sequence), (current, tombstone) -> {
+            if (current.version() != null && current.version() >= version) {
+                return current;
+            }
+            return current.document() != null && fullDocument != null
+                ? new Entry(version, fullDocument, sequence)
+                : tombstone;
+        });
+    }
+
+    private void put(String id, Entry entry) {
+        cache.asMap().merge(id, entry, (current, incoming) -> incoming.supersedes(current) ? incoming : current);
+    }
+
+    private Entry entry(T entity, long sequence) {
+        Document document = new Document();
+        mongoConverter.write(entity, document);
+        return new Entry(versionOf.apply(entity), document, sequence);
+    }
+
+    /**
+     * Caffeine would count a tombstone found by a lookup as a hit, so its own hit and miss counts
+     * are ignored and {@link #get} records them instead; loads and evictions are counted as usual
+     */
+    private static final class LookupStats implements StatsCounter {
+
+        private final StatsCounter counter = new ConcurrentStatsCounter();
+
+        void hit() {
+            counter.recordHits(1);
+        }
+
+        void miss() {
+            counter.recordMisses(1);
+        }
+
+        @Override
+        public void recordHits(int count) {
+        }
+
+        @Override
+        public void recordMisses(int count) {
+        }
+
+        @Override
+        public void recordLoadSuccess(long loadTime) {
+            counter.recordLoadSuccess(loadTime);
+        }
+
+        @Override
+        public void recordLoadFailure(long loadTime) {
+            counter.recordLoadFailure(loadTime);
+        }
+
+        @Override
+        public void recordEviction(int weight, RemovalCause cause) {
+            counter.recordEviction(weight, cause);
+        }
+
+        @Override
+        public CacheStats snapshot() {
+            return counter.snapshot();
+        }
+    }
+
+    /**
+     * A cached document, or a tombstone without one, recorded at {@code sequence} of this cache's
+     * writes; a loaded document carries the stamp taken before it was read
+     */
+    private record Entry(Long version, Document document, long sequence) {
+
+        Entry at(long sequence) {
+            return new Entry(version, document, sequence);
+        }
+
+        boolean supersedes(Entry other) {
+            if (version != null && other.version != null) {
+                return version >= other.version;
+            }
+            return sequence >= other.sequence;
+        }
+    }
+}
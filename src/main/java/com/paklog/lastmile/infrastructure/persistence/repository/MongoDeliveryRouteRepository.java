@@ -2,17 +2,24 @@ package com.paklog.lastmile.infrastructure.persistence.repository;
 
 import com.paklog.lastmile.domain.aggregate.DeliveryRoute;
 import com.paklog.lastmile.domain.repository.DeliveryRouteRepository;
+import com.paklog.lastmile.domain.valueobject.GPSCoordinates;
 import com.paklog.lastmile.domain.valueobject.RouteStatus;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.BulkOperations;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.regex.Pattern;
 
 @Repository
+@Profile("!perf")
 @RequiredArgsConstructor
 public class MongoDeliveryRouteRepository implements DeliveryRouteRepository {
 
@@ -23,6 +30,27 @@ public class MongoDeliveryRouteRepository implements DeliveryRouteRepository {
         return mongoTemplate.save(route);
     }
 
+    @Override
+    public void insertAll(List<DeliveryRoute> routes) {
+        if (routes.isEmpty()) {
+            return;
+        }
+
+        // Bulk inserts skip version initialization, so seed it (and the creation
+        // timestamp auditing would then no longer set) before the documents are mapped
+        Instant now = Instant.now();
+        routes.forEach(route -> {
+            if (route.getVersion() == null) {
+                route.setVersion(0L);
+                route.setCreatedAt(now);
+            }
+        });
+
+        mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DeliveryRoute.class)
+            .insert(routes)
+            .execute();
+    }
+
     @Override
     public Optional<DeliveryRoute> findById(String id) {
         return Optional.ofNullable(mongoTemplate.findById(id, DeliveryRoute.class));
@@ -46,12 +74,30 @@ public class MongoDeliveryRouteRepository implements DeliveryRouteRepository {
         return mongoTemplate.find(query, DeliveryRoute.class);
     }
 
+    @Override
+    public List<DeliveryRoute> findByIdStartingWith(String prefix) {
+        // An anchored pattern is answered from the _id index
+        Query query = new Query(Criteria.where("_id").regex("^" + Pattern.quote(prefix)));
+        return mongoTemplate.find(query, DeliveryRoute.class);
+    }
+
     @Override
     public List<DeliveryRoute> findActiveRoutes() {
         Query query = new Query(Criteria.where("status").in(RouteStatus.PLANNED, RouteStatus.IN_PROGRESS));
         return mongoTemplate.find(query, DeliveryRoute.class);
     }
 
+    @Override
+    public List<DeliveryRoute> findActiveRoutesNear(GPSCoordinates location, double radiusKm, int limit) {
+        // $nearSphere sorts by the closest point of each route's coverage; GeoJSON distances are in meters
+        Query query = new Query(Criteria.where("status").in(RouteStatus.PLANNED, RouteStatus.IN_PROGRESS)
+            .and(RouteCoverageWriter.COVERAGE_FIELD)
+            .nearSphere(new GeoJsonPoint(location.getLongitude(), location.getLatitude()))
+            .maxDistance(radiusKm * 1000))
+            .limit(limit);
+        return mongoTemplate.find(query, DeliveryRoute.class);
+    }
+
     @Override
     public void deleteById(String id) {
         Query query = new Query(Criteria.where("_id").is(id));
@@ -0,0 +1,113 @@
+package com.paklog.lastmile.infrastructure.persistence.repository;
+
+import com.paklog.lastmile.domain.aggregate.PendingStop;
+import com.paklog.lastmile.domain.repository.PendingStopRepository;
+import com.paklog.lastmile.domain.valueobject.PendingStopStatus;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Repository
+@Profile("!perf")
+@RequiredArgsConstructor
+public class MongoPendingStopRepository implements PendingStopRepository {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${delivery.planning.wave.cursor-batch-size:1000}")
+    private int cursorBatchSize;
+
+    @Override
+    public void saveAll(List<PendingStop> stops) {
+        if (stops.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PendingStop.class);
+        stops.forEach(stop -> bulkOps.replaceOne(
+            new Query(Criteria.where("_id").is(stop.getId())),
+            stop,
+            FindAndReplaceOptions.options().upsert()));
+        bulkOps.execute();
+    }
+
+    @Override
+    public int insertNew(List<PendingStop> stops) {
+        if (stops.isEmpty()) {
+            return 0;
+        }
+
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PendingStop.class);
+        stops.forEach(stop -> {
+            Document document = new Document();
+            mongoTemplate.getConverter().write(stop, document);
+
+            Update update = new Update();
+            document.forEach((field, value) -> {
+                if (!"_id".equals(field)) {
+                    update.setOnInsert(field, value);
+                }
+            });
+            bulkOps.upsert(new Query(Criteria.where("_id").is(stop.getId())), update);
+        });
+        return bulkOps.execute().getUpserts().size();
+    }
+
+    /**
+     * Follows the status_day_depot_slot index, so the sort needs no memory on the server. The
+     * cursor stays open for the whole run, which may pause it while partitions are planned.
+     */
+    @Override
+    public Stream<PendingStop> streamPending(Instant serviceDay) {
+        Query query = pendingOn(serviceDay)
+            .with(Sort.by("depotId", "slot", "_id"))
+            .cursorBatchSize(cursorBatchSize)
+            .noCursorTimeout();
+        return mongoTemplate.stream(query, PendingStop.class);
+    }
+
+    @Override
+    public long countPending(Instant serviceDay) {
+        return mongoTemplate.count(pendingOn(serviceDay), PendingStop.class);
+    }
+
+    @Override
+    public void markPlanned(Map<String, String> routeIdByStopId) {
+        if (routeIdByStopId.isEmpty()) {
+            return;
+        }
+
+        Instant now = Instant.now();
+        Map<String, List<String>> stopIdsByRoute = routeIdByStopId.entrySet().stream()
+            .collect(Collectors.groupingBy(Map.Entry::getValue,
+                Collectors.mapping(Map.Entry::getKey, Collectors.toList())));
+
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PendingStop.class);
+        stopIdsByRoute.forEach((routeId, stopIds) -> bulkOps.updateMulti(
+            new Query(Criteria.where("_id").in(stopIds)),
+            new Update()
+                .set("status", PendingStopStatus.PLANNED)
+                .set("routeId", routeId)
+                .set("plannedAt", now)));
+        bulkOps.execute();
+    }
+
+    private static Query pendingOn(Instant serviceDay) {
+        return new Query(Criteria.where("status").is(PendingStopStatus.PENDING).and("serviceDay").is(serviceDay));
+    }
+}
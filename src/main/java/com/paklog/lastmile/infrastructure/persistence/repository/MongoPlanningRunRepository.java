@@ -0,0 +1,98 @@
+package com.paklog.lastmile.infrastructure.persistence.repository;
+
+import com.paklog.lastmile.domain.aggregate.PlanningRun;
+import com.paklog.lastmile.domain.repository.PlanningRunRepository;
+import com.paklog.lastmile.domain.valueobject.PlanningRunState;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Every change is a targeted update, so the owner's heartbeat and counters advanced by
+ * concurrently planned partitions never overwrite each other
+ */
+@Repository
+@Profile("!perf")
+@RequiredArgsConstructor
+public class MongoPlanningRunRepository implements PlanningRunRepository {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Optional<PlanningRun> findById(String id) {
+        return Optional.ofNullable(mongoTemplate.findById(id, PlanningRun.class));
+    }
+
+    @Override
+    public boolean claim(PlanningRun run, Instant staleBefore) {
+        try {
+            mongoTemplate.insert(run);
+            return true;
+        } catch (DuplicateKeyException e) {
+            // Started before; take it over unless its owner is still alive
+        }
+
+        Query query = new Query(Criteria.where("_id").is(run.getId()).orOperator(
+            Criteria.where("state").ne(PlanningRunState.RUNNING),
+            Criteria.where("heartbeatAt").lt(staleBefore)
+        ));
+        Update update = new Update()
+            .set("state", PlanningRunState.RUNNING)
+            .set("owner", run.getOwner())
+            .set("heartbeatAt", run.getHeartbeatAt())
+            .set("vehicleIds", run.getVehicleIds())
+            .set("stopsUnassigned", 0)
+            .set("partitionsFailed", 0)
+            .unset("finishedAt")
+            .unset("error")
+            .inc("attempts", 1);
+        return mongoTemplate.updateFirst(query, update, PlanningRun.class).getModifiedCount() > 0;
+    }
+
+    @Override
+    public boolean heartbeat(String id, String owner) {
+        Query query = new Query(Criteria.where("_id").is(id).and("owner").is(owner));
+        return mongoTemplate.updateFirst(query, Update.update("heartbeatAt", Instant.now()), PlanningRun.class)
+            .getMatchedCount() > 0;
+    }
+
+    @Override
+    public void recordPartition(String id, int routes, int stopsPlanned, int stopsUnassigned, int partitionsFailed,
+                                List<String> bookedSlots) {
+        Update update = new Update()
+            .inc("partitionsPlanned", partitionsFailed == 0 ? 1 : 0)
+            .inc("routesCreated", routes)
+            .inc("stopsPlanned", stopsPlanned)
+            .inc("stopsUnassigned", stopsUnassigned)
+            .inc("partitionsFailed", partitionsFailed);
+        if (!bookedSlots.isEmpty()) {
+            update.addToSet("bookedSlots").each(bookedSlots.toArray());
+        }
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(id)), update, PlanningRun.class);
+    }
+
+    @Override
+    public void finish(String id, String owner, PlanningRunState state, String error) {
+        Query query = new Query(Criteria.where("_id").is(id).and("owner").is(owner));
+        Update update = new Update()
+            .set("state", state)
+            .set("finishedAt", Instant.now())
+            .set("error", error);
+        mongoTemplate.updateFirst(query, update, PlanningRun.class);
+    }
+
+    @Override
+    public List<PlanningRun> findAbandoned(Instant staleBefore) {
+        Query query = new Query(Criteria.where("state").is(PlanningRunState.RUNNING).and("heartbeatAt").lt(staleBefore));
+        return mongoTemplate.find(query, PlanningRun.class);
+    }
+}
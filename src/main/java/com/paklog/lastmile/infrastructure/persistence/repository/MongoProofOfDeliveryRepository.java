@@ -3,6 +3,7 @@ package com.paklog.lastmile.infrastructure.persistence.repository;
 import com.paklog.lastmile.domain.aggregate.ProofOfDelivery;
 import com.paklog.lastmile.domain.repository.ProofOfDeliveryRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
@@ -12,6 +13,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
+@Profile("!perf")
 @RequiredArgsConstructor
 public class MongoProofOfDeliveryRepository implements ProofOfDeliveryRepository {
 
@@ -0,0 +1,117 @@
+package com.paklog.lastmile.infrastructure.persistence.repository;
+
+import com.paklog.lastmile.application.port.out.RouteQueryPort;
+import com.paklog.lastmile.application.query.ListRoutesQuery;
+import com.paklog.lastmile.application.query.RouteCursor;
+import com.paklog.lastmile.application.query.RoutePage;
+import com.paklog.lastmile.application.query.RouteSummary;
+import com.paklog.lastmile.domain.aggregate.DeliveryRoute;
+import com.paklog.lastmile.domain.valueobject.RouteStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Read-side queries over delivery routes that project away the embedded stops
+ */
+@Repository
+@Profile("!perf")
+@RequiredArgsConstructor
+public class MongoRouteQueryRepository implements RouteQueryPort {
+
+    private static final int STREAM_BATCH_SIZE = 200;
+
+    private static final Sort KEYSET_ORDER = Sort.by(Sort.Direction.ASC, "plannedStartTime", "_id");
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<RouteSummary> findActiveRouteSummaries() {
+        Query query = summaryQuery(activeCriteria())
+            .with(Sort.by(Sort.Direction.ASC, "plannedStartTime"));
+        return mongoTemplate.find(query, RouteSummary.class, collection());
+    }
+
+    @Override
+    public List<RouteSummary> findRouteSummariesByDriver(String driverId) {
+        Query query = summaryQuery(Criteria.where("driverId").is(driverId));
+        return mongoTemplate.find(query, RouteSummary.class, collection());
+    }
+
+    @Override
+    public RoutePage<?> findRoutes(ListRoutesQuery listQuery) {
+        if (listQuery.isIncludeStops()) {
+            return page(listQuery, DeliveryRoute.class,
+                route -> new RouteCursor(route.getPlannedStartTime(), route.getId()));
+        }
+        return page(listQuery, RouteSummary.class,
+            summary -> new RouteCursor(summary.getPlannedStartTime(), summary.getId()));
+    }
+
+    @Override
+    public Stream<?> streamRoutes(ListRoutesQuery listQuery) {
+        Class<?> view = listQuery.isIncludeStops() ? DeliveryRoute.class : RouteSummary.class;
+        Query query = listQuery(listQuery, null).cursorBatchSize(STREAM_BATCH_SIZE);
+        return mongoTemplate.stream(query, view, collection());
+    }
+
+    private <T> RoutePage<T> page(ListRoutesQuery listQuery, Class<T> view, Function<T, RouteCursor> cursorOf) {
+        int limit = listQuery.effectiveLimit();
+        RouteCursor after = listQuery.getCursor() != null ? RouteCursor.decode(listQuery.getCursor()) : null;
+
+        // Fetch one extra document to learn whether another page follows
+        Query query = listQuery(listQuery, after).limit(limit + 1);
+        List<T> items = mongoTemplate.find(query, view, collection());
+
+        if (items.size() <= limit) {
+            return new RoutePage<>(items, null);
+        }
+
+        List<T> pageItems = items.subList(0, limit);
+        return new RoutePage<>(pageItems, cursorOf.apply(pageItems.get(limit - 1)).encode());
+    }
+
+    private Query listQuery(ListRoutesQuery listQuery, RouteCursor after) {
+        Criteria filter = listQuery.isActiveOnly() ?
+            activeCriteria() :
+            Criteria.where("driverId").is(listQuery.getDriverId());
+
+        if (after != null && after.getPlannedStartTime() == null) {
+            // Routes without a planned start come first; past them, every dated route follows
+            filter = new Criteria().andOperator(filter, new Criteria().orOperator(
+                Criteria.where("plannedStartTime").ne(null),
+                Criteria.where("plannedStartTime").is(null).and("_id").gt(after.getRouteId())
+            ));
+        } else if (after != null) {
+            filter = new Criteria().andOperator(filter, new Criteria().orOperator(
+                Criteria.where("plannedStartTime").gt(after.getPlannedStartTime()),
+                Criteria.where("plannedStartTime").is(after.getPlannedStartTime()).and("_id").gt(after.getRouteId())
+            ));
+        }
+
+        Query query = listQuery.isIncludeStops() ? new Query(filter) : summaryQuery(filter);
+        return query.with(KEYSET_ORDER);
+    }
+
+    private Criteria activeCriteria() {
+        return Criteria.where("status").in(RouteStatus.PLANNED, RouteStatus.IN_PROGRESS);
+    }
+
+    private Query summaryQuery(Criteria criteria) {
+        Query query = new Query(criteria);
+        query.fields().exclude("stops");
+        return query;
+    }
+
+    private String collection() {
+        return mongoTemplate.getCollectionName(DeliveryRoute.class);
+    }
+}
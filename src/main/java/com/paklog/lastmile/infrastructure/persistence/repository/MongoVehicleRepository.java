@@ -3,15 +3,20 @@ package com.paklog.lastmile.infrastructure.persistence.repository;
 import com.paklog.lastmile.domain.aggregate.Vehicle;
 import com.paklog.lastmile.domain.repository.VehicleRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.BulkOperations;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
+@Profile("!perf")
 @RequiredArgsConstructor
 public class MongoVehicleRepository implements VehicleRepository {
 
@@ -22,11 +27,34 @@ public class MongoVehicleRepository implements VehicleRepository {
         return mongoTemplate.save(vehicle);
     }
 
+    @Override
+    public void saveAll(List<Vehicle> vehicles) {
+        if (vehicles.isEmpty()) {
+            return;
+        }
+
+        // Bulk replacements skip auditing, so stamp the modification time as save() would
+        Instant now = Instant.now();
+        vehicles.forEach(vehicle -> vehicle.setUpdatedAt(now));
+
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Vehicle.class);
+        vehicles.forEach(vehicle -> bulkOps.replaceOne(
+            new Query(Criteria.where("_id").is(vehicle.getId())),
+            vehicle));
+        bulkOps.execute();
+    }
+
     @Override
     public Optional<Vehicle> findById(String id) {
         return Optional.ofNullable(mongoTemplate.findById(id, Vehicle.class));
     }
 
+    @Override
+    public List<Vehicle> findAllById(Collection<String> ids) {
+        Query query = new Query(Criteria.where("_id").in(ids));
+        return mongoTemplate.find(query, Vehicle.class);
+    }
+
     @Override
     public Optional<Vehicle> findByVehicleNumber(String vehicleNumber) {
         Query query = new Query(Criteria.where("vehicleNumber").is(vehicleNumber));
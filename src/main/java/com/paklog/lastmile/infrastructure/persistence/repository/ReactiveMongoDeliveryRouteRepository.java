@@ -0,0 +1,40 @@
+package com.paklog.lastmile.infrastructure.persistence.repository;
+
+import com.paklog.lastmile.domain.aggregate.DeliveryRoute;
+import com.paklog.lastmile.domain.repository.ReactiveDeliveryRouteRepository;
+import com.paklog.lastmile.domain.valueobject.RouteStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "delivery.reactive.enabled", havingValue = "true", matchIfMissing = true)
+public class ReactiveMongoDeliveryRouteRepository implements ReactiveDeliveryRouteRepository {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Override
+    public Mono<DeliveryRoute> findById(String id) {
+        return reactiveMongoTemplate.findById(id, DeliveryRoute.class);
+    }
+
+    @Override
+    public Flux<DeliveryRoute> findByDriverId(String driverId) {
+        Query query = new Query(Criteria.where("driverId").is(driverId));
+        return reactiveMongoTemplate.find(query, DeliveryRoute.class);
+    }
+
+    @Override
+    public Flux<DeliveryRoute> findActiveRoutes() {
+        Query query = new Query(Criteria.where("status").in(RouteStatus.PLANNED, RouteStatus.IN_PROGRESS))
+            .with(Sort.by(Sort.Direction.ASC, "plannedStartTime"));
+        return reactiveMongoTemplate.find(query, DeliveryRoute.class);
+    }
+}
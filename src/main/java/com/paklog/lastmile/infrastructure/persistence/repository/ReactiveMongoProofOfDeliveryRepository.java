@@ -0,0 +1,43 @@
+package com.paklog.lastmile.infrastructure.persistence.repository;
+
+import com.paklog.lastmile.domain.aggregate.ProofOfDelivery;
+import com.paklog.lastmile.domain.repository.ReactiveProofOfDeliveryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "delivery.reactive.enabled", havingValue = "true", matchIfMissing = true)
+public class ReactiveMongoProofOfDeliveryRepository implements ReactiveProofOfDeliveryRepository {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Override
+    public Mono<ProofOfDelivery> findById(String id) {
+        return reactiveMongoTemplate.findById(id, ProofOfDelivery.class);
+    }
+
+    @Override
+    public Flux<ProofOfDelivery> findByRouteId(String routeId) {
+        Query query = new Query(Criteria.where("deliveryRouteId").is(routeId));
+        return reactiveMongoTemplate.find(query, ProofOfDelivery.class);
+    }
+
+    @Override
+    public Flux<ProofOfDelivery> findByStopId(String stopId) {
+        Query query = new Query(Criteria.where("stopId").is(stopId));
+        return reactiveMongoTemplate.find(query, ProofOfDelivery.class);
+    }
+
+    @Override
+    public Flux<ProofOfDelivery> findByDriverId(String driverId) {
+        Query query = new Query(Criteria.where("driverId").is(driverId));
+        return reactiveMongoTemplate.find(query, ProofOfDelivery.class);
+    }
+}
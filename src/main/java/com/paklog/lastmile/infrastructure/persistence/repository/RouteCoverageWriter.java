@@ -0,0 +1,60 @@
+package com.paklog.lastmile.infrastructure.persistence.repository;
+
+import com.paklog.lastmile.domain.aggregate.DeliveryRoute;
+import com.paklog.lastmile.domain.aggregate.DeliveryStop;
+import com.paklog.lastmile.domain.valueobject.GPSCoordinates;
+import org.bson.Document;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes each route's coverage, a GeoJSON MultiPoint of its vehicle and the stops it still has
+ * to make, into the document on every save and bulk insert. The 2dsphere index on it lets
+ * dispatch find the routes near an urgent order without loading the whole active fleet. The
+ * field lives only in the stored document; the aggregate neither has nor needs it.
+ */
+@Component
+@Profile("!perf")
+public class RouteCoverageWriter extends AbstractMongoEventListener<DeliveryRoute> {
+
+    static final String COVERAGE_FIELD = "coverage";
+
+    @Override
+    public void onBeforeSave(BeforeSaveEvent<DeliveryRoute> event) {
+        Document document = event.getDocument();
+        if (document == null) {
+            return;
+        }
+
+        List<List<Double>> points = points(event.getSource());
+        if (points.isEmpty()) {
+            document.remove(COVERAGE_FIELD);
+        } else {
+            document.put(COVERAGE_FIELD, new Document("type", "MultiPoint").append("coordinates", points));
+        }
+    }
+
+    private static List<List<Double>> points(DeliveryRoute route) {
+        List<List<Double>> points = new ArrayList<>(route.getStops().size() + 1);
+        GPSCoordinates vehicle = route.getCurrentLocation() != null ? route.getCurrentLocation() : route.getStartLocation();
+        addPoint(points, vehicle);
+        for (DeliveryStop stop : route.getStops()) {
+            if (!stop.isCompleted()) {
+                addPoint(points, stop.getCoordinates());
+            }
+        }
+        return points;
+    }
+
+    private static void addPoint(List<List<Double>> points, GPSCoordinates coordinates) {
+        // GeoJSON orders longitude first; an invalid point would fail the whole write
+        if (coordinates != null && coordinates.isValid()) {
+            points.add(List.of(coordinates.getLongitude(), coordinates.getLatitude()));
+        }
+    }
+}
@@ -1,7 +1,20 @@
 package com.paklog.lastmile.infrastructure.web.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.paklog.lastmile.application.command.*;
 import com.paklog.lastmile.application.port.in.DeliveryCoordinationUseCase;
+import com.paklog.lastmile.application.port.in.OptimizationJobUseCase;
+import com.paklog.lastmile.application.port.in.UrgentDispatchUseCase;
+import com.paklog.lastmile.application.port.in.WavePlanningUseCase;
+import com.paklog.lastmile.application.query.ListRoutesQuery;
+import com.paklog.lastmile.application.query.RoutePage;
+import com.paklog.lastmile.application.result.OptimizationJobStatus;
+import com.paklog.lastmile.application.result.PlanRoutesResult;
+import com.paklog.lastmile.application.result.UrgentDispatchResult;
+import com.paklog.lastmile.application.result.WavePlanningStatus;
 import com.paklog.lastmile.domain.aggregate.DeliveryRoute;
 import com.paklog.lastmile.domain.aggregate.ProofOfDelivery;
 import io.swagger.v3.oas.annotations.Operation;
@@ -9,10 +22,15 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.util.List;
 
 @Slf4j
@@ -23,6 +41,10 @@ import java.util.List;
 public class DeliveryController {
 
     private final DeliveryCoordinationUseCase deliveryUseCase;
+    private final OptimizationJobUseCase optimizationJobUseCase;
+    private final WavePlanningUseCase wavePlanningUseCase;
+    private final UrgentDispatchUseCase urgentDispatchUseCase;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/routes")
     @Operation(summary = "Create delivery route")
@@ -32,6 +54,43 @@ public class DeliveryController {
         return ResponseEntity.status(HttpStatus.CREATED).body(routeId);
     }
 
+    @PostMapping("/routes/bulk")
+    @Operation(summary = "Plan routes for a whole wave of stops across the fleet")
+    public ResponseEntity<PlanRoutesResult> planRoutes(@Valid @RequestBody PlanRoutesCommand command) {
+        log.info("REST: Planning routes for {} stops", command.getStops().size());
+        PlanRoutesResult result = deliveryUseCase.planRoutes(command);
+        return ResponseEntity.status(HttpStatus.CREATED).body(result);
+    }
+
+    @PostMapping("/dispatch/urgent-stops")
+    @Operation(summary = "Add an urgent stop to the nearby active route where it fits best")
+    public ResponseEntity<UrgentDispatchResult> dispatchUrgentStop(@Valid @RequestBody DispatchUrgentStopCommand command) {
+        log.info("REST: Dispatching urgent stop {}", command.getStop().getStopId());
+        UrgentDispatchResult result = urgentDispatchUseCase.dispatchUrgentStop(command);
+        HttpStatus status = result.getOutcome() == UrgentDispatchResult.Outcome.DISPATCHED
+            ? HttpStatus.OK
+            : HttpStatus.UNPROCESSABLE_ENTITY;
+        return ResponseEntity.status(status).body(result);
+    }
+
+    @PostMapping("/planning/waves")
+    @Operation(summary = "Plan all pending stops due on a day, resuming an earlier run for that day")
+    public ResponseEntity<WavePlanningStatus> startWavePlanning(@Valid @RequestBody PlanWaveCommand command) {
+        log.info("REST: Starting wave planning for {}", command.getServiceDate());
+        WavePlanningStatus run = wavePlanningUseCase.startWavePlanning(command);
+        return ResponseEntity.accepted()
+            .location(URI.create("/api/v1/delivery/planning/waves/" + run.getRunId()))
+            .body(run);
+    }
+
+    @GetMapping("/planning/waves/{runId}")
+    @Operation(summary = "Get the progress of a wave planning run")
+    public ResponseEntity<WavePlanningStatus> getWavePlanning(@PathVariable String runId) {
+        return wavePlanningUseCase.getWavePlanning(runId)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+
     @PostMapping("/routes/{id}/start")
     @Operation(summary = "Start delivery route")
     public ResponseEntity<Void> startRoute(@PathVariable String id) {
@@ -75,6 +134,30 @@ public class DeliveryController {
         return ResponseEntity.ok().build();
     }
 
+    @PostMapping("/routes/{id}/optimize/jobs")
+    @Operation(summary = "Start an asynchronous route optimization")
+    public ResponseEntity<OptimizationJobStatus> submitOptimization(
+        @PathVariable String id,
+        @RequestParam(required = false) Integer timeBudgetSeconds) {
+        log.info("REST: Submitting optimization job for route: {}", id);
+        OptimizeRouteCommand command = OptimizeRouteCommand.builder()
+            .routeId(id)
+            .timeBudgetSeconds(timeBudgetSeconds)
+            .build();
+        OptimizationJobStatus job = optimizationJobUseCase.submitOptimization(command);
+        return ResponseEntity.accepted()
+            .location(URI.create("/api/v1/delivery/optimization-jobs/" + job.getJobId()))
+            .body(job);
+    }
+
+    @GetMapping("/optimization-jobs/{jobId}")
+    @Operation(summary = "Get the progress of an optimization job")
+    public ResponseEntity<OptimizationJobStatus> getOptimizationJob(@PathVariable String jobId) {
+        return optimizationJobUseCase.getOptimizationJob(jobId)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+
     @PostMapping("/routes/{id}/traffic")
     @Operation(summary = "Update traffic conditions")
     public ResponseEntity<Void> updateTraffic(
@@ -89,6 +172,16 @@ public class DeliveryController {
         return ResponseEntity.ok().build();
     }
 
+    @PostMapping("/routes/{id}/location")
+    @Operation(summary = "Report the current vehicle location on a route")
+    public ResponseEntity<Void> updateLocation(
+        @PathVariable String id,
+        @Valid @RequestBody UpdateLocationCommand command) {
+        command.setRouteId(id);
+        deliveryUseCase.updateLocation(command);
+        return ResponseEntity.ok().build();
+    }
+
     @GetMapping("/routes/{id}")
     @Operation(summary = "Get route by ID")
     public ResponseEntity<DeliveryRoute> getRoute(@PathVariable String id) {
@@ -97,23 +190,102 @@ public class DeliveryController {
     }
 
     @GetMapping("/routes/active")
-    @Operation(summary = "Get all active routes")
-    public ResponseEntity<List<DeliveryRoute>> getActiveRoutes() {
-        List<DeliveryRoute> routes = deliveryUseCase.getActiveRoutes();
+    @Operation(summary = "Get all active routes, as summaries unless stops are requested")
+    public ResponseEntity<List<?>> getActiveRoutes(
+        @RequestParam(defaultValue = "false") boolean includeStops) {
+        List<?> routes = includeStops ?
+            deliveryUseCase.getActiveRoutes() :
+            deliveryUseCase.getActiveRouteSummaries();
         return ResponseEntity.ok(routes);
     }
 
     @GetMapping("/routes/driver/{driverId}")
-    @Operation(summary = "Get routes by driver")
-    public ResponseEntity<List<DeliveryRoute>> getRoutesByDriver(@PathVariable String driverId) {
-        List<DeliveryRoute> routes = deliveryUseCase.getRoutesByDriver(driverId);
+    @Operation(summary = "Get routes by driver, as summaries unless stops are requested")
+    public ResponseEntity<List<?>> getRoutesByDriver(
+        @PathVariable String driverId,
+        @RequestParam(defaultValue = "false") boolean includeStops) {
+        List<?> routes = includeStops ?
+            deliveryUseCase.getRoutesByDriver(driverId) :
+            deliveryUseCase.getRouteSummariesByDriver(driverId);
         return ResponseEntity.ok(routes);
     }
 
+    @GetMapping("/routes/active/page")
+    @Operation(summary = "Get a cursor-paginated page of active routes")
+    public ResponseEntity<RoutePage<?>> getActiveRoutesPage(
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "" + ListRoutesQuery.DEFAULT_LIMIT) int limit,
+        @RequestParam(defaultValue = "false") boolean includeStops) {
+        ListRoutesQuery query = ListRoutesQuery.builder()
+            .cursor(cursor)
+            .limit(limit)
+            .includeStops(includeStops)
+            .build();
+        return ResponseEntity.ok(deliveryUseCase.listRoutes(query));
+    }
+
+    @GetMapping("/routes/driver/{driverId}/page")
+    @Operation(summary = "Get a cursor-paginated page of routes by driver")
+    public ResponseEntity<RoutePage<?>> getRoutesByDriverPage(
+        @PathVariable String driverId,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "" + ListRoutesQuery.DEFAULT_LIMIT) int limit,
+        @RequestParam(defaultValue = "false") boolean includeStops) {
+        ListRoutesQuery query = ListRoutesQuery.builder()
+            .driverId(driverId)
+            .cursor(cursor)
+            .limit(limit)
+            .includeStops(includeStops)
+            .build();
+        return ResponseEntity.ok(deliveryUseCase.listRoutes(query));
+    }
+
+    @GetMapping(value = "/routes/active/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all active routes as newline-delimited JSON")
+    public ResponseEntity<StreamingResponseBody> streamActiveRoutes(
+        @RequestParam(defaultValue = "false") boolean includeStops) {
+        return ndjson(ListRoutesQuery.builder()
+            .includeStops(includeStops)
+            .build());
+    }
+
+    @GetMapping(value = "/routes/driver/{driverId}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream routes by driver as newline-delimited JSON")
+    public ResponseEntity<StreamingResponseBody> streamRoutesByDriver(
+        @PathVariable String driverId,
+        @RequestParam(defaultValue = "false") boolean includeStops) {
+        return ndjson(ListRoutesQuery.builder()
+            .driverId(driverId)
+            .includeStops(includeStops)
+            .build());
+    }
+
     @GetMapping("/proof-of-delivery/{id}")
     @Operation(summary = "Get proof of delivery")
     public ResponseEntity<ProofOfDelivery> getProofOfDelivery(@PathVariable String id) {
         ProofOfDelivery proof = deliveryUseCase.getProofOfDelivery(id);
         return ResponseEntity.ok(proof);
     }
+
+    private ResponseEntity<StreamingResponseBody> ndjson(ListRoutesQuery query) {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                deliveryUseCase.streamRoutes(query, route -> {
+                    try {
+                        writer.writeValue(generator, route);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(body);
+    }
 }
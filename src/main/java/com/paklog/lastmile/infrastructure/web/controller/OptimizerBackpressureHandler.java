@@ -0,0 +1,47 @@
+package com.paklog.lastmile.infrastructure.web.controller;
+
+import com.paklog.lastmile.infrastructure.concurrency.DownstreamSaturatedException;
+import com.paklog.lastmile.infrastructure.concurrency.OptimizerSaturatedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Answers requests turned away by a full optimizer queue with 429, and those that found no free
+ * Mongo or Kafka permit in time with 503, both with a Retry-After hint
+ */
+@Slf4j
+@RestControllerAdvice
+public class OptimizerBackpressureHandler {
+
+    @ExceptionHandler(OptimizerSaturatedException.class)
+    public ResponseEntity<ProblemDetail> optimizerSaturated(OptimizerSaturatedException e) {
+        long retryAfterSeconds = e.getRetryAfter().toSeconds();
+        log.debug("Rejecting request: {}", e.getMessage());
+
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.TOO_MANY_REQUESTS, e.getMessage());
+        problem.setProperty("retryAfterSeconds", retryAfterSeconds);
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+            .body(problem);
+    }
+
+    @ExceptionHandler(DownstreamSaturatedException.class)
+    public ResponseEntity<ProblemDetail> downstreamSaturated(DownstreamSaturatedException e) {
+        long retryAfterSeconds = e.getRetryAfter().toSeconds();
+        log.debug("Rejecting request: {}", e.getMessage());
+
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        problem.setProperty("retryAfterSeconds", retryAfterSeconds);
+        problem.setProperty("downstream", e.getDownstream().name().toLowerCase());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+            .body(problem);
+    }
+}
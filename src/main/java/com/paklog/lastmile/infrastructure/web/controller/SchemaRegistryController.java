@@ -0,0 +1,37 @@
+package com.paklog.lastmile.infrastructure.web.controller;
+
+import com.paklog.lastmile.infrastructure.kafka.serialization.LocalSchemaRegistry;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+@RestController
+@RequestMapping("/api/v1/delivery/schemas")
+@RequiredArgsConstructor
+@Tag(name = "Event Schemas", description = "Schemas of binary-encoded event payloads")
+public class SchemaRegistryController {
+
+    private final LocalSchemaRegistry schemaRegistry;
+
+    @GetMapping
+    @Operation(summary = "List registered event schemas")
+    public ResponseEntity<Map<String, String>> listSchemas() {
+        Map<String, String> schemas = new TreeMap<>();
+        schemaRegistry.getSchemas().forEach((id, schema) -> schemas.put(Long.toHexString(id), schema.getFullName()));
+        return ResponseEntity.ok(schemas);
+    }
+
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Get an event schema by ID")
+    public ResponseEntity<String> getSchema(@PathVariable String id) {
+        return schemaRegistry.findById(LocalSchemaRegistry.parseSchemaId(id))
+            .map(schema -> ResponseEntity.ok(schema.toString()))
+            .orElse(ResponseEntity.notFound().build());
+    }
+}
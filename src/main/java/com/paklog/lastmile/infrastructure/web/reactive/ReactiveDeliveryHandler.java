@@ -0,0 +1,100 @@
+package com.paklog.lastmile.infrastructure.web.reactive;
+
+import com.paklog.lastmile.application.port.in.ReactiveDeliveryQueryUseCase;
+import com.paklog.lastmile.domain.aggregate.DeliveryRoute;
+import com.paklog.lastmile.domain.aggregate.ProofOfDelivery;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * Non-blocking read endpoints served by the reactive server. Collections are streamed with
+ * backpressure, and a route can be long-polled for its next version.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "delivery.reactive.enabled", havingValue = "true", matchIfMissing = true)
+public class ReactiveDeliveryHandler {
+
+    private static final String BASE_PATH = "/api/v1/delivery";
+
+    private final ReactiveDeliveryQueryUseCase queryUseCase;
+
+    @Value("${delivery.reactive.long-poll.default-wait:30s}")
+    private Duration defaultWait;
+
+    @Value("${delivery.reactive.long-poll.max-wait:60s}")
+    private Duration maxWait;
+
+    public RouterFunction<ServerResponse> routes() {
+        return route()
+            .path(BASE_PATH, builder -> builder
+                .GET("/routes/active", request -> many(request, queryUseCase.getActiveRoutes(), DeliveryRoute.class))
+                .GET("/routes/driver/{driverId}", request ->
+                    many(request, queryUseCase.getRoutesByDriver(request.pathVariable("driverId")), DeliveryRoute.class))
+                .GET("/routes/{id}/proof-of-delivery", request ->
+                    many(request, queryUseCase.getProofsOfDeliveryByRoute(request.pathVariable("id")), ProofOfDelivery.class))
+                .GET("/routes/{id}", this::getRoute)
+                .GET("/proof-of-delivery/{id}", request ->
+                    one(queryUseCase.getProofOfDelivery(request.pathVariable("id")))))
+            .build();
+    }
+
+    /**
+     * With {@code sinceVersion} the request is held until the route moves past that version,
+     * answering 304 if it does not within {@code waitSeconds}
+     */
+    private Mono<ServerResponse> getRoute(ServerRequest request) {
+        String routeId = request.pathVariable("id");
+        Optional<String> sinceVersion = request.queryParam("sinceVersion");
+
+        if (sinceVersion.isEmpty()) {
+            return one(queryUseCase.getRoute(routeId));
+        }
+
+        long version;
+        Duration wait;
+        try {
+            version = Long.parseLong(sinceVersion.get());
+            wait = request.queryParam("waitSeconds")
+                .map(seconds -> Duration.ofSeconds(Long.parseLong(seconds)))
+                .orElse(defaultWait);
+        } catch (NumberFormatException e) {
+            return ServerResponse.badRequest().build();
+        }
+        if (wait.compareTo(maxWait) > 0) {
+            wait = maxWait;
+        }
+
+        return queryUseCase.awaitRouteChange(routeId, version, wait)
+            .flatMap(route -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(route))
+            .switchIfEmpty(Mono.defer(() -> ServerResponse.status(HttpStatus.NOT_MODIFIED).build()));
+    }
+
+    private Mono<ServerResponse> one(Mono<?> item) {
+        return item
+            .flatMap(value -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(value))
+            .switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()));
+    }
+
+    private <T> Mono<ServerResponse> many(ServerRequest request, Flux<T> items, Class<T> type) {
+        // NDJSON when asked for it, otherwise a JSON array; both are written as items arrive
+        boolean ndjson = request.headers().accept().contains(MediaType.APPLICATION_NDJSON);
+        return ServerResponse.ok()
+            .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+            .body(items, type);
+    }
+}
@@ -0,0 +1,275 @@
+package com.paklog.lastmile.infrastructure.concurrency;
+
+import com.paklog.lastmile.LastMileDeliveryApplication;
+import com.paklog.lastmile.application.command.CreateRouteCommand;
+import com.paklog.lastmile.application.command.StartRouteCommand;
+import com.paklog.lastmile.application.port.in.DeliveryCoordinationUseCase;
+import com.paklog.lastmile.domain.aggregate.DeliveryStop;
+import com.paklog.lastmile.domain.valueobject.GPSCoordinates;
+import com.paklog.lastmile.domain.valueobject.StopType;
+import com.paklog.lastmile.infrastructure.perf.PerfConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs the application with a web server on the {@code perf} profile and a small optimizer queue,
+ * then floods {@code POST /routes/{id}/optimize} with more concurrent clients than the queue
+ * admits. The overflow must be answered with 429 and a Retry-After hint, and driver location
+ * updates and route reads probed at a fixed rate must keep their p99 within {@link #MAX_SLOWDOWN}
+ * times the unloaded p99 plus {@link #SLACK}. The latency check is skipped on a single core.
+ */
+class OptimizerIsolationTest {
+
+    private static final String API = "/api/v1/delivery";
+    private static final int QUEUE_CAPACITY = 4;
+    private static final int DRIVER_ROUTES = 50;
+    private static final int DRIVER_STOPS = 10;
+    private static final int FLOOD_STOPS = 40;
+    private static final int PROBE_RATE = 100;
+    private static final Duration WARMUP = Duration.ofSeconds(3);
+    private static final Duration PHASE = Duration.ofSeconds(5);
+    private static final double MAX_SLOWDOWN = 3;
+    private static final Duration SLACK = Duration.ofMillis(50);
+    private static final Duration REJECTED_BACKOFF = Duration.ofMillis(10);
+    private static final GPSCoordinates DEPOT = new GPSCoordinates(52.5200, 13.4050);
+
+    private final Random random = new Random(42);
+    private final List<String> driverRoutes = new ArrayList<>();
+    private final List<String> floodRoutes = new ArrayList<>();
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private String baseUrl;
+
+    @BeforeEach
+    void startInstance() {
+        context = new SpringApplicationBuilder(LastMileDeliveryApplication.class)
+            .profiles("perf")
+            .run("--server.port=0",
+                "--delivery.limits.optimizer.queue-capacity=" + QUEUE_CAPACITY,
+                "--delivery.perf.fleet-size=" + (DRIVER_ROUTES + 256));
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + API;
+        httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+        // Enough clients to keep every worker busy and the queue full with plenty left over
+        OptimizerWorkQueue queue = context.getBean(OptimizerWorkQueue.class);
+        int flooders = Math.min(256, 4 * (queue.getWorkers() + queue.getCapacity()));
+
+        DeliveryCoordinationUseCase useCase = context.getBean(DeliveryCoordinationUseCase.class);
+        for (int i = 0; i < DRIVER_ROUTES + flooders; i++) {
+            boolean driver = i < DRIVER_ROUTES;
+            String routeId = useCase.createRoute(CreateRouteCommand.builder()
+                .vehicleId(PerfConfig.VEHICLE_ID_PREFIX + i)
+                .stops(stops(driver ? DRIVER_STOPS : FLOOD_STOPS))
+                .plannedStartTime(Instant.now())
+                .build());
+            if (driver) {
+                useCase.startRoute(StartRouteCommand.builder().routeId(routeId).build());
+                driverRoutes.add(routeId);
+            } else {
+                floodRoutes.add(routeId);
+            }
+        }
+    }
+
+    @AfterEach
+    void stopInstance() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Test
+    void overflowIsAnsweredWith429AndARetryAfterHint() throws InterruptedException {
+        Flood flood = flood(() -> LockSupport.parkNanos(PHASE.toNanos()));
+
+        assertThat(flood.failures).as("optimize responses other than 200 or 429").isEmpty();
+        assertThat(flood.rejected).as("optimize requests answered with 429").isNotEmpty();
+        assertThat(flood.retryAfterMissing.get()).as("429 responses without a positive Retry-After").isZero();
+    }
+
+    @Test
+    void driverRequestsKeepTheirLatencyWhileTheOptimizerIsFlooded() throws InterruptedException {
+        // The optimizer leaves one core to everything else; with a single core there is none to leave
+        assumeTrue(Runtime.getRuntime().availableProcessors() >= 2, "Needs at least two cores");
+
+        probe(WARMUP);
+        List<Long> baseline = probe(PHASE);
+        List<List<Long>> overload = new ArrayList<>(1);
+        Flood flood = flood(() -> overload.add(probe(PHASE)));
+
+        assertThat(flood.rejected).as("optimize requests answered with 429").isNotEmpty();
+        long baselineP99 = p99(baseline);
+        long limit = (long) (baselineP99 * MAX_SLOWDOWN) + SLACK.toNanos();
+        assertThat(p99(overload.get(0)))
+            .as(String.format(Locale.ROOT, "driver request p99 under overload, in nanoseconds (baseline %.1f ms)",
+                baselineP99 / 1e6))
+            .isLessThanOrEqualTo(limit);
+    }
+
+    /**
+     * Floods the optimizer from one client per flood route while {@code during} runs
+     */
+    private Flood flood(Runnable during) throws InterruptedException {
+        AtomicBoolean flooding = new AtomicBoolean(true);
+        Flood flood = new Flood();
+        List<Thread> threads = new ArrayList<>(floodRoutes.size());
+        for (String routeId : floodRoutes) {
+            threads.add(Thread.ofVirtual().name("flooder-" + routeId).start(() -> flood.run(routeId, flooding)));
+        }
+        try {
+            during.run();
+        } finally {
+            flooding.set(false);
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        }
+        return flood;
+    }
+
+    /**
+     * Issues driver requests at a fixed rate, timing each from its scheduled start so a stalled
+     * server shows up in the latency rather than in a lower request rate
+     *
+     * @return the latency of each successful request, in nanoseconds
+     */
+    private List<Long> probe(Duration duration) {
+        Queue<Long> latencies = new ConcurrentLinkedQueue<>();
+        Queue<String> failures = new ConcurrentLinkedQueue<>();
+        long interval = 1_000_000_000L / PROBE_RATE;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long scheduled = start; scheduled < end; scheduled += interval) {
+                long delay = scheduled - System.nanoTime();
+                if (delay > 0) {
+                    LockSupport.parkNanos(delay);
+                }
+                long due = scheduled;
+                executor.execute(() -> {
+                    HttpResponse<String> response = send(driverRequest());
+                    if (response.statusCode() == 200) {
+                        latencies.add(System.nanoTime() - due);
+                    } else {
+                        failures.add(response.statusCode() + " " + response.body());
+                    }
+                });
+            }
+        }
+        assertThat(failures).as("driver requests that failed").isEmpty();
+        return new ArrayList<>(latencies);
+    }
+
+    private HttpRequest driverRequest() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String routeId = driverRoutes.get(random.nextInt(driverRoutes.size()));
+        if (random.nextBoolean()) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/routes/" + routeId)).GET().build();
+        }
+        String location = String.format(Locale.ROOT, "{\"location\":{\"latitude\":%.6f,\"longitude\":%.6f}}",
+            DEPOT.getLatitude() + (random.nextDouble() * 2 - 1) * 0.14,
+            DEPOT.getLongitude() + (random.nextDouble() * 2 - 1) * 0.14);
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/routes/" + routeId + "/location"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(location))
+            .build();
+    }
+
+    private HttpResponse<String> send(HttpRequest request) {
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<DeliveryStop> stops(int count) {
+        List<DeliveryStop> stops = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            stops.add(DeliveryStop.builder()
+                .stopId("STOP-" + i)
+                .type(StopType.DELIVERY)
+                .customerId("CUST-" + random.nextInt(100_000))
+                .coordinates(new GPSCoordinates(
+                    DEPOT.getLatitude() + (random.nextDouble() * 2 - 1) * 0.14,
+                    DEPOT.getLongitude() + (random.nextDouble() * 2 - 1) * 0.14))
+                .estimatedDurationMinutes(3 + random.nextInt(8))
+                .packageIds(List.of("PKG-" + i))
+                .totalWeightKg(1 + random.nextInt(20))
+                .build());
+        }
+        return stops;
+    }
+
+    private static long p99(Collection<Long> nanos) {
+        assertThat(nanos).as("latency samples").isNotEmpty();
+        List<Long> sorted = nanos.stream().sorted().toList();
+        return sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1);
+    }
+
+    /**
+     * Closed-loop clients requesting optimizations back to back, backing off briefly when turned away
+     */
+    private final class Flood {
+
+        private final Queue<Long> rejected = new ConcurrentLinkedQueue<>();
+        private final Queue<String> failures = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger retryAfterMissing = new AtomicInteger();
+
+        void run(String routeId, AtomicBoolean flooding) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/routes/" + routeId + "/optimize"))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+            while (flooding.get()) {
+                long started = System.nanoTime();
+                HttpResponse<String> response = send(request);
+                if (response.statusCode() == 429) {
+                    rejected.add(System.nanoTime() - started);
+                    long retryAfter = response.headers().firstValueAsLong(HttpHeaders.RETRY_AFTER).orElse(0);
+                    if (retryAfter < 1) {
+                        retryAfterMissing.incrementAndGet();
+                    }
+                    LockSupport.parkNanos(REJECTED_BACKOFF.toNanos());
+                } else if (response.statusCode() != 200) {
+                    failures.add(response.statusCode() + " " + response.body());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.paklog.lastmile.infrastructure.kafka.intake;
+
+import com.paklog.lastmile.LastMileDeliveryApplication;
+import com.paklog.lastmile.domain.aggregate.PendingStop;
+import com.paklog.lastmile.domain.repository.PendingStopRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Publishes orders to an embedded broker, some of them resent as a producer retry would, some
+ * with coordinates off the globe and some not JSON at all, and checks that the pool ends up with
+ * exactly the unique valid orders and that the intake counters tell duplicates and rejections
+ * apart. Orders are due a month out, beyond the planning horizon, so no wave run starts.
+ */
+@EmbeddedKafka(kraft = true, partitions = 3, topics = OrderIntakeListenerTest.TOPIC)
+class OrderIntakeListenerTest {
+
+    static final String TOPIC = "lastmile.orders";
+
+    private static final int ORDERS = 5_000;
+    private static final double DUPLICATE_SHARE = 0.05;
+    private static final double INVALID_SHARE = 0.01;
+    private static final int UNREADABLE = 10;
+    private static final Duration TIMEOUT = Duration.ofSeconds(60);
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(100);
+
+    @Test
+    void poolHoldsEachValidOrderOnceAndCountersSplitDuplicatesFromRejections(EmbeddedKafkaBroker broker)
+            throws InterruptedException {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(LastMileDeliveryApplication.class)
+                .profiles("perf")
+                .web(WebApplicationType.NONE)
+                .run("--spring.kafka.bootstrap-servers=" + broker.getBrokersAsString(),
+                    "--delivery.intake.enabled=true",
+                    "--delivery.intake.partitions=3",
+                    "--delivery.perf.fleet-size=10")) {
+
+            LocalDate serviceDate = LocalDate.now(ZoneOffset.UTC).plusDays(30);
+            Tally sent = publish(broker.getBrokersAsString(), serviceDate);
+
+            MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+            Instant deadline = Instant.now().plus(TIMEOUT);
+            while (counted(meterRegistry, "accepted", "none") + counted(meterRegistry, "duplicate", "none")
+                + counted(meterRegistry, "rejected", "INVALID_COORDINATES")
+                + counted(meterRegistry, "rejected", "UNREADABLE") < ORDERS + UNREADABLE
+                && Instant.now().isBefore(deadline)) {
+                Thread.sleep(POLL_INTERVAL);
+            }
+
+            assertThat(counted(meterRegistry, "accepted", "none")).isEqualTo(sent.unique);
+            assertThat(counted(meterRegistry, "duplicate", "none")).isEqualTo(sent.duplicates);
+            assertThat(counted(meterRegistry, "rejected", "INVALID_COORDINATES")).isEqualTo(sent.invalid);
+            assertThat(counted(meterRegistry, "rejected", "UNREADABLE")).isEqualTo(UNREADABLE);
+            assertThat(context.getBean(PendingStopRepository.class)
+                .countPending(PendingStop.serviceDay(serviceDate))).isEqualTo(sent.unique);
+        }
+    }
+
+    /**
+     * A duplicate resends an earlier order as it was; resending an invalid order is rejected again
+     */
+    private static Tally publish(String bootstrapServers, LocalDate serviceDate) {
+        Random random = new Random(42);
+        KafkaTemplate<String, OrderMessage> orderTemplate =
+            new KafkaTemplate<>(producerFactory(bootstrapServers, JsonSerializer.class));
+        KafkaTemplate<String, String> rawTemplate =
+            new KafkaTemplate<>(producerFactory(bootstrapServers, StringSerializer.class));
+
+        Tally tally = new Tally();
+        List<OrderMessage> issued = new ArrayList<>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            OrderMessage order;
+            if (!issued.isEmpty() && random.nextDouble() < DUPLICATE_SHARE) {
+                order = issued.get(random.nextInt(issued.size()));
+                if (order.getLatitude() > 90) {
+                    tally.invalid++;
+                } else {
+                    tally.duplicates++;
+                }
+            } else {
+                order = OrderMessage.builder()
+                    .orderId("ORDER-" + issued.size())
+                    .customerId("CUST-" + random.nextInt(100_000))
+                    .latitude(52.52 + (random.nextDouble() * 2 - 1) * 0.14)
+                    .longitude(13.405 + (random.nextDouble() * 2 - 1) * 0.14)
+                    .serviceDate(serviceDate)
+                    .packageIds(List.of("PKG-" + issued.size()))
+                    .weightKg(1 + random.nextInt(20))
+                    .serviceMinutes(3 + random.nextInt(8))
+                    .build();
+                if (random.nextDouble() < INVALID_SHARE) {
+                    order.setLatitude(200);
+                    tally.invalid++;
+                } else {
+                    tally.unique++;
+                }
+                issued.add(order);
+            }
+            orderTemplate.send(TOPIC, order.getOrderId(), order);
+        }
+        for (int i = 0; i < UNREADABLE; i++) {
+            rawTemplate.send(TOPIC, "GARBAGE-" + i, "not an order");
+        }
+        orderTemplate.flush();
+        rawTemplate.flush();
+        return tally;
+    }
+
+    private static <V> DefaultKafkaProducerFactory<String, V> producerFactory(String bootstrapServers,
+                                                                              Class<?> valueSerializer) {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, valueSerializer);
+        config.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
+        config.put(ProducerConfig.LINGER_MS_CONFIG, 5);
+        return new DefaultKafkaProducerFactory<>(config);
+    }
+
+    private static long counted(MeterRegistry meterRegistry, String outcome, String reason) {
+        Counter counter = meterRegistry.find("delivery.intake.orders")
+            .tag("outcome", outcome)
+            .tag("reason", reason)
+            .counter();
+        return counter != null ? (long) counter.count() : 0;
+    }
+
+    private static final class Tally {
+        long unique;
+        long duplicates;
+        long invalid;
+    }
+}
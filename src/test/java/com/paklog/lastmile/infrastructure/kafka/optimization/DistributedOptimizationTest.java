@@ -0,0 +1,210 @@
+package com.paklog.lastmile.infrastructure.kafka.optimization;
+
+import com.paklog.lastmile.LastMileDeliveryApplication;
+import com.paklog.lastmile.application.command.CompleteStopCommand;
+import com.paklog.lastmile.application.command.CreateRouteCommand;
+import com.paklog.lastmile.application.command.OptimizeRouteCommand;
+import com.paklog.lastmile.application.command.StartRouteCommand;
+import com.paklog.lastmile.application.port.in.DeliveryCoordinationUseCase;
+import com.paklog.lastmile.application.port.in.OptimizationJobUseCase;
+import com.paklog.lastmile.application.result.OptimizationJobStatus;
+import com.paklog.lastmile.application.result.OptimizationJobStatus.State;
+import com.paklog.lastmile.domain.aggregate.DeliveryAttempt;
+import com.paklog.lastmile.domain.aggregate.DeliveryStop;
+import com.paklog.lastmile.domain.valueobject.AttemptResult;
+import com.paklog.lastmile.domain.valueobject.DeliveryWindow;
+import com.paklog.lastmile.domain.valueobject.GPSCoordinates;
+import com.paklog.lastmile.domain.valueobject.StopType;
+import com.paklog.lastmile.infrastructure.perf.PerfConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.requestreply.ReplyingKafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * One owner and two worker instances on the {@code perf} profile, each a separate application
+ * context sharing only the embedded broker. A job submitted before any worker runs, for a route
+ * whose stop is completed meanwhile, must come back stale; a burst of jobs submitted afterwards
+ * must all be applied, solved by the workers rather than the owner, and by both of them.
+ */
+@EmbeddedKafka(kraft = true, partitions = DistributedOptimizationTest.PARTITIONS,
+    topics = {DistributedOptimizationTest.WORK_TOPIC, DistributedOptimizationTest.REPLY_TOPIC})
+class DistributedOptimizationTest {
+
+    static final String WORK_TOPIC = "lastmile.optimization.work";
+    static final String REPLY_TOPIC = "lastmile.optimization.replies";
+    static final int PARTITIONS = 6;
+
+    private static final int WORKERS = 2;
+    private static final int ROUTES = 12;
+    private static final int STOPS = 15;
+    private static final int BUDGET_SECONDS = 1;
+    private static final Duration TIMEOUT = Duration.ofSeconds(120);
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(50);
+    private static final GPSCoordinates DEPOT = new GPSCoordinates(52.5200, 13.4050);
+
+    private final List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+    private final Random random = new Random(42);
+    private int nextVehicle;
+
+    @AfterEach
+    void stopInstances() {
+        for (ConfigurableApplicationContext context : contexts.reversed()) {
+            context.close();
+        }
+    }
+
+    @Test
+    void workersSolveEveryJobAndStaleSolutionsAreDiscarded(EmbeddedKafkaBroker broker) throws Exception {
+        ConfigurableApplicationContext owner = start(broker, "owner", ROUTES + 1,
+            "--delivery.optimization.distributed.max-in-flight=" + ROUTES,
+            "--delivery.optimization.jobs.max-pending=" + (ROUTES + 1));
+        owner.getBean(ReplyingKafkaTemplate.class).waitForAssignment(Duration.ofSeconds(30));
+        DeliveryCoordinationUseCase useCase = owner.getBean(DeliveryCoordinationUseCase.class);
+        OptimizationJobUseCase jobs = owner.getBean(OptimizationJobUseCase.class);
+
+        // Nothing consumes the work topic yet, so the stop completes while the problem waits
+        String routeId = createRoute(useCase);
+        useCase.startRoute(StartRouteCommand.builder().routeId(routeId).build());
+        String staleJob = submit(jobs, routeId);
+        useCase.completeStop(CompleteStopCommand.builder()
+            .routeId(routeId)
+            .stopId("STOP-0")
+            .success(true)
+            .attempt(DeliveryAttempt.builder()
+                .attemptNumber(1)
+                .attemptedAt(Instant.now())
+                .result(AttemptResult.SUCCESSFUL)
+                .build())
+            .build());
+
+        List<ConfigurableApplicationContext> workers = new ArrayList<>(WORKERS);
+        for (int i = 0; i < WORKERS; i++) {
+            workers.add(start(broker, "worker-" + i, 1,
+                "--delivery.optimization.distributed.worker.enabled=true",
+                "--delivery.optimization.distributed.worker.concurrency=1",
+                "--delivery.limits.optimizer.workers=1"));
+        }
+        awaitRebalanced(workers);
+
+        OptimizationJobStatus stale = await(jobs, List.of(staleJob)).get(0);
+        assertThat(stale.getState()).as("job for the changed route (%s)", stale.getError()).isEqualTo(State.STALE);
+
+        List<String> jobIds = new ArrayList<>(ROUTES);
+        for (int i = 0; i < ROUTES; i++) {
+            jobIds.add(submit(jobs, createRoute(useCase)));
+        }
+        List<OptimizationJobStatus> finished = await(jobs, jobIds);
+
+        assertThat(finished).allSatisfy(status ->
+            assertThat(status.getState()).as("job %s (%s)", status.getJobId(), status.getError())
+                .isEqualTo(State.COMPLETED));
+        List<String> solvers = finished.stream().map(OptimizationJobStatus::getSolvedBy).distinct().toList();
+        assertThat(solvers).doesNotContain("local").hasSize(WORKERS);
+    }
+
+    /**
+     * Until the group has rebalanced, the first worker holds every partition of the work topic
+     */
+    private static void awaitRebalanced(List<ConfigurableApplicationContext> workers) throws InterruptedException {
+        List<MessageListenerContainer> containers = workers.stream()
+            .flatMap(worker -> worker.getBean(KafkaListenerEndpointRegistry.class).getListenerContainers().stream())
+            .toList();
+        Instant deadline = Instant.now().plus(TIMEOUT);
+        while (!containers.stream().allMatch(DistributedOptimizationTest::holdsItsShare)) {
+            assertThat(Instant.now()).as("work topic rebalanced across the workers").isBefore(deadline);
+            Thread.sleep(POLL_INTERVAL);
+        }
+    }
+
+    private static boolean holdsItsShare(MessageListenerContainer container) {
+        Collection<TopicPartition> assigned = container.getAssignedPartitions();
+        return assigned != null && assigned.size() == PARTITIONS / WORKERS;
+    }
+
+    private ConfigurableApplicationContext start(EmbeddedKafkaBroker broker, String instanceId, int fleetSize,
+                                                 String... extraArgs) {
+        List<String> springArgs = new ArrayList<>(List.of(
+            "--spring.kafka.bootstrap-servers=" + broker.getBrokersAsString(),
+            "--delivery.optimization.distributed.enabled=true",
+            "--delivery.optimization.distributed.instance-id=" + instanceId,
+            "--delivery.optimization.distributed.partitions=" + PARTITIONS,
+            "--delivery.perf.fleet-size=" + fleetSize));
+        springArgs.addAll(List.of(extraArgs));
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(LastMileDeliveryApplication.class)
+            .profiles("perf")
+            .web(WebApplicationType.NONE)
+            .run(springArgs.toArray(String[]::new));
+        contexts.add(context);
+        return context;
+    }
+
+    private String createRoute(DeliveryCoordinationUseCase useCase) {
+        // Windows are anchored to now because the optimizer checks feasibility against the clock
+        Instant dayStart = Instant.now().truncatedTo(ChronoUnit.MINUTES);
+        List<DeliveryStop> stops = new ArrayList<>(STOPS);
+        for (int i = 0; i < STOPS; i++) {
+            Instant windowStart = dayStart.plus(random.nextInt(8 * 60), ChronoUnit.MINUTES);
+            stops.add(DeliveryStop.builder()
+                .stopId("STOP-" + i)
+                .type(StopType.DELIVERY)
+                .customerId("CUST-" + random.nextInt(100_000))
+                .coordinates(new GPSCoordinates(
+                    DEPOT.getLatitude() + (random.nextDouble() * 2 - 1) * 0.14,
+                    DEPOT.getLongitude() + (random.nextDouble() * 2 - 1) * 0.14))
+                .window(new DeliveryWindow(windowStart, windowStart.plus(120 + random.nextInt(121), ChronoUnit.MINUTES)))
+                .estimatedDurationMinutes(3 + random.nextInt(8))
+                .packageIds(List.of("PKG-" + i))
+                .totalWeightKg(1 + random.nextInt(20))
+                .build());
+        }
+        return useCase.createRoute(CreateRouteCommand.builder()
+            .vehicleId(PerfConfig.VEHICLE_ID_PREFIX + nextVehicle++)
+            .stops(stops)
+            .plannedStartTime(Instant.now())
+            .build());
+    }
+
+    private static String submit(OptimizationJobUseCase jobs, String routeId) {
+        return jobs.submitOptimization(OptimizeRouteCommand.builder()
+            .routeId(routeId)
+            .timeBudgetSeconds(BUDGET_SECONDS)
+            .build()).getJobId();
+    }
+
+    /**
+     * Polls until every job has finished, in whichever state
+     */
+    private static List<OptimizationJobStatus> await(OptimizationJobUseCase jobs, List<String> jobIds)
+            throws InterruptedException {
+        Instant deadline = Instant.now().plus(TIMEOUT);
+        while (true) {
+            List<OptimizationJobStatus> statuses = jobIds.stream()
+                .map(jobId -> jobs.getOptimizationJob(jobId).orElseThrow())
+                .toList();
+            if (statuses.stream().allMatch(status -> status.getFinishedAt() != null)
+                || Instant.now().isAfter(deadline)) {
+                return statuses;
+            }
+            Thread.sleep(POLL_INTERVAL);
+        }
+    }
+}
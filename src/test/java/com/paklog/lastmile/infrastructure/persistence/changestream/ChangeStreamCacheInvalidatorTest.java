@@ -0,0 +1,240 @@
+package com.paklog.lastmile.infrastructure.persistence.changestream;
+
+import com.paklog.lastmile.LastMileDeliveryApplication;
+import com.paklog.lastmile.domain.aggregate.DeliveryRoute;
+import com.paklog.lastmile.domain.aggregate.DeliveryStop;
+import com.paklog.lastmile.domain.aggregate.Vehicle;
+import com.paklog.lastmile.domain.repository.DeliveryRouteRepository;
+import com.paklog.lastmile.domain.repository.VehicleRepository;
+import com.paklog.lastmile.domain.valueobject.GPSCoordinates;
+import com.paklog.lastmile.domain.valueobject.StopType;
+import com.paklog.lastmile.domain.valueobject.VehicleType;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.MongoDBContainer;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Two instances share a single-node replica set: a writer updates every vehicle and route while
+ * reader threads keep loading random ones through the other instance's near caches, which hold
+ * only a fraction of them. Afterwards every entity read on the reader must match the database.
+ * Skipped when no Docker daemon is available.
+ */
+class ChangeStreamCacheInvalidatorTest {
+
+    private static final int ENTITIES = 300;
+    private static final int READER_CACHE_SIZE = 50;
+    private static final int READERS = 4;
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(50);
+    private static final GPSCoordinates DEPOT = new GPSCoordinates(52.5200, 13.4050);
+
+    private static MongoDBContainer mongo;
+    private static EmbeddedKafkaKraftBroker broker;
+    private static ConfigurableApplicationContext writer;
+    private static ConfigurableApplicationContext reader;
+
+    private final List<String> vehicleIds = new ArrayList<>();
+    private final List<String> routeIds = new ArrayList<>();
+
+    @BeforeAll
+    static void startInstances() {
+        assumeTrue(DockerClientFactory.instance().isDockerAvailable(), "Docker is not available");
+
+        // Runs as a single-node replica set, which change streams need
+        mongo = new MongoDBContainer("mongo:7.0");
+        mongo.start();
+        broker = new EmbeddedKafkaKraftBroker(1, 1);
+        broker.afterPropertiesSet();
+
+        writer = start(ENTITIES * 2);
+        reader = start(READER_CACHE_SIZE);
+    }
+
+    @AfterAll
+    static void stopInstances() {
+        for (ConfigurableApplicationContext context : new ConfigurableApplicationContext[]{reader, writer}) {
+            if (context != null) {
+                context.close();
+            }
+        }
+        if (broker != null) {
+            broker.destroy();
+        }
+        if (mongo != null) {
+            mongo.stop();
+        }
+    }
+
+    @Test
+    void readerCachesConvergeWhileTheWriterUpdatesEveryEntity() throws Exception {
+        VehicleRepository writerVehicles = writer.getBean(VehicleRepository.class);
+        DeliveryRouteRepository writerRoutes = writer.getBean(DeliveryRouteRepository.class);
+        VehicleRepository readerVehicles = reader.getBean(VehicleRepository.class);
+        DeliveryRouteRepository readerRoutes = reader.getBean(DeliveryRouteRepository.class);
+
+        seed(writerVehicles, writerRoutes);
+        awaitStreamOpen(writerVehicles, readerVehicles);
+
+        for (int round = 1; round <= 3; round++) {
+            AtomicBoolean writing = new AtomicBoolean(true);
+            ExecutorService executor = Executors.newFixedThreadPool(READERS);
+            try {
+                List<Future<?>> readerTasks = new ArrayList<>(READERS);
+                for (int i = 0; i < READERS; i++) {
+                    readerTasks.add(executor.submit(() -> {
+                        ThreadLocalRandom random = ThreadLocalRandom.current();
+                        while (writing.get()) {
+                            readerVehicles.findById(vehicleIds.get(random.nextInt(vehicleIds.size())));
+                            readerRoutes.findById(routeIds.get(random.nextInt(routeIds.size())));
+                        }
+                    }));
+                }
+
+                try {
+                    for (int i = 0; i < ENTITIES; i++) {
+                        Vehicle vehicle = writerVehicles.findById(vehicleIds.get(i)).orElseThrow();
+                        vehicle.setCurrentWeightKg(round * 1000 + i);
+                        vehicle.setAvailable(!vehicle.isAvailable());
+                        writerVehicles.save(vehicle);
+
+                        DeliveryRoute route = writerRoutes.findById(routeIds.get(i)).orElseThrow();
+                        route.setTotalDistanceKm(round + i / 1000.0);
+                        writerRoutes.save(route);
+                    }
+                } finally {
+                    writing.set(false);
+                }
+                for (Future<?> task : readerTasks) {
+                    task.get();
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+
+            Instant deadline = Instant.now().plus(TIMEOUT);
+            List<String> stale;
+            do {
+                Thread.sleep(POLL_INTERVAL);
+                stale = staleEntities(readerVehicles, readerRoutes);
+            } while (!stale.isEmpty() && Instant.now().isBefore(deadline));
+
+            assertThat(stale).as("entities still stale on the reader after round %d", round).isEmpty();
+        }
+    }
+
+    private static ConfigurableApplicationContext start(int cacheSize) {
+        return new SpringApplicationBuilder(LastMileDeliveryApplication.class)
+            .web(WebApplicationType.NONE)
+            .run("--spring.data.mongodb.uri=" + mongo.getReplicaSetUrl("lastmile-cache-test"),
+                "--spring.kafka.bootstrap-servers=" + broker.getBrokersAsString(),
+                "--delivery.cache.routes.enabled=true",
+                "--delivery.cache.vehicles.enabled=true",
+                "--delivery.cache.invalidation.enabled=true",
+                "--delivery.cache.vehicles.maximum-size=" + cacheSize,
+                "--delivery.cache.routes.maximum-size=" + cacheSize,
+                "--delivery.reactive.enabled=false",
+                "--delivery.snapshots.enabled=false");
+    }
+
+    private void seed(VehicleRepository vehicles, DeliveryRouteRepository routes) {
+        List<DeliveryRoute> seeded = new ArrayList<>(ENTITIES);
+        for (int i = 0; i < ENTITIES; i++) {
+            Vehicle vehicle = vehicles.save(Vehicle.builder()
+                .id("CC-VEH-" + i)
+                .vehicleNumber("V" + i)
+                .type(VehicleType.VAN)
+                .driverId("DRV-" + i)
+                .homeBase(DEPOT)
+                .currentLocation(DEPOT)
+                .available(true)
+                .active(true)
+                .build());
+            vehicleIds.add(vehicle.getId());
+
+            DeliveryStop stop = DeliveryStop.builder()
+                .stopId("STOP-0")
+                .type(StopType.DELIVERY)
+                .customerId("CUST-" + i)
+                .coordinates(DEPOT)
+                .estimatedDurationMinutes(5)
+                .packageIds(List.of("PKG-" + i))
+                .totalWeightKg(5)
+                .build();
+            seeded.add(DeliveryRoute.builder()
+                .id("CC-ROUTE-" + i)
+                .routeNumber("CC-ROUTE-" + i)
+                .vehicleId(vehicle.getId())
+                .driverId(vehicle.getDriverId())
+                .stops(new ArrayList<>(List.of(stop)))
+                .plannedStartTime(Instant.now())
+                .startLocation(DEPOT)
+                .currentLocation(DEPOT)
+                .build());
+            routeIds.add("CC-ROUTE-" + i);
+        }
+        routes.insertAll(seeded);
+    }
+
+    /**
+     * The reader's stream opens asynchronously after startup; changes before that are not its concern
+     */
+    private void awaitStreamOpen(VehicleRepository writerVehicles, VehicleRepository readerVehicles)
+            throws InterruptedException {
+        String id = vehicleIds.get(0);
+        readerVehicles.findById(id).orElseThrow();
+        Instant deadline = Instant.now().plus(TIMEOUT);
+        int weight = 0;
+        while (Instant.now().isBefore(deadline)) {
+            Vehicle vehicle = writerVehicles.findById(id).orElseThrow();
+            vehicle.setCurrentWeightKg(++weight);
+            writerVehicles.save(vehicle);
+            Thread.sleep(POLL_INTERVAL);
+            if (readerVehicles.findById(id).orElseThrow().getCurrentWeightKg() == weight) {
+                return;
+            }
+        }
+        throw new AssertionError("Reader saw no change within " + TIMEOUT);
+    }
+
+    private List<String> staleEntities(VehicleRepository readerVehicles, DeliveryRouteRepository readerRoutes) {
+        MongoTemplate mongoTemplate = writer.getBean(MongoTemplate.class);
+        List<String> stale = new ArrayList<>();
+        for (String id : vehicleIds) {
+            Vehicle stored = mongoTemplate.findById(id, Vehicle.class);
+            Vehicle cached = readerVehicles.findById(id).orElse(null);
+            if (stored != null && (cached == null || cached.getCurrentWeightKg() != stored.getCurrentWeightKg()
+                || cached.isAvailable() != stored.isAvailable())) {
+                stale.add(id);
+            }
+        }
+        for (String id : routeIds) {
+            DeliveryRoute stored = mongoTemplate.findById(id, DeliveryRoute.class);
+            DeliveryRoute cached = readerRoutes.findById(id).orElse(null);
+            if (stored != null && (cached == null || !Objects.equals(cached.getVersion(), stored.getVersion()))) {
+                stale.add(id);
+            }
+        }
+        return stale;
+    }
+}